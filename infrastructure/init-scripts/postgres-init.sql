@@ -50,6 +50,80 @@ CREATE TABLE IF NOT EXISTS data_processing_jobs (
     processing_time_ms BIGINT
 );
 
+-- Job progress in percent, reported by data-service while a job runs
+ALTER TABLE data_processing_jobs ADD COLUMN IF NOT EXISTS progress SMALLINT NOT NULL DEFAULT 0;
+
+-- Lease of the data-service instance holding a PENDING or RUNNING job, renewed while it lives
+ALTER TABLE data_processing_jobs ADD COLUMN IF NOT EXISTS owner_id VARCHAR(100);
+ALTER TABLE data_processing_jobs ADD COLUMN IF NOT EXISTS heartbeat_at TIMESTAMP;
+
+-- Create ingested_data table (written in batches by data-service)
+CREATE TABLE IF NOT EXISTS ingested_data (
+    id UUID PRIMARY KEY,
+    data_type VARCHAR(100) NOT NULL,
+    source VARCHAR(255),
+    status VARCHAR(20) NOT NULL,
+    data JSONB,
+    metadata JSONB,
+    created_at TIMESTAMP NOT NULL,
+    processed_at TIMESTAMP
+);
+
+-- Create cold_segments table (immutable segment files holding records moved out of ingested_data)
+CREATE TABLE IF NOT EXISTS cold_segments (
+    id BIGSERIAL PRIMARY KEY,
+    file_name VARCHAR(255) NOT NULL UNIQUE,
+    first_id UUID NOT NULL,
+    last_id UUID NOT NULL,
+    record_count INTEGER NOT NULL,
+    size_bytes BIGINT NOT NULL,
+    min_created_at TIMESTAMP NOT NULL,
+    max_created_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Create data_events_outbox table (DATA_INGESTED events written with their records, relayed to Kafka)
+CREATE TABLE IF NOT EXISTS data_events_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    message_key VARCHAR(255),
+    payload JSONB NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Create data_rollups table (pre-aggregated analytics buckets, UTC)
+CREATE TABLE IF NOT EXISTS data_rollups (
+    data_type VARCHAR(100) NOT NULL,
+    granularity VARCHAR(10) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    total_count BIGINT NOT NULL DEFAULT 0,
+    processed_count BIGINT NOT NULL DEFAULT 0,
+    error_count BIGINT NOT NULL DEFAULT 0,
+    latency_sum_ms BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (data_type, granularity, bucket_start)
+);
+
+-- Create data_latency_histograms table (HDR histograms per instance and bucket, UTC)
+CREATE TABLE IF NOT EXISTS data_latency_histograms (
+    instance_id VARCHAR(100) NOT NULL,
+    data_type VARCHAR(100) NOT NULL,
+    metric VARCHAR(20) NOT NULL,
+    granularity VARCHAR(10) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    histogram BYTEA NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (instance_id, data_type, metric, granularity, bucket_start)
+);
+
+-- Create data_sketches table (serialized HyperLogLog / top-K sketches per instance and UTC day)
+CREATE TABLE IF NOT EXISTS data_sketches (
+    instance_id VARCHAR(100) NOT NULL,
+    sketch_name VARCHAR(150) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    payload BYTEA NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (instance_id, sketch_name, bucket_start)
+);
+
 -- Create ml_models table
 CREATE TABLE IF NOT EXISTS ml_models (
     id BIGSERIAL PRIMARY KEY,
@@ -97,6 +171,10 @@ CREATE INDEX IF NOT EXISTS idx_users_email ON users(email);
 CREATE INDEX IF NOT EXISTS idx_users_created_at ON users(created_at);
 CREATE INDEX IF NOT EXISTS idx_data_jobs_status ON data_processing_jobs(status);
 CREATE INDEX IF NOT EXISTS idx_data_jobs_created_at ON data_processing_jobs(created_at);
+CREATE INDEX IF NOT EXISTS idx_ingested_data_type_created_at ON ingested_data(data_type, created_at);
+CREATE INDEX IF NOT EXISTS idx_data_rollups_granularity_bucket ON data_rollups(granularity, bucket_start);
+CREATE INDEX IF NOT EXISTS idx_data_latency_histograms_lookup ON data_latency_histograms(metric, granularity, bucket_start);
+CREATE INDEX IF NOT EXISTS idx_data_sketches_lookup ON data_sketches(sketch_name, bucket_start);
 CREATE INDEX IF NOT EXISTS idx_ml_models_active ON ml_models(is_active);
 CREATE INDEX IF NOT EXISTS idx_ml_predictions_model_id ON ml_predictions(model_id);
 CREATE INDEX IF NOT EXISTS idx_ml_predictions_created_at ON ml_predictions(created_at);
@@ -0,0 +1,166 @@
+package com.xyzdevfoundation.data.admission;
+
+import com.xyzdevfoundation.data.exception.AdmissionRejectedException;
+import com.xyzdevfoundation.data.service.IngestWriteBehindBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admission control for the ingest and stream endpoints.
+ *
+ * Work is admitted per record against a cap on records in flight, i.e.
+ * accepted but not yet handed to the write-behind buffer or acknowledged by
+ * Kafka. On top of that a periodic sample of the producer's free buffer
+ * memory, its average request latency and the ingest buffer's fill level
+ * marks the service as overloaded while any of them is past its threshold.
+ * Rejected work gets 429 with Retry-After, so callers back off before the
+ * producer buffer fills up and blocks request threads.
+ */
+@Component
+@Slf4j
+public class AdmissionController {
+
+    private static final String PRODUCER_METRICS_GROUP = "producer-metrics";
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final IngestWriteBehindBuffer ingestBuffer;
+    private final int maxInFlight;
+    private final double minProducerBufferFreeRatio;
+    private final double maxSendLatencyMs;
+    private final double maxIngestBufferFillRatio;
+    private final long retryAfterSeconds;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final MeterRegistry meterRegistry;
+
+    private volatile double producerBufferFreeRatio = 1.0;
+    private volatile double sendLatencyMs;
+    private volatile String overloadReason;
+
+    public AdmissionController(KafkaTemplate<String, Object> kafkaTemplate,
+                               IngestWriteBehindBuffer ingestBuffer,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.admission.max-in-flight-records:20000}") int maxInFlight,
+                               @Value("${app.admission.min-producer-buffer-free-ratio:0.2}") double minProducerBufferFreeRatio,
+                               @Value("${app.admission.max-send-latency-ms:500}") double maxSendLatencyMs,
+                               @Value("${app.admission.max-ingest-buffer-fill-ratio:0.9}") double maxIngestBufferFillRatio,
+                               @Value("${app.admission.retry-after:1s}") Duration retryAfter) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.ingestBuffer = ingestBuffer;
+        this.meterRegistry = meterRegistry;
+        this.maxInFlight = maxInFlight;
+        this.minProducerBufferFreeRatio = minProducerBufferFreeRatio;
+        this.maxSendLatencyMs = maxSendLatencyMs;
+        this.maxIngestBufferFillRatio = maxIngestBufferFillRatio;
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+
+        Gauge.builder("data.admission.in.flight", inFlight, AtomicInteger::get)
+                .description("Records admitted and not yet handed off")
+                .register(meterRegistry);
+        Gauge.builder("data.admission.in.flight.limit", () -> maxInFlight)
+                .register(meterRegistry);
+        Gauge.builder("data.admission.producer.buffer.free.ratio", () -> producerBufferFreeRatio)
+                .description("Share of the Kafka producer buffer memory that is free")
+                .register(meterRegistry);
+        Gauge.builder("data.admission.producer.latency", () -> sendLatencyMs)
+                .baseUnit("milliseconds")
+                .description("Average Kafka producer request latency")
+                .register(meterRegistry);
+        Gauge.builder("data.admission.overloaded", () -> overloadReason != null ? 1 : 0)
+                .description("1 while new work is being rejected because of overload")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admits {@code records} records or throws {@link AdmissionRejectedException}.
+     * Every successful call must be matched by {@link #release(int)} once the
+     * records have been handed off.
+     */
+    public void admit(int records) {
+        String reason = overloadReason;
+        if (reason != null) {
+            reject("overloaded", "Service is overloaded (" + reason + "), retry later");
+        }
+        while (true) {
+            int current = inFlight.get();
+            // A single request larger than the cap is still let through when nothing else is in flight
+            if (current > 0 && current + records > maxInFlight) {
+                reject("in_flight", "Too many records in flight, retry later");
+            }
+            if (inFlight.compareAndSet(current, current + records)) {
+                return;
+            }
+        }
+    }
+
+    public void release(int records) {
+        inFlight.addAndGet(-records);
+    }
+
+    @Scheduled(fixedDelayString = "${app.admission.sample-interval-ms:250}")
+    public void sample() {
+        double bufferAvailable = Double.NaN;
+        double bufferTotal = Double.NaN;
+        double latency = Double.NaN;
+        try {
+            for (Map.Entry<MetricName, ? extends Metric> entry : kafkaTemplate.metrics().entrySet()) {
+                MetricName name = entry.getKey();
+                if (!PRODUCER_METRICS_GROUP.equals(name.group())) {
+                    continue;
+                }
+                switch (name.name()) {
+                    case "buffer-available-bytes" -> bufferAvailable = value(entry.getValue());
+                    case "buffer-total-bytes" -> bufferTotal = value(entry.getValue());
+                    case "request-latency-avg" -> latency = value(entry.getValue());
+                    default -> { }
+                }
+            }
+        } catch (RuntimeException e) {
+            log.debug("Could not sample Kafka producer metrics", e);
+        }
+
+        producerBufferFreeRatio = bufferTotal > 0 && !Double.isNaN(bufferAvailable) ? bufferAvailable / bufferTotal : 1.0;
+        sendLatencyMs = Double.isNaN(latency) ? 0 : latency;
+        double ingestFill = ingestBuffer.fillRatio();
+
+        String reason = null;
+        if (producerBufferFreeRatio < minProducerBufferFreeRatio) {
+            reason = "Kafka producer buffer nearly full";
+        } else if (sendLatencyMs > maxSendLatencyMs) {
+            reason = "Kafka send latency " + Math.round(sendLatencyMs) + "ms";
+        } else if (ingestFill > maxIngestBufferFillRatio) {
+            reason = "ingest buffer nearly full";
+        }
+        if (reason != null && overloadReason == null) {
+            log.warn("Admission control engaged: {}", reason);
+        } else if (reason == null && overloadReason != null) {
+            log.info("Admission control released");
+        }
+        overloadReason = reason;
+    }
+
+    private void reject(String reason, String message) {
+        Counter.builder("data.admission.rejected")
+                .tag("reason", reason)
+                .description("Requests turned away by admission control")
+                .register(meterRegistry)
+                .increment();
+        throw new AdmissionRejectedException(message, retryAfterSeconds);
+    }
+
+    private static double value(Metric metric) {
+        Object value = metric.metricValue();
+        return value instanceof Number number ? number.doubleValue() : Double.NaN;
+    }
+}
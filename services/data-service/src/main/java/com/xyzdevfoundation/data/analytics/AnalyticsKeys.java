@@ -0,0 +1,27 @@
+package com.xyzdevfoundation.data.analytics;
+
+/**
+ * Makes event-supplied names safe to store as analytics keys.
+ *
+ * Events reach the aggregators from Kafka without request validation, so a
+ * dataType may be longer than its column or contain NUL, which PostgreSQL
+ * refuses in text. A refused key would fail every flush that carries it.
+ */
+final class AnalyticsKeys {
+
+    private AnalyticsKeys() {
+    }
+
+    /**
+     * {@code value} without NUL characters and cut to at most {@code maxLength}
+     * characters, never splitting a surrogate pair.
+     */
+    static String clamp(String value, int maxLength) {
+        String clean = value.indexOf('\0') >= 0 ? value.replace("\0", "") : value;
+        if (clean.length() <= maxLength) {
+            return clean;
+        }
+        int end = Character.isHighSurrogate(clean.charAt(maxLength - 1)) ? maxLength - 1 : maxLength;
+        return clean.substring(0, end);
+    }
+}
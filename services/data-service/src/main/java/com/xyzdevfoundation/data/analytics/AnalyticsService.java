@@ -0,0 +1,95 @@
+package com.xyzdevfoundation.data.analytics;
+
+import com.xyzdevfoundation.data.exception.InvalidTimeRangeException;
+import com.xyzdevfoundation.data.repository.RollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Answers analytics queries from pre-aggregated rollup buckets, merged
+ * latency histograms and merged traffic sketches.
+ *
+ * A query reads at most a few hundred buckets at the coarsest granularity that
+ * still resolves the requested range, so its cost is independent of how many
+ * records were ingested.
+ */
+@Service
+@Slf4j
+public class AnalyticsService {
+
+    private static final Pattern TIME_RANGE = Pattern.compile("(\\d+)([mhd])");
+    private static final String DEFAULT_TIME_RANGE = "24h";
+
+    private final RollupRepository rollupRepository;
+    private final LatencyHistogramStore latencyHistograms;
+    private final TrafficSketches trafficSketches;
+    private final int topN;
+
+    public AnalyticsService(RollupRepository rollupRepository,
+                            LatencyHistogramStore latencyHistograms,
+                            TrafficSketches trafficSketches,
+                            @Value("${app.analytics.sketches.top-n:10}") int topN) {
+        this.rollupRepository = rollupRepository;
+        this.latencyHistograms = latencyHistograms;
+        this.trafficSketches = trafficSketches;
+        this.topN = topN;
+    }
+
+    public Map<String, Object> getAnalytics(String dataType, String timeRange) {
+        String range = timeRange != null && !timeRange.isBlank() ? timeRange : DEFAULT_TIME_RANGE;
+        Duration duration = parseTimeRange(range);
+        Granularity granularity = Granularity.forRange(duration);
+        Instant from = granularity.bucketStart(Instant.now().minus(duration));
+
+        RollupCounts counts = rollupRepository.sumSince(granularity, from, dataType);
+        long completed = counts.getProcessed() + counts.getErrors();
+
+        Map<String, Object> analytics = new LinkedHashMap<>();
+        analytics.put("totalRecords", counts.getTotal());
+        analytics.put("processedRecords", counts.getProcessed());
+        analytics.put("errorRecords", counts.getErrors());
+        analytics.put("errorRate", completed > 0 ? (double) counts.getErrors() / completed : 0.0);
+        analytics.put("averageProcessingTime",
+                (counts.getProcessed() > 0 ? counts.getLatencySumMs() / counts.getProcessed() : 0) + "ms");
+        Map<String, Object> latencyPercentiles = new LinkedHashMap<>();
+        latencyPercentiles.put(LatencyHistogramStore.PROCESSING,
+                latencyHistograms.percentiles(LatencyHistogramStore.PROCESSING, granularity, from, dataType));
+        latencyPercentiles.put(LatencyHistogramStore.INGEST,
+                latencyHistograms.percentiles(LatencyHistogramStore.INGEST, granularity, from, dataType));
+        analytics.put("latencyPercentilesMs", latencyPercentiles);
+        // Sketches are kept per UTC day, so these cover whole days back to the start of the range
+        Instant sketchFrom = Granularity.DAY.bucketStart(from);
+        analytics.put("distinctSources", trafficSketches.distinctSources(sketchFrom, dataType));
+        analytics.put("topSources", trafficSketches.topSources(sketchFrom, topN));
+        analytics.put("topDataTypes", trafficSketches.topDataTypes(sketchFrom, topN));
+        analytics.put("dataType", dataType);
+        analytics.put("timeRange", range);
+        analytics.put("granularity", granularity.name());
+        analytics.put("from", from);
+        return analytics;
+    }
+
+    static Duration parseTimeRange(String timeRange) {
+        Matcher matcher = TIME_RANGE.matcher(timeRange.trim());
+        if (!matcher.matches()) {
+            throw new InvalidTimeRangeException("Invalid timeRange '" + timeRange + "', expected e.g. 30m, 24h or 7d");
+        }
+        long amount = Long.parseLong(matcher.group(1));
+        switch (matcher.group(2)) {
+            case "m":
+                return Duration.ofMinutes(amount);
+            case "h":
+                return Duration.ofHours(amount);
+            default:
+                return Duration.ofDays(amount);
+        }
+    }
+}
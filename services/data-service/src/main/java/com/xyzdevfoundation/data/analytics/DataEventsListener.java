@@ -0,0 +1,25 @@
+package com.xyzdevfoundation.data.analytics;
+
+import com.xyzdevfoundation.data.event.DataEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds {@code data-events} into the analytics aggregates. All instances share
+ * one consumer group, so every event is counted exactly once per delivery.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DataEventsListener {
+
+    private final RollupAggregator rollupAggregator;
+
+    @KafkaListener(topics = DataEvent.TOPIC, groupId = "${app.analytics.consumer-group:data-service-analytics}")
+    public void onEvent(DataEvent event) {
+        log.debug("Received {} for data {}", event.getEventType(), event.getDataId());
+        rollupAggregator.record(event);
+    }
+}
@@ -0,0 +1,42 @@
+package com.xyzdevfoundation.data.analytics;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Bucket sizes that analytics counters are pre-aggregated into.
+ */
+public enum Granularity {
+    MINUTE(ChronoUnit.MINUTES, Duration.ofHours(2)),
+    HOUR(ChronoUnit.HOURS, Duration.ofDays(7)),
+    DAY(ChronoUnit.DAYS, null);
+
+    private final ChronoUnit unit;
+    private final Duration maxRange;
+
+    Granularity(ChronoUnit unit, Duration maxRange) {
+        this.unit = unit;
+        this.maxRange = maxRange;
+    }
+
+    public Instant bucketStart(Instant instant) {
+        return instant.truncatedTo(unit);
+    }
+
+    public Duration bucketSize() {
+        return unit.getDuration();
+    }
+
+    /**
+     * Finest granularity that answers {@code range} from a bounded number of buckets.
+     */
+    public static Granularity forRange(Duration range) {
+        for (Granularity granularity : values()) {
+            if (granularity.maxRange == null || range.compareTo(granularity.maxRange) <= 0) {
+                return granularity;
+            }
+        }
+        return DAY;
+    }
+}
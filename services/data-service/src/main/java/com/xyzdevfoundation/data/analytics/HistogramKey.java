@@ -0,0 +1,13 @@
+package com.xyzdevfoundation.data.analytics;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+@Value
+public class HistogramKey {
+    String dataType;
+    String metric;
+    Granularity granularity;
+    Instant bucketStart;
+}
@@ -0,0 +1,199 @@
+package com.xyzdevfoundation.data.analytics;
+
+import com.xyzdevfoundation.data.repository.LatencyHistogramRepository;
+import com.xyzdevfoundation.data.util.InstanceIdentity;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+
+/**
+ * Latency distributions per dataType in fixed-memory HDR histograms.
+ *
+ * Every sample goes into minute, hour and day buckets. Recording is wait-free
+ * through HdrHistogram {@link Recorder}s; a scheduled flush folds the interval
+ * samples into this instance's cumulative histogram for each open bucket and
+ * stores it compressed in {@code data_latency_histograms}. HDR histograms with
+ * the same range and precision merge losslessly, so percentiles for any time
+ * range and any number of instances are computed by adding stored histograms.
+ *
+ * dataType comes from clients, so only the first {@code max-data-types}
+ * seen get buckets and timers of their own; the rest share {@code __other__}.
+ * Stored rows are purged per granularity once they are older than any range
+ * that granularity answers.
+ */
+@Component
+@Slf4j
+public class LatencyHistogramStore {
+
+    public static final String INGEST = "ingest";
+    public static final String PROCESSING = "processing";
+
+    private static final long HIGHEST_TRACKABLE_MS = TimeUnit.HOURS.toMillis(1);
+    private static final int SIGNIFICANT_DIGITS = 2;
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+
+    private final LatencyHistogramRepository repository;
+    private final MeterRegistry meterRegistry;
+    private final String instanceId;
+    private final int maxDataTypes;
+    private final Map<Granularity, Duration> retention = new EnumMap<>(Granularity.class);
+    private final Map<HistogramKey, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Set<String> dataTypes = ConcurrentHashMap.newKeySet();
+
+    public LatencyHistogramStore(LatencyHistogramRepository repository,
+                                 MeterRegistry meterRegistry,
+                                 InstanceIdentity instanceIdentity,
+                                 @Value("${app.analytics.histograms.max-data-types:256}") int maxDataTypes,
+                                 @Value("${app.analytics.histograms.minute-retention:1d}") Duration minuteRetention,
+                                 @Value("${app.analytics.histograms.hour-retention:8d}") Duration hourRetention,
+                                 @Value("${app.analytics.histograms.day-retention:400d}") Duration dayRetention) {
+        this.repository = repository;
+        this.meterRegistry = meterRegistry;
+        this.instanceId = instanceIdentity.getId();
+        this.maxDataTypes = maxDataTypes;
+        this.retention.put(Granularity.MINUTE, minuteRetention);
+        this.retention.put(Granularity.HOUR, hourRetention);
+        this.retention.put(Granularity.DAY, dayRetention);
+    }
+
+    public void record(String dataType, String metric, long latencyMs) {
+        long value = Math.max(0, Math.min(latencyMs, HIGHEST_TRACKABLE_MS));
+        String trackedDataType = trackedDataType(dataType);
+        Instant now = Instant.now();
+        for (Granularity granularity : Granularity.values()) {
+            HistogramKey key = new HistogramKey(trackedDataType, metric, granularity, granularity.bucketStart(now));
+            buckets.computeIfAbsent(key, k -> new Bucket()).recorder.recordValue(value);
+        }
+        timer(trackedDataType, metric).record(latencyMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * p50/p90/p99/p99.9 for {@code metric} over all buckets from {@code from}
+     * onwards, merged across every instance.
+     */
+    public Map<String, Object> percentiles(String metric, Granularity granularity, Instant from, String dataType) {
+        Histogram merged = newHistogram();
+        for (byte[] encoded : repository.findSince(metric, granularity, from, dataType)) {
+            try {
+                merged.add(Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(encoded), HIGHEST_TRACKABLE_MS));
+            } catch (DataFormatException e) {
+                log.warn("Skipping undecodable {} histogram", metric, e);
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("count", merged.getTotalCount());
+        for (double percentile : PERCENTILES) {
+            result.put("p" + formatPercentile(percentile), merged.getValueAtPercentile(percentile));
+        }
+        result.put("max", merged.getMaxValue());
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.histograms.flush-interval-ms:10000}")
+    public synchronized void flush() {
+        Instant now = Instant.now();
+        Map<HistogramKey, byte[]> dirty = new HashMap<>();
+        for (Map.Entry<HistogramKey, Bucket> entry : buckets.entrySet()) {
+            Bucket bucket = entry.getValue();
+            bucket.interval = bucket.recorder.getIntervalHistogram(bucket.interval);
+            if (bucket.interval.getTotalCount() > 0) {
+                bucket.cumulative.add(bucket.interval);
+                dirty.put(entry.getKey(), encode(bucket.cumulative));
+            }
+        }
+
+        if (!dirty.isEmpty()) {
+            try {
+                repository.upsert(instanceId, dirty);
+            } catch (RuntimeException e) {
+                // Cumulative histograms are kept, so the next flush rewrites the full state
+                log.error("Failed to flush {} latency histograms", dirty.size(), e);
+                return;
+            }
+        }
+
+        // A bucket can be dropped from memory once it has closed and been written in full
+        buckets.entrySet().removeIf(entry -> {
+            HistogramKey key = entry.getKey();
+            Instant closedAt = key.getBucketStart().plus(key.getGranularity().bucketSize());
+            return closedAt.isBefore(now) && !dirty.containsKey(key);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.histograms.cleanup-interval-ms:3600000}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        retention.forEach((granularity, kept) -> {
+            int deleted = repository.deleteBefore(granularity, now.minus(kept));
+            log.debug("Purged {} expired {} histograms", deleted, granularity);
+        });
+    }
+
+    private String trackedDataType(String dataType) {
+        if (dataTypes.contains(dataType)) {
+            return dataType;
+        }
+        // Past the cap, unseen dataTypes share one set of buckets and timers instead of adding more
+        if (dataTypes.size() < maxDataTypes) {
+            dataTypes.add(dataType);
+            return dataType;
+        }
+        return TrafficSketches.OTHER_DATA_TYPE;
+    }
+
+    private Timer timer(String dataType, String metric) {
+        return Timer.builder("data." + metric + ".latency")
+                .tag("dataType", dataType)
+                .publishPercentiles(0.5, 0.9, 0.99, 0.999)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static Histogram newHistogram() {
+        return new Histogram(HIGHEST_TRACKABLE_MS, SIGNIFICANT_DIGITS);
+    }
+
+    private static byte[] encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Arrays.copyOf(buffer.array(), length);
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile)
+                ? String.valueOf((long) percentile)
+                : String.valueOf(percentile).replace(".", "");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private static final class Bucket {
+        private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MS, SIGNIFICANT_DIGITS);
+        private final Histogram cumulative = newHistogram();
+        private Histogram interval;
+    }
+}
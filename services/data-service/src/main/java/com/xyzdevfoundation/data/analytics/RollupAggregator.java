@@ -0,0 +1,165 @@
+package com.xyzdevfoundation.data.analytics;
+
+import com.xyzdevfoundation.data.event.DataEvent;
+import com.xyzdevfoundation.data.repository.RollupRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Folds {@code data-events} into per-dataType counters at minute, hour and day
+ * granularity.
+ *
+ * Events only touch in-memory deltas; a scheduled flush adds the accumulated
+ * deltas to {@code data_rollups} with one batched upsert, so the write rate to
+ * PostgreSQL depends on the number of active buckets, not the event rate.
+ *
+ * dataTypes are clamped to fit their column when recorded. If the database
+ * still refuses a batch's contents, the batch is split until the refused
+ * buckets are found and dropped; any other failure puts the deltas back for
+ * the next flush. Each upsert runs in its own transaction, so a failed one
+ * adds nothing and re-merging its deltas never counts an event twice.
+ */
+@Component
+@Slf4j
+public class RollupAggregator {
+
+    // Length of data_rollups.data_type
+    static final int MAX_DATA_TYPE_LENGTH = 100;
+
+    private final RollupRepository rollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentHashMap<RollupKey, RollupCounts> deltas = new ConcurrentHashMap<>();
+    private final Timer flushTimer;
+    private final Counter flushFailures;
+    private final Counter clampedKeys;
+    private final Counter droppedBuckets;
+
+    public RollupAggregator(RollupRepository rollupRepository,
+                            TransactionTemplate transactionTemplate,
+                            MeterRegistry meterRegistry) {
+        this.rollupRepository = rollupRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.flushTimer = Timer.builder("data.analytics.rollup.flush")
+                .description("Time to upsert accumulated rollup deltas")
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("data.analytics.rollup.flush.failures")
+                .register(meterRegistry);
+        this.clampedKeys = Counter.builder("data.analytics.rollup.clamped")
+                .description("Events whose dataType was shortened or stripped of NUL to fit data_rollups")
+                .register(meterRegistry);
+        this.droppedBuckets = Counter.builder("data.analytics.rollup.dropped")
+                .description("Rollup buckets dropped because the database refused them")
+                .register(meterRegistry);
+    }
+
+    public void record(DataEvent event) {
+        if (event.getDataType() == null || event.getEventType() == null) {
+            return;
+        }
+        String dataType = AnalyticsKeys.clamp(event.getDataType(), MAX_DATA_TYPE_LENGTH);
+        if (!dataType.equals(event.getDataType())) {
+            clampedKeys.increment();
+        }
+        RollupCounts increment = new RollupCounts();
+        switch (event.getEventType()) {
+            case DataEvent.DATA_INGESTED:
+                increment.setTotal(1);
+                break;
+            case DataEvent.DATA_PROCESSED:
+                increment.setProcessed(1);
+                increment.setLatencySumMs(event.getProcessingTimeMs() != null ? event.getProcessingTimeMs() : 0);
+                break;
+            case DataEvent.DATA_PROCESSING_FAILED:
+                increment.setErrors(1);
+                break;
+            default:
+                return;
+        }
+
+        Instant at = event.getTimestamp() > 0 ? Instant.ofEpochMilli(event.getTimestamp()) : Instant.now();
+        for (Granularity granularity : Granularity.values()) {
+            RollupKey key = new RollupKey(dataType, granularity, granularity.bucketStart(at));
+            // Mutate inside compute so a concurrent flush never removes a delta mid-update
+            deltas.compute(key, (k, counts) -> {
+                RollupCounts merged = counts != null ? counts : new RollupCounts();
+                merged.merge(increment);
+                return merged;
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.rollup.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Map<RollupKey, RollupCounts> batch = new HashMap<>();
+        for (RollupKey key : deltas.keySet()) {
+            RollupCounts counts = deltas.remove(key);
+            if (counts != null) {
+                batch.put(key, counts);
+            }
+        }
+
+        Timer.Sample sample = Timer.start();
+        int buckets = batch.size();
+        try {
+            write(batch, new ArrayList<>(batch.keySet()));
+            log.debug("Flushed {} rollup buckets", buckets);
+        } catch (RuntimeException e) {
+            flushFailures.increment();
+            log.error("Failed to flush {} of {} rollup buckets, will retry", batch.size(), buckets, e);
+            // Only what was not written or dropped is left in the batch
+            batch.forEach((key, counts) -> deltas.merge(key, counts, (current, failed) -> {
+                current.merge(failed);
+                return current;
+            }));
+        } finally {
+            sample.stop(flushTimer);
+        }
+    }
+
+    /**
+     * Upserts the deltas of {@code keys} and removes them from {@code batch}.
+     * When the database refuses the data itself, halves the keys until the
+     * refused buckets are isolated and drops those.
+     */
+    private void write(Map<RollupKey, RollupCounts> batch, List<RollupKey> keys) {
+        Map<RollupKey, RollupCounts> rows = new HashMap<>();
+        keys.forEach(key -> rows.put(key, batch.get(key)));
+        try {
+            transactionTemplate.executeWithoutResult(status -> rollupRepository.addDeltas(rows));
+        } catch (DataIntegrityViolationException e) {
+            if (keys.size() == 1) {
+                droppedBuckets.increment();
+                batch.remove(keys.get(0));
+                log.error("Dropping rollup bucket {} that the database refuses", keys.get(0), e);
+                return;
+            }
+            int half = keys.size() / 2;
+            write(batch, keys.subList(0, half));
+            write(batch, keys.subList(half, keys.size()));
+            return;
+        }
+        keys.forEach(batch::remove);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,26 @@
+package com.xyzdevfoundation.data.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Counters for one rollup bucket, or the merge of several.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupCounts {
+
+    private long total;
+    private long processed;
+    private long errors;
+    private long latencySumMs;
+
+    public void merge(RollupCounts other) {
+        total += other.total;
+        processed += other.processed;
+        errors += other.errors;
+        latencySumMs += other.latencySumMs;
+    }
+}
@@ -0,0 +1,12 @@
+package com.xyzdevfoundation.data.analytics;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+@Value
+public class RollupKey {
+    String dataType;
+    Granularity granularity;
+    Instant bucketStart;
+}
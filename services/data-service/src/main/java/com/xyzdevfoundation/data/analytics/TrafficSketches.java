@@ -0,0 +1,231 @@
+package com.xyzdevfoundation.data.analytics;
+
+import com.xyzdevfoundation.data.analytics.sketch.HyperLogLog;
+import com.xyzdevfoundation.data.analytics.sketch.SpaceSavingTopK;
+import com.xyzdevfoundation.data.repository.SketchRepository;
+import com.xyzdevfoundation.data.util.InstanceIdentity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Distinct-source counts and heavy hitters over ingested traffic.
+ *
+ * Each UTC day gets a HyperLogLog of distinct sources per dataType (plus one
+ * across all dataTypes) and Space-Saving top-K sketches of sources and
+ * dataTypes. Memory is bounded by the sketch sizes and the number of tracked
+ * dataTypes, never by key cardinality. A scheduled flush stores this
+ * instance's sketches in {@code data_sketches}; queries merge the rows of
+ * every instance and every day in range.
+ *
+ * dataTypes are clamped so that every sketch name fits its column. Should
+ * the database still refuse a row, the flush writes that day's rows one by
+ * one and stops storing the refused sketch, instead of failing the whole
+ * day on every flush.
+ */
+@Component
+@Slf4j
+public class TrafficSketches {
+
+    static final String OTHER_DATA_TYPE = "__other__";
+    private static final String UNKNOWN_SOURCE = "unknown";
+    private static final String DISTINCT_SOURCES = "hll:sources";
+    private static final String TOP_SOURCES = "topk:sources";
+    private static final String TOP_DATA_TYPES = "topk:dataTypes";
+    // data_sketches.sketch_name is 150 long; this leaves room for the longest prefix
+    static final int MAX_DATA_TYPE_LENGTH = 100;
+
+    private final SketchRepository repository;
+    private final String instanceId;
+    private final int precision;
+    private final int topKCapacity;
+    private final int maxDataTypes;
+    private final Duration retention;
+    private final Map<Instant, DaySketches> days = new ConcurrentHashMap<>();
+    private final Counter flushFailures;
+    private final Counter droppedSketches;
+
+    public TrafficSketches(SketchRepository repository,
+                           InstanceIdentity instanceIdentity,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.analytics.sketches.hll-precision:12}") int precision,
+                           @Value("${app.analytics.sketches.top-k-capacity:200}") int topKCapacity,
+                           @Value("${app.analytics.sketches.max-data-types:256}") int maxDataTypes,
+                           @Value("${app.analytics.sketches.retention:35d}") Duration retention) {
+        this.repository = repository;
+        this.instanceId = instanceIdentity.getId();
+        this.precision = precision;
+        this.topKCapacity = topKCapacity;
+        this.maxDataTypes = maxDataTypes;
+        this.retention = retention;
+        this.flushFailures = Counter.builder("data.analytics.sketches.flush.failures")
+                .register(meterRegistry);
+        this.droppedSketches = Counter.builder("data.analytics.sketches.dropped")
+                .description("Sketches no longer stored because the database refused them")
+                .register(meterRegistry);
+        // Fail fast on an invalid precision rather than on the first record
+        new HyperLogLog(precision);
+    }
+
+    public void record(String dataType, String source) {
+        if (dataType == null) {
+            return;
+        }
+        String sourceKey = source != null ? source : UNKNOWN_SOURCE;
+        Instant day = Granularity.DAY.bucketStart(Instant.now());
+        days.computeIfAbsent(day, d -> new DaySketches()).record(AnalyticsKeys.clamp(dataType, MAX_DATA_TYPE_LENGTH), sourceKey);
+    }
+
+    /**
+     * Estimated distinct sources for {@code dataType}, or across all dataTypes
+     * when it is null, over every day from {@code from} onwards.
+     */
+    public long distinctSources(Instant from, String dataType) {
+        HyperLogLog merged = new HyperLogLog(precision);
+        for (byte[] payload : repository.findSince(distinctSourcesName(dataType), from)) {
+            try {
+                merged.merge(HyperLogLog.fromBytes(payload));
+            } catch (IllegalArgumentException e) {
+                log.warn("Skipping incompatible distinct-source sketch", e);
+            }
+        }
+        return merged.estimate();
+    }
+
+    public List<Map<String, Object>> topSources(Instant from, int limit) {
+        return top(TOP_SOURCES, from, limit);
+    }
+
+    public List<Map<String, Object>> topDataTypes(Instant from, int limit) {
+        return top(TOP_DATA_TYPES, from, limit);
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.sketches.flush-interval-ms:30000}")
+    public synchronized void flush() {
+        Instant today = Granularity.DAY.bucketStart(Instant.now());
+        for (Map.Entry<Instant, DaySketches> entry : days.entrySet()) {
+            DaySketches sketches = entry.getValue();
+            if (!sketches.dirty.getAndSet(false)) {
+                if (entry.getKey().isBefore(today)) {
+                    days.remove(entry.getKey(), sketches);
+                }
+                continue;
+            }
+            try {
+                repository.upsert(instanceId, entry.getKey(), sketches.serialize());
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Traffic sketches for {} were refused, writing them one at a time", entry.getKey(), e);
+                flushEach(entry.getKey(), sketches);
+            } catch (RuntimeException e) {
+                // Sketches are cumulative, so the next flush rewrites the full state
+                sketches.dirty.set(true);
+                flushFailures.increment();
+                log.error("Failed to flush traffic sketches for {}", entry.getKey(), e);
+            }
+        }
+    }
+
+    private void flushEach(Instant day, DaySketches sketches) {
+        for (Map.Entry<String, byte[]> sketch : sketches.serialize().entrySet()) {
+            try {
+                repository.upsert(instanceId, day, Map.of(sketch.getKey(), sketch.getValue()));
+            } catch (DataIntegrityViolationException e) {
+                sketches.refused.add(sketch.getKey());
+                droppedSketches.increment();
+                log.error("Dropping traffic sketch {} for {} that the database refuses", sketch.getKey(), day, e);
+            } catch (RuntimeException e) {
+                sketches.dirty.set(true);
+                flushFailures.increment();
+                log.error("Failed to flush traffic sketches for {}", day, e);
+                return;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.sketches.cleanup-interval-ms:3600000}")
+    public void purgeExpired() {
+        int deleted = repository.deleteBefore(Instant.now().minus(retention));
+        log.debug("Purged {} expired traffic sketches", deleted);
+    }
+
+    private List<Map<String, Object>> top(String sketchName, Instant from, int limit) {
+        SpaceSavingTopK merged = new SpaceSavingTopK(topKCapacity);
+        for (byte[] payload : repository.findSince(sketchName, from)) {
+            try {
+                merged.merge(SpaceSavingTopK.fromBytes(payload));
+            } catch (IllegalArgumentException e) {
+                log.warn("Skipping incompatible top-K sketch {}", sketchName, e);
+            }
+        }
+        return merged.top(limit).stream()
+                .map(hitter -> {
+                    Map<String, Object> entry = new LinkedHashMap<>();
+                    entry.put("key", hitter.getKey());
+                    entry.put("count", hitter.getCount());
+                    entry.put("maxOvercount", hitter.getError());
+                    return entry;
+                })
+                .toList();
+    }
+
+    private static String distinctSourcesName(String dataType) {
+        return dataType != null ? DISTINCT_SOURCES + ":" + AnalyticsKeys.clamp(dataType, MAX_DATA_TYPE_LENGTH) : DISTINCT_SOURCES;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private final class DaySketches {
+        private final HyperLogLog allSources = new HyperLogLog(precision);
+        private final Map<String, HyperLogLog> sourcesByDataType = new ConcurrentHashMap<>();
+        private final SpaceSavingTopK topSources = new SpaceSavingTopK(topKCapacity);
+        private final SpaceSavingTopK topDataTypes = new SpaceSavingTopK(topKCapacity);
+        private final AtomicBoolean dirty = new AtomicBoolean();
+        private final Set<String> refused = ConcurrentHashMap.newKeySet();
+
+        private void record(String dataType, String source) {
+            allSources.add(source);
+            dataTypeSketch(dataType).add(source);
+            topSources.add(source);
+            topDataTypes.add(dataType);
+            dirty.set(true);
+        }
+
+        private HyperLogLog dataTypeSketch(String dataType) {
+            HyperLogLog sketch = sourcesByDataType.get(dataType);
+            if (sketch != null) {
+                return sketch;
+            }
+            // Past the cap, unseen dataTypes share one sketch instead of growing the map
+            String key = sourcesByDataType.size() < maxDataTypes ? dataType : OTHER_DATA_TYPE;
+            return sourcesByDataType.computeIfAbsent(key, k -> new HyperLogLog(precision));
+        }
+
+        private Map<String, byte[]> serialize() {
+            Map<String, byte[]> payloads = new HashMap<>();
+            payloads.put(DISTINCT_SOURCES, allSources.toBytes());
+            sourcesByDataType.forEach((dataType, sketch) -> payloads.put(distinctSourcesName(dataType), sketch.toBytes()));
+            payloads.put(TOP_SOURCES, topSources.toBytes());
+            payloads.put(TOP_DATA_TYPES, topDataTypes.toBytes());
+            payloads.keySet().removeAll(refused);
+            return payloads;
+        }
+    }
+}
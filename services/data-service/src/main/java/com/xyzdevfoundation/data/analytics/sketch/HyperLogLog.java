@@ -0,0 +1,123 @@
+package com.xyzdevfoundation.data.analytics.sketch;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * HyperLogLog distinct counter with {@code 2^precision} one-byte registers.
+ *
+ * Memory is fixed by the precision regardless of how many distinct values are
+ * added (4 KiB at the default precision of 12, about 1.6% standard error).
+ * Two sketches of the same precision merge by taking the register-wise
+ * maximum, which is exactly the sketch of the union of both inputs.
+ */
+public class HyperLogLog {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("precision must be between 4 and 18");
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    public synchronized void add(String value) {
+        long hash = hash64(value);
+        int index = (int) (hash >>> (64 - precision));
+        // Rank of the first set bit in the remaining bits; the sentinel bit caps it
+        long remaining = (hash << precision) | (1L << (precision - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    public synchronized long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            // Linear counting is more accurate while many registers are still empty
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public synchronized void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge HyperLogLog sketches of different precision");
+        }
+        byte[] otherRegisters = other.snapshotRegisters();
+        for (int i = 0; i < registers.length; i++) {
+            if (otherRegisters[i] > registers[i]) {
+                registers[i] = otherRegisters[i];
+            }
+        }
+    }
+
+    public byte[] toBytes() {
+        byte[] snapshot = snapshotRegisters();
+        return ByteBuffer.allocate(2 + snapshot.length)
+                .put(FORMAT_VERSION)
+                .put((byte) precision)
+                .put(snapshot)
+                .array();
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.get() != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported HyperLogLog format");
+        }
+        HyperLogLog sketch = new HyperLogLog(buffer.get());
+        buffer.get(sketch.registers);
+        return sketch;
+    }
+
+    private synchronized byte[] snapshotRegisters() {
+        return registers.clone();
+    }
+
+    private static double alpha(int m) {
+        switch (m) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+
+    /**
+     * FNV-1a over the UTF-8 bytes followed by the MurmurHash3 finalizer, which
+     * spreads FNV's weak high bits across the whole word.
+     */
+    static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
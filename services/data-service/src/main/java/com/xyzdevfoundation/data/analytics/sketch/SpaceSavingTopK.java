@@ -0,0 +1,203 @@
+package com.xyzdevfoundation.data.analytics.sketch;
+
+import lombok.Value;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Space-Saving heavy-hitter sketch holding at most {@code capacity} counters.
+ *
+ * When a new key arrives and all counters are taken, the smallest counter is
+ * reassigned to it and its old count becomes the new key's error bound, so
+ * any key whose true frequency exceeds {@code total / capacity} is guaranteed
+ * to be tracked. Counters sit in a min-heap, making each update O(log capacity).
+ * Sketches merge by summing counts, charging keys missing from a full sketch
+ * with that sketch's minimum count as additional error.
+ */
+public class SpaceSavingTopK {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    private final Counter[] heap;
+    private int size;
+
+    public SpaceSavingTopK(int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+        this.heap = new Counter[capacity];
+    }
+
+    public synchronized void add(String key) {
+        add(key, 1, 0);
+    }
+
+    public synchronized List<HeavyHitter> top(int k) {
+        List<HeavyHitter> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(new HeavyHitter(heap[i].key, heap[i].count, heap[i].error));
+        }
+        result.sort(Comparator.comparingLong(HeavyHitter::getCount).reversed());
+        return result.size() > k ? new ArrayList<>(result.subList(0, k)) : result;
+    }
+
+    public synchronized void merge(SpaceSavingTopK other) {
+        List<HeavyHitter> theirs = other.top(other.capacity);
+        long theirMin = theirs.size() == other.capacity ? theirs.get(theirs.size() - 1).getCount() : 0;
+        long ourMin = size == capacity ? heap[0].count : 0;
+
+        Map<String, HeavyHitter> merged = new HashMap<>();
+        Set<String> theirKeys = new HashSet<>();
+        for (HeavyHitter hitter : theirs) {
+            theirKeys.add(hitter.getKey());
+            Counter ours = counters.get(hitter.getKey());
+            long count = hitter.getCount() + (ours != null ? ours.count : ourMin);
+            long error = hitter.getError() + (ours != null ? ours.error : ourMin);
+            merged.put(hitter.getKey(), new HeavyHitter(hitter.getKey(), count, error));
+        }
+        for (int i = 0; i < size; i++) {
+            Counter ours = heap[i];
+            if (!theirKeys.contains(ours.key)) {
+                merged.put(ours.key, new HeavyHitter(ours.key, ours.count + theirMin, ours.error + theirMin));
+            }
+        }
+
+        List<HeavyHitter> ranked = new ArrayList<>(merged.values());
+        ranked.sort(Comparator.comparingLong(HeavyHitter::getCount).reversed());
+        counters.clear();
+        size = 0;
+        for (int i = 0; i < Math.min(capacity, ranked.size()); i++) {
+            HeavyHitter hitter = ranked.get(i);
+            add(hitter.getKey(), hitter.getCount(), hitter.getError());
+        }
+    }
+
+    public synchronized byte[] toBytes() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(FORMAT_VERSION);
+            out.writeInt(capacity);
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                out.writeUTF(heap[i].key);
+                out.writeLong(heap[i].count);
+                out.writeLong(heap[i].error);
+            }
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static SpaceSavingTopK fromBytes(byte[] bytes) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            if (in.readByte() != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported top-K format");
+            }
+            SpaceSavingTopK sketch = new SpaceSavingTopK(in.readInt());
+            int entries = in.readInt();
+            for (int i = 0; i < entries; i++) {
+                sketch.add(in.readUTF(), in.readLong(), in.readLong());
+            }
+            return sketch;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void add(String key, long count, long error) {
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            counter.count += count;
+            counter.error += error;
+            siftDown(counter.heapIndex);
+            return;
+        }
+        if (size < capacity) {
+            counter = new Counter(key, count, error);
+            counter.heapIndex = size;
+            heap[size++] = counter;
+            counters.put(key, counter);
+            siftUp(counter.heapIndex);
+            return;
+        }
+        // Evict the minimum; its count is an upper bound on what the new key may have missed
+        Counter min = heap[0];
+        counters.remove(min.key);
+        min.key = key;
+        min.error = min.count + error;
+        min.count += count;
+        counters.put(key, min);
+        siftDown(0);
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent].count <= heap[index].count) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) {
+                return;
+            }
+            int right = left + 1;
+            int smallest = right < size && heap[right].count < heap[left].count ? right : left;
+            if (heap[index].count <= heap[smallest].count) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        Counter tmp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = tmp;
+        heap[i].heapIndex = i;
+        heap[j].heapIndex = j;
+    }
+
+    private static final class Counter {
+        private String key;
+        private long count;
+        private long error;
+        private int heapIndex;
+
+        private Counter(String key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+    @Value
+    public static class HeavyHitter {
+        String key;
+        long count;
+        long error;
+    }
+}
@@ -0,0 +1,133 @@
+package com.xyzdevfoundation.data.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Reads what {@link BinaryWriter} wrote. Integral values that fit in an
+ * {@code int} come back as {@link Integer}, as they would from JSON.
+ */
+final class BinaryReader {
+
+    private final byte[] buffer;
+    private int position;
+
+    BinaryReader(byte[] buffer) {
+        this.buffer = buffer;
+    }
+
+    int readByte() {
+        if (position >= buffer.length) {
+            throw new IllegalArgumentException("Truncated binary payload");
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    long readSignedVarLong() {
+        long raw = readVarLong();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    double readDouble() {
+        return Double.longBitsToDouble(readFixedLong());
+    }
+
+    String readNullableString() {
+        long length = readVarLong();
+        if (length == 0) {
+            return null;
+        }
+        int size = Math.toIntExact(length - 1);
+        if (size > buffer.length - position) {
+            throw new IllegalArgumentException("Truncated binary payload");
+        }
+        String value = new String(buffer, position, size, StandardCharsets.UTF_8);
+        position += size;
+        return value;
+    }
+
+    UUID readNullableUuid() {
+        return readByte() == 0 ? null : new UUID(readFixedLong(), readFixedLong());
+    }
+
+    @SuppressWarnings("unchecked")
+    Map<String, Object> readNullableMap() {
+        Object value = readValue();
+        if (value != null && !(value instanceof Map)) {
+            throw new IllegalArgumentException("Expected a map in binary payload");
+        }
+        return (Map<String, Object>) value;
+    }
+
+    Object readValue() {
+        int tag = readByte();
+        switch (tag) {
+            case BinaryWriter.TAG_NULL:
+                return null;
+            case BinaryWriter.TAG_FALSE:
+                return Boolean.FALSE;
+            case BinaryWriter.TAG_TRUE:
+                return Boolean.TRUE;
+            case BinaryWriter.TAG_LONG:
+                long number = readSignedVarLong();
+                return number == (int) number ? (Object) (int) number : (Object) number;
+            case BinaryWriter.TAG_DOUBLE:
+                return readDouble();
+            case BinaryWriter.TAG_STRING:
+                return readNullableString();
+            case BinaryWriter.TAG_LIST:
+                int elements = readCount();
+                List<Object> list = new ArrayList<>(elements);
+                for (int i = 0; i < elements; i++) {
+                    list.add(readValue());
+                }
+                return list;
+            case BinaryWriter.TAG_MAP:
+                int entries = readCount();
+                Map<String, Object> map = new LinkedHashMap<>(entries * 2);
+                for (int i = 0; i < entries; i++) {
+                    map.put(readNullableString(), readValue());
+                }
+                return map;
+            default:
+                throw new IllegalArgumentException("Unknown value tag " + tag);
+        }
+    }
+
+    boolean hasRemaining() {
+        return position < buffer.length;
+    }
+
+    private int readCount() {
+        long count = readVarLong();
+        // Every element takes at least one byte, which bounds allocations from corrupt input
+        if (count > buffer.length - position) {
+            throw new IllegalArgumentException("Truncated binary payload");
+        }
+        return (int) count;
+    }
+
+    private long readFixedLong() {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | readByte();
+        }
+        return value;
+    }
+}
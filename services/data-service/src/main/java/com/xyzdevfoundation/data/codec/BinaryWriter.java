@@ -0,0 +1,159 @@
+package com.xyzdevfoundation.data.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Growable byte buffer with the primitives of the binary event format:
+ * LEB128 varints, zigzag-encoded signed longs, length-prefixed UTF-8 strings
+ * and tagged values for free-form payload maps.
+ */
+final class BinaryWriter {
+
+    static final int TAG_NULL = 0;
+    static final int TAG_FALSE = 1;
+    static final int TAG_TRUE = 2;
+    static final int TAG_LONG = 3;
+    static final int TAG_DOUBLE = 4;
+    static final int TAG_STRING = 5;
+    static final int TAG_LIST = 6;
+    static final int TAG_MAP = 7;
+
+    private byte[] buffer;
+    private int position;
+
+    BinaryWriter(int initialCapacity) {
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    void writeSignedVarLong(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    void writeDouble(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        ensureCapacity(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[position++] = (byte) (bits >>> shift);
+        }
+    }
+
+    /** Length + 1 as a varint, then the UTF-8 bytes; a length of 0 means null. */
+    void writeNullableString(String value) {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length + 1L);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    void writeNullableUuid(UUID value) {
+        if (value == null) {
+            writeByte(0);
+            return;
+        }
+        writeByte(1);
+        writeFixedLong(value.getMostSignificantBits());
+        writeFixedLong(value.getLeastSignificantBits());
+    }
+
+    void writeNullableMap(Map<String, Object> map) {
+        if (map == null) {
+            writeByte(TAG_NULL);
+            return;
+        }
+        writeValue(map);
+    }
+
+    /**
+     * Writes a JSON-like value. Anything that is not null, a boolean, an
+     * integral or floating-point number, a string, a list or a string-keyed
+     * map is rejected, and the caller falls back to JSON.
+     */
+    void writeValue(Object value) {
+        if (value == null) {
+            writeByte(TAG_NULL);
+        } else if (value instanceof Boolean bool) {
+            writeByte(bool ? TAG_TRUE : TAG_FALSE);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            writeByte(TAG_LONG);
+            writeSignedVarLong(((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            writeByte(TAG_DOUBLE);
+            writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof String text) {
+            writeByte(TAG_STRING);
+            writeNullableString(text);
+        } else if (value instanceof List<?> list) {
+            writeByte(TAG_LIST);
+            writeVarLong(list.size());
+            for (Object element : list) {
+                writeValue(element);
+            }
+        } else if (value instanceof Map<?, ?> map) {
+            writeByte(TAG_MAP);
+            writeVarLong(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!(entry.getKey() instanceof String key)) {
+                    throw new UnsupportedValueException("Map key of type " + typeName(entry.getKey()));
+                }
+                writeNullableString(key);
+                writeValue(entry.getValue());
+            }
+        } else {
+            // Includes BigInteger and BigDecimal, which would lose precision as long or double
+            throw new UnsupportedValueException("Value of type " + typeName(value));
+        }
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    private void writeFixedLong(long value) {
+        ensureCapacity(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[position++] = (byte) (value >>> shift);
+        }
+    }
+
+    private void ensureCapacity(int extra) {
+        if (position + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+        }
+    }
+
+    private static String typeName(Object value) {
+        return value == null ? "null" : value.getClass().getName();
+    }
+
+    static final class UnsupportedValueException extends IllegalArgumentException {
+
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedValueException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.xyzdevfoundation.data.codec;
+
+import com.xyzdevfoundation.data.event.DataEvent;
+import com.xyzdevfoundation.data.event.StreamRecordEvent;
+
+/**
+ * Schema-defined binary encoding of {@link DataEvent} and
+ * {@link StreamRecordEvent}.
+ *
+ * A payload starts with a format version and a type byte. Event fields then
+ * follow in a fixed order without names: varints for numbers, a one-byte
+ * code for the well-known event types and length-prefixed strings. Only the
+ * free-form {@code data} and {@code metadata} maps carry their keys, with a
+ * one-byte tag per value. Adding a field means a new format version.
+ */
+public final class EventCodec {
+
+    public static final byte FORMAT_VERSION = 1;
+
+    private static final int TYPE_DATA_EVENT = 1;
+    private static final int TYPE_STREAM_RECORD = 2;
+
+    private static final String[] EVENT_TYPES = {
+            null, DataEvent.DATA_INGESTED, DataEvent.DATA_PROCESSED, DataEvent.DATA_PROCESSING_FAILED
+    };
+
+    private EventCodec() {
+    }
+
+    public static boolean supports(Object value) {
+        return value instanceof DataEvent || value instanceof StreamRecordEvent;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value is not a supported event
+     *         or its payload holds values the format cannot represent
+     */
+    public static byte[] encode(Object value) {
+        if (value instanceof DataEvent event) {
+            BinaryWriter writer = new BinaryWriter(64);
+            writer.writeByte(FORMAT_VERSION);
+            writer.writeByte(TYPE_DATA_EVENT);
+            writeEventType(writer, event.getEventType());
+            writer.writeNullableUuid(event.getDataId());
+            writer.writeNullableString(event.getDataType());
+            writer.writeNullableString(event.getSource());
+            writeNullableLong(writer, event.getProcessingTimeMs());
+            writer.writeVarLong(event.getTimestamp());
+            return writer.toByteArray();
+        }
+        if (value instanceof StreamRecordEvent event) {
+            BinaryWriter writer = new BinaryWriter(256);
+            writer.writeByte(FORMAT_VERSION);
+            writer.writeByte(TYPE_STREAM_RECORD);
+            writer.writeNullableString(event.getStreamId());
+            writer.writeNullableString(event.getDataType());
+            writer.writeNullableString(event.getSource());
+            writer.writeNullableMap(event.getData());
+            writer.writeNullableMap(event.getMetadata());
+            writer.writeVarLong(event.getTimestamp());
+            return writer.toByteArray();
+        }
+        throw new IllegalArgumentException("No binary encoding for " + (value == null ? "null" : value.getClass().getName()));
+    }
+
+    public static Object decode(byte[] bytes) {
+        BinaryReader reader = new BinaryReader(bytes);
+        int version = reader.readByte();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported binary event format " + version);
+        }
+        int type = reader.readByte();
+        Object event;
+        switch (type) {
+            case TYPE_DATA_EVENT:
+                event = DataEvent.builder()
+                        .eventType(readEventType(reader))
+                        .dataId(reader.readNullableUuid())
+                        .dataType(reader.readNullableString())
+                        .source(reader.readNullableString())
+                        .processingTimeMs(readNullableLong(reader))
+                        .timestamp(reader.readVarLong())
+                        .build();
+                break;
+            case TYPE_STREAM_RECORD:
+                event = StreamRecordEvent.builder()
+                        .streamId(reader.readNullableString())
+                        .dataType(reader.readNullableString())
+                        .source(reader.readNullableString())
+                        .data(reader.readNullableMap())
+                        .metadata(reader.readNullableMap())
+                        .timestamp(reader.readVarLong())
+                        .build();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown binary event type " + type);
+        }
+        if (reader.hasRemaining()) {
+            throw new IllegalArgumentException("Trailing bytes after binary event");
+        }
+        return event;
+    }
+
+    private static void writeEventType(BinaryWriter writer, String eventType) {
+        for (int code = 1; code < EVENT_TYPES.length; code++) {
+            if (EVENT_TYPES[code].equals(eventType)) {
+                writer.writeByte(code);
+                return;
+            }
+        }
+        writer.writeByte(0);
+        writer.writeNullableString(eventType);
+    }
+
+    private static String readEventType(BinaryReader reader) {
+        int code = reader.readByte();
+        if (code == 0) {
+            return reader.readNullableString();
+        }
+        if (code >= EVENT_TYPES.length) {
+            throw new IllegalArgumentException("Unknown event type code " + code);
+        }
+        return EVENT_TYPES[code];
+    }
+
+    private static void writeNullableLong(BinaryWriter writer, Long value) {
+        if (value == null) {
+            writer.writeByte(0);
+            return;
+        }
+        writer.writeByte(1);
+        writer.writeSignedVarLong(value);
+    }
+
+    private static Long readNullableLong(BinaryReader reader) {
+        return reader.readByte() == 0 ? null : reader.readSignedVarLong();
+    }
+}
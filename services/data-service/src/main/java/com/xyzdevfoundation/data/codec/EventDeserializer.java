@@ -0,0 +1,41 @@
+package com.xyzdevfoundation.data.codec;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.Map;
+
+/**
+ * Counterpart of {@link EventSerializer}: decodes records flagged with the
+ * binary codec header through {@link EventCodec} and hands everything
+ * else to Spring's {@link JsonDeserializer}, configured from the same
+ * consumer properties.
+ */
+public class EventDeserializer implements Deserializer<Object> {
+
+    private final JsonDeserializer<Object> jsonDeserializer = new JsonDeserializer<>();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        jsonDeserializer.configure(configs, isKey);
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return jsonDeserializer.deserialize(topic, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        if (data != null && EventSerializer.isBinary(headers)) {
+            return EventCodec.decode(data);
+        }
+        return jsonDeserializer.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+}
@@ -0,0 +1,96 @@
+package com.xyzdevfoundation.data.codec;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Kafka value serializer that writes events in the {@link EventCodec} binary
+ * format on the topics listed in {@code event.codec.binary.topics} and JSON
+ * everywhere else.
+ *
+ * Binary records carry a {@value #CODEC_HEADER} header of
+ * {@value #BINARY_CODEC}; records without it are JSON with Spring's
+ * type headers, so consumers that only understand JSON keep working on
+ * topics that stay JSON. A payload the binary format cannot represent falls
+ * back to JSON for that record. Encoded sizes are recorded per topic and
+ * format as {@code kafka.producer.record.bytes}.
+ */
+public class EventSerializer implements Serializer<Object> {
+
+    public static final String BINARY_TOPICS_CONFIG = "event.codec.binary.topics";
+    // Kept short: headers travel with every record
+    public static final String CODEC_HEADER = "x-codec";
+    public static final String BINARY_CODEC = "ev1";
+
+    private static final byte[] BINARY_CODEC_BYTES = BINARY_CODEC.getBytes(StandardCharsets.UTF_8);
+
+    private final JsonSerializer<Object> jsonSerializer = new JsonSerializer<>();
+    private Set<String> binaryTopics = Set.of();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        jsonSerializer.configure(configs, isKey);
+        Object topics = configs.get(BINARY_TOPICS_CONFIG);
+        if (topics != null) {
+            binaryTopics = Arrays.stream(topics.toString().split(","))
+                    .map(String::trim)
+                    .filter(topic -> !topic.isEmpty())
+                    .collect(Collectors.toUnmodifiableSet());
+        }
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return jsonSerializer.serialize(topic, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        if (binaryTopics.contains(topic) && EventCodec.supports(data)) {
+            try {
+                byte[] encoded = EventCodec.encode(data);
+                headers.remove(CODEC_HEADER);
+                headers.add(CODEC_HEADER, BINARY_CODEC_BYTES);
+                recordSize(topic, "binary", encoded.length);
+                return encoded;
+            } catch (IllegalArgumentException e) {
+                // Payload holds values the binary format cannot carry; send this record as JSON
+            }
+        }
+        byte[] json = jsonSerializer.serialize(topic, headers, data);
+        if (json != null) {
+            recordSize(topic, "json", json.length);
+        }
+        return json;
+    }
+
+    @Override
+    public void close() {
+        jsonSerializer.close();
+    }
+
+    static boolean isBinary(Headers headers) {
+        Header header = headers != null ? headers.lastHeader(CODEC_HEADER) : null;
+        return header != null && Arrays.equals(header.value(), BINARY_CODEC_BYTES);
+    }
+
+    private static void recordSize(String topic, String format, int bytes) {
+        DistributionSummary.builder("kafka.producer.record.bytes")
+                .tag("topic", topic)
+                .tag("format", format)
+                .baseUnit("bytes")
+                .description("Serialized value size per record")
+                .register(Metrics.globalRegistry)
+                .record(bytes);
+    }
+}
@@ -0,0 +1,67 @@
+package com.xyzdevfoundation.data.config;
+
+import com.xyzdevfoundation.data.stream.ConsumerLagTracker;
+import com.xyzdevfoundation.data.stream.StreamDeliveryTracker;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Listener container for the batch {@code data-stream} consumer.
+ *
+ * Kept separate from Boot's default factory so manual acknowledgement and
+ * batch delivery do not leak into the record listeners that rely on
+ * automatic offset commits.
+ */
+@Configuration
+public class DataStreamKafkaConfig {
+
+    public static final String DATA_STREAM_CONTAINER_FACTORY = "dataStreamListenerContainerFactory";
+
+    @Bean(DATA_STREAM_CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> dataStreamListenerContainerFactory(
+            ConsumerFactory<Object, Object> consumerFactory,
+            ConsumerLagTracker consumerLagTracker,
+            KafkaTemplate<String, Object> kafkaTemplate,
+            @Value("${app.stream.consumer.concurrency:3}") int concurrency,
+            @Value("${app.stream.consumer.max-poll-records:500}") int maxPollRecords,
+            @Value("${app.stream.consumer.fetch-min-bytes:65536}") int fetchMinBytes,
+            @Value("${app.stream.consumer.fetch-max-wait-ms:200}") int fetchMaxWaitMs,
+            @Value("${app.stream.consumer.refused-record-retries:2}") int refusedRecordRetries) {
+        Map<String, Object> config = new HashMap<>(consumerFactory.getConfigurationProperties());
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        config.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, fetchMinBytes);
+        config.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, fetchMaxWaitMs);
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(config));
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setConsumerRebalanceListener(consumerLagTracker);
+
+        // The listener only hands over records the table refused; retrying them cannot help for long.
+        // Outages are retried by the listener itself, without a limit.
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(refusedRecordRetries);
+        backOff.setInitialInterval(500);
+        backOff.setMultiplier(2.0);
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, exception) -> new TopicPartition(StreamDeliveryTracker.DEAD_LETTER_TOPIC, -1));
+        factory.setCommonErrorHandler(new DefaultErrorHandler(recoverer, backOff));
+        return factory;
+    }
+}
@@ -0,0 +1,32 @@
+package com.xyzdevfoundation.data.config;
+
+import com.xyzdevfoundation.data.stream.StreamTailHub;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Subscribes the live tail hub to stored-record notifications from every instance.
+ */
+@Configuration
+public class StreamTailRedisConfig {
+
+    @Bean
+    public RedisMessageListenerContainer streamTailListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                     StreamTailHub streamTailHub) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        // The hub only queues events, so one thread keeps up; the default executor starts a thread per message
+        container.setTaskExecutor(Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stream-tail-listener");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        container.addMessageListener(streamTailHub, new ChannelTopic(StreamTailHub.CHANNEL));
+        return container;
+    }
+}
@@ -0,0 +1,31 @@
+package com.xyzdevfoundation.data.controller;
+
+import com.xyzdevfoundation.data.exception.AdmissionRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Turns admission rejections into 429 responses that tell the client when to
+ * retry.
+ */
+@RestControllerAdvice
+public class AdmissionExceptionHandler {
+
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<Map<String, Object>> handleAdmissionRejected(AdmissionRejectedException e) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("error", HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase());
+        body.put("message", e.getMessage());
+        body.put("retryAfterSeconds", e.getRetryAfterSeconds());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(body);
+    }
+}
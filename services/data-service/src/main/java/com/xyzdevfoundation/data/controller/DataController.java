@@ -1,21 +1,40 @@
 package com.xyzdevfoundation.data.controller;
 
+import com.xyzdevfoundation.data.dto.BatchProcessResponse;
 import com.xyzdevfoundation.data.dto.DataProcessingRequest;
 import com.xyzdevfoundation.data.dto.DataResponse;
+import com.xyzdevfoundation.data.dto.JobResponse;
+import com.xyzdevfoundation.data.dto.SearchPageResponse;
+import com.xyzdevfoundation.data.dto.StoreSyncResponse;
+import com.xyzdevfoundation.data.dto.StreamDeliveryStatus;
+import com.xyzdevfoundation.data.dto.StreamIngestResponse;
+import com.xyzdevfoundation.data.service.BatchProcessingService;
+import com.xyzdevfoundation.data.service.DataExportService;
 import com.xyzdevfoundation.data.service.DataProcessingService;
+import com.xyzdevfoundation.data.service.ProcessingJobService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Data Processing REST Controller
@@ -34,6 +53,9 @@ import java.util.UUID;
 public class DataController {
 
     private final DataProcessingService dataProcessingService;
+    private final BatchProcessingService batchProcessingService;
+    private final ProcessingJobService processingJobService;
+    private final DataExportService dataExportService;
 
     @PostMapping("/ingest")
     @Operation(summary = "Ingest data", description = "Ingest raw data for processing")
@@ -51,23 +73,79 @@ public class DataController {
         return ResponseEntity.ok(data);
     }
 
+    @GetMapping("/{id}/stores")
+    @Operation(summary = "Get store sync status", description = "Whether PostgreSQL, MongoDB and Elasticsearch have caught up to a record, with each store's high-water mark and lag")
+    public ResponseEntity<StoreSyncResponse> getStoreSync(@PathVariable UUID id) {
+        return ResponseEntity.ok(dataProcessingService.getStoreSync(id));
+    }
+
     @GetMapping("/search")
-    @Operation(summary = "Search data", description = "Search data using Elasticsearch")
-    public ResponseEntity<Page<DataResponse>> searchData(
+    @Operation(summary = "Search data", description = "Search data using Elasticsearch; pass nextCursor back as cursor to fetch the following page")
+    public ResponseEntity<SearchPageResponse> searchData(
             @RequestParam String query,
             @RequestParam(required = false) String dataType,
-            Pageable pageable) {
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
         log.info("Searching data with query: {}", query);
-        Page<DataResponse> results = dataProcessingService.searchData(query, dataType, pageable);
+        SearchPageResponse results = dataProcessingService.searchData(query, dataType, cursor, size);
         return ResponseEntity.ok(results);
     }
 
     @PostMapping("/process")
-    @Operation(summary = "Process data", description = "Process data using ML algorithms")
-    public ResponseEntity<Map<String, Object>> processData(@Valid @RequestBody DataProcessingRequest request) {
+    @Operation(summary = "Process data", description = "Process data through the pipeline registered for its processingType (standard, scoring)")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> processData(@Valid @RequestBody DataProcessingRequest request) {
         log.info("Processing data of type: {}", request.getDataType());
-        Map<String, Object> result = dataProcessingService.processData(request);
-        return ResponseEntity.ok(result);
+        return dataProcessingService.processData(request).thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping("/process/batch")
+    @Operation(summary = "Process a batch of data", description = "Process many records in parallel with bounded concurrency; results are returned in input order")
+    public CompletableFuture<ResponseEntity<BatchProcessResponse>> processBatch(@Valid @RequestBody List<DataProcessingRequest> requests) {
+        log.info("Processing batch of {} records", requests.size());
+        return batchProcessingService.processBatch(requests).thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping("/jobs")
+    @Operation(summary = "Submit processing job", description = "Queue data for asynchronous processing and return the job ID immediately")
+    public ResponseEntity<JobResponse> submitJob(@Valid @RequestBody DataProcessingRequest request) {
+        log.info("Submitting processing job for type: {}", request.getDataType());
+        JobResponse job = JobResponse.fromJob(processingJobService.submit(request));
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/data/jobs/" + job.getJobId()))
+                .body(job);
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    @Operation(summary = "Get processing job", description = "Status, progress and result of a processing job")
+    public ResponseEntity<JobResponse> getJob(@PathVariable long jobId) {
+        return ResponseEntity.ok(JobResponse.fromJob(processingJobService.getJob(jobId)));
+    }
+
+    /**
+     * Writes straight to the servlet output stream on the request thread rather
+     * than through StreamingResponseBody: a long export is busy rather than idle,
+     * and it must not be cut off by the async request timeout.
+     */
+    @GetMapping("/export")
+    @Operation(summary = "Export data", description = "Stream every record of a dataType created in [from, to), including records moved to cold storage, as NDJSON or CSV, oldest first")
+    public void exportData(
+            @RequestParam String dataType,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletResponse response) throws IOException {
+        log.info("Exporting data of type: {} from {} to {} as {}", dataType, from, to, format);
+        DataExportService.Format exportFormat = DataExportService.Format.parse(format);
+        LocalDateTime until = to != null ? to : LocalDateTime.now();
+        dataExportService.validate(from, until);
+        
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(dataType + "-export." + exportFormat.getExtension(), StandardCharsets.UTF_8)
+                .build()
+                .toString());
+        dataExportService.export(dataType, from, until, exportFormat, response.getOutputStream());
     }
 
     @GetMapping("/analytics")
@@ -87,4 +165,24 @@ public class DataController {
         String streamId = dataProcessingService.streamData(requests);
         return ResponseEntity.ok(streamId);
     }
+
+    @PostMapping(value = "/stream", consumes = "application/x-ndjson")
+    @Operation(summary = "Stream NDJSON data", description = "Incrementally parse newline-delimited JSON and stream each record to Kafka as it arrives")
+    public ResponseEntity<StreamIngestResponse> streamNdjson(InputStream body) throws IOException {
+        log.info("Streaming NDJSON data records");
+        StreamIngestResponse response = dataProcessingService.streamNdjson(body);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/stream/{streamId}/status")
+    @Operation(summary = "Get stream delivery status", description = "Acknowledged, retrying and dead-lettered record counts of a stream; DELIVERED once every record is in Kafka")
+    public ResponseEntity<StreamDeliveryStatus> getStreamStatus(@PathVariable String streamId) {
+        return ResponseEntity.ok(dataProcessingService.getStreamStatus(streamId));
+    }
+
+    @GetMapping(value = "/stream/{streamId}/tail", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Tail a stream", description = "Server-Sent Events of the stream's stored records (record), delivery status changes (status) and events dropped for a slow client (dropped)")
+    public SseEmitter tailStream(@PathVariable String streamId) {
+        return dataProcessingService.tailStream(streamId);
+    }
 }
\ No newline at end of file
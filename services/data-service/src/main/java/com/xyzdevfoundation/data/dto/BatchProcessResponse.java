@@ -0,0 +1,34 @@
+package com.xyzdevfoundation.data.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchProcessResponse {
+
+    private int total;
+    private int succeeded;
+    private int failed;
+    private long durationMs;
+    private double recordsPerSecond;
+    private List<ItemResult> results;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+        private int index;
+        private String status;
+        private Map<String, Object> result;
+        private String error;
+    }
+}
@@ -2,6 +2,7 @@ package com.xyzdevfoundation.data.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -16,11 +17,13 @@ import java.util.Map;
 public class DataProcessingRequest {
 
     @NotBlank(message = "Data type is required")
+    @Size(max = 100, message = "Data type must be at most 100 characters")
     private String dataType;
 
     @NotNull(message = "Data content is required")
     private Map<String, Object> data;
 
+    @Size(max = 255, message = "Source must be at most 255 characters")
     private String source;
     private String processingType;
     private Map<String, Object> metadata;
@@ -1,5 +1,6 @@
 package com.xyzdevfoundation.data.dto;
 
+import com.xyzdevfoundation.data.model.DataRecord;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -23,4 +24,16 @@ public class DataResponse {
     private Map<String, Object> processedData;
     private LocalDateTime createdAt;
     private LocalDateTime processedAt;
+
+    public static DataResponse fromRecord(DataRecord record) {
+        return DataResponse.builder()
+                .id(record.getId())
+                .dataType(record.getDataType())
+                .data(record.getData())
+                .source(record.getSource())
+                .status(record.getStatus())
+                .createdAt(record.getCreatedAt())
+                .processedAt(record.getProcessedAt())
+                .build();
+    }
 }
\ No newline at end of file
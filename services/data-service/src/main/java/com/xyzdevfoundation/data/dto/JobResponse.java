@@ -0,0 +1,45 @@
+package com.xyzdevfoundation.data.dto;
+
+import com.xyzdevfoundation.data.model.ProcessingJob;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobResponse {
+
+    private Long jobId;
+    private String dataType;
+    private String processingType;
+    private String status;
+    private int progress;
+    private Map<String, Object> result;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private Long processingTimeMs;
+
+    public static JobResponse fromJob(ProcessingJob job) {
+        return JobResponse.builder()
+                .jobId(job.getId())
+                .dataType(job.getJobName())
+                .processingType(job.getJobType())
+                .status(job.getStatus())
+                .progress(job.getProgress())
+                .result(job.getOutputData())
+                .error(job.getErrorMessage())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .completedAt(job.getCompletedAt())
+                .processingTimeMs(job.getProcessingTimeMs())
+                .build();
+    }
+}
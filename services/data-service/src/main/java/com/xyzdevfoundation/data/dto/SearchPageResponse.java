@@ -0,0 +1,25 @@
+package com.xyzdevfoundation.data.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of search results. {@code nextCursor} is an opaque token to pass
+ * back for the following page and is null once the results are exhausted.
+ * {@code totalHits} is only computed for the first page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchPageResponse {
+
+    private List<DataResponse> content;
+    private int size;
+    private Long totalHits;
+    private String nextCursor;
+}
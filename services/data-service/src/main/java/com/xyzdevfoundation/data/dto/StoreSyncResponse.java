@@ -0,0 +1,40 @@
+package com.xyzdevfoundation.data.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Which stores a record has reached. A store has caught up to the record
+ * once it has written it and settled every batch before it. The state is
+ * what the answering instance knows: UNKNOWN for records another instance
+ * wrote or that are older than its status retention.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoreSyncResponse {
+
+    private UUID id;
+    /** Every store has caught up to the record. */
+    private boolean synced;
+    private List<StoreStatus> stores;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StoreStatus {
+        private String store;
+        /** CAUGHT_UP, PENDING, FAILED or UNKNOWN. */
+        private String state;
+        private boolean caughtUp;
+        private long highWaterMark;
+        private long lagMs;
+    }
+}
@@ -0,0 +1,35 @@
+package com.xyzdevfoundation.data.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StreamDeliveryStatus {
+
+    /** Records are still being accepted or sent. */
+    public static final String IN_PROGRESS = "IN_PROGRESS";
+    /** Every record was acknowledged by Kafka. */
+    public static final String DELIVERED = "DELIVERED";
+    /** Every record is settled, but some went to the dead-letter topic. */
+    public static final String DELIVERED_WITH_FAILURES = "DELIVERED_WITH_FAILURES";
+
+    private String streamId;
+    private String status;
+    private long submitted;
+    private long acknowledged;
+    private long pending;
+    private long retrying;
+    /** Waiting in the write-ahead log until the broker is reachable again. */
+    private long parked;
+    private long retries;
+    private long deadLettered;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+}
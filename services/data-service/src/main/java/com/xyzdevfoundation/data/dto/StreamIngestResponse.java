@@ -0,0 +1,31 @@
+package com.xyzdevfoundation.data.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StreamIngestResponse {
+
+    private String streamId;
+    private long accepted;
+    private long rejected;
+    private List<RecordError> errors;
+    private boolean errorsTruncated;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RecordError {
+        private long record;
+        private long line;
+        private String message;
+    }
+}
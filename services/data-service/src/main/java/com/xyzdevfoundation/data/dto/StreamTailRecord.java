@@ -0,0 +1,41 @@
+package com.xyzdevfoundation.data.dto;
+
+import com.xyzdevfoundation.data.model.DataRecord;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A streamed record as seen by live tail subscribers, sent once it is stored.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StreamTailRecord {
+
+    private String streamId;
+    private UUID id;
+    private String dataType;
+    private String source;
+    private String status;
+    private Map<String, Object> data;
+    private LocalDateTime createdAt;
+
+    public static StreamTailRecord fromRecord(String streamId, DataRecord record) {
+        return StreamTailRecord.builder()
+                .streamId(streamId)
+                .id(record.getId())
+                .dataType(record.getDataType())
+                .source(record.getSource())
+                .status(record.getStatus())
+                .data(record.getData())
+                .createdAt(record.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,31 @@
+package com.xyzdevfoundation.data.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Lifecycle event published to the {@code data-events} topic.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DataEvent {
+
+    public static final String TOPIC = "data-events";
+
+    public static final String DATA_INGESTED = "DATA_INGESTED";
+    public static final String DATA_PROCESSED = "DATA_PROCESSED";
+    public static final String DATA_PROCESSING_FAILED = "DATA_PROCESSING_FAILED";
+
+    private String eventType;
+    private UUID dataId;
+    private String dataType;
+    private String source;
+    private Long processingTimeMs;
+    private long timestamp;
+}
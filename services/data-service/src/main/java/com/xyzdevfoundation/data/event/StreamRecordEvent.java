@@ -0,0 +1,27 @@
+package com.xyzdevfoundation.data.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * One streamed record published to the {@code data-stream} topic.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StreamRecordEvent {
+
+    public static final String TOPIC = "data-stream";
+
+    private String streamId;
+    private String dataType;
+    private String source;
+    private Map<String, Object> data;
+    private Map<String, Object> metadata;
+    private long timestamp;
+}
@@ -0,0 +1,21 @@
+package com.xyzdevfoundation.data.exception;
+
+/**
+ * Thrown when admission control turns work away; mapped to 429 with a
+ * Retry-After header.
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public AdmissionRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
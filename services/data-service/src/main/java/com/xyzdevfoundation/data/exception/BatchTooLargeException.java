@@ -0,0 +1,17 @@
+package com.xyzdevfoundation.data.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a batch request carries more records than the configured cap.
+ */
+@ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+public class BatchTooLargeException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public BatchTooLargeException(String message) {
+        super(message);
+    }
+}
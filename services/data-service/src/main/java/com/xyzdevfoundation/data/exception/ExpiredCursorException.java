@@ -0,0 +1,18 @@
+package com.xyzdevfoundation.data.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a pagination cursor refers to a snapshot that no longer exists,
+ * e.g. because the client waited longer than its keep-alive between pages.
+ */
+@ResponseStatus(HttpStatus.GONE)
+public class ExpiredCursorException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ExpiredCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
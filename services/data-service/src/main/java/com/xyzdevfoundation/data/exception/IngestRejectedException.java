@@ -0,0 +1,17 @@
+package com.xyzdevfoundation.data.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when the ingest path cannot accept more records right now.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class IngestRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public IngestRejectedException(String message) {
+        super(message);
+    }
+}
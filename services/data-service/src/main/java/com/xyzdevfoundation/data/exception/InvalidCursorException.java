@@ -0,0 +1,17 @@
+package com.xyzdevfoundation.data.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a client passes a pagination cursor that cannot be decoded.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidCursorException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
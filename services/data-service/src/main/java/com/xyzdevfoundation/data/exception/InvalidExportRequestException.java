@@ -0,0 +1,17 @@
+package com.xyzdevfoundation.data.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when an export asks for an unknown format or an empty time range.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidExportRequestException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidExportRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.xyzdevfoundation.data.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when an analytics {@code timeRange} cannot be parsed.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidTimeRangeException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidTimeRangeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.xyzdevfoundation.data.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a processing type has no spare capacity for another request.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ProcessingRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ProcessingRejectedException(String message) {
+        super(message);
+    }
+}
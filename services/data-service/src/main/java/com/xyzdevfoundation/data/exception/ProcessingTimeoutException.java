@@ -0,0 +1,17 @@
+package com.xyzdevfoundation.data.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a processing stage does not finish within its configured timeout.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ProcessingTimeoutException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ProcessingTimeoutException(String message) {
+        super(message);
+    }
+}
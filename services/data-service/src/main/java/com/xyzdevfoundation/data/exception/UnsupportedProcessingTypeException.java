@@ -0,0 +1,17 @@
+package com.xyzdevfoundation.data.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when no processor is registered for the requested processingType.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class UnsupportedProcessingTypeException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public UnsupportedProcessingTypeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,136 @@
+package com.xyzdevfoundation.data.kafka;
+
+import com.xyzdevfoundation.data.analytics.sketch.SpaceSavingTopK;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import org.apache.kafka.clients.producer.Partitioner;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.utils.Utils;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Key-hash partitioner that spreads hot keys.
+ *
+ * Keys are counted per topic in fixed time windows with a Space-Saving
+ * sketch, so tracking memory is bounded whatever the key cardinality. A key
+ * whose share of the previous window reached {@code hotkey.share.threshold}
+ * is hot for the current one and is sent round-robin over
+ * {@code hotkey.spread.partitions} consecutive partitions starting at its hash
+ * partition. Every other key keeps the murmur2 partition the default
+ * partitioner would pick, so cold keys stay ordered and sticky. Unkeyed
+ * records go to a random available partition.
+ *
+ * Instantiated by the Kafka producer, so it is configured through producer
+ * properties and reports to the global Micrometer registry.
+ */
+public class HotKeyAwarePartitioner implements Partitioner {
+
+    public static final String SHARE_THRESHOLD_CONFIG = "hotkey.share.threshold";
+    public static final String SPREAD_PARTITIONS_CONFIG = "hotkey.spread.partitions";
+    public static final String WINDOW_MS_CONFIG = "hotkey.window.ms";
+    public static final String TRACKED_KEYS_CONFIG = "hotkey.tracked.keys";
+
+    private final Map<String, TopicWindow> windows = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> spreadCursors = new ConcurrentHashMap<>();
+    private double shareThreshold;
+    private int spreadPartitions;
+    private long windowMs;
+    private int trackedKeys;
+    private Counter hotKeySends;
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+        this.shareThreshold = doubleConfig(configs, SHARE_THRESHOLD_CONFIG, 0.05);
+        this.spreadPartitions = (int) doubleConfig(configs, SPREAD_PARTITIONS_CONFIG, 4);
+        this.windowMs = (long) doubleConfig(configs, WINDOW_MS_CONFIG, 10_000);
+        this.trackedKeys = (int) doubleConfig(configs, TRACKED_KEYS_CONFIG, 100);
+        this.hotKeySends = Counter.builder("kafka.producer.hot.key.sends")
+                .description("Records sent for keys currently treated as hot")
+                .register(Metrics.globalRegistry);
+    }
+
+    @Override
+    public int partition(String topic, Object key, byte[] keyBytes, Object value, byte[] valueBytes, Cluster cluster) {
+        List<PartitionInfo> partitions = cluster.partitionsForTopic(topic);
+        int numPartitions = partitions.size();
+        if (keyBytes == null) {
+            List<PartitionInfo> available = cluster.availablePartitionsForTopic(topic);
+            List<PartitionInfo> candidates = available.isEmpty() ? partitions : available;
+            return candidates.get(ThreadLocalRandom.current().nextInt(candidates.size())).partition();
+        }
+
+        int home = Utils.toPositive(Utils.murmur2(keyBytes)) % numPartitions;
+        String keyString = String.valueOf(key);
+        TopicWindow window = windows.computeIfAbsent(topic, this::newWindow);
+        boolean hot = window.recordAndCheck(keyString);
+        if (!hot || spreadPartitions <= 1 || numPartitions <= 1) {
+            return home;
+        }
+
+        hotKeySends.increment();
+        int spread = Math.min(spreadPartitions, numPartitions);
+        int offset = Math.floorMod(spreadCursors.computeIfAbsent(keyString, k -> new AtomicInteger()).getAndIncrement(), spread);
+        return (home + offset) % numPartitions;
+    }
+
+    @Override
+    public void close() {
+        windows.clear();
+        spreadCursors.clear();
+    }
+
+    private TopicWindow newWindow(String topic) {
+        TopicWindow window = new TopicWindow();
+        Gauge.builder("kafka.producer.hot.keys", window, w -> w.hotKeys.size())
+                .tag("topic", topic)
+                .description("Keys currently spread over several partitions")
+                .register(Metrics.globalRegistry);
+        return window;
+    }
+
+    private static double doubleConfig(Map<String, ?> configs, String name, double defaultValue) {
+        Object value = configs.get(name);
+        return value != null ? Double.parseDouble(value.toString()) : defaultValue;
+    }
+
+    private final class TopicWindow {
+        private volatile Set<String> hotKeys = Set.of();
+        private SpaceSavingTopK counts = new SpaceSavingTopK(trackedKeys);
+        private long total;
+        private long windowStart = System.currentTimeMillis();
+
+        private synchronized boolean recordAndCheck(String key) {
+            long now = System.currentTimeMillis();
+            if (now - windowStart >= windowMs) {
+                roll(now);
+            }
+            counts.add(key);
+            total++;
+            return hotKeys.contains(key);
+        }
+
+        private void roll(long now) {
+            Set<String> hot = new HashSet<>();
+            // Space-Saving may overcount, so judge on the guaranteed lower bound
+            counts.top(trackedKeys).forEach(hitter -> {
+                if (total > 0 && (double) (hitter.getCount() - hitter.getError()) / total >= shareThreshold) {
+                    hot.add(hitter.getKey());
+                }
+            });
+            spreadCursors.keySet().retainAll(hot);
+            hotKeys = Set.copyOf(hot);
+            counts = new SpaceSavingTopK(trackedKeys);
+            total = 0;
+            windowStart = now;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.xyzdevfoundation.data.kafka;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.springframework.kafka.support.ProducerListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts acknowledged sends per topic and partition
+ * ({@code kafka.producer.partition.records}), so partition skew is visible on
+ * a dashboard. Replaces Boot's default logging listener, hence the error
+ * logging.
+ */
+@Component
+@Slf4j
+public class PartitionMetricsProducerListener implements ProducerListener<Object, Object> {
+
+    private final MeterRegistry meterRegistry;
+
+    public PartitionMetricsProducerListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void onSuccess(ProducerRecord<Object, Object> record, RecordMetadata metadata) {
+        Counter.builder("kafka.producer.partition.records")
+                .tag("topic", metadata.topic())
+                .tag("partition", String.valueOf(metadata.partition()))
+                .description("Records acknowledged by the broker per partition")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @Override
+    public void onError(ProducerRecord<Object, Object> record, RecordMetadata metadata, Exception exception) {
+        log.error("Failed to send record with key {} to topic {}", record.key(), record.topic(), exception);
+    }
+}
@@ -0,0 +1,46 @@
+package com.xyzdevfoundation.data.kafka;
+
+import com.xyzdevfoundation.data.dto.DataProcessingRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Chooses the Kafka message key for a request, so that everything sharing the
+ * key lands on one partition in order. {@code app.kafka.partition-key} is
+ * {@code source}, {@code dataType} or {@code data.<field>} for a top-level
+ * field of the payload. Requests without a value for the field are sent
+ * unkeyed.
+ */
+@Component
+public class RecordKeyResolver {
+
+    private static final String DATA_FIELD_PREFIX = "data.";
+
+    private final String keyField;
+
+    public RecordKeyResolver(@Value("${app.kafka.partition-key:source}") String keyField) {
+        if (!keyField.equals("source") && !keyField.equals("dataType")
+                && !(keyField.startsWith(DATA_FIELD_PREFIX) && keyField.length() > DATA_FIELD_PREFIX.length())) {
+            throw new IllegalArgumentException("app.kafka.partition-key must be source, dataType or data.<field>, got " + keyField);
+        }
+        this.keyField = keyField;
+    }
+
+    public String keyFor(DataProcessingRequest request) {
+        return keyFor(request.getDataType(), request.getSource(), request.getData());
+    }
+
+    public String keyFor(String dataType, String source, Map<String, Object> data) {
+        switch (keyField) {
+            case "source":
+                return source;
+            case "dataType":
+                return dataType;
+            default:
+                Object value = data != null ? data.get(keyField.substring(DATA_FIELD_PREFIX.length())) : null;
+                return value != null ? value.toString() : null;
+        }
+    }
+}
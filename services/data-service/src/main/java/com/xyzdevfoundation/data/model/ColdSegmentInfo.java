@@ -0,0 +1,29 @@
+package com.xyzdevfoundation.data.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A row of {@code cold_segments}: one immutable segment file of records
+ * moved out of {@code ingested_data}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ColdSegmentInfo {
+
+    private Long id;
+    private String fileName;
+    private UUID firstId;
+    private UUID lastId;
+    private int recordCount;
+    private long sizeBytes;
+    private LocalDateTime minCreatedAt;
+    private LocalDateTime maxCreatedAt;
+}
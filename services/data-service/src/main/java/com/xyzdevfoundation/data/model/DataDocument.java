@@ -0,0 +1,75 @@
+package com.xyzdevfoundation.data.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.DateFormat;
+import org.springframework.data.elasticsearch.annotations.Document;
+import org.springframework.data.elasticsearch.annotations.Field;
+import org.springframework.data.elasticsearch.annotations.FieldType;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Ingested record as indexed in Elasticsearch for full-text search.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(indexName = DataDocument.INDEX)
+public class DataDocument {
+
+    public static final String INDEX = "ingested-data";
+
+    @Id
+    private String id;
+
+    @Field(type = FieldType.Keyword)
+    private String dataType;
+
+    @Field(type = FieldType.Keyword)
+    private String source;
+
+    @Field(type = FieldType.Keyword)
+    private String status;
+
+    // One field however many keys payloads carry, and no type conflicts between
+    // data types that use the same key for different kinds of value
+    @Field(type = FieldType.Flattened)
+    private Map<String, Object> data;
+
+    @Field(type = FieldType.Date, format = DateFormat.date_hour_minute_second_millis)
+    private LocalDateTime createdAt;
+
+    @Field(type = FieldType.Date, format = DateFormat.date_hour_minute_second_millis)
+    private LocalDateTime processedAt;
+
+    public static DataDocument fromRecord(DataRecord record) {
+        return DataDocument.builder()
+                .id(record.getId().toString())
+                .dataType(record.getDataType())
+                .source(record.getSource())
+                .status(record.getStatus())
+                .data(record.getData())
+                .createdAt(record.getCreatedAt())
+                .processedAt(record.getProcessedAt())
+                .build();
+    }
+
+    public DataRecord toRecord() {
+        return DataRecord.builder()
+                .id(UUID.fromString(id))
+                .dataType(dataType)
+                .source(source)
+                .status(status)
+                .data(data)
+                .createdAt(createdAt)
+                .processedAt(processedAt)
+                .build();
+    }
+}
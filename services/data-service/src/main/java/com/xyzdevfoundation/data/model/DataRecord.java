@@ -0,0 +1,29 @@
+package com.xyzdevfoundation.data.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Ingested data record as stored in the {@code ingested_data} table.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DataRecord {
+
+    private UUID id;
+    private String dataType;
+    private String source;
+    private String status;
+    private Map<String, Object> data;
+    private Map<String, Object> metadata;
+    private LocalDateTime createdAt;
+    private LocalDateTime processedAt;
+}
@@ -0,0 +1,25 @@
+package com.xyzdevfoundation.data.model;
+
+import com.xyzdevfoundation.data.event.DataEvent;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A row of {@code data_events_outbox}: an event waiting to be relayed to
+ * {@code data-events}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxMessage {
+
+    private Long id;
+    private String key;
+    private DataEvent event;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,25 @@
+package com.xyzdevfoundation.data.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Row of {@code ingested_data} with its JSON columns left as the stored text,
+ * for exports that copy them out without parsing.
+ */
+@Value
+@Builder
+public class RawDataRecord {
+
+    UUID id;
+    String dataType;
+    String source;
+    String status;
+    String dataJson;
+    String metadataJson;
+    LocalDateTime createdAt;
+    LocalDateTime processedAt;
+}
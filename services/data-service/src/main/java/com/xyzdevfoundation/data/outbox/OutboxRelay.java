@@ -0,0 +1,173 @@
+package com.xyzdevfoundation.data.outbox;
+
+import com.xyzdevfoundation.data.event.DataEvent;
+import com.xyzdevfoundation.data.kafka.PartitionMetricsProducerListener;
+import com.xyzdevfoundation.data.model.OutboxMessage;
+import com.xyzdevfoundation.data.repository.OutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Relays {@code data_events_outbox} rows to {@code data-events}.
+ *
+ * Each cycle locks up to {@code batch-size} of the oldest rows with
+ * {@code FOR UPDATE SKIP LOCKED}, sends them through a producer tuned for
+ * throughput (compression and linger), waits for every acknowledgement and
+ * deletes the rows in the same transaction. A failed send rolls the
+ * transaction back, releasing the rows for the next cycle, so delivery is
+ * at-least-once. Full batches are drained back to back.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ProducerFactory<Object, Object> relayProducerFactory;
+    private final KafkaTemplate<Object, Object> relayTemplate;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final ReentrantLock relayLock = new ReentrantLock();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter relayed;
+    private final Counter failures;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer relayTimer;
+
+    public OutboxRelay(OutboxRepository outboxRepository,
+                       TransactionTemplate transactionTemplate,
+                       ProducerFactory<Object, Object> producerFactory,
+                       PartitionMetricsProducerListener producerListener,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.outbox.batch-size:1000}") int batchSize,
+                       @Value("${app.outbox.send-timeout:30s}") Duration sendTimeout,
+                       @Value("${app.outbox.compression-type:lz4}") String compressionType,
+                       @Value("${app.outbox.linger-ms:20}") int lingerMs,
+                       @Value("${app.outbox.producer-batch-size:262144}") int producerBatchSize) {
+        this.outboxRepository = outboxRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+        this.relayProducerFactory = producerFactory.copyWithConfigurationOverride(Map.of(
+                ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType,
+                ProducerConfig.LINGER_MS_CONFIG, lingerMs,
+                ProducerConfig.BATCH_SIZE_CONFIG, producerBatchSize,
+                ProducerConfig.ACKS_CONFIG, "all"));
+        this.relayTemplate = new KafkaTemplate<>(relayProducerFactory);
+        this.relayTemplate.setProducerListener(producerListener);
+
+        this.relayed = Counter.builder("data.outbox.relayed")
+                .description("Outbox events published to Kafka")
+                .register(meterRegistry);
+        this.failures = Counter.builder("data.outbox.relay.failures")
+                .description("Relay batches rolled back after a failed send")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("data.outbox.relay.batch.size")
+                .description("Events published per relay batch")
+                .register(meterRegistry);
+        this.relayTimer = Timer.builder("data.outbox.relay")
+                .description("Time to publish and delete one relay batch")
+                .register(meterRegistry);
+        Gauge.builder("data.outbox.lag", lagMillis, AtomicLong::get)
+                .baseUnit("milliseconds")
+                .description("Age of the oldest event still waiting in the outbox")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:200}")
+    public void relay() {
+        if (!relayLock.tryLock()) {
+            return;
+        }
+        try {
+            int sent;
+            do {
+                sent = relayBatch();
+            } while (sent == batchSize);
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.error("Outbox relay failed, rows stay queued for the next cycle", e);
+        } finally {
+            // Most needed when relaying fails and the backlog grows
+            updateLag();
+            relayLock.unlock();
+        }
+    }
+
+    private int relayBatch() {
+        Timer.Sample sample = Timer.start();
+        Integer sent = transactionTemplate.execute(status -> {
+            List<OutboxMessage> messages = outboxRepository.lockBatch(batchSize);
+            if (messages.isEmpty()) {
+                return 0;
+            }
+            List<CompletableFuture<SendResult<Object, Object>>> sends = new ArrayList<>(messages.size());
+            List<Long> ids = new ArrayList<>(messages.size());
+            for (OutboxMessage message : messages) {
+                sends.add(relayTemplate.send(DataEvent.TOPIC, message.getKey(), message.getEvent()));
+                ids.add(message.getId());
+            }
+            relayTemplate.flush();
+            awaitAll(sends);
+            outboxRepository.delete(ids);
+            return messages.size();
+        });
+        int count = sent != null ? sent : 0;
+        if (count > 0) {
+            sample.stop(relayTimer);
+            relayed.increment(count);
+            batchSizeSummary.record(count);
+        }
+        return count;
+    }
+
+    private void awaitAll(List<CompletableFuture<SendResult<Object, Object>>> sends) {
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                    .get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while relaying outbox events", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Failed to publish outbox events", e);
+        }
+    }
+
+    private void updateLag() {
+        try {
+            lagMillis.set(outboxRepository.findOldestAgeMillis().map(age -> Math.max(0, age)).orElse(0L));
+        } catch (RuntimeException e) {
+            // The gauge keeps its last value; the relay failure, if any, is already logged
+            log.warn("Failed to read outbox lag: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        relayProducerFactory.reset();
+    }
+}
@@ -0,0 +1,15 @@
+package com.xyzdevfoundation.data.processing;
+
+import java.util.List;
+
+/**
+ * Processor SPI: every Spring bean implementing this interface handles the
+ * requests whose {@code processingType} matches {@link #getProcessingType()}
+ * by running its steps in order.
+ */
+public interface DataProcessor {
+
+    String getProcessingType();
+
+    List<ProcessingStep> getSteps();
+}
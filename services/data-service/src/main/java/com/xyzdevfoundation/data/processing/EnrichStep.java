@@ -0,0 +1,30 @@
+package com.xyzdevfoundation.data.processing;
+
+import com.xyzdevfoundation.data.dto.DataProcessingRequest;
+import com.xyzdevfoundation.data.util.InstanceIdentity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Attaches provenance to the processed record: where it came from, which
+ * instance processed it and how large it was.
+ */
+@Component
+@RequiredArgsConstructor
+public class EnrichStep implements ProcessingStep {
+
+    private final InstanceIdentity instanceIdentity;
+
+    @Override
+    public ProcessingStage getStage() {
+        return ProcessingStage.ENRICH;
+    }
+
+    @Override
+    public void apply(ProcessingContext context) {
+        DataProcessingRequest request = context.getRequest();
+        context.getEnrichment().put("source", request.getSource() != null ? request.getSource() : "unknown");
+        context.getEnrichment().put("fieldCount", request.getData().size());
+        context.getEnrichment().put("processedBy", instanceIdentity.getId());
+    }
+}
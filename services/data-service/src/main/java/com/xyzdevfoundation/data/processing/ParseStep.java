@@ -0,0 +1,26 @@
+package com.xyzdevfoundation.data.processing;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Works out how many records a request carries: a {@code records} array in
+ * the payload counts each element, anything else is a single record.
+ */
+@Component
+public class ParseStep implements ProcessingStep {
+
+    static final String RECORDS_FIELD = "records";
+
+    @Override
+    public ProcessingStage getStage() {
+        return ProcessingStage.PARSE;
+    }
+
+    @Override
+    public void apply(ProcessingContext context) {
+        Object records = context.getRequest().getData().get(RECORDS_FIELD);
+        context.setRecordsProcessed(records instanceof List<?> list ? list.size() : 1);
+    }
+}
@@ -0,0 +1,54 @@
+package com.xyzdevfoundation.data.processing;
+
+import com.xyzdevfoundation.data.dto.DataProcessingRequest;
+import com.xyzdevfoundation.data.model.DataRecord;
+import com.xyzdevfoundation.data.service.IngestWriteBehindBuffer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Stores the processed record, with enrichment and score in its metadata,
+ * through the write-behind buffer so it is readable by {@code processedId}.
+ */
+@Component
+@RequiredArgsConstructor
+public class PersistStep implements ProcessingStep {
+
+    private final IngestWriteBehindBuffer ingestBuffer;
+
+    @Override
+    public ProcessingStage getStage() {
+        return ProcessingStage.PERSIST;
+    }
+
+    @Override
+    public void apply(ProcessingContext context) {
+        DataProcessingRequest request = context.getRequest();
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        if (request.getMetadata() != null) {
+            metadata.putAll(request.getMetadata());
+        }
+        metadata.putAll(context.getEnrichment());
+        metadata.put("processingType", context.getProcessingType());
+        metadata.put("recordsProcessed", context.getRecordsProcessed());
+        if (context.getScore() != null) {
+            metadata.put("score", context.getScore());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        ingestBuffer.submit(DataRecord.builder()
+                .id(context.getProcessedId())
+                .dataType(request.getDataType())
+                .source(request.getSource())
+                .status("PROCESSED")
+                .data(request.getData())
+                .metadata(metadata)
+                .createdAt(now)
+                .processedAt(now)
+                .build());
+    }
+}
@@ -0,0 +1,32 @@
+package com.xyzdevfoundation.data.processing;
+
+import com.xyzdevfoundation.data.dto.DataProcessingRequest;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * State handed from one processing step to the next. Steps run sequentially,
+ * so the context is never accessed by two threads at once.
+ */
+@Getter
+@Setter
+public class ProcessingContext {
+
+    private final UUID processedId;
+    private final String processingType;
+    private final DataProcessingRequest request;
+    private final Map<String, Object> enrichment = new LinkedHashMap<>();
+    private final Map<String, Long> stageTimingsMs = new LinkedHashMap<>();
+    private int recordsProcessed;
+    private Double score;
+
+    public ProcessingContext(UUID processedId, String processingType, DataProcessingRequest request) {
+        this.processedId = processedId;
+        this.processingType = processingType;
+        this.request = request;
+    }
+}
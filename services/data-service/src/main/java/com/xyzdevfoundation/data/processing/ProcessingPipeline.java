@@ -0,0 +1,188 @@
+package com.xyzdevfoundation.data.processing;
+
+import com.xyzdevfoundation.data.dto.DataProcessingRequest;
+import com.xyzdevfoundation.data.exception.ProcessingRejectedException;
+import com.xyzdevfoundation.data.exception.ProcessingTimeoutException;
+import com.xyzdevfoundation.data.exception.UnsupportedProcessingTypeException;
+import com.xyzdevfoundation.data.util.TimeOrderedIdGenerator;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs {@link DataProcessor} pipelines off the servlet threads.
+ *
+ * Every processing type gets its own bounded thread pool and queue, so a slow
+ * or expensive type can only exhaust its own capacity and never delays cheap
+ * ones; a full queue rejects the request instead of growing. Each step is
+ * timed per type and stage, and a step that outlives its stage timeout is
+ * interrupted and fails the request.
+ */
+@Component
+@Slf4j
+public class ProcessingPipeline {
+
+    private final ProcessingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, DataProcessor> processors = new HashMap<>();
+    private final Map<String, ThreadPoolExecutor> executors = new HashMap<>();
+
+    public ProcessingPipeline(List<DataProcessor> processors,
+                              ProcessingProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        for (DataProcessor processor : processors) {
+            String type = processor.getProcessingType();
+            if (this.processors.putIfAbsent(type, processor) != null) {
+                throw new IllegalStateException("Duplicate processor for processingType " + type);
+            }
+            executors.put(type, newExecutor(type));
+        }
+        if (!this.processors.containsKey(properties.getDefaultType())) {
+            throw new IllegalStateException("No processor for default processingType " + properties.getDefaultType());
+        }
+        log.info("Registered processing types: {}", this.processors.keySet());
+    }
+
+    public CompletableFuture<ProcessingContext> process(DataProcessingRequest request) {
+        return process(request, percent -> { });
+    }
+
+    /**
+     * Runs the request's pipeline, reporting the completed share of its steps
+     * (0-100) to {@code progress} after each step.
+     */
+    public CompletableFuture<ProcessingContext> process(DataProcessingRequest request, IntConsumer progress) {
+        String type;
+        try {
+            type = resolveProcessingType(request.getProcessingType());
+        } catch (UnsupportedProcessingTypeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        DataProcessor processor = processors.get(type);
+
+        ProcessingContext context = new ProcessingContext(TimeOrderedIdGenerator.nextId(), type, request);
+        List<ProcessingStep> steps = processor.getSteps();
+        CompletableFuture<ProcessingContext> chain = CompletableFuture.completedFuture(context);
+        for (int i = 0; i < steps.size(); i++) {
+            ProcessingStep step = steps.get(i);
+            int percentDone = (i + 1) * 100 / steps.size();
+            chain = chain.thenCompose(ctx -> runStep(type, step, ctx))
+                    .thenApply(ctx -> {
+                        progress.accept(percentDone);
+                        return ctx;
+                    });
+        }
+        return chain;
+    }
+
+    /**
+     * The registered processing type a request runs as: the requested one, or
+     * the default when none was given.
+     */
+    public String resolveProcessingType(String requested) {
+        String type = requested != null && !requested.isBlank() ? requested : properties.getDefaultType();
+        if (!processors.containsKey(type)) {
+            throw new UnsupportedProcessingTypeException(
+                    "Unsupported processingType '" + type + "', expected one of " + processors.keySet());
+        }
+        return type;
+    }
+
+    private CompletableFuture<ProcessingContext> runStep(String type, ProcessingStep step, ProcessingContext context) {
+        ProcessingStage stage = step.getStage();
+        Duration timeout = properties.stageTimeout(stage);
+        CompletableFuture<ProcessingContext> result = new CompletableFuture<>();
+        Future<?> task;
+        try {
+            task = executors.get(type).submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    step.apply(context);
+                    long elapsed = System.nanoTime() - start;
+                    context.getStageTimingsMs().put(stage.name().toLowerCase(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+                    // A step finishing after its timeout has already been counted as one
+                    if (result.complete(context)) {
+                        stageTimer(type, stage, "success").record(elapsed, TimeUnit.NANOSECONDS);
+                    }
+                } catch (Exception e) {
+                    if (result.completeExceptionally(e)) {
+                        stageTimer(type, stage, "failure").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new ProcessingRejectedException(
+                    "Processing capacity for type '" + type + "' is exhausted, retry later"));
+        }
+
+        return result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionallyCompose(e -> {
+                    if (e instanceof TimeoutException) {
+                        task.cancel(true);
+                        stageTimer(type, stage, "timeout").record(timeout);
+                        return CompletableFuture.failedFuture(new ProcessingTimeoutException(
+                                "Stage " + stage + " of processingType '" + type + "' exceeded " + timeout.toMillis() + "ms"));
+                    }
+                    return CompletableFuture.failedFuture(e);
+                });
+    }
+
+    private ThreadPoolExecutor newExecutor(String type) {
+        ProcessingProperties.TypeSettings settings = properties.getTypes().get(type);
+        int concurrency = settings != null && settings.getConcurrency() != null
+                ? settings.getConcurrency() : properties.getConcurrency();
+        int queueCapacity = settings != null && settings.getQueueCapacity() != null
+                ? settings.getQueueCapacity() : properties.getQueueCapacity();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(concurrency, concurrency, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "processing-" + type + "-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        Gauge.builder("data.processing.queue.size", executor, e -> e.getQueue().size())
+                .tag("processingType", type)
+                .description("Processing steps waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("data.processing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .tag("processingType", type)
+                .description("Processing steps currently running")
+                .register(meterRegistry);
+        return executor;
+    }
+
+    private Timer stageTimer(String type, ProcessingStage stage, String outcome) {
+        return Timer.builder("data.processing.stage")
+                .tag("processingType", type)
+                .tag("stage", stage.name().toLowerCase())
+                .tag("outcome", outcome)
+                .description("Time spent in one processing stage")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executors.values().forEach(ThreadPoolExecutor::shutdownNow);
+    }
+}
@@ -0,0 +1,55 @@
+package com.xyzdevfoundation.data.processing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Executor sizing and stage timeouts for the processing pipeline, e.g.
+ *
+ * <pre>
+ * app:
+ *   processing:
+ *     default-type: standard
+ *     stage-timeouts:
+ *       SCORE: 5s
+ *     types:
+ *       scoring:
+ *         concurrency: 4
+ *         queue-capacity: 50
+ * </pre>
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.processing")
+public class ProcessingProperties {
+
+    private String defaultType = "standard";
+
+    private int concurrency = 8;
+
+    private int queueCapacity = 200;
+
+    private Duration defaultStageTimeout = Duration.ofSeconds(2);
+
+    private Map<ProcessingStage, Duration> stageTimeouts = new EnumMap<>(ProcessingStage.class);
+
+    private Map<String, TypeSettings> types = new LinkedHashMap<>();
+
+    public Duration stageTimeout(ProcessingStage stage) {
+        return stageTimeouts.getOrDefault(stage, defaultStageTimeout);
+    }
+
+    @Data
+    public static class TypeSettings {
+
+        private Integer concurrency;
+
+        private Integer queueCapacity;
+    }
+}
@@ -0,0 +1,12 @@
+package com.xyzdevfoundation.data.processing;
+
+/**
+ * Stages a processing pipeline runs through, in this order. A processor may
+ * skip stages it has no work for.
+ */
+public enum ProcessingStage {
+    PARSE,
+    ENRICH,
+    SCORE,
+    PERSIST
+}
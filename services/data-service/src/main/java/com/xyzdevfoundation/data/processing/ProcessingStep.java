@@ -0,0 +1,13 @@
+package com.xyzdevfoundation.data.processing;
+
+/**
+ * One unit of work in a processing pipeline. Steps run one after another on
+ * the owning processing type's executor and must respond to interruption,
+ * which is how a stage timeout is enforced.
+ */
+public interface ProcessingStep {
+
+    ProcessingStage getStage();
+
+    void apply(ProcessingContext context) throws Exception;
+}
@@ -0,0 +1,52 @@
+package com.xyzdevfoundation.data.processing;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scores payload completeness as the share of non-null, non-blank fields,
+ * taken over every element of a {@code records} array when there is one.
+ */
+@Component
+public class ScoreStep implements ProcessingStep {
+
+    @Override
+    public ProcessingStage getStage() {
+        return ProcessingStage.SCORE;
+    }
+
+    @Override
+    public void apply(ProcessingContext context) {
+        Map<String, Object> data = context.getRequest().getData();
+        long[] counts = new long[2];
+        if (data.get(ParseStep.RECORDS_FIELD) instanceof List<?> records) {
+            for (Object record : records) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new IllegalStateException("Scoring interrupted");
+                }
+                if (record instanceof Map<?, ?> fields) {
+                    count(fields, counts);
+                } else {
+                    counts[0]++;
+                    counts[1] += isPresent(record) ? 1 : 0;
+                }
+            }
+        } else {
+            count(data, counts);
+        }
+        context.setScore(counts[0] > 0 ? (double) counts[1] / counts[0] : 0.0);
+    }
+
+    private static void count(Map<?, ?> fields, long[] counts) {
+        for (Object value : fields.values()) {
+            counts[0]++;
+            counts[1] += isPresent(value) ? 1 : 0;
+        }
+    }
+
+    private static boolean isPresent(Object value) {
+        return value != null && !(value instanceof String text && text.isBlank());
+    }
+}
@@ -0,0 +1,28 @@
+package com.xyzdevfoundation.data.processing;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Full pipeline including the completeness score.
+ */
+@Component
+public class ScoringProcessor implements DataProcessor {
+
+    private final List<ProcessingStep> steps;
+
+    public ScoringProcessor(ParseStep parse, EnrichStep enrich, ScoreStep score, PersistStep persist) {
+        this.steps = List.of(parse, enrich, score, persist);
+    }
+
+    @Override
+    public String getProcessingType() {
+        return "scoring";
+    }
+
+    @Override
+    public List<ProcessingStep> getSteps() {
+        return steps;
+    }
+}
@@ -0,0 +1,28 @@
+package com.xyzdevfoundation.data.processing;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Default pipeline: parse, enrich and persist without scoring.
+ */
+@Component
+public class StandardProcessor implements DataProcessor {
+
+    private final List<ProcessingStep> steps;
+
+    public StandardProcessor(ParseStep parse, EnrichStep enrich, PersistStep persist) {
+        this.steps = List.of(parse, enrich, persist);
+    }
+
+    @Override
+    public String getProcessingType() {
+        return "standard";
+    }
+
+    @Override
+    public List<ProcessingStep> getSteps() {
+        return steps;
+    }
+}
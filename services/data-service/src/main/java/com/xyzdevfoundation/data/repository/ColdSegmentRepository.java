@@ -0,0 +1,93 @@
+package com.xyzdevfoundation.data.repository;
+
+import com.xyzdevfoundation.data.model.ColdSegmentInfo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC access to {@code cold_segments}, the catalog of cold-tier segment files.
+ *
+ * A segment's row is inserted in the same transaction that deletes its
+ * records from {@code ingested_data}, so every record is in exactly one of
+ * the two places for any reader.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ColdSegmentRepository {
+
+    private static final String INSERT =
+            "INSERT INTO cold_segments (file_name, first_id, last_id, record_count, size_bytes, min_created_at, max_created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_AFTER =
+            "SELECT id, file_name, first_id, last_id, record_count, size_bytes, min_created_at, max_created_at " +
+            "FROM cold_segments WHERE id > ? ORDER BY id";
+
+    private static final String SELECT_OVERLAPPING =
+            "SELECT id, file_name, first_id, last_id, record_count, size_bytes, min_created_at, max_created_at " +
+            "FROM cold_segments WHERE min_created_at < ? AND max_created_at >= ? ORDER BY id";
+
+    private static final String SELECT_FILE_NAMES = "SELECT file_name FROM cold_segments";
+
+    // Only one instance at a time writes segments; released when the transaction ends
+    private static final String TRY_TIERING_LOCK = "SELECT pg_try_advisory_xact_lock(?)";
+    private static final long TIERING_LOCK_KEY = 0x636f6c645f746965L;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insert(ColdSegmentInfo segment) {
+        jdbcTemplate.update(INSERT,
+                segment.getFileName(),
+                segment.getFirstId(),
+                segment.getLastId(),
+                segment.getRecordCount(),
+                segment.getSizeBytes(),
+                Timestamp.valueOf(segment.getMinCreatedAt()),
+                Timestamp.valueOf(segment.getMaxCreatedAt()));
+    }
+
+    /**
+     * Segments registered after {@code lastSeenId}, oldest first.
+     */
+    public List<ColdSegmentInfo> findAfter(long lastSeenId) {
+        return jdbcTemplate.query(SELECT_AFTER, rowMapper(), lastSeenId);
+    }
+
+    /**
+     * Segments that may hold records created in [from, to), oldest first.
+     */
+    public List<ColdSegmentInfo> findOverlapping(LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(SELECT_OVERLAPPING, rowMapper(), Timestamp.valueOf(to), Timestamp.valueOf(from));
+    }
+
+    public List<String> findFileNames() {
+        return jdbcTemplate.queryForList(SELECT_FILE_NAMES, String.class);
+    }
+
+    /**
+     * Takes the tiering lock for the current transaction if no other instance holds it.
+     */
+    public boolean tryLockForTiering() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(TRY_TIERING_LOCK, Boolean.class, TIERING_LOCK_KEY));
+    }
+
+    private RowMapper<ColdSegmentInfo> rowMapper() {
+        return (rs, rowNum) -> ColdSegmentInfo.builder()
+                .id(rs.getLong("id"))
+                .fileName(rs.getString("file_name"))
+                .firstId(rs.getObject("first_id", UUID.class))
+                .lastId(rs.getObject("last_id", UUID.class))
+                .recordCount(rs.getInt("record_count"))
+                .sizeBytes(rs.getLong("size_bytes"))
+                .minCreatedAt(rs.getTimestamp("min_created_at").toLocalDateTime())
+                .maxCreatedAt(rs.getTimestamp("max_created_at").toLocalDateTime())
+                .build();
+    }
+}
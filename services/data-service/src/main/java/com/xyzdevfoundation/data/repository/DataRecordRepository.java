@@ -0,0 +1,218 @@
+package com.xyzdevfoundation.data.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xyzdevfoundation.data.model.DataRecord;
+import com.xyzdevfoundation.data.model.RawDataRecord;
+import com.xyzdevfoundation.data.schema.SchemaRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * JDBC access to the {@code ingested_data} table.
+ *
+ * Writes go through multi-row INSERT statements so a whole flush of the
+ * write-behind buffer costs one round trip per chunk instead of one per record.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DataRecordRepository {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO ingested_data (id, data_type, source, status, data, metadata, created_at, processed_at) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?::jsonb, ?::jsonb, ?, ?)";
+    private static final String INSERT_SUFFIX = " ON CONFLICT (id) DO NOTHING";
+    private static final int COLUMNS = 8;
+
+    // PostgreSQL caps a single statement at 65535 bind parameters
+    private static final int MAX_ROWS_PER_STATEMENT = 65535 / COLUMNS;
+
+    private static final String SELECT_COLUMNS =
+            "SELECT id, data_type, source, status, data, metadata, created_at, processed_at FROM ingested_data";
+
+    private static final String DELETE_BY_IDS = "DELETE FROM ingested_data WHERE id = ANY (?)";
+    private static final int MAX_IDS_PER_DELETE = 10000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final SchemaRegistry schemaRegistry;
+
+    public int insertBatch(List<DataRecord> records) {
+        int inserted = 0;
+        for (int from = 0; from < records.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<DataRecord> chunk = records.subList(from, Math.min(records.size(), from + MAX_ROWS_PER_STATEMENT));
+            inserted += jdbcTemplate.update(insertSql(chunk.size()), bindValues(chunk));
+        }
+        return inserted;
+    }
+
+    public Optional<DataRecord> findById(UUID id) {
+        List<DataRecord> rows = jdbcTemplate.query(SELECT_COLUMNS + " WHERE id = ?", rowMapper(), id);
+        return rows.stream().findFirst();
+    }
+
+    /**
+     * Streams the records of {@code dataType} created in [{@code from}, {@code to})
+     * in creation order through a server-side cursor, {@code fetchSize} rows per
+     * round trip. Must run inside a transaction: the PostgreSQL driver only
+     * uses a cursor when auto-commit is off, and otherwise buffers every row.
+     */
+    public void streamRange(String dataType, LocalDateTime from, LocalDateTime to, int fetchSize,
+                            Consumer<RawDataRecord> action) {
+        String sql = SELECT_COLUMNS + " WHERE data_type = ? AND created_at >= ? AND created_at < ? ORDER BY created_at, id";
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setString(1, dataType);
+            statement.setTimestamp(2, toTimestamp(from));
+            statement.setTimestamp(3, toTimestamp(to));
+            return statement;
+        }, (RowCallbackHandler) rs -> action.accept(rawRecord(rs)));
+    }
+
+    /**
+     * Streams up to {@code limit} records created before {@code cutoff} in ID
+     * order through a server-side cursor. Must run inside a transaction, like
+     * {@link #streamRange}.
+     */
+    public void streamOlderThan(LocalDateTime cutoff, int limit, int fetchSize, Consumer<RawDataRecord> action) {
+        String sql = SELECT_COLUMNS + " WHERE created_at < ? ORDER BY id LIMIT ?";
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setTimestamp(1, toTimestamp(cutoff));
+            statement.setInt(2, limit);
+            return statement;
+        }, (RowCallbackHandler) rs -> action.accept(rawRecord(rs)));
+    }
+
+    public int deleteByIds(List<UUID> ids) {
+        int deleted = 0;
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_DELETE) {
+            List<UUID> chunk = ids.subList(from, Math.min(ids.size(), from + MAX_IDS_PER_DELETE));
+            deleted += jdbcTemplate.update(DELETE_BY_IDS,
+                    ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", chunk.toArray())));
+        }
+        return deleted;
+    }
+
+    /**
+     * Parses a raw row the way {@link #findById} does.
+     */
+    public DataRecord toRecord(RawDataRecord raw) {
+        return DataRecord.builder()
+                .id(raw.getId())
+                .dataType(raw.getDataType())
+                .source(raw.getSource())
+                .status(raw.getStatus())
+                .data(schemaRegistry.compact(raw.getDataType(), fromJson(raw.getDataJson())))
+                .metadata(fromJson(raw.getMetadataJson()))
+                .createdAt(raw.getCreatedAt())
+                .processedAt(raw.getProcessedAt())
+                .build();
+    }
+
+    private String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows * (ROW_PLACEHOLDERS.length() + 1) + INSERT_SUFFIX.length());
+        sql.append(INSERT_PREFIX);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(',');
+            }
+            sql.append(ROW_PLACEHOLDERS);
+        }
+        return sql.append(INSERT_SUFFIX).toString();
+    }
+
+    private Object[] bindValues(List<DataRecord> records) {
+        List<Object> values = new ArrayList<>(records.size() * COLUMNS);
+        for (DataRecord record : records) {
+            values.add(record.getId());
+            values.add(record.getDataType());
+            values.add(record.getSource());
+            values.add(record.getStatus());
+            values.add(toJson(record.getData()));
+            values.add(toJson(record.getMetadata()));
+            values.add(toTimestamp(record.getCreatedAt()));
+            values.add(toTimestamp(record.getProcessedAt()));
+        }
+        return values.toArray();
+    }
+
+    private static RawDataRecord rawRecord(ResultSet rs) throws SQLException {
+        return RawDataRecord.builder()
+                .id(rs.getObject("id", UUID.class))
+                .dataType(rs.getString("data_type"))
+                .source(rs.getString("source"))
+                .status(rs.getString("status"))
+                .dataJson(rs.getString("data"))
+                .metadataJson(rs.getString("metadata"))
+                .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+                .processedAt(toLocalDateTime(rs.getTimestamp("processed_at")))
+                .build();
+    }
+
+    private RowMapper<DataRecord> rowMapper() {
+        return (rs, rowNum) -> {
+            String dataType = rs.getString("data_type");
+            return DataRecord.builder()
+                    .id(rs.getObject("id", UUID.class))
+                    .dataType(dataType)
+                    .source(rs.getString("source"))
+                    .status(rs.getString("status"))
+                    .data(schemaRegistry.compact(dataType, fromJson(rs.getString("data"))))
+                    .metadata(fromJson(rs.getString("metadata")))
+                    .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+                    .processedAt(toLocalDateTime(rs.getTimestamp("processed_at")))
+                    .build();
+        };
+    }
+
+    private String toJson(Map<String, Object> value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize record payload", e);
+        }
+    }
+
+    private Map<String, Object> fromJson(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, MAP_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to deserialize record payload", e);
+        }
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp value) {
+        return value != null ? value.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,68 @@
+package com.xyzdevfoundation.data.repository;
+
+import com.xyzdevfoundation.data.analytics.Granularity;
+import com.xyzdevfoundation.data.analytics.HistogramKey;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC access to {@code data_latency_histograms}. Each instance owns its own rows
+ * and overwrites them with its cumulative histogram per bucket; readers merge
+ * across instances and buckets.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LatencyHistogramRepository {
+
+    private static final String UPSERT =
+            "INSERT INTO data_latency_histograms (instance_id, data_type, metric, granularity, bucket_start, histogram, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (instance_id, data_type, metric, granularity, bucket_start) DO UPDATE SET " +
+            "histogram = EXCLUDED.histogram, updated_at = EXCLUDED.updated_at";
+
+    private static final String SELECT =
+            "SELECT histogram FROM data_latency_histograms WHERE metric = ? AND granularity = ? AND bucket_start >= ?";
+
+    private static final String DELETE_BEFORE =
+            "DELETE FROM data_latency_histograms WHERE granularity = ? AND bucket_start < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void upsert(String instanceId, Map<HistogramKey, byte[]> histograms) {
+        List<Map.Entry<HistogramKey, byte[]>> rows = new ArrayList<>(histograms.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT, rows, rows.size(), (ps, row) -> {
+            ps.setString(1, instanceId);
+            ps.setString(2, row.getKey().getDataType());
+            ps.setString(3, row.getKey().getMetric());
+            ps.setString(4, row.getKey().getGranularity().name());
+            ps.setTimestamp(5, toTimestamp(row.getKey().getBucketStart()));
+            ps.setBytes(6, row.getValue());
+        });
+    }
+
+    public List<byte[]> findSince(String metric, Granularity granularity, Instant from, String dataType) {
+        if (dataType != null) {
+            return jdbcTemplate.query(SELECT + " AND data_type = ?", (rs, rowNum) -> rs.getBytes(1),
+                    metric, granularity.name(), toTimestamp(from), dataType);
+        }
+        return jdbcTemplate.query(SELECT, (rs, rowNum) -> rs.getBytes(1),
+                metric, granularity.name(), toTimestamp(from));
+    }
+
+    public int deleteBefore(Granularity granularity, Instant before) {
+        return jdbcTemplate.update(DELETE_BEFORE, granularity.name(), toTimestamp(before));
+    }
+
+    private static Timestamp toTimestamp(Instant instant) {
+        return Timestamp.valueOf(LocalDateTime.ofInstant(instant, ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,81 @@
+package com.xyzdevfoundation.data.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xyzdevfoundation.data.event.DataEvent;
+import com.xyzdevfoundation.data.model.OutboxMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDBC access to {@code data_events_outbox}.
+ *
+ * {@link #lockBatch(int)} must run inside a transaction: it locks the oldest
+ * unclaimed rows and skips rows another relay already holds, so several
+ * instances can drain the outbox concurrently without handing out a row twice.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OutboxRepository {
+
+    private static final String INSERT =
+            "INSERT INTO data_events_outbox (message_key, payload) VALUES (?, ?::jsonb)";
+
+    private static final String LOCK_BATCH =
+            "SELECT id, message_key, payload, created_at FROM data_events_outbox " +
+            "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String DELETE = "DELETE FROM data_events_outbox WHERE id = ANY (?)";
+
+    // Computed in the database so the clock of created_at and of "now" is the same
+    private static final String OLDEST_AGE_MS =
+            "SELECT (EXTRACT(EPOCH FROM (LOCALTIMESTAMP - created_at)) * 1000)::bigint " +
+            "FROM data_events_outbox ORDER BY id LIMIT 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public void insertBatch(List<OutboxMessage> messages) {
+        jdbcTemplate.batchUpdate(INSERT, messages, messages.size(), (ps, message) -> {
+            ps.setString(1, message.getKey());
+            ps.setString(2, toJson(message.getEvent()));
+        });
+    }
+
+    public List<OutboxMessage> lockBatch(int limit) {
+        return jdbcTemplate.query(LOCK_BATCH, (rs, rowNum) -> OutboxMessage.builder()
+                .id(rs.getLong("id"))
+                .key(rs.getString("message_key"))
+                .event(fromJson(rs.getString("payload")))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .build(), limit);
+    }
+
+    public int delete(List<Long> ids) {
+        return jdbcTemplate.update(DELETE, ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray())));
+    }
+
+    public Optional<Long> findOldestAgeMillis() {
+        return jdbcTemplate.query(OLDEST_AGE_MS, (rs, rowNum) -> rs.getLong(1)).stream().findFirst();
+    }
+
+    private String toJson(DataEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize outbox event", e);
+        }
+    }
+
+    private DataEvent fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, DataEvent.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to deserialize outbox event", e);
+        }
+    }
+}
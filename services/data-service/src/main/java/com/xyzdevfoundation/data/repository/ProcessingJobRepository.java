@@ -0,0 +1,155 @@
+package com.xyzdevfoundation.data.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xyzdevfoundation.data.model.ProcessingJob;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * JDBC access to the {@code data_processing_jobs} table. Status reads select
+ * only the job columns, never the stored input.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProcessingJobRepository {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    private static final String INSERT =
+            "INSERT INTO data_processing_jobs (job_name, job_type, status, input_data, owner_id, heartbeat_at) " +
+            "VALUES (?, ?, ?, ?::jsonb, ?, CURRENT_TIMESTAMP) RETURNING id";
+
+    private static final String HEARTBEAT =
+            "UPDATE data_processing_jobs SET heartbeat_at = CURRENT_TIMESTAMP " +
+            "WHERE id = ANY(?) AND status IN ('PENDING', 'RUNNING')";
+
+    private static final String FAIL_OWNED =
+            "UPDATE data_processing_jobs SET status = ?, error_message = ?, completed_at = CURRENT_TIMESTAMP " +
+            "WHERE owner_id = ? AND status IN ('PENDING', 'RUNNING')";
+
+    // Rows from before leases existed have no heartbeat and are judged by their creation time
+    private static final String FAIL_ABANDONED =
+            "UPDATE data_processing_jobs SET status = ?, error_message = ?, completed_at = CURRENT_TIMESTAMP " +
+            "WHERE status IN ('PENDING', 'RUNNING') AND COALESCE(heartbeat_at, created_at) < ?";
+
+    private static final String MARK_RUNNING =
+            "UPDATE data_processing_jobs SET status = ?, started_at = CURRENT_TIMESTAMP WHERE id = ?";
+
+    private static final String UPDATE_PROGRESS =
+            "UPDATE data_processing_jobs SET progress = ? WHERE id = ? AND progress < ?";
+
+    private static final String COMPLETE =
+            "UPDATE data_processing_jobs SET status = ?, progress = 100, output_data = ?::jsonb, " +
+            "completed_at = CURRENT_TIMESTAMP, processing_time_ms = ? WHERE id = ?";
+
+    private static final String FAIL =
+            "UPDATE data_processing_jobs SET status = ?, error_message = ?, " +
+            "completed_at = CURRENT_TIMESTAMP, processing_time_ms = ? WHERE id = ?";
+
+    private static final String SELECT_STATUS =
+            "SELECT id, job_name, job_type, status, progress, output_data, error_message, created_at, " +
+            "started_at, completed_at, processing_time_ms FROM data_processing_jobs WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public long insert(String jobName, String jobType, Object input, String ownerId) {
+        return jdbcTemplate.queryForObject(INSERT, Long.class, jobName, jobType, ProcessingJob.PENDING, toJson(input), ownerId);
+    }
+
+    /**
+     * Renews the lease of those of the given jobs that are still unfinished.
+     */
+    public int heartbeat(Collection<Long> ids) {
+        return jdbcTemplate.update(HEARTBEAT,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray())));
+    }
+
+    /**
+     * Fails every unfinished job held by {@code ownerId}.
+     */
+    public int failOwned(String ownerId, String errorMessage) {
+        return jdbcTemplate.update(FAIL_OWNED, ProcessingJob.FAILED, errorMessage, ownerId);
+    }
+
+    /**
+     * Fails unfinished jobs whose lease was last renewed before {@code cutoff}.
+     */
+    public int failAbandoned(LocalDateTime cutoff, String errorMessage) {
+        return jdbcTemplate.update(FAIL_ABANDONED, ProcessingJob.FAILED, errorMessage, Timestamp.valueOf(cutoff));
+    }
+
+    public void markRunning(long id) {
+        jdbcTemplate.update(MARK_RUNNING, ProcessingJob.RUNNING, id);
+    }
+
+    public void updateProgress(long id, int progress) {
+        jdbcTemplate.update(UPDATE_PROGRESS, progress, id, progress);
+    }
+
+    public void complete(long id, Map<String, Object> output, long processingTimeMs) {
+        jdbcTemplate.update(COMPLETE, ProcessingJob.COMPLETED, toJson(output), processingTimeMs, id);
+    }
+
+    public void fail(long id, String errorMessage, long processingTimeMs) {
+        jdbcTemplate.update(FAIL, ProcessingJob.FAILED, errorMessage, processingTimeMs, id);
+    }
+
+    public Optional<ProcessingJob> findById(long id) {
+        List<ProcessingJob> rows = jdbcTemplate.query(SELECT_STATUS, rowMapper(), id);
+        return rows.stream().findFirst();
+    }
+
+    private RowMapper<ProcessingJob> rowMapper() {
+        return (rs, rowNum) -> ProcessingJob.builder()
+                .id(rs.getLong("id"))
+                .jobName(rs.getString("job_name"))
+                .jobType(rs.getString("job_type"))
+                .status(rs.getString("status"))
+                .progress(rs.getInt("progress"))
+                .outputData(fromJson(rs.getString("output_data")))
+                .errorMessage(rs.getString("error_message"))
+                .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+                .startedAt(toLocalDateTime(rs.getTimestamp("started_at")))
+                .completedAt(toLocalDateTime(rs.getTimestamp("completed_at")))
+                .processingTimeMs((Long) rs.getObject("processing_time_ms"))
+                .build();
+    }
+
+    private String toJson(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize job payload", e);
+        }
+    }
+
+    private Map<String, Object> fromJson(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, MAP_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to deserialize job payload", e);
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp value) {
+        return value != null ? value.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,69 @@
+package com.xyzdevfoundation.data.repository;
+
+import com.xyzdevfoundation.data.analytics.Granularity;
+import com.xyzdevfoundation.data.analytics.RollupCounts;
+import com.xyzdevfoundation.data.analytics.RollupKey;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC access to the {@code data_rollups} table. Bucket timestamps are stored in UTC.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RollupRepository {
+
+    private static final String UPSERT =
+            "INSERT INTO data_rollups (data_type, granularity, bucket_start, total_count, processed_count, error_count, latency_sum_ms) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (data_type, granularity, bucket_start) DO UPDATE SET " +
+            "total_count = data_rollups.total_count + EXCLUDED.total_count, " +
+            "processed_count = data_rollups.processed_count + EXCLUDED.processed_count, " +
+            "error_count = data_rollups.error_count + EXCLUDED.error_count, " +
+            "latency_sum_ms = data_rollups.latency_sum_ms + EXCLUDED.latency_sum_ms";
+
+    private static final String SUM =
+            "SELECT COALESCE(SUM(total_count), 0) AS total, COALESCE(SUM(processed_count), 0) AS processed, " +
+            "COALESCE(SUM(error_count), 0) AS errors, COALESCE(SUM(latency_sum_ms), 0) AS latency_sum " +
+            "FROM data_rollups WHERE granularity = ? AND bucket_start >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void addDeltas(Map<RollupKey, RollupCounts> deltas) {
+        List<Map.Entry<RollupKey, RollupCounts>> rows = new ArrayList<>(deltas.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT, rows, rows.size(), (ps, row) -> {
+            ps.setString(1, row.getKey().getDataType());
+            ps.setString(2, row.getKey().getGranularity().name());
+            ps.setTimestamp(3, toTimestamp(row.getKey().getBucketStart()));
+            ps.setLong(4, row.getValue().getTotal());
+            ps.setLong(5, row.getValue().getProcessed());
+            ps.setLong(6, row.getValue().getErrors());
+            ps.setLong(7, row.getValue().getLatencySumMs());
+        });
+    }
+
+    public RollupCounts sumSince(Granularity granularity, Instant from, String dataType) {
+        String sql = dataType != null ? SUM + " AND data_type = ?" : SUM;
+        Object[] args = dataType != null
+                ? new Object[]{granularity.name(), toTimestamp(from), dataType}
+                : new Object[]{granularity.name(), toTimestamp(from)};
+        return jdbcTemplate.queryForObject(sql, (rs, rowNum) -> new RollupCounts(
+                rs.getLong("total"),
+                rs.getLong("processed"),
+                rs.getLong("errors"),
+                rs.getLong("latency_sum")), args);
+    }
+
+    private static Timestamp toTimestamp(Instant instant) {
+        return Timestamp.valueOf(LocalDateTime.ofInstant(instant, ZoneOffset.UTC));
+    }
+}
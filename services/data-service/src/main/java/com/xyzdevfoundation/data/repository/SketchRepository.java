@@ -0,0 +1,59 @@
+package com.xyzdevfoundation.data.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC access to {@code data_sketches}: serialized analytics sketches per
+ * instance, sketch name and UTC day.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SketchRepository {
+
+    private static final String UPSERT =
+            "INSERT INTO data_sketches (instance_id, sketch_name, bucket_start, payload, updated_at) " +
+            "VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (instance_id, sketch_name, bucket_start) DO UPDATE SET " +
+            "payload = EXCLUDED.payload, updated_at = EXCLUDED.updated_at";
+
+    private static final String SELECT =
+            "SELECT payload FROM data_sketches WHERE sketch_name = ? AND bucket_start >= ?";
+
+    private static final String DELETE_BEFORE =
+            "DELETE FROM data_sketches WHERE bucket_start < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void upsert(String instanceId, Instant bucketStart, Map<String, byte[]> sketches) {
+        List<Map.Entry<String, byte[]>> rows = new ArrayList<>(sketches.entrySet());
+        Timestamp bucket = toTimestamp(bucketStart);
+        jdbcTemplate.batchUpdate(UPSERT, rows, rows.size(), (ps, row) -> {
+            ps.setString(1, instanceId);
+            ps.setString(2, row.getKey());
+            ps.setTimestamp(3, bucket);
+            ps.setBytes(4, row.getValue());
+        });
+    }
+
+    public List<byte[]> findSince(String sketchName, Instant from) {
+        return jdbcTemplate.query(SELECT, (rs, rowNum) -> rs.getBytes(1), sketchName, toTimestamp(from));
+    }
+
+    public int deleteBefore(Instant before) {
+        return jdbcTemplate.update(DELETE_BEFORE, toTimestamp(before));
+    }
+
+    private static Timestamp toTimestamp(Instant instant) {
+        return Timestamp.valueOf(LocalDateTime.ofInstant(instant, ZoneOffset.UTC));
+    }
+}
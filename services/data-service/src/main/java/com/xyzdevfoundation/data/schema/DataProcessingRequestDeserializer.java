@@ -0,0 +1,139 @@
+package com.xyzdevfoundation.data.schema;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.xyzdevfoundation.data.dto.DataProcessingRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads {@link DataProcessingRequest}s straight into the compact layout of
+ * their {@code dataType}.
+ *
+ * When {@code dataType} precedes {@code data} in the document - the usual
+ * case - the payload is written into a {@link TypedRecord} token by token
+ * without an intermediate map. Otherwise the payload is read as a map with
+ * interned keys and compacted once the type is known.
+ */
+@JsonComponent
+@RequiredArgsConstructor
+public class DataProcessingRequestDeserializer extends JsonDeserializer<DataProcessingRequest> {
+
+    private final SchemaRegistry schemaRegistry;
+
+    @Override
+    public DataProcessingRequest deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (!parser.isExpectedStartObjectToken()) {
+            return (DataProcessingRequest) context.handleUnexpectedToken(DataProcessingRequest.class, parser);
+        }
+
+        DataProcessingRequest request = new DataProcessingRequest();
+        for (String field = parser.nextFieldName(); field != null; field = parser.nextFieldName()) {
+            JsonToken token = parser.nextToken();
+            switch (field) {
+                case "dataType":
+                    request.setDataType(readString(parser, context, token));
+                    break;
+                case "source":
+                    request.setSource(readString(parser, context, token));
+                    break;
+                case "processingType":
+                    request.setProcessingType(readString(parser, context, token));
+                    break;
+                case "data":
+                    request.setData(readPayload(parser, context, token, request.getDataType()));
+                    break;
+                case "metadata":
+                    request.setMetadata(readPayload(parser, context, token, null));
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+
+        if (request.getData() != null && !(request.getData() instanceof TypedRecord)) {
+            request.setData(schemaRegistry.compact(request.getDataType(), request.getData()));
+        }
+        return request;
+    }
+
+    private String readString(JsonParser parser, DeserializationContext context, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!token.isScalarValue()) {
+            return (String) context.handleUnexpectedToken(String.class, parser);
+        }
+        return parser.getValueAsString();
+    }
+
+    private Map<String, Object> readPayload(JsonParser parser, DeserializationContext context, JsonToken token,
+                                            String dataType) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> unexpected = (Map<String, Object>) context.handleUnexpectedToken(Map.class, parser);
+            return unexpected;
+        }
+
+        RecordSchema schema = schemaRegistry.find(dataType).orElse(null);
+        if (schema == null) {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            for (String key = parser.nextFieldName(); key != null; key = parser.nextFieldName()) {
+                parser.nextToken();
+                payload.put(schemaRegistry.internKey(key), context.readValue(parser, Object.class));
+            }
+            return payload;
+        }
+
+        TypedRecord record = schema.newRecord();
+        for (String key = parser.nextFieldName(); key != null; key = parser.nextFieldName()) {
+            JsonToken valueToken = parser.nextToken();
+            int field = schema.indexOf(key);
+            if (field < 0 || !readTyped(parser, record, field, valueToken)) {
+                record.putExtra(schemaRegistry.internKey(key), context.readValue(parser, Object.class));
+            }
+        }
+        return record;
+    }
+
+    private boolean readTyped(JsonParser parser, TypedRecord record, int field, JsonToken token) throws IOException {
+        switch (record.getSchema().fieldType(field)) {
+            case LONG:
+                if (token == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {
+                    record.setLong(field, parser.getLongValue());
+                    return true;
+                }
+                return false;
+            case DOUBLE:
+                // An integer stays an extra so it reads back as written, not as 20.0
+                if (token == JsonToken.VALUE_NUMBER_FLOAT && parser.getNumberType() == JsonParser.NumberType.DOUBLE) {
+                    record.setDouble(field, parser.getDoubleValue());
+                    return true;
+                }
+                return false;
+            case BOOLEAN:
+                if (token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE) {
+                    record.setBoolean(field, token == JsonToken.VALUE_TRUE);
+                    return true;
+                }
+                return false;
+            case STRING:
+                if (token == JsonToken.VALUE_STRING) {
+                    record.setString(field, parser.getText());
+                    return true;
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+}
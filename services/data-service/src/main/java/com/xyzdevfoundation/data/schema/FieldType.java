@@ -0,0 +1,18 @@
+package com.xyzdevfoundation.data.schema;
+
+/**
+ * Value types a schema field can be declared with.
+ *
+ * LONG, DOUBLE and BOOLEAN fields are stored unboxed in a record's primitive slots;
+ * STRING fields are stored in its reference slots.
+ */
+public enum FieldType {
+    LONG,
+    DOUBLE,
+    BOOLEAN,
+    STRING;
+
+    boolean isPrimitive() {
+        return this != STRING;
+    }
+}
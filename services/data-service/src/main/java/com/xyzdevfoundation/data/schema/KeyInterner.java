@@ -0,0 +1,30 @@
+package com.xyzdevfoundation.data.schema;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded interner for payload keys, so records of the same shape share one
+ * String instance per key. Once the bound is reached new keys are returned as-is,
+ * which keeps arbitrary client-supplied keys from growing the table forever.
+ */
+public class KeyInterner {
+
+    private final ConcurrentHashMap<String, String> keys = new ConcurrentHashMap<>();
+    private final int maxKeys;
+
+    public KeyInterner(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    public String intern(String key) {
+        String existing = keys.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        if (keys.size() >= maxKeys) {
+            return key;
+        }
+        existing = keys.putIfAbsent(key, key);
+        return existing != null ? existing : key;
+    }
+}
@@ -0,0 +1,93 @@
+package com.xyzdevfoundation.data.schema;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compiled record layout for one {@code dataType}.
+ *
+ * Every declared field is assigned a slot: primitive fields index into a
+ * {@code long[]} (doubles are stored as raw bits, booleans as 0/1) and string
+ * fields into a {@code String[]}. Field names are interned once here and shared
+ * by every {@link TypedRecord} built from this schema.
+ */
+public final class RecordSchema {
+
+    private final String dataType;
+    private final String[] fieldNames;
+    private final FieldType[] fieldTypes;
+    private final int[] slots;
+    private final Map<String, Integer> fieldIndex;
+    private final int primitiveSlots;
+    private final int referenceSlots;
+
+    private RecordSchema(String dataType, String[] fieldNames, FieldType[] fieldTypes, int[] slots,
+                         Map<String, Integer> fieldIndex, int primitiveSlots, int referenceSlots) {
+        this.dataType = dataType;
+        this.fieldNames = fieldNames;
+        this.fieldTypes = fieldTypes;
+        this.slots = slots;
+        this.fieldIndex = fieldIndex;
+        this.primitiveSlots = primitiveSlots;
+        this.referenceSlots = referenceSlots;
+    }
+
+    public static RecordSchema compile(String dataType, Map<String, FieldType> fields) {
+        int size = fields.size();
+        String[] names = new String[size];
+        FieldType[] types = new FieldType[size];
+        int[] slots = new int[size];
+        Map<String, Integer> index = new HashMap<>(size * 2);
+        int primitives = 0;
+        int references = 0;
+        int field = 0;
+        for (Map.Entry<String, FieldType> entry : fields.entrySet()) {
+            names[field] = entry.getKey().intern();
+            types[field] = entry.getValue();
+            slots[field] = entry.getValue().isPrimitive() ? primitives++ : references++;
+            index.put(names[field], field);
+            field++;
+        }
+        return new RecordSchema(dataType, names, types, slots, index, primitives, references);
+    }
+
+    public TypedRecord newRecord() {
+        return new TypedRecord(this);
+    }
+
+    public String getDataType() {
+        return dataType;
+    }
+
+    public int fieldCount() {
+        return fieldNames.length;
+    }
+
+    /**
+     * @return the field number for {@code name}, or -1 if the schema does not declare it
+     */
+    public int indexOf(Object name) {
+        Integer field = fieldIndex.get(name);
+        return field != null ? field : -1;
+    }
+
+    public String fieldName(int field) {
+        return fieldNames[field];
+    }
+
+    public FieldType fieldType(int field) {
+        return fieldTypes[field];
+    }
+
+    int slot(int field) {
+        return slots[field];
+    }
+
+    int primitiveSlots() {
+        return primitiveSlots;
+    }
+
+    int referenceSlots() {
+        return referenceSlots;
+    }
+}
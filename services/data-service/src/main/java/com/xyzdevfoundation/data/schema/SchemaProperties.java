@@ -0,0 +1,31 @@
+package com.xyzdevfoundation.data.schema;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Record schemas keyed by {@code dataType}, e.g.
+ *
+ * <pre>
+ * app:
+ *   data:
+ *     schemas:
+ *       sensor:
+ *         deviceId: STRING
+ *         temperature: DOUBLE
+ *         online: BOOLEAN
+ * </pre>
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.data")
+public class SchemaProperties {
+
+    private Map<String, Map<String, FieldType>> schemas = new LinkedHashMap<>();
+
+    private int maxInternedKeys = 10000;
+}
@@ -0,0 +1,59 @@
+package com.xyzdevfoundation.data.schema;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-{@code dataType} registry of compiled {@link RecordSchema}s.
+ *
+ * Payloads of a registered type are held as {@link TypedRecord}s; payloads of
+ * any other type stay plain maps with interned keys.
+ */
+@Component
+@Slf4j
+public class SchemaRegistry {
+
+    private final Map<String, RecordSchema> schemas = new ConcurrentHashMap<>();
+    private final KeyInterner keyInterner;
+
+    public SchemaRegistry(SchemaProperties properties) {
+        this.keyInterner = new KeyInterner(properties.getMaxInternedKeys());
+        properties.getSchemas().forEach(this::register);
+    }
+
+    public RecordSchema register(String dataType, Map<String, FieldType> fields) {
+        RecordSchema schema = RecordSchema.compile(dataType, fields);
+        schemas.put(dataType, schema);
+        log.info("Registered schema for dataType {} with {} fields", dataType, schema.fieldCount());
+        return schema;
+    }
+
+    public Optional<RecordSchema> find(String dataType) {
+        return dataType != null ? Optional.ofNullable(schemas.get(dataType)) : Optional.empty();
+    }
+
+    public String internKey(String key) {
+        return keyInterner.intern(key);
+    }
+
+    /**
+     * Re-lays an already materialised payload, e.g. one read back from storage,
+     * into the compact layout of its type. Unregistered types are returned unchanged.
+     */
+    public Map<String, Object> compact(String dataType, Map<String, Object> payload) {
+        if (payload == null || payload instanceof TypedRecord) {
+            return payload;
+        }
+        return find(dataType)
+                .<Map<String, Object>>map(schema -> {
+                    TypedRecord record = schema.newRecord();
+                    payload.forEach((key, value) -> record.put(internKey(key), value));
+                    return record;
+                })
+                .orElse(payload);
+    }
+}
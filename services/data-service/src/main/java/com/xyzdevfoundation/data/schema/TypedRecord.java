@@ -0,0 +1,240 @@
+package com.xyzdevfoundation.data.schema;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Record payload laid out by a {@link RecordSchema}.
+ *
+ * Declared fields live unboxed in slot arrays instead of HashMap nodes; values
+ * that are not declared, or that do not match their declared type, are kept
+ * in a small overflow map so nothing the client sent is lost. The record is
+ * still a {@code Map<String, Object>}, so it serializes and reads exactly like
+ * the untyped payload it replaces.
+ */
+public final class TypedRecord extends AbstractMap<String, Object> {
+
+    private final RecordSchema schema;
+    private final long[] primitives;
+    private final String[] references;
+    private final long[] present;
+    private Map<String, Object> extras;
+
+    TypedRecord(RecordSchema schema) {
+        this.schema = schema;
+        this.primitives = new long[schema.primitiveSlots()];
+        this.references = new String[schema.referenceSlots()];
+        this.present = new long[(schema.fieldCount() + 63) >>> 6];
+    }
+
+    public RecordSchema getSchema() {
+        return schema;
+    }
+
+    public void setLong(int field, long value) {
+        primitives[schema.slot(field)] = value;
+        markPresent(field);
+    }
+
+    public void setDouble(int field, double value) {
+        primitives[schema.slot(field)] = Double.doubleToRawLongBits(value);
+        markPresent(field);
+    }
+
+    public void setBoolean(int field, boolean value) {
+        primitives[schema.slot(field)] = value ? 1L : 0L;
+        markPresent(field);
+    }
+
+    public void setString(int field, String value) {
+        references[schema.slot(field)] = value;
+        markPresent(field);
+    }
+
+    /**
+     * Keeps {@code value} as given, replacing whatever the record held for {@code key}.
+     */
+    public void putExtra(String key, Object value) {
+        int field = schema.indexOf(key);
+        if (field >= 0) {
+            clearPresent(field);
+        }
+        if (extras == null) {
+            extras = new LinkedHashMap<>(4);
+        }
+        extras.put(key, value);
+    }
+
+    @Override
+    public Object get(Object key) {
+        int field = schema.indexOf(key);
+        if (field >= 0 && isPresent(field)) {
+            return valueOf(field);
+        }
+        return extras != null ? extras.get(key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        int field = schema.indexOf(key);
+        if (field >= 0 && isPresent(field)) {
+            return true;
+        }
+        return extras != null && extras.containsKey(key);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        Object previous = get(key);
+        int field = schema.indexOf(key);
+        if (field < 0 || !setTyped(field, value)) {
+            putExtra(key, value);
+        }
+        return previous;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        Object previous = get(key);
+        int field = schema.indexOf(key);
+        if (field >= 0) {
+            clearPresent(field);
+        }
+        if (extras != null) {
+            extras.remove(key);
+        }
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (long word : present) {
+            size += Long.bitCount(word);
+        }
+        return extras != null ? size + extras.size() : size;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return TypedRecord.this.size();
+            }
+        };
+    }
+
+    private boolean setTyped(int field, Object value) {
+        switch (schema.fieldType(field)) {
+            case LONG:
+                if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                    setLong(field, ((Number) value).longValue());
+                    return true;
+                }
+                return false;
+            case DOUBLE:
+                // Integral values stay extras so they read back as the integers they were
+                if (value instanceof Double || value instanceof Float) {
+                    setDouble(field, ((Number) value).doubleValue());
+                    return true;
+                }
+                return false;
+            case BOOLEAN:
+                if (value instanceof Boolean) {
+                    setBoolean(field, (Boolean) value);
+                    return true;
+                }
+                return false;
+            case STRING:
+                if (value instanceof String) {
+                    setString(field, (String) value);
+                    return true;
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    private Object valueOf(int field) {
+        int slot = schema.slot(field);
+        switch (schema.fieldType(field)) {
+            case LONG:
+                return primitives[slot];
+            case DOUBLE:
+                return Double.longBitsToDouble(primitives[slot]);
+            case BOOLEAN:
+                return primitives[slot] != 0L;
+            default:
+                return references[slot];
+        }
+    }
+
+    private boolean isPresent(int field) {
+        return (present[field >>> 6] & (1L << field)) != 0;
+    }
+
+    private void markPresent(int field) {
+        present[field >>> 6] |= 1L << field;
+        if (extras != null) {
+            // A value of the wrong type seen earlier under the same key, e.g. a duplicate JSON key
+            extras.remove(schema.fieldName(field));
+        }
+    }
+
+    private void clearPresent(int field) {
+        present[field >>> 6] &= ~(1L << field);
+        if (!schema.fieldType(field).isPrimitive()) {
+            references[schema.slot(field)] = null;
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Entry<String, Object>> {
+
+        private int nextField = advance(0);
+        private Iterator<Entry<String, Object>> extrasIterator;
+
+        private int advance(int from) {
+            int field = from;
+            while (field < schema.fieldCount() && !isPresent(field)) {
+                field++;
+            }
+            return field;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextField < schema.fieldCount()) {
+                return true;
+            }
+            if (extrasIterator == null && extras != null) {
+                extrasIterator = extras.entrySet().iterator();
+            }
+            return extrasIterator != null && extrasIterator.hasNext();
+        }
+
+        @Override
+        public Entry<String, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (nextField < schema.fieldCount()) {
+                int field = nextField;
+                nextField = advance(field + 1);
+                return new SimpleImmutableEntry<>(schema.fieldName(field), valueOf(field));
+            }
+            return extrasIterator.next();
+        }
+    }
+}
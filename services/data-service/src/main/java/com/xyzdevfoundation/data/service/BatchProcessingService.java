@@ -0,0 +1,122 @@
+package com.xyzdevfoundation.data.service;
+
+import com.xyzdevfoundation.data.dto.BatchProcessResponse;
+import com.xyzdevfoundation.data.dto.DataProcessingRequest;
+import com.xyzdevfoundation.data.exception.BatchTooLargeException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Processes a list of records in one request.
+ *
+ * A batch runs on a fixed number of lanes: each lane takes the next
+ * unprocessed index and hands it to the processing pipeline, starting another
+ * only when its previous record has finished. At most {@code parallelism}
+ * records of one batch are therefore in the pipeline at any time, whatever
+ * the batch size, and the remaining capacity of each processing type stays
+ * available to other callers. Results are written into their input slot, so
+ * the response preserves input order.
+ */
+@Service
+@Slf4j
+public class BatchProcessingService {
+
+    private final DataProcessingService dataProcessingService;
+    private final int parallelism;
+    private final int maxBatchSize;
+    private final Timer batchTimer;
+    private final DistributionSummary throughput;
+
+    public BatchProcessingService(DataProcessingService dataProcessingService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.processing.batch.parallelism:4}") int parallelism,
+                                  @Value("${app.processing.batch.max-size:1000}") int maxBatchSize) {
+        this.dataProcessingService = dataProcessingService;
+        this.parallelism = Math.max(1, parallelism);
+        this.maxBatchSize = maxBatchSize;
+        this.batchTimer = Timer.builder("data.processing.batch")
+                .description("Time to process one batch request end to end")
+                .register(meterRegistry);
+        this.throughput = DistributionSummary.builder("data.processing.batch.throughput")
+                .baseUnit("records/s")
+                .description("Records processed per second within a batch request")
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<BatchProcessResponse> processBatch(List<DataProcessingRequest> requests) {
+        if (requests.size() > maxBatchSize) {
+            throw new BatchTooLargeException("Batch of " + requests.size() + " records exceeds the limit of " + maxBatchSize);
+        }
+        log.info("Processing batch of {} records", requests.size());
+        long start = System.nanoTime();
+
+        BatchProcessResponse.ItemResult[] results = new BatchProcessResponse.ItemResult[requests.size()];
+        AtomicInteger next = new AtomicInteger();
+        CompletableFuture<?>[] lanes = new CompletableFuture<?>[Math.min(parallelism, requests.size())];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = runLane(requests, results, next);
+        }
+
+        return CompletableFuture.allOf(lanes).thenApply(done -> {
+            long elapsedNanos = System.nanoTime() - start;
+            batchTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            double recordsPerSecond = elapsedNanos > 0 ? requests.size() * 1e9 / elapsedNanos : 0;
+            if (!requests.isEmpty()) {
+                throughput.record(recordsPerSecond);
+            }
+
+            List<BatchProcessResponse.ItemResult> ordered = new ArrayList<>(Arrays.asList(results));
+            int succeeded = (int) ordered.stream().filter(item -> item.getError() == null).count();
+            return BatchProcessResponse.builder()
+                    .total(requests.size())
+                    .succeeded(succeeded)
+                    .failed(requests.size() - succeeded)
+                    .durationMs(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+                    .recordsPerSecond(recordsPerSecond)
+                    .results(ordered)
+                    .build();
+        });
+    }
+
+    private CompletableFuture<Void> runLane(List<DataProcessingRequest> requests,
+                                            BatchProcessResponse.ItemResult[] results,
+                                            AtomicInteger next) {
+        int index = next.getAndIncrement();
+        if (index >= requests.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Map<String, Object>> record;
+        try {
+            record = dataProcessingService.processData(requests.get(index));
+        } catch (RuntimeException e) {
+            record = CompletableFuture.failedFuture(e);
+        }
+        return record
+                .handle((result, failure) -> {
+                    results[index] = failure == null
+                            ? BatchProcessResponse.ItemResult.builder().index(index).status("SUCCESS").result(result).build()
+                            : BatchProcessResponse.ItemResult.builder().index(index).status("FAILED").error(message(failure)).build();
+                    return null;
+                })
+                // Async hand-off keeps the stack flat when records complete synchronously, e.g. on rejection
+                .thenComposeAsync(done -> runLane(requests, results, next));
+    }
+
+    private static String message(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,275 @@
+package com.xyzdevfoundation.data.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xyzdevfoundation.data.exception.InvalidExportRequestException;
+import com.xyzdevfoundation.data.model.RawDataRecord;
+import com.xyzdevfoundation.data.repository.ColdSegmentRepository;
+import com.xyzdevfoundation.data.repository.DataRecordRepository;
+import com.xyzdevfoundation.data.tiering.ColdSegment;
+import com.xyzdevfoundation.data.tiering.ColdStorage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Streams every record of a dataType in a time range as NDJSON or CSV.
+ *
+ * Records already moved to cold segments come first: every segment whose
+ * creation times overlap the range is read a block at a time and filtered,
+ * in ID order, which follows ingestion time. Then the rows still in
+ * {@code ingested_data} come from a server-side cursor, {@code fetch-size}
+ * at a time. Both are read in one repeatable-read transaction, so a
+ * tiering run that commits during the export neither hides nor repeats a
+ * record. Each record is written to the output as soon as it is read, so
+ * memory use is constant however many match.
+ * JSON columns are copied out as stored, without being parsed. Output is
+ * flushed after the header (or the first row) and then every
+ * {@code flush-interval-ms}, so the client gets its first bytes straight
+ * away and data keeps arriving in chunks.
+ */
+@Service
+@Slf4j
+public class DataExportService {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidExportRequestException("Unsupported export format '" + value + "', expected ndjson or csv");
+            }
+        }
+    }
+
+    private static final String[] CSV_COLUMNS =
+            {"id", "dataType", "source", "status", "createdAt", "processedAt", "data", "metadata"};
+
+    private final DataRecordRepository repository;
+    private final ColdSegmentRepository coldSegmentRepository;
+    private final ColdStorage coldStorage;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final MeterRegistry meterRegistry;
+    private final int fetchSize;
+    private final long flushIntervalNanos;
+
+    public DataExportService(DataRecordRepository repository,
+                             ColdSegmentRepository coldSegmentRepository,
+                             ColdStorage coldStorage,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.export.fetch-size:1000}") int fetchSize,
+                             @Value("${app.export.flush-interval-ms:500}") long flushIntervalMs) {
+        this.repository = repository;
+        this.coldSegmentRepository = coldSegmentRepository;
+        this.coldStorage = coldStorage;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.fetchSize = fetchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // One snapshot for the segment catalog and the table, whichever way records move between them
+        this.readOnlyTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    public void validate(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new InvalidExportRequestException("Export range is empty: from must be before to");
+        }
+    }
+
+    /**
+     * Writes the matching records to {@code out} and returns how many were written.
+     */
+    public long export(String dataType, LocalDateTime from, LocalDateTime to, Format format, OutputStream out)
+            throws IOException {
+        validate(from, to);
+        long start = System.nanoTime();
+        RowWriter writer = format == Format.CSV ? new CsvWriter(out) : new NdjsonWriter(out);
+        long[] exported = {0};
+        try {
+            writer.begin();
+            writer.flush();
+            Consumer<RawDataRecord> write = record -> {
+                try {
+                    writer.write(record);
+                    exported[0]++;
+                    if (exported[0] == 1 || System.nanoTime() - writer.lastFlush >= flushIntervalNanos) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+            readOnlyTransaction.executeWithoutResult(status -> {
+                for (ColdSegment segment : coldStorage.segments(coldSegmentRepository.findOverlapping(from, to))) {
+                    segment.forEach(record -> {
+                        if (dataType.equals(record.getDataType()) && !record.getCreatedAt().isBefore(from)
+                                && record.getCreatedAt().isBefore(to)) {
+                            write.accept(record);
+                        }
+                    });
+                }
+                repository.streamRange(dataType, from, to, fetchSize, write);
+            });
+            writer.flush();
+        } catch (UncheckedIOException e) {
+            // Usually the client disconnected; the cursor and transaction are already closed
+            throw e.getCause();
+        } finally {
+            Timer.builder("data.export.duration")
+                    .tag("format", format.getExtension())
+                    .description("Time to stream one export")
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            meterRegistry.counter("data.export.records", "format", format.getExtension()).increment(exported[0]);
+        }
+        log.info("Exported {} records of type {} as {}", exported[0], dataType, format);
+        return exported[0];
+    }
+
+    private abstract static class RowWriter {
+        long lastFlush = System.nanoTime();
+
+        void begin() throws IOException {
+        }
+
+        abstract void write(RawDataRecord record) throws IOException;
+
+        void flush() throws IOException {
+            lastFlush = System.nanoTime();
+        }
+    }
+
+    private final class NdjsonWriter extends RowWriter {
+        private final JsonGenerator generator;
+
+        private NdjsonWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        }
+
+        @Override
+        void write(RawDataRecord record) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("id", String.valueOf(record.getId()));
+            generator.writeStringField("dataType", record.getDataType());
+            generator.writeStringField("source", record.getSource());
+            generator.writeStringField("status", record.getStatus());
+            writeRawField("data", record.getDataJson());
+            writeRawField("metadata", record.getMetadataJson());
+            generator.writeStringField("createdAt", toText(record.getCreatedAt()));
+            generator.writeStringField("processedAt", toText(record.getProcessedAt()));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        private void writeRawField(String name, String json) throws IOException {
+            generator.writeFieldName(name);
+            if (json != null) {
+                generator.writeRawValue(json);
+            } else {
+                generator.writeNull();
+            }
+        }
+
+        @Override
+        void flush() throws IOException {
+            generator.flush();
+            super.flush();
+        }
+    }
+
+    private static final class CsvWriter extends RowWriter {
+        private final BufferedWriter out;
+
+        private CsvWriter(OutputStream out) {
+            this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+        }
+
+        @Override
+        void begin() throws IOException {
+            out.write(String.join(",", CSV_COLUMNS));
+            out.write("\r\n");
+        }
+
+        @Override
+        void write(RawDataRecord record) throws IOException {
+            writeField(String.valueOf(record.getId()), false);
+            writeField(record.getDataType(), false);
+            writeField(record.getSource(), false);
+            writeField(record.getStatus(), false);
+            writeField(toText(record.getCreatedAt()), false);
+            writeField(toText(record.getProcessedAt()), false);
+            writeField(record.getDataJson(), false);
+            writeField(record.getMetadataJson(), true);
+        }
+
+        /**
+         * Writes one RFC 4180 field; null stays empty and anything containing a
+         * delimiter, quote or line break is quoted with quotes doubled.
+         */
+        private void writeField(String value, boolean last) throws IOException {
+            if (value != null) {
+                boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                        || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+                if (quote) {
+                    out.write('"');
+                    out.write(value.replace("\"", "\"\""));
+                    out.write('"');
+                } else {
+                    out.write(value);
+                }
+            }
+            out.write(last ? "\r\n" : ",");
+        }
+
+        @Override
+        void flush() throws IOException {
+            out.flush();
+            super.flush();
+        }
+    }
+
+    private static String toText(LocalDateTime value) {
+        return value != null ? value.toString() : null;
+    }
+}
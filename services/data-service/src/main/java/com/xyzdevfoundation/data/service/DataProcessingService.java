@@ -1,118 +1,389 @@
 package com.xyzdevfoundation.data.service;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.xyzdevfoundation.data.admission.AdmissionController;
+import com.xyzdevfoundation.data.analytics.AnalyticsService;
+import com.xyzdevfoundation.data.analytics.LatencyHistogramStore;
+import com.xyzdevfoundation.data.analytics.TrafficSketches;
 import com.xyzdevfoundation.data.dto.DataProcessingRequest;
 import com.xyzdevfoundation.data.dto.DataResponse;
-import lombok.RequiredArgsConstructor;
+import com.xyzdevfoundation.data.dto.SearchPageResponse;
+import com.xyzdevfoundation.data.dto.StoreSyncResponse;
+import com.xyzdevfoundation.data.dto.StreamDeliveryStatus;
+import com.xyzdevfoundation.data.dto.StreamIngestResponse;
+import com.xyzdevfoundation.data.event.DataEvent;
+import com.xyzdevfoundation.data.event.StreamRecordEvent;
+import com.xyzdevfoundation.data.exception.AdmissionRejectedException;
+import com.xyzdevfoundation.data.exception.UnsupportedProcessingTypeException;
+import com.xyzdevfoundation.data.kafka.RecordKeyResolver;
+import com.xyzdevfoundation.data.model.DataRecord;
+import com.xyzdevfoundation.data.processing.ProcessingPipeline;
+import com.xyzdevfoundation.data.repository.DataRecordRepository;
+import com.xyzdevfoundation.data.sink.StoreWriteCoordinator;
+import com.xyzdevfoundation.data.stream.StreamDeliveryTracker;
+import com.xyzdevfoundation.data.stream.StreamTailHub;
+import com.xyzdevfoundation.data.tiering.ColdStorage;
+import com.xyzdevfoundation.data.util.TimeOrderedIdGenerator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class DataProcessingService {
 
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final IngestWriteBehindBuffer ingestBuffer;
+    private final DataRecordRepository dataRecordRepository;
+    private final DataRecordCache dataRecordCache;
+    private final ColdStorage coldStorage;
+    private final DataSearchService dataSearchService;
+    private final AnalyticsService analyticsService;
+    private final LatencyHistogramStore latencyHistograms;
+    private final TrafficSketches trafficSketches;
+    private final ProcessingPipeline processingPipeline;
+    private final RecordKeyResolver recordKeyResolver;
+    private final AdmissionController admissionController;
+    private final StreamDeliveryTracker deliveryTracker;
+    private final StreamTailHub streamTailHub;
+    private final StoreWriteCoordinator storeWriter;
+    private final Validator validator;
+    private final ObjectReader ndjsonReader;
+    private final int maxReportedStreamErrors;
+
+    public DataProcessingService(KafkaTemplate<String, Object> kafkaTemplate,
+                                 IngestWriteBehindBuffer ingestBuffer,
+                                 DataRecordRepository dataRecordRepository,
+                                 DataRecordCache dataRecordCache,
+                                 ColdStorage coldStorage,
+                                 DataSearchService dataSearchService,
+                                 AnalyticsService analyticsService,
+                                 LatencyHistogramStore latencyHistograms,
+                                 TrafficSketches trafficSketches,
+                                 ProcessingPipeline processingPipeline,
+                                 RecordKeyResolver recordKeyResolver,
+                                 AdmissionController admissionController,
+                                 StreamDeliveryTracker deliveryTracker,
+                                 StreamTailHub streamTailHub,
+                                 StoreWriteCoordinator storeWriter,
+                                 Validator validator,
+                                 ObjectMapper objectMapper,
+                                 @Value("${app.ingest.stream.max-reported-errors:100}") int maxReportedStreamErrors) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.ingestBuffer = ingestBuffer;
+        this.dataRecordRepository = dataRecordRepository;
+        this.dataRecordCache = dataRecordCache;
+        this.coldStorage = coldStorage;
+        this.dataSearchService = dataSearchService;
+        this.analyticsService = analyticsService;
+        this.latencyHistograms = latencyHistograms;
+        this.trafficSketches = trafficSketches;
+        this.processingPipeline = processingPipeline;
+        this.recordKeyResolver = recordKeyResolver;
+        this.admissionController = admissionController;
+        this.deliveryTracker = deliveryTracker;
+        this.streamTailHub = streamTailHub;
+        this.storeWriter = storeWriter;
+        this.validator = validator;
+        this.ndjsonReader = objectMapper.readerFor(DataProcessingRequest.class);
+        this.maxReportedStreamErrors = maxReportedStreamErrors;
+    }
 
     public DataResponse ingestData(DataProcessingRequest request) {
         log.info("Ingesting data of type: {}", request.getDataType());
+        long start = System.currentTimeMillis();
         
-        DataResponse response = DataResponse.builder()
-                .id(UUID.randomUUID())
+        DataRecord record = DataRecord.builder()
+                .id(TimeOrderedIdGenerator.nextId())
                 .dataType(request.getDataType())
                 .data(request.getData())
+                .metadata(request.getMetadata())
                 .source(request.getSource())
                 .status("INGESTED")
                 .createdAt(LocalDateTime.now())
                 .build();
         
-        // Publish to Kafka
-        kafkaTemplate.send("data-events", Map.of(
-            "eventType", "DATA_INGESTED",
-            "dataId", response.getId(),
-            "dataType", request.getDataType()
-        ));
+        // Persisted asynchronously in batches; the event is relayed to Kafka from the outbox once stored
+        admissionController.admit(1);
+        try {
+            ingestBuffer.submit(record, recordKeyResolver.keyFor(request), DataEvent.builder()
+                    .eventType(DataEvent.DATA_INGESTED)
+                    .dataId(record.getId())
+                    .dataType(request.getDataType())
+                    .source(request.getSource())
+                    .timestamp(System.currentTimeMillis())
+                    .build());
+        } finally {
+            admissionController.release(1);
+        }
+        trafficSketches.record(request.getDataType(), request.getSource());
+        DataResponse response = DataResponse.fromRecord(record);
         
+        latencyHistograms.record(request.getDataType(), LatencyHistogramStore.INGEST, System.currentTimeMillis() - start);
         return response;
     }
 
     public DataResponse getDataById(UUID id) {
         log.info("Fetching data with ID: {}", id);
         
-        return DataResponse.builder()
+        DataRecord record = ingestBuffer.findPending(id)
+                .or(() -> dataRecordCache.get(id, this::loadRecord))
+                .orElseThrow(() -> new RuntimeException("Data not found with ID: " + id));
+        return DataResponse.fromRecord(record);
+    }
+
+    /**
+     * Which stores have caught up to a record, e.g. whether search can find it yet.
+     */
+    public StoreSyncResponse getStoreSync(UUID id) {
+        boolean buffered = ingestBuffer.findPending(id).isPresent();
+        if (!buffered && dataRecordCache.get(id, this::loadRecord).isEmpty()) {
+            throw new RuntimeException("Data not found with ID: " + id);
+        }
+        List<StoreSyncResponse.StoreStatus> stores = new ArrayList<>();
+        for (String store : storeWriter.storeNames()) {
+            // Still in the write-behind buffer, so not even PostgreSQL has it
+            StoreWriteCoordinator.RecordState state = buffered
+                    ? StoreWriteCoordinator.RecordState.PENDING
+                    : storeWriter.recordState(store, id);
+            stores.add(StoreSyncResponse.StoreStatus.builder()
+                    .store(store)
+                    .state(state.name())
+                    .caughtUp(state == StoreWriteCoordinator.RecordState.CAUGHT_UP)
+                    .highWaterMark(storeWriter.highWaterMark(store))
+                    .lagMs(storeWriter.lagMillis(store))
+                    .build());
+        }
+        return StoreSyncResponse.builder()
                 .id(id)
-                .dataType("sample")
-                .data(Map.of("key", "value"))
-                .status("PROCESSED")
-                .createdAt(LocalDateTime.now().minusHours(1))
-                .processedAt(LocalDateTime.now())
+                .synced(stores.stream().allMatch(StoreSyncResponse.StoreStatus::isCaughtUp))
+                .stores(stores)
                 .build();
     }
 
-    public Page<DataResponse> searchData(String query, String dataType, Pageable pageable) {
+    // Records past app.tiering.age live in cold segments instead of ingested_data
+    private Optional<DataRecord> loadRecord(UUID id) {
+        return dataRecordRepository.findById(id).or(() -> coldStorage.find(id));
+    }
+
+    public SearchPageResponse searchData(String query, String dataType, String cursor, int size) {
         log.info("Searching data with query: {}, type: {}", query, dataType);
-        
-        List<DataResponse> results = Arrays.asList(
-            DataResponse.builder()
-                .id(UUID.randomUUID())
-                .dataType(dataType != null ? dataType : "search_result")
-                .data(Map.of("query", query, "result", "match"))
-                .status("PROCESSED")
-                .createdAt(LocalDateTime.now())
-                .build()
-        );
-        
-        return new PageImpl<>(results, pageable, results.size());
+        return dataSearchService.search(query, dataType, cursor, size);
     }
 
-    public Map<String, Object> processData(DataProcessingRequest request) {
-        log.info("Processing data of type: {}", request.getDataType());
-        
-        Map<String, Object> result = new HashMap<>();
-        result.put("processedId", UUID.randomUUID());
-        result.put("status", "SUCCESS");
-        result.put("processedAt", LocalDateTime.now());
-        result.put("dataType", request.getDataType());
-        result.put("recordsProcessed", 1);
+    /**
+     * Runs the pipeline registered for the request's processingType on that
+     * type's own executor; the calling thread is released immediately.
+     */
+    public CompletableFuture<Map<String, Object>> processData(DataProcessingRequest request) {
+        return processData(request, percent -> { });
+    }
+
+    public CompletableFuture<Map<String, Object>> processData(DataProcessingRequest request, IntConsumer progress) {
+        log.info("Processing data of type: {}, processingType: {}", request.getDataType(), request.getProcessingType());
+        long start = System.currentTimeMillis();
         
-        return result;
+        return processingPipeline.process(request, progress).handle((context, failure) -> {
+            long end = System.currentTimeMillis();
+            if (failure != null) {
+                Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                        ? failure.getCause() : failure;
+                log.warn("Processing of type {} failed: {}", request.getDataType(), cause.getMessage());
+                // An unknown processingType is a client error, not a processing failure
+                if (!(cause instanceof UnsupportedProcessingTypeException)) {
+                    kafkaTemplate.send(DataEvent.TOPIC, recordKeyResolver.keyFor(request), DataEvent.builder()
+                            .eventType(DataEvent.DATA_PROCESSING_FAILED)
+                            .dataType(request.getDataType())
+                            .source(request.getSource())
+                            .processingTimeMs(end - start)
+                            .timestamp(end)
+                            .build());
+                }
+                throw cause instanceof RuntimeException runtime ? runtime : new CompletionException(cause);
+            }
+            
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("processedId", context.getProcessedId());
+            result.put("status", "SUCCESS");
+            result.put("processedAt", LocalDateTime.now());
+            result.put("dataType", request.getDataType());
+            result.put("processingType", context.getProcessingType());
+            result.put("recordsProcessed", context.getRecordsProcessed());
+            if (context.getScore() != null) {
+                result.put("score", context.getScore());
+            }
+            result.put("stageTimingsMs", context.getStageTimingsMs());
+            
+            kafkaTemplate.send(DataEvent.TOPIC, recordKeyResolver.keyFor(request), DataEvent.builder()
+                    .eventType(DataEvent.DATA_PROCESSED)
+                    .dataId(context.getProcessedId())
+                    .dataType(request.getDataType())
+                    .source(request.getSource())
+                    .processingTimeMs(end - start)
+                    .timestamp(end)
+                    .build());
+            latencyHistograms.record(request.getDataType(), LatencyHistogramStore.PROCESSING, end - start);
+            return result;
+        });
     }
 
     public Map<String, Object> getAnalytics(String dataType, String timeRange) {
         log.info("Getting analytics for type: {}, range: {}", dataType, timeRange);
-        
-        Map<String, Object> analytics = new HashMap<>();
-        analytics.put("totalRecords", 1000);
-        analytics.put("processedRecords", 950);
-        analytics.put("errorRate", 0.05);
-        analytics.put("averageProcessingTime", "45ms");
-        analytics.put("dataType", dataType);
-        analytics.put("timeRange", timeRange);
-        
-        return analytics;
+        return analyticsService.getAnalytics(dataType, timeRange);
     }
 
     public String streamData(List<DataProcessingRequest> requests) {
         log.info("Streaming {} data records", requests.size());
         
-        String streamId = "stream_" + UUID.randomUUID().toString().substring(0, 8);
+        String streamId = TimeOrderedIdGenerator.nextStreamId();
         
-        // Process each request asynchronously
-        requests.forEach(request -> {
-            kafkaTemplate.send("data-stream", Map.of(
-                "streamId", streamId,
-                "dataType", request.getDataType(),
-                "data", request.getData(),
-                "timestamp", System.currentTimeMillis()
-            ));
-        });
+        // Process each request asynchronously; admission is held until each record is delivered, dead-lettered or parked
+        admissionController.admit(requests.size());
+        deliveryTracker.open(streamId);
+        int published = 0;
+        CompletableFuture<Void> durable = CompletableFuture.completedFuture(null);
+        try {
+            for (DataProcessingRequest request : requests) {
+                published++;
+                durable = publishStreamRecord(streamId, request);
+            }
+        } finally {
+            admissionController.release(requests.size() - published);
+            deliveryTracker.seal(streamId);
+        }
         
+        // Group commit syncs in append order, so the last record being durable covers the whole stream
+        durable.join();
         return streamId;
     }
+
+    /**
+     * Parses newline-delimited JSON one record at a time, validating and publishing
+     * each record as soon as it has been read. Only a bounded number of per-record
+     * errors is retained, so memory use does not grow with the size of the upload.
+     */
+    public StreamIngestResponse streamNdjson(InputStream body) throws IOException {
+        String streamId = TimeOrderedIdGenerator.nextStreamId();
+        log.info("Streaming NDJSON records for stream: {}", streamId);
+        
+        long recordNumber = 0;
+        long accepted = 0;
+        long rejected = 0;
+        List<StreamIngestResponse.RecordError> errors = new ArrayList<>();
+        CompletableFuture<Void> durable = CompletableFuture.completedFuture(null);
+        
+        deliveryTracker.open(streamId);
+        try (MappingIterator<DataProcessingRequest> records = ndjsonReader.readValues(body)) {
+            while (true) {
+                DataProcessingRequest request;
+                try {
+                    if (!records.hasNextValue()) {
+                        break;
+                    }
+                    recordNumber++;
+                    request = records.nextValue();
+                } catch (JsonParseException e) {
+                    // Malformed JSON leaves the parser without a safe point to resume from
+                    rejected++;
+                    addStreamError(errors, recordNumber, e.getLocation().getLineNr(), e.getOriginalMessage());
+                    break;
+                } catch (JsonMappingException e) {
+                    rejected++;
+                    addStreamError(errors, recordNumber, records.getCurrentLocation().getLineNr(), e.getOriginalMessage());
+                    continue;
+                }
+                
+                Set<ConstraintViolation<DataProcessingRequest>> violations = validator.validate(request);
+                if (!violations.isEmpty()) {
+                    rejected++;
+                    addStreamError(errors, recordNumber, records.getCurrentLocation().getLineNr(), violations.stream()
+                            .map(ConstraintViolation::getMessage)
+                            .collect(Collectors.joining("; ")));
+                    continue;
+                }
+                
+                try {
+                    admissionController.admit(1);
+                    durable = publishStreamRecord(streamId, request);
+                } catch (AdmissionRejectedException e) {
+                    if (accepted == 0) {
+                        throw e;
+                    }
+                    // Part of the upload is already published; report where it stopped instead of failing it
+                    rejected++;
+                    addStreamError(errors, recordNumber, records.getCurrentLocation().getLineNr(),
+                            e.getMessage() + "; records from here on were not read");
+                    break;
+                }
+                accepted++;
+            }
+        } finally {
+            deliveryTracker.seal(streamId);
+        }
+        durable.join();
+        
+        log.info("Stream {} finished: {} accepted, {} rejected", streamId, accepted, rejected);
+        return StreamIngestResponse.builder()
+                .streamId(streamId)
+                .accepted(accepted)
+                .rejected(rejected)
+                .errors(errors)
+                .errorsTruncated(rejected > errors.size())
+                .build();
+    }
+
+    private void addStreamError(List<StreamIngestResponse.RecordError> errors, long record, long line, String message) {
+        if (errors.size() < maxReportedStreamErrors) {
+            errors.add(StreamIngestResponse.RecordError.builder()
+                    .record(record)
+                    .line(line)
+                    .message(message)
+                    .build());
+        }
+    }
+
+    public StreamDeliveryStatus getStreamStatus(String streamId) {
+        return deliveryTracker.getStatus(streamId)
+                .orElseThrow(() -> new RuntimeException("Stream not found with ID: " + streamId));
+    }
+
+    public SseEmitter tailStream(String streamId) {
+        log.info("Opening live tail of stream: {}", streamId);
+        return streamTailHub.subscribe(streamId);
+    }
+
+    /**
+     * Publishes one admitted record; its admission is released once the
+     * delivery tracker has it acknowledged by Kafka, dead-lettered or parked.
+     * The returned future completes once the record is durable in the write-ahead log.
+     */
+    private CompletableFuture<Void> publishStreamRecord(String streamId, DataProcessingRequest request) {
+        CompletableFuture<Void> durable = deliveryTracker.send(streamId, recordKeyResolver.keyFor(request), StreamRecordEvent.builder()
+                .streamId(streamId)
+                .dataType(request.getDataType())
+                .source(request.getSource())
+                .data(request.getData())
+                .metadata(request.getMetadata())
+                .timestamp(System.currentTimeMillis())
+                .build(), () -> admissionController.release(1));
+        trafficSketches.record(request.getDataType(), request.getSource());
+        return durable;
+    }
 }
\ No newline at end of file
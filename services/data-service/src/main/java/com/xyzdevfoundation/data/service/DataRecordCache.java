@@ -0,0 +1,263 @@
+package com.xyzdevfoundation.data.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.xyzdevfoundation.data.model.DataRecord;
+import com.xyzdevfoundation.data.schema.SchemaRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * Read-through cache for stored records.
+ *
+ * Lookups go to a bounded in-process Caffeine cache first, then to Redis, and
+ * only then to the backing store. Concurrent misses for the same ID share one
+ * in-flight load. Local entries are refreshed early on a probabilistic schedule
+ * (XFetch): the closer an entry is to expiry, and the longer it took to load,
+ * the more likely a read is to trigger a background refresh, so hot keys are
+ * reloaded before they expire instead of all at once afterwards.
+ *
+ * Stored records never change, and moving one to cold storage keeps it
+ * readable, so entries are never evicted explicitly; they only expire.
+ */
+@Component
+@Slf4j
+public class DataRecordCache {
+
+    private static final String TIER_LOCAL = "local";
+    private static final String TIER_REDIS = "redis";
+    private static final String TIER_SOURCE = "source";
+    private static final String KEY_PREFIX = "data:record:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final SchemaRegistry schemaRegistry;
+    private final Cache<UUID, CachedRecord> localCache;
+    private final Map<UUID, CompletableFuture<Optional<DataRecord>>> inFlight = new ConcurrentHashMap<>();
+    private final Set<UUID> refreshing = ConcurrentHashMap.newKeySet();
+    private final ExecutorService refreshExecutor;
+    private final long localTtlNanos;
+    private final Duration redisTtl;
+    private final double earlyRefreshBeta;
+
+    private final Counter localHits;
+    private final Counter localMisses;
+    private final Counter redisHits;
+    private final Counter redisMisses;
+    private final Counter redisErrors;
+    private final Counter earlyRefreshes;
+    private final Timer redisLoadTimer;
+    private final Timer sourceLoadTimer;
+
+    public DataRecordCache(StringRedisTemplate redisTemplate,
+                           ObjectMapper objectMapper,
+                           SchemaRegistry schemaRegistry,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.cache.local.max-size:10000}") long localMaxSize,
+                           @Value("${app.cache.local.ttl:60s}") Duration localTtl,
+                           @Value("${app.cache.redis.ttl:10m}") Duration redisTtl,
+                           @Value("${app.cache.early-refresh-beta:1.0}") double earlyRefreshBeta) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.schemaRegistry = schemaRegistry;
+        this.localTtlNanos = localTtl.toNanos();
+        this.redisTtl = redisTtl;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtl)
+                .build();
+        this.refreshExecutor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "data-cache-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.localHits = requests(meterRegistry, TIER_LOCAL, "hit");
+        this.localMisses = requests(meterRegistry, TIER_LOCAL, "miss");
+        this.redisHits = requests(meterRegistry, TIER_REDIS, "hit");
+        this.redisMisses = requests(meterRegistry, TIER_REDIS, "miss");
+        this.redisErrors = requests(meterRegistry, TIER_REDIS, "error");
+        this.earlyRefreshes = Counter.builder("data.cache.early.refreshes")
+                .description("Background refreshes triggered before local expiry")
+                .register(meterRegistry);
+        this.redisLoadTimer = loadTimer(meterRegistry, TIER_REDIS);
+        this.sourceLoadTimer = loadTimer(meterRegistry, TIER_SOURCE);
+        Gauge.builder("data.cache.size", localCache, Cache::estimatedSize)
+                .tag("tier", TIER_LOCAL)
+                .description("Entries held in the in-process cache")
+                .register(meterRegistry);
+    }
+
+    public Optional<DataRecord> get(UUID id, Function<UUID, Optional<DataRecord>> loader) {
+        CachedRecord cached = localCache.getIfPresent(id);
+        if (cached != null) {
+            localHits.increment();
+            if (shouldRefreshEarly(cached)) {
+                refreshAsync(id, loader);
+            }
+            return Optional.of(cached.record);
+        }
+        localMisses.increment();
+
+        CompletableFuture<Optional<DataRecord>> load = new CompletableFuture<>();
+        CompletableFuture<Optional<DataRecord>> existing = inFlight.putIfAbsent(id, load);
+        if (existing != null) {
+            return join(existing);
+        }
+        try {
+            Optional<DataRecord> record = loadFromRedis(id).or(() -> loadFromSource(id, loader));
+            load.complete(record);
+            return record;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, load);
+        }
+    }
+
+    private Optional<DataRecord> loadFromRedis(UUID id) {
+        long start = System.nanoTime();
+        String json;
+        try {
+            json = redisTemplate.opsForValue().get(KEY_PREFIX + id);
+        } catch (RuntimeException e) {
+            redisErrors.increment();
+            log.warn("Redis lookup failed for record {}, falling back to store", id, e);
+            return Optional.empty();
+        }
+        if (json == null) {
+            redisMisses.increment();
+            return Optional.empty();
+        }
+        try {
+            DataRecord record = objectMapper.readValue(json, DataRecord.class);
+            record.setData(schemaRegistry.compact(record.getDataType(), record.getData()));
+            long loadNanos = System.nanoTime() - start;
+            redisLoadTimer.record(Duration.ofNanos(loadNanos));
+            redisHits.increment();
+            localCache.put(id, new CachedRecord(record, System.nanoTime(), loadNanos));
+            return Optional.of(record);
+        } catch (JsonProcessingException e) {
+            redisErrors.increment();
+            log.warn("Discarding unreadable cache entry for record {}", id, e);
+            return Optional.empty();
+        }
+    }
+
+    private Optional<DataRecord> loadFromSource(UUID id, Function<UUID, Optional<DataRecord>> loader) {
+        long start = System.nanoTime();
+        Optional<DataRecord> record = loader.apply(id);
+        long loadNanos = System.nanoTime() - start;
+        sourceLoadTimer.record(Duration.ofNanos(loadNanos));
+        record.ifPresent(value -> store(id, value, loadNanos));
+        return record;
+    }
+
+    private void store(UUID id, DataRecord record, long loadNanos) {
+        localCache.put(id, new CachedRecord(record, System.nanoTime(), loadNanos));
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + id, objectMapper.writeValueAsString(record), redisTtl);
+        } catch (JsonProcessingException | RuntimeException e) {
+            redisErrors.increment();
+            log.warn("Failed to write record {} to Redis", id, e);
+        }
+    }
+
+    /**
+     * XFetch: refresh when {@code now - delta * beta * ln(rand) >= expiry}, where
+     * delta is the time the entry took to load.
+     */
+    private boolean shouldRefreshEarly(CachedRecord cached) {
+        double jitter = -Math.log(ThreadLocalRandom.current().nextDouble(Double.MIN_VALUE, 1.0));
+        long expiresAt = cached.loadedAtNanos + localTtlNanos;
+        return System.nanoTime() + cached.loadNanos * earlyRefreshBeta * jitter >= expiresAt;
+    }
+
+    private void refreshAsync(UUID id, Function<UUID, Optional<DataRecord>> loader) {
+        if (!refreshing.add(id)) {
+            return;
+        }
+        earlyRefreshes.increment();
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    loadFromSource(id, loader);
+                } catch (RuntimeException e) {
+                    log.warn("Early refresh failed for record {}", id, e);
+                } finally {
+                    refreshing.remove(id);
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshing.remove(id);
+            throw e;
+        }
+    }
+
+    private static Optional<DataRecord> join(CompletableFuture<Optional<DataRecord>> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String tier, String result) {
+        return Counter.builder("data.cache.requests")
+                .tag("tier", tier)
+                .tag("result", result)
+                .description("Cache lookups per tier and outcome")
+                .register(meterRegistry);
+    }
+
+    private static Timer loadTimer(MeterRegistry meterRegistry, String tier) {
+        return Timer.builder("data.cache.load")
+                .tag("tier", tier)
+                .description("Time to load a record from the given tier")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private static final class CachedRecord {
+        private final DataRecord record;
+        private final long loadedAtNanos;
+        private final long loadNanos;
+
+        private CachedRecord(DataRecord record, long loadedAtNanos, long loadNanos) {
+            this.record = record;
+            this.loadedAtNanos = loadedAtNanos;
+            this.loadNanos = loadNanos;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.xyzdevfoundation.data.service;
+
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xyzdevfoundation.data.dto.DataResponse;
+import com.xyzdevfoundation.data.dto.SearchPageResponse;
+import com.xyzdevfoundation.data.exception.ExpiredCursorException;
+import com.xyzdevfoundation.data.exception.InvalidCursorException;
+import com.xyzdevfoundation.data.model.DataDocument;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.ResourceNotFoundException;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchTemplate;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Deep pagination over the {@code ingested-data} index.
+ *
+ * The first page opens a point-in-time snapshot; every following page is
+ * fetched with {@code search_after} against that snapshot, so the cost of a
+ * page does not depend on how far into the results it is and concurrent
+ * indexing cannot shift results between pages. The PIT id and the sort values
+ * of the last hit travel back to the client as an opaque cursor. The PIT is
+ * closed as soon as the last page has been served, and a cursor whose PIT has
+ * expired is answered with 410 Gone.
+ */
+@Service
+@Slf4j
+public class DataSearchService {
+
+    // Searching the flattened data field matches any of its leaf values
+    private static final List<String> SEARCH_FIELDS = List.of("data", "dataType", "source", "status");
+
+    private final ElasticsearchTemplate elasticsearchTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration pitKeepAlive;
+    private final int maxPageSize;
+
+    public DataSearchService(ElasticsearchTemplate elasticsearchTemplate,
+                             ObjectMapper objectMapper,
+                             @Value("${app.search.pit-keep-alive:2m}") Duration pitKeepAlive,
+                             @Value("${app.search.max-page-size:100}") int maxPageSize) {
+        this.elasticsearchTemplate = elasticsearchTemplate;
+        this.objectMapper = objectMapper;
+        this.pitKeepAlive = pitKeepAlive;
+        this.maxPageSize = maxPageSize;
+    }
+
+    public SearchPageResponse search(String query, String dataType, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        boolean firstPage = cursor == null || cursor.isBlank();
+        SearchCursor position = firstPage
+                ? new SearchCursor(elasticsearchTemplate.openPointInTime(IndexCoordinates.of(DataDocument.INDEX), pitKeepAlive, true), null)
+                : decode(cursor);
+        String pit = position.getPit();
+        // A PIT opened here is closed unless a cursor is handed out for it; one from a
+        // cursor is kept if the page fails, so the client can retry it
+        boolean keepPit = !firstPage;
+        try {
+            NativeQueryBuilder builder = NativeQuery.builder()
+                    .withQuery(q -> q.simpleQueryString(s -> s.query(query).fields(SEARCH_FIELDS)))
+                    .withSort(s -> s.score(score -> score.order(SortOrder.Desc)))
+                    .withSort(s -> s.field(f -> f.field("createdAt").order(SortOrder.Desc)))
+                    .withPointInTime(new Query.PointInTime(pit, pitKeepAlive))
+                    // One hit more than the page tells whether another page follows
+                    .withMaxResults(pageSize + 1)
+                    .withTrackTotalHits(firstPage);
+            if (dataType != null) {
+                builder.withFilter(f -> f.term(t -> t.field("dataType").value(dataType)));
+            }
+            if (position.getAfter() != null) {
+                builder.withSearchAfter(position.getAfter());
+            }
+
+            SearchHits<DataDocument> hits;
+            try {
+                hits = elasticsearchTemplate.search(builder.build(), DataDocument.class);
+            } catch (ResourceNotFoundException e) {
+                if (firstPage) {
+                    throw e;
+                }
+                throw new ExpiredCursorException("Search cursor has expired, start the search again", e);
+            }
+            // Elasticsearch may hand back a new PIT id on every response
+            if (hits.getPointInTimeId() != null) {
+                pit = hits.getPointInTimeId();
+            }
+            List<SearchHit<DataDocument>> page = hits.getSearchHits();
+            keepPit = page.size() > pageSize;
+            String nextCursor = null;
+            if (keepPit) {
+                page = page.subList(0, pageSize);
+                nextCursor = encode(new SearchCursor(pit, page.get(pageSize - 1).getSortValues()));
+            }
+
+            log.debug("Search page of {} hits for query: {}, type: {}", page.size(), query, dataType);
+            return SearchPageResponse.builder()
+                    .content(page.stream()
+                            .map(hit -> DataResponse.fromRecord(hit.getContent().toRecord()))
+                            .toList())
+                    .size(page.size())
+                    .totalHits(firstPage ? hits.getTotalHits() : null)
+                    .nextCursor(nextCursor)
+                    .build();
+        } finally {
+            if (!keepPit) {
+                closePointInTime(pit);
+            }
+        }
+    }
+
+    private void closePointInTime(String pit) {
+        try {
+            elasticsearchTemplate.closePointInTime(pit);
+        } catch (RuntimeException e) {
+            // It expires on its own after the keep-alive
+            log.warn("Failed to close point-in-time: {}", e.getMessage());
+        }
+    }
+
+    private String encode(SearchCursor cursor) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(cursor));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode search cursor", e);
+        }
+    }
+
+    private SearchCursor decode(String cursor) {
+        try {
+            SearchCursor decoded = objectMapper.readValue(Base64.getUrlDecoder().decode(cursor), SearchCursor.class);
+            if (decoded.getPit() == null) {
+                throw new IllegalArgumentException("Cursor has no point-in-time id");
+            }
+            return decoded;
+        } catch (IllegalArgumentException | IOException e) {
+            throw new InvalidCursorException("Invalid search cursor", e);
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class SearchCursor {
+        private String pit;
+        private List<Object> after;
+    }
+}
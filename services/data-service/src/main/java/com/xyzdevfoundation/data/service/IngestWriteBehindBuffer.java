@@ -0,0 +1,273 @@
+package com.xyzdevfoundation.data.service;
+
+import com.xyzdevfoundation.data.event.DataEvent;
+import com.xyzdevfoundation.data.exception.IngestRejectedException;
+import com.xyzdevfoundation.data.model.DataRecord;
+import com.xyzdevfoundation.data.model.OutboxMessage;
+import com.xyzdevfoundation.data.repository.DataRecordRepository;
+import com.xyzdevfoundation.data.repository.OutboxRepository;
+import com.xyzdevfoundation.data.sink.StoreWriteCoordinator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for ingested records.
+ *
+ * Records are accepted into a bounded in-memory queue and written to PostgreSQL
+ * in large multi-row batches, either when the queue reaches the batch size or
+ * when the flush interval elapses. Records stay readable through
+ * {@link #findPending(UUID)} until their batch has been committed. Events
+ * submitted with a record go to the outbox in the same transaction as the
+ * batch, so an event is relayed if and only if its record was stored.
+ * A batch the table refuses (a constraint or data error rather than an
+ * unreachable database) is split in halves until the offending rows are
+ * isolated; those are dropped and counted so one bad row cannot block the
+ * buffer. Other failures keep the batch for the next flush.
+ * Each batch goes through the {@link StoreWriteCoordinator}, which fans it
+ * out to the secondary stores once committed.
+ */
+@Component
+@Slf4j
+public class IngestWriteBehindBuffer {
+
+    private final DataRecordRepository repository;
+    private final OutboxRepository outboxRepository;
+    private final StoreWriteCoordinator storeWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<BufferedWrite> queue;
+    private final Map<UUID, DataRecord> pending = new ConcurrentHashMap<>();
+    private final List<BufferedWrite> failedBatch = new ArrayList<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ExecutorService flushExecutor;
+    private final int batchSize;
+    private final long offerTimeoutMs;
+
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizeSummary;
+    private final Counter flushFailures;
+    private final Counter rejectedRecords;
+
+    public IngestWriteBehindBuffer(DataRecordRepository repository,
+                                   OutboxRepository outboxRepository,
+                                   StoreWriteCoordinator storeWriter,
+                                   TransactionTemplate transactionTemplate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.ingest.buffer.capacity:50000}") int capacity,
+                                   @Value("${app.ingest.buffer.batch-size:1000}") int batchSize,
+                                   @Value("${app.ingest.buffer.offer-timeout-ms:100}") long offerTimeoutMs) {
+        this.repository = repository;
+        this.outboxRepository = outboxRepository;
+        this.storeWriter = storeWriter;
+        this.transactionTemplate = transactionTemplate;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.flushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ingest-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.flushTimer = Timer.builder("data.ingest.flush.latency")
+                .description("Time to write one batch of ingested records to PostgreSQL")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("data.ingest.flush.batch.size")
+                .description("Number of records written per flush batch")
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("data.ingest.flush.failures")
+                .description("Flush batches that failed and were kept for retry")
+                .register(meterRegistry);
+        this.rejectedRecords = Counter.builder("data.ingest.rejected")
+                .description("Buffered records PostgreSQL refused, dropped after being isolated from their batch")
+                .register(meterRegistry);
+        Gauge.builder("data.ingest.buffer.size", queue, BlockingQueue::size)
+                .description("Records waiting in the write-behind buffer")
+                .register(meterRegistry);
+    }
+
+    public void submit(DataRecord record) {
+        submit(record, null, null);
+    }
+
+    /**
+     * Buffers {@code record} and, once it is stored, publishes {@code event}
+     * with {@code eventKey} to {@code data-events} through the outbox.
+     */
+    public void submit(DataRecord record, String eventKey, DataEvent event) {
+        pending.put(record.getId(), record);
+        boolean accepted;
+        try {
+            accepted = queue.offer(new BufferedWrite(record, eventKey, event), offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+        if (!accepted) {
+            pending.remove(record.getId());
+            throw new IngestRejectedException("Ingest buffer is full, retry later");
+        }
+        if (queue.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                flushRequested.set(false);
+                flush();
+            });
+        }
+    }
+
+    /**
+     * Share of the buffer capacity currently taken, from 0 to 1.
+     */
+    public double fillRatio() {
+        int size = queue.size();
+        return (double) size / (size + queue.remainingCapacity());
+    }
+
+    public Optional<DataRecord> findPending(UUID id) {
+        return Optional.ofNullable(pending.get(id));
+    }
+
+    @Scheduled(fixedDelayString = "${app.ingest.buffer.flush-interval-ms:500}")
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            if (!failedBatch.isEmpty() && !writeBatch(failedBatch)) {
+                return;
+            }
+            failedBatch.clear();
+
+            List<BufferedWrite> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                if (!writeBatch(batch)) {
+                    // Keep the batch for the next flush; the bounded queue pushes back on callers meanwhile
+                    failedBatch.addAll(batch);
+                    return;
+                }
+                batch.clear();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes the batch, isolating rows the table refuses. On any other failure
+     * returns false with {@code batch} reduced to the writes still to be stored.
+     */
+    private boolean writeBatch(List<BufferedWrite> batch) {
+        try {
+            writeOrSplit(batch);
+            return true;
+        } catch (RuntimeException e) {
+            flushFailures.increment();
+            log.error("Failed to flush {} ingested records, will retry", batch.size(), e);
+            // Halves stored while isolating a bad row must not be written (and their events relayed) twice
+            batch.removeIf(write -> write.settled);
+            return false;
+        }
+    }
+
+    private void writeOrSplit(List<BufferedWrite> batch) {
+        try {
+            store(batch);
+        } catch (DataIntegrityViolationException e) {
+            if (batch.size() == 1) {
+                reject(batch.get(0), e);
+                return;
+            }
+            int middle = batch.size() / 2;
+            writeOrSplit(batch.subList(0, middle));
+            writeOrSplit(batch.subList(middle, batch.size()));
+        }
+    }
+
+    private void reject(BufferedWrite write, DataIntegrityViolationException cause) {
+        write.settled = true;
+        pending.remove(write.record.getId());
+        rejectedRecords.increment();
+        log.error("Dropped ingested record {}, PostgreSQL refused it: {}",
+                write.record.getId(), cause.getMostSpecificCause().getMessage());
+    }
+
+    private void store(List<BufferedWrite> batch) {
+        List<DataRecord> records = new ArrayList<>(batch.size());
+        List<OutboxMessage> events = new ArrayList<>();
+        for (BufferedWrite write : batch) {
+            records.add(write.record);
+            if (write.event != null) {
+                events.add(OutboxMessage.builder().key(write.eventKey).event(write.event).build());
+            }
+        }
+
+        StoreWriteCoordinator.Batch fanOut = storeWriter.begin(records);
+        Timer.Sample sample = Timer.start();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                repository.insertBatch(records);
+                if (!events.isEmpty()) {
+                    outboxRepository.insertBatch(events);
+                }
+            });
+            batchSizeSummary.record(batch.size());
+        } catch (RuntimeException e) {
+            storeWriter.abandon(fanOut);
+            throw e;
+        } finally {
+            sample.stop(flushTimer);
+        }
+        batch.forEach(write -> write.settled = true);
+        // Opened with the coordinator before leaving pending, so a reader always finds it in one of them
+        storeWriter.committed(fanOut);
+        records.forEach(record -> pending.remove(record.getId()));
+        log.debug("Flushed {} ingested records with {} outbox events", records.size(), events.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdown();
+        flush();
+        if (!pending.isEmpty()) {
+            log.warn("Shutting down with {} unflushed ingested records", pending.size());
+        }
+    }
+
+    private static final class BufferedWrite {
+        private final DataRecord record;
+        private final String eventKey;
+        private final DataEvent event;
+        // Stored or rejected; only touched under flushLock
+        private boolean settled;
+
+        private BufferedWrite(DataRecord record, String eventKey, DataEvent event) {
+            this.record = record;
+            this.eventKey = eventKey;
+            this.event = event;
+        }
+    }
+}
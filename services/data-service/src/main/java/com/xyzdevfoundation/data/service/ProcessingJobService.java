@@ -0,0 +1,244 @@
+package com.xyzdevfoundation.data.service;
+
+import com.xyzdevfoundation.data.dto.DataProcessingRequest;
+import com.xyzdevfoundation.data.exception.ProcessingRejectedException;
+import com.xyzdevfoundation.data.model.ProcessingJob;
+import com.xyzdevfoundation.data.processing.ProcessingPipeline;
+import com.xyzdevfoundation.data.repository.ProcessingJobRepository;
+import com.xyzdevfoundation.data.util.InstanceIdentity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Submit/poll processing jobs persisted in {@code data_processing_jobs}.
+ *
+ * Submitting stores the job as PENDING and queues it for a bounded worker
+ * pool; the caller gets the job id back straight away. Workers record
+ * RUNNING, per-stage progress and the final result or error on the row, so
+ * polling is a single primary-key read. When the queue is full the job is
+ * marked FAILED and the submit is rejected instead of queueing without bound.
+ *
+ * Jobs only live in the memory of the instance that accepted them. That
+ * instance renews a lease on the jobs it holds every
+ * {@code heartbeat-interval}; any instance fails PENDING or RUNNING rows
+ * whose lease is older than {@code lease}, so a crash or kill leaves a
+ * FAILED job for the client to resubmit rather than one that never ends.
+ * An instance restarted under the same id fails its old rows at startup
+ * without waiting for the lease to run out.
+ * Jobs are not re-queued, since their processing may already have had
+ * side effects.
+ */
+@Service
+@Slf4j
+public class ProcessingJobService {
+
+    private final ProcessingJobRepository repository;
+    private final DataProcessingService dataProcessingService;
+    private final ProcessingPipeline processingPipeline;
+    private final ThreadPoolExecutor workers;
+    private final String instanceId;
+    private final Duration lease;
+    // Jobs queued or running in this process, whose leases it renews
+    private final Set<Long> heldJobs = ConcurrentHashMap.newKeySet();
+    private final Counter completed;
+    private final Counter failed;
+    private final Counter rejected;
+    private final Counter abandoned;
+    private final Timer jobTimer;
+
+    public ProcessingJobService(ProcessingJobRepository repository,
+                                DataProcessingService dataProcessingService,
+                                ProcessingPipeline processingPipeline,
+                                InstanceIdentity instanceIdentity,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.processing.jobs.workers:4}") int workerCount,
+                                @Value("${app.processing.jobs.queue-capacity:1000}") int queueCapacity,
+                                @Value("${app.processing.jobs.lease:2m}") Duration lease) {
+        this.repository = repository;
+        this.dataProcessingService = dataProcessingService;
+        this.processingPipeline = processingPipeline;
+        this.instanceId = instanceIdentity.getId();
+        this.lease = lease;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "processing-job-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        this.completed = outcome(meterRegistry, "completed");
+        this.failed = outcome(meterRegistry, "failed");
+        this.rejected = outcome(meterRegistry, "rejected");
+        this.abandoned = outcome(meterRegistry, "abandoned");
+        this.jobTimer = Timer.builder("data.processing.jobs.duration")
+                .description("Time from a job starting to its completion or failure")
+                .register(meterRegistry);
+        Gauge.builder("data.processing.jobs.queued", workers, w -> w.getQueue().size())
+                .description("Jobs waiting for a worker")
+                .register(meterRegistry);
+    }
+
+    public ProcessingJob submit(DataProcessingRequest request) {
+        String jobType = processingPipeline.resolveProcessingType(request.getProcessingType());
+        long id = repository.insert(request.getDataType(), jobType, request, instanceId);
+        heldJobs.add(id);
+        try {
+            workers.execute(new JobTask(id, request));
+        } catch (RejectedExecutionException e) {
+            heldJobs.remove(id);
+            rejected.increment();
+            repository.fail(id, "Rejected: job queue is full", 0);
+            throw new ProcessingRejectedException("Job queue is full, retry later");
+        }
+        log.info("Queued processing job {} of type {}", id, jobType);
+        return ProcessingJob.builder()
+                .id(id)
+                .jobName(request.getDataType())
+                .jobType(jobType)
+                .status(ProcessingJob.PENDING)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    public ProcessingJob getJob(long id) {
+        return repository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Job not found with ID: " + id));
+    }
+
+    /**
+     * Fails the jobs a previous run under this instance id left unfinished;
+     * they are not in this run's queue, so their lease must not be renewed.
+     */
+    @PostConstruct
+    public void failJobsOfPreviousRun() {
+        try {
+            int failedJobs = repository.failOwned(instanceId, "Abandoned: the service restarted before the job finished");
+            if (failedJobs > 0) {
+                abandoned.increment(failedJobs);
+                log.warn("Failed {} processing jobs left unfinished by the previous run", failedJobs);
+            }
+        } catch (RuntimeException e) {
+            // Nothing renews their lease, so the sweep fails them later
+            log.warn("Failed to fail processing jobs of the previous run: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.processing.jobs.heartbeat-interval-ms:20000}")
+    public void renewLeases() {
+        if (heldJobs.isEmpty()) {
+            return;
+        }
+        try {
+            repository.heartbeat(List.copyOf(heldJobs));
+        } catch (RuntimeException e) {
+            // A few missed renewals are fine as long as the lease is several intervals long
+            log.warn("Failed to renew processing job leases: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Fails jobs left PENDING or RUNNING by an instance that stopped renewing
+     * their lease.
+     */
+    @Scheduled(fixedDelayString = "${app.processing.jobs.sweep-interval-ms:60000}")
+    public void failAbandonedJobs() {
+        try {
+            int failedJobs = repository.failAbandoned(LocalDateTime.now().minus(lease),
+                    "Abandoned: the instance running the job stopped");
+            if (failedJobs > 0) {
+                abandoned.increment(failedJobs);
+                log.warn("Failed {} processing jobs abandoned by a stopped instance", failedJobs);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to sweep abandoned processing jobs: {}", e.getMessage());
+        }
+    }
+
+    private void run(long id, DataProcessingRequest request) {
+        long start = System.currentTimeMillis();
+        try {
+            repository.markRunning(id);
+            Map<String, Object> result = dataProcessingService.processData(request, percent -> reportProgress(id, percent)).join();
+            long elapsed = System.currentTimeMillis() - start;
+            repository.complete(id, result, elapsed);
+            completed.increment();
+            jobTimer.record(elapsed, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            long elapsed = System.currentTimeMillis() - start;
+            log.warn("Processing job {} failed: {}", id, cause.getMessage());
+            failed.increment();
+            jobTimer.record(elapsed, TimeUnit.MILLISECONDS);
+            try {
+                repository.fail(id, String.valueOf(cause.getMessage()), elapsed);
+            } catch (RuntimeException updateFailure) {
+                log.error("Failed to record failure of processing job {}", id, updateFailure);
+            }
+        } finally {
+            heldJobs.remove(id);
+        }
+    }
+
+    private void reportProgress(long id, int percent) {
+        try {
+            repository.updateProgress(id, percent);
+        } catch (RuntimeException e) {
+            // Progress is advisory; the final status update still records the outcome
+            log.warn("Failed to update progress of processing job {}", id, e);
+        }
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("data.processing.jobs")
+                .tag("outcome", outcome)
+                .description("Processing jobs by final outcome")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Runnable queued : workers.shutdownNow()) {
+            if (queued instanceof JobTask task) {
+                repository.fail(task.id, "Service shut down before the job started", 0);
+            }
+        }
+    }
+
+    private final class JobTask implements Runnable {
+        private final long id;
+        private final DataProcessingRequest request;
+
+        private JobTask(long id, DataProcessingRequest request) {
+            this.id = id;
+            this.request = request;
+        }
+
+        @Override
+        public void run() {
+            ProcessingJobService.this.run(id, request);
+        }
+    }
+}
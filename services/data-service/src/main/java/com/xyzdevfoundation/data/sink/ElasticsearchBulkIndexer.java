@@ -0,0 +1,509 @@
+package com.xyzdevfoundation.data.sink;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xyzdevfoundation.data.model.DataDocument;
+import com.xyzdevfoundation.data.model.DataRecord;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.entity.ContentType;
+import org.apache.http.nio.entity.NByteArrayEntity;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.ResponseException;
+import org.elasticsearch.client.ResponseListener;
+import org.elasticsearch.client.RestClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchTemplate;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Indexes stored records into {@code ingested-data} with the {@code _bulk} API.
+ *
+ * A dispatcher thread packs queued records into NDJSON bulk bodies and sends
+ * one when it reaches the target document count, {@code max-bulk-size} bytes,
+ * or {@code flush-interval} after its first record. At most
+ * {@code max-concurrent-requests} bulks are in flight; when all are busy the
+ * dispatcher waits, so a slow cluster backs up into the bounded queue instead
+ * of piling up requests.
+ *
+ * The target document count adapts to the cluster: it grows additively
+ * while full bulks complete under {@code target-latency}, shrinks by a
+ * quarter when they are slower, and halves when Elasticsearch pushes back with
+ * 429. Throttled or failed documents are resent on their own in later bulks,
+ * and a throttled or unreachable cluster pauses dispatching for a jittered
+ * exponential backoff. Documents are indexed by record ID, so a resend
+ * overwrites rather than duplicates. How far search lags behind PostgreSQL
+ * is tracked by the {@link StoreWriteCoordinator}.
+ */
+@Component
+@Slf4j
+public class ElasticsearchBulkIndexer implements RecordSink {
+
+    private static final int TOO_MANY_REQUESTS = 429;
+    // Keeps the response to what the indexer reads instead of echoing every document's metadata
+    private static final String BULK_ENDPOINT = "/_bulk?filter_path=errors,items.*.status,items.*.error.type,items.*.error.reason";
+
+    private final RestClient restClient;
+    private final ElasticsearchTemplate elasticsearchTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final BlockingQueue<PendingDocument> queue;
+    private final ConcurrentLinkedQueue<PendingDocument> retries = new ConcurrentLinkedQueue<>();
+    private final Set<Bulk> inFlight = ConcurrentHashMap.newKeySet();
+    private final Semaphore requestPermits;
+    private final Thread dispatcher;
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final long maxBulkBytes;
+    private final long flushIntervalNanos;
+    private final long targetLatencyMillis;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final AtomicInteger targetBatchSize;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long lastDecreaseNanos;
+    private volatile long pausedUntilMillis;
+    private volatile boolean running = true;
+    private boolean indexReady;
+
+    private final Counter indexed;
+    private final Counter retried;
+    private final Counter throttled;
+    private final Counter droppedOverflow;
+    private final Counter droppedRejected;
+    private final Counter droppedExhausted;
+    private final Timer bulkTimer;
+    private final DistributionSummary bulkDocs;
+    private final DistributionSummary bulkBytes;
+
+    public ElasticsearchBulkIndexer(RestClient restClient,
+                                    ElasticsearchTemplate elasticsearchTemplate,
+                                    ObjectMapper objectMapper,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.sink.elasticsearch.enabled:true}") boolean enabled,
+                                    @Value("${app.sink.elasticsearch.queue-capacity:100000}") int queueCapacity,
+                                    @Value("${app.sink.elasticsearch.initial-batch-size:500}") int initialBatchSize,
+                                    @Value("${app.sink.elasticsearch.min-batch-size:50}") int minBatchSize,
+                                    @Value("${app.sink.elasticsearch.max-batch-size:5000}") int maxBatchSize,
+                                    @Value("${app.sink.elasticsearch.max-bulk-size:5MB}") DataSize maxBulkSize,
+                                    @Value("${app.sink.elasticsearch.flush-interval:1s}") Duration flushInterval,
+                                    @Value("${app.sink.elasticsearch.target-latency:1s}") Duration targetLatency,
+                                    @Value("${app.sink.elasticsearch.max-concurrent-requests:2}") int maxConcurrentRequests,
+                                    @Value("${app.sink.elasticsearch.max-attempts:8}") int maxAttempts,
+                                    @Value("${app.sink.elasticsearch.initial-backoff:500ms}") Duration initialBackoff,
+                                    @Value("${app.sink.elasticsearch.max-backoff:30s}") Duration maxBackoff) {
+        this.restClient = restClient;
+        this.elasticsearchTemplate = elasticsearchTemplate;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.requestPermits = new Semaphore(maxConcurrentRequests);
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.maxBulkBytes = maxBulkSize.toBytes();
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.targetLatencyMillis = targetLatency.toMillis();
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoff.toMillis();
+        this.maxBackoffMs = maxBackoff.toMillis();
+        this.targetBatchSize = new AtomicInteger(Math.max(minBatchSize, Math.min(initialBatchSize, maxBatchSize)));
+
+        this.indexed = Counter.builder("data.sink.elasticsearch.indexed")
+                .description("Documents indexed into ingested-data")
+                .register(meterRegistry);
+        this.retried = Counter.builder("data.sink.elasticsearch.retries")
+                .description("Documents scheduled to be sent again")
+                .register(meterRegistry);
+        this.throttled = Counter.builder("data.sink.elasticsearch.throttled")
+                .description("Bulk requests Elasticsearch pushed back on with 429")
+                .register(meterRegistry);
+        this.droppedOverflow = dropped(meterRegistry, "overflow");
+        this.droppedRejected = dropped(meterRegistry, "rejected");
+        this.droppedExhausted = dropped(meterRegistry, "exhausted");
+        this.bulkTimer = Timer.builder("data.sink.elasticsearch.bulk")
+                .description("Latency of one bulk request")
+                .register(meterRegistry);
+        this.bulkDocs = DistributionSummary.builder("data.sink.elasticsearch.bulk.documents")
+                .description("Documents per bulk request")
+                .register(meterRegistry);
+        this.bulkBytes = DistributionSummary.builder("data.sink.elasticsearch.bulk.size")
+                .baseUnit("bytes")
+                .description("Body size per bulk request")
+                .register(meterRegistry);
+        Gauge.builder("data.sink.elasticsearch.batch.target", targetBatchSize, AtomicInteger::get)
+                .description("Current adaptive document count per bulk request")
+                .register(meterRegistry);
+        Gauge.builder("data.sink.elasticsearch.in.flight", inFlight, Set::size)
+                .description("Bulk requests awaiting a response")
+                .register(meterRegistry);
+        Gauge.builder("data.sink.elasticsearch.queue.size", queue, BlockingQueue::size)
+                .description("Records waiting to be indexed")
+                .register(meterRegistry);
+
+        this.dispatcher = new Thread(this::dispatchLoop, "es-bulk-dispatch");
+        this.dispatcher.setDaemon(true);
+        if (enabled) {
+            this.dispatcher.start();
+        }
+    }
+
+    @Override
+    public String name() {
+        return "elasticsearch";
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues stored records for indexing; never blocks.
+     */
+    @Override
+    public void submit(SinkBatch batch) {
+        int overflow = 0;
+        for (DataRecord record : batch.records()) {
+            if (!queue.offer(new PendingDocument(record, batch))) {
+                batch.giveUp(record);
+                overflow++;
+            }
+        }
+        if (overflow > 0) {
+            droppedOverflow.increment(overflow);
+            log.warn("Elasticsearch indexing queue is full, dropped {} records", overflow);
+        }
+    }
+
+    private void dispatchLoop() {
+        Bulk bulk = new Bulk();
+        while (running) {
+            try {
+                long pause = pausedUntilMillis - System.currentTimeMillis();
+                if (pause > 0) {
+                    Thread.sleep(pause);
+                    continue;
+                }
+                PendingDocument next = retries.poll();
+                if (next == null) {
+                    long waitNanos = bulk.isEmpty() ? flushIntervalNanos : bulk.deadlineNanos - System.nanoTime();
+                    next = waitNanos > 0 ? queue.poll(waitNanos, TimeUnit.NANOSECONDS) : null;
+                }
+                if (next != null) {
+                    bulk.add(next, serialize(next), flushIntervalNanos);
+                }
+                boolean full = bulk.documents.size() >= targetBatchSize.get() || bulk.body.size() >= maxBulkBytes;
+                boolean due = !bulk.isEmpty() && System.nanoTime() >= bulk.deadlineNanos;
+                if (full || due) {
+                    bulk.full = full;
+                    send(bulk);
+                    bulk = new Bulk();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Elasticsearch bulk dispatch failed", e);
+            }
+        }
+    }
+
+    private void send(Bulk bulk) throws InterruptedException {
+        if (!ensureIndex()) {
+            retry(bulk.documents, "index " + DataDocument.INDEX + " not ready");
+            pause(consecutiveFailures.incrementAndGet());
+            return;
+        }
+        requestPermits.acquire();
+        inFlight.add(bulk);
+        Request request = new Request("POST", BULK_ENDPOINT);
+        request.setEntity(new NByteArrayEntity(bulk.body.toByteArray(), ContentType.create("application/x-ndjson")));
+        bulkDocs.record(bulk.documents.size());
+        bulkBytes.record(bulk.body.size());
+        long start = System.nanoTime();
+        bulk.sentAtNanos = start;
+        restClient.performRequestAsync(request, new ResponseListener() {
+            @Override
+            public void onSuccess(Response response) {
+                try {
+                    onResponse(bulk, response, System.nanoTime() - start);
+                } finally {
+                    release(bulk);
+                }
+            }
+
+            @Override
+            public void onFailure(Exception exception) {
+                try {
+                    onRequestFailure(bulk, exception, System.nanoTime() - start);
+                } finally {
+                    release(bulk);
+                }
+            }
+        });
+    }
+
+    private void release(Bulk bulk) {
+        inFlight.remove(bulk);
+        requestPermits.release();
+    }
+
+    private void onResponse(Bulk bulk, Response response, long latencyNanos) {
+        bulkTimer.record(latencyNanos, TimeUnit.NANOSECONDS);
+        JsonNode body;
+        try (InputStream content = response.getEntity().getContent()) {
+            body = objectMapper.readTree(content);
+        } catch (IOException e) {
+            // The request reached the cluster, but its outcome is unknown; resending is safe
+            log.warn("Unreadable bulk response, resending {} documents", bulk.documents.size(), e);
+            retry(bulk.documents, e.getMessage());
+            return;
+        }
+        int ok = bulk.documents.size();
+        int throttledItems = 0;
+        List<PendingDocument> failed = new ArrayList<>();
+        String lastReason = null;
+        if (body.path("errors").asBoolean(false)) {
+            JsonNode items = body.path("items");
+            for (int i = 0; i < bulk.documents.size(); i++) {
+                JsonNode result = items.path(i).path("index");
+                int status = result.path("status").asInt(500);
+                PendingDocument document = bulk.documents.get(i);
+                if (status < 300) {
+                    document.settle();
+                    continue;
+                }
+                ok--;
+                String reason = result.path("error").path("type").asText("") + ": " + result.path("error").path("reason").asText("");
+                if (status == TOO_MANY_REQUESTS || status >= 500) {
+                    throttledItems += status == TOO_MANY_REQUESTS ? 1 : 0;
+                    failed.add(document);
+                    lastReason = reason;
+                } else {
+                    droppedRejected.increment();
+                    document.giveUp();
+                    log.warn("ingested-data rejected document {} with {}: {}", document.record.getId(), status, reason);
+                }
+            }
+        } else {
+            bulk.documents.forEach(PendingDocument::settle);
+        }
+        indexed.increment(ok);
+        if (!failed.isEmpty()) {
+            retry(failed, lastReason);
+        }
+        if (throttledItems > 0) {
+            onThrottled(bulk);
+        } else {
+            consecutiveFailures.set(0);
+            adapt(bulk, TimeUnit.NANOSECONDS.toMillis(latencyNanos));
+        }
+    }
+
+    private void onRequestFailure(Bulk bulk, Exception exception, long latencyNanos) {
+        bulkTimer.record(latencyNanos, TimeUnit.NANOSECONDS);
+        int status = exception instanceof ResponseException responseException
+                ? responseException.getResponse().getStatusLine().getStatusCode() : -1;
+        if (status >= 400 && status < 500 && status != TOO_MANY_REQUESTS) {
+            droppedRejected.increment(bulk.documents.size());
+            bulk.documents.forEach(PendingDocument::giveUp);
+            log.error("Elasticsearch rejected a bulk request of {} documents with {}", bulk.documents.size(), status, exception);
+            return;
+        }
+        log.warn("Bulk request of {} documents failed ({}), resending", bulk.documents.size(),
+                status > 0 ? status : exception.getMessage());
+        retry(bulk.documents, exception.getMessage());
+        if (status == TOO_MANY_REQUESTS) {
+            onThrottled(bulk);
+        } else {
+            // Unreachable or failing cluster: back off without shrinking bulks that were fine before
+            pause(consecutiveFailures.incrementAndGet());
+        }
+    }
+
+    /**
+     * AIMD on the bulk size: grow additively while full bulks are fast,
+     * shrink multiplicatively when they are slow.
+     */
+    private void adapt(Bulk bulk, long latencyMillis) {
+        if (latencyMillis > targetLatencyMillis) {
+            decrease(bulk, 0.75);
+        } else if (bulk.full) {
+            targetBatchSize.updateAndGet(size -> Math.min(maxBatchSize, size + Math.max(10, size / 10)));
+        }
+    }
+
+    private void onThrottled(Bulk bulk) {
+        throttled.increment();
+        pause(consecutiveFailures.incrementAndGet());
+        if (decrease(bulk, 0.5)) {
+            log.warn("Elasticsearch is throttling bulk requests, reduced bulks to {} documents", targetBatchSize.get());
+        }
+    }
+
+    /**
+     * Shrinks the target at most once per round trip: bulks sent before the
+     * last decrease already saw the old size, so their outcome says nothing new.
+     */
+    private synchronized boolean decrease(Bulk bulk, double factor) {
+        if (bulk.sentAtNanos - lastDecreaseNanos <= 0) {
+            return false;
+        }
+        lastDecreaseNanos = System.nanoTime();
+        targetBatchSize.updateAndGet(size -> Math.max(minBatchSize, (int) (size * factor)));
+        return true;
+    }
+
+    private void pause(int failures) {
+        long until = System.currentTimeMillis() + backoffMs(failures);
+        if (until > pausedUntilMillis) {
+            pausedUntilMillis = until;
+        }
+    }
+
+    /**
+     * Queues the documents to be sent again, dropping those out of attempts.
+     */
+    private void retry(List<PendingDocument> documents, String reason) {
+        int exhausted = 0;
+        for (PendingDocument document : documents) {
+            document.attempts++;
+            if (document.attempts >= maxAttempts) {
+                document.giveUp();
+                exhausted++;
+                continue;
+            }
+            retried.increment();
+            retries.add(document);
+        }
+        if (exhausted > 0) {
+            droppedExhausted.increment(exhausted);
+            log.error("Gave up indexing {} records after {} attempts: {}", exhausted, maxAttempts, reason);
+        }
+    }
+
+    private long backoffMs(int failures) {
+        double backoff = initialBackoffMs * Math.pow(2, failures - 1);
+        long capped = (long) Math.min(backoff, maxBackoffMs);
+        // Half fixed, half random, so instances throttled together do not resume in lockstep
+        return capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1);
+    }
+
+    /**
+     * Creates the index with the {@link DataDocument} mapping before the first
+     * bulk, so fields like {@code dataType} are keywords rather than guessed.
+     */
+    private boolean ensureIndex() {
+        if (indexReady) {
+            return true;
+        }
+        try {
+            IndexOperations indexOps = elasticsearchTemplate.indexOps(DataDocument.class);
+            if (!indexOps.exists()) {
+                indexOps.createWithMapping();
+                log.info("Created index {}", DataDocument.INDEX);
+            }
+            indexReady = true;
+        } catch (RuntimeException e) {
+            log.warn("Index {} is not available yet: {}", DataDocument.INDEX, e.getMessage());
+        }
+        return indexReady;
+    }
+
+    /**
+     * The action line and source of one document, mapped the same way
+     * searches read it back.
+     */
+    private byte[] serialize(PendingDocument document) {
+        if (document.line == null) {
+            DataDocument source = DataDocument.fromRecord(document.record);
+            String json = "{\"index\":{\"_index\":\"" + DataDocument.INDEX + "\",\"_id\":\"" + source.getId() + "\"}}\n"
+                    + elasticsearchTemplate.getElasticsearchConverter().mapObject(source).toJson() + "\n";
+            document.line = json.getBytes(StandardCharsets.UTF_8);
+        }
+        return document.line;
+    }
+
+    private static Counter dropped(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("data.sink.elasticsearch.dropped")
+                .tag("reason", reason)
+                .description("Records that will not be indexed")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        dispatcher.interrupt();
+        long left = queue.size() + retries.size();
+        if (left > 0) {
+            log.warn("Shutting down with {} records not indexed; search will miss them", left);
+        }
+    }
+
+    private static final class PendingDocument {
+        private final DataRecord record;
+        private final SinkBatch batch;
+        private byte[] line;
+        private int attempts;
+
+        private PendingDocument(DataRecord record, SinkBatch batch) {
+            this.record = record;
+            this.batch = batch;
+        }
+
+        private void settle() {
+            batch.settle(1);
+        }
+
+        private void giveUp() {
+            batch.giveUp(record);
+        }
+    }
+
+    private static final class Bulk {
+        private final List<PendingDocument> documents = new ArrayList<>();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private long deadlineNanos;
+        private long sentAtNanos;
+        private boolean full;
+
+        private boolean isEmpty() {
+            return documents.isEmpty();
+        }
+
+        private void add(PendingDocument document, byte[] line, long flushIntervalNanos) {
+            if (documents.isEmpty()) {
+                deadlineNanos = System.nanoTime() + flushIntervalNanos;
+            }
+            documents.add(document);
+            body.writeBytes(line);
+        }
+    }
+}
@@ -0,0 +1,417 @@
+package com.xyzdevfoundation.data.sink;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+import com.xyzdevfoundation.data.model.DataRecord;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Copies stored records into the MongoDB {@code analytics_data} collection.
+ *
+ * Records the {@link StoreWriteCoordinator} hands over after their PostgreSQL
+ * commit wait in a bounded queue and are written with unordered
+ * {@code insertMany}, either when the queue reaches the batch size or when
+ * the linger interval elapses. Unordered batches keep going past a failed
+ * document, and the bulk error names each failed index, so only those
+ * documents are retried, each with its own jittered exponential backoff. Documents use the record ID as {@code _id},
+ * which makes a retry of an already written document a harmless duplicate.
+ * A batch that fails as a whole (MongoDB unreachable) pauses the sink with
+ * the same backoff instead. A record that cannot be shaped or encoded as a
+ * document is picked out of its batch and dropped, so it cannot hold the
+ * rest back. PostgreSQL stays the system of record: when the queue is full
+ * or a document runs out of attempts it is dropped, counted and settled,
+ * never pushed back on ingest.
+ */
+@Component
+@Slf4j
+public class MongoAnalyticsSink implements RecordSink {
+
+    private static final int DOCUMENT_VALIDATION_FAILURE = 121;
+    private static final int BAD_VALUE = 2;
+    private static final int OBJECT_TOO_LARGE = 10334;
+
+    private final MongoTemplate mongoTemplate;
+    private final String collectionName;
+    private final boolean enabled;
+    private final BlockingQueue<PendingDocument> queue;
+    // Only touched under flushLock
+    private final List<PendingDocument> retries = new ArrayList<>();
+    private int consecutiveFailures;
+    private long pausedUntilMillis;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ExecutorService flushExecutor;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final InsertManyOptions insertOptions = new InsertManyOptions().ordered(false);
+
+    private final Counter written;
+    private final Counter duplicates;
+    private final Counter retried;
+    private final Counter droppedOverflow;
+    private final Counter droppedRejected;
+    private final Counter droppedExhausted;
+    private final Timer batchTimer;
+    private final DistributionSummary batchSizeSummary;
+
+    public MongoAnalyticsSink(MongoTemplate mongoTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.sink.mongo.enabled:true}") boolean enabled,
+                              @Value("${app.sink.mongo.collection:analytics_data}") String collectionName,
+                              @Value("${app.sink.mongo.queue-capacity:50000}") int queueCapacity,
+                              @Value("${app.sink.mongo.batch-size:1000}") int batchSize,
+                              @Value("${app.sink.mongo.max-attempts:5}") int maxAttempts,
+                              @Value("${app.sink.mongo.initial-backoff:200ms}") Duration initialBackoff,
+                              @Value("${app.sink.mongo.max-backoff:10s}") Duration maxBackoff) {
+        this.mongoTemplate = mongoTemplate;
+        this.collectionName = collectionName;
+        this.enabled = enabled;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoff.toMillis();
+        this.maxBackoffMs = maxBackoff.toMillis();
+        this.flushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mongo-sink-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.written = Counter.builder("data.sink.mongo.written")
+                .description("Documents written to analytics_data")
+                .register(meterRegistry);
+        this.duplicates = Counter.builder("data.sink.mongo.duplicates")
+                .description("Documents already present in analytics_data, counted as written")
+                .register(meterRegistry);
+        this.retried = Counter.builder("data.sink.mongo.retries")
+                .description("Documents scheduled for another insert attempt")
+                .register(meterRegistry);
+        this.droppedOverflow = dropped(meterRegistry, "overflow");
+        this.droppedRejected = dropped(meterRegistry, "rejected");
+        this.droppedExhausted = dropped(meterRegistry, "exhausted");
+        this.batchTimer = Timer.builder("data.sink.mongo.batch")
+                .description("Time to write one insertMany batch to analytics_data")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("data.sink.mongo.batch.size")
+                .description("Documents per insertMany batch")
+                .register(meterRegistry);
+        Gauge.builder("data.sink.mongo.queue.size", queue, BlockingQueue::size)
+                .description("Records waiting to be written to analytics_data")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String name() {
+        return "mongo";
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues stored records for {@code analytics_data}; never blocks.
+     */
+    @Override
+    public void submit(SinkBatch batch) {
+        int overflow = 0;
+        for (DataRecord record : batch.records()) {
+            if (!queue.offer(new PendingDocument(record, batch))) {
+                batch.giveUp(record);
+                overflow++;
+            }
+        }
+        if (overflow > 0) {
+            droppedOverflow.increment(overflow);
+            log.warn("MongoDB sink queue is full, dropped {} records", overflow);
+        }
+        if (queue.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                flushRequested.set(false);
+                flush();
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.sink.mongo.linger-ms:200}")
+    public void flush() {
+        if (!enabled || !flushLock.tryLock()) {
+            return;
+        }
+        try {
+            List<PendingDocument> batch = new ArrayList<>(batchSize);
+            while (System.currentTimeMillis() >= pausedUntilMillis) {
+                takeDueRetries(batch);
+                queue.drainTo(batch, batchSize - batch.size());
+                if (batch.isEmpty()) {
+                    return;
+                }
+                boolean full = batch.size() == batchSize;
+                write(batch);
+                batch.clear();
+                if (!full) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("MongoDB sink flush failed", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void takeDueRetries(List<PendingDocument> batch) {
+        long now = System.currentTimeMillis();
+        Iterator<PendingDocument> iterator = retries.iterator();
+        while (iterator.hasNext() && batch.size() < batchSize) {
+            PendingDocument pending = iterator.next();
+            if (pending.notBeforeMillis <= now) {
+                iterator.remove();
+                batch.add(pending);
+            }
+        }
+    }
+
+    private void write(List<PendingDocument> batch) {
+        List<Document> documents = new ArrayList<>(batch.size());
+        Iterator<PendingDocument> iterator = batch.iterator();
+        while (iterator.hasNext()) {
+            PendingDocument pending = iterator.next();
+            try {
+                documents.add(pending.document());
+            } catch (RuntimeException e) {
+                iterator.remove();
+                reject(pending, e);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        MongoCollection<Document> collection = mongoTemplate.getCollection(collectionName);
+        Timer.Sample sample = Timer.start();
+        try {
+            collection.insertMany(documents, insertOptions);
+            consecutiveFailures = 0;
+            written.increment(batch.size());
+            batch.forEach(PendingDocument::settle);
+        } catch (MongoBulkWriteException e) {
+            consecutiveFailures = 0;
+            Set<Integer> failed = new HashSet<>();
+            Set<Integer> retrying = new HashSet<>();
+            Set<Integer> gaveUp = new HashSet<>();
+            int duplicateCount = 0;
+            int exhausted = 0;
+            for (BulkWriteError error : e.getWriteErrors()) {
+                PendingDocument pending = batch.get(error.getIndex());
+                if (ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY) {
+                    duplicateCount++;
+                    continue;
+                }
+                failed.add(error.getIndex());
+                if (isPermanent(error.getCode())) {
+                    droppedRejected.increment();
+                    gaveUp.add(error.getIndex());
+                    log.warn("analytics_data rejected document {}: {}", pending.record.getId(), error.getMessage());
+                } else if (retry(pending)) {
+                    retrying.add(error.getIndex());
+                } else {
+                    gaveUp.add(error.getIndex());
+                    exhausted++;
+                }
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                if (gaveUp.contains(i)) {
+                    batch.get(i).giveUp();
+                } else if (!retrying.contains(i)) {
+                    batch.get(i).settle();
+                }
+            }
+            logExhausted(exhausted, e);
+            duplicates.increment(duplicateCount);
+            written.increment(batch.size() - failed.size());
+        } catch (MongoException e) {
+            // Nothing is known about which documents made it; _id makes resending all of them safe.
+            // Stop draining the queue meanwhile so one outage does not burn every queued record's attempts.
+            consecutiveFailures++;
+            pausedUntilMillis = System.currentTimeMillis() + backoffMs(consecutiveFailures);
+            log.warn("insertMany of {} documents into {} failed: {}", batch.size(), collectionName, e.getMessage());
+            int exhausted = 0;
+            for (PendingDocument pending : batch) {
+                if (!retry(pending)) {
+                    pending.giveUp();
+                    exhausted++;
+                }
+            }
+            logExhausted(exhausted, e);
+        } catch (RuntimeException e) {
+            // Not a server failure: most likely a value the codec registry cannot encode (a BigInteger, say),
+            // which fails the whole insertMany. Drop the documents that cannot be encoded and retry the rest.
+            log.warn("insertMany of {} documents into {} failed before reaching MongoDB: {}",
+                    batch.size(), collectionName, e.getMessage());
+            int exhausted = 0;
+            for (PendingDocument pending : batch) {
+                RuntimeException encodingFailure = encodingFailure(pending, collection);
+                if (encodingFailure != null) {
+                    reject(pending, encodingFailure);
+                } else if (!retry(pending)) {
+                    pending.giveUp();
+                    exhausted++;
+                }
+            }
+            logExhausted(exhausted, e);
+        } finally {
+            sample.stop(batchTimer);
+            batchSizeSummary.record(batch.size());
+        }
+    }
+
+    /**
+     * Schedules another attempt, or returns false if the document has none left.
+     */
+    private boolean retry(PendingDocument pending) {
+        pending.attempts++;
+        if (pending.attempts >= maxAttempts) {
+            droppedExhausted.increment();
+            return false;
+        }
+        pending.notBeforeMillis = System.currentTimeMillis() + backoffMs(pending.attempts);
+        retries.add(pending);
+        retried.increment();
+        return true;
+    }
+
+    private void reject(PendingDocument pending, RuntimeException cause) {
+        droppedRejected.increment();
+        pending.giveUp();
+        log.warn("Cannot write record {} to analytics_data: {}", pending.record.getId(), cause.getMessage());
+    }
+
+    private static RuntimeException encodingFailure(PendingDocument pending, MongoCollection<Document> collection) {
+        try {
+            // RawBsonDocument encodes eagerly, unlike Document.toBsonDocument
+            new RawBsonDocument(pending.document(), collection.getCodecRegistry().get(Document.class));
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    private void logExhausted(int exhausted, RuntimeException cause) {
+        if (exhausted > 0) {
+            log.error("Gave up on {} analytics_data documents after {} attempts: {}",
+                    exhausted, maxAttempts, cause.getMessage());
+        }
+    }
+
+    private long backoffMs(int attempts) {
+        double backoff = initialBackoffMs * Math.pow(2, attempts - 1);
+        long capped = (long) Math.min(backoff, maxBackoffMs);
+        // Half fixed, half random, so documents that failed together do not retry in lockstep
+        return capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1);
+    }
+
+    private static boolean isPermanent(int code) {
+        return code == DOCUMENT_VALIDATION_FAILURE || code == BAD_VALUE || code == OBJECT_TOO_LARGE;
+    }
+
+    /**
+     * Shapes a record for the {@code analytics_data} validator, which requires
+     * a string source and an object payload.
+     */
+    private static Document toDocument(DataRecord record) {
+        Document document = new Document("_id", record.getId().toString())
+                .append("dataType", record.getDataType())
+                .append("source", record.getSource() != null ? record.getSource() : "unknown")
+                .append("timestamp", Date.from(record.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant()))
+                .append("data", record.getData() != null ? new LinkedHashMap<>(record.getData()) : Map.of())
+                .append("processed", record.getProcessedAt() != null)
+                .append("status", record.getStatus());
+        if (record.getMetadata() != null) {
+            document.append("metadata", new LinkedHashMap<>(record.getMetadata()));
+        }
+        return document;
+    }
+
+    private static Counter dropped(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("data.sink.mongo.dropped")
+                .tag("reason", reason)
+                .description("Records that will not reach analytics_data")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdown();
+        flush();
+        int left = queue.size() + retries.size();
+        if (left > 0) {
+            log.warn("Shutting down with {} records not written to analytics_data", left);
+        }
+    }
+
+    private static final class PendingDocument {
+        private final DataRecord record;
+        private final SinkBatch batch;
+        private Document document;
+        private int attempts;
+        private long notBeforeMillis;
+
+        private PendingDocument(DataRecord record, SinkBatch batch) {
+            this.record = record;
+            this.batch = batch;
+        }
+
+        // Built on the flush thread rather than by the writer handing the record over
+        private Document document() {
+            if (document == null) {
+                document = toDocument(record);
+            }
+            return document;
+        }
+
+        private void settle() {
+            batch.settle(1);
+        }
+
+        private void giveUp() {
+            batch.giveUp(record);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.xyzdevfoundation.data.sink;
+
+/**
+ * A secondary store that stored records are copied into by the
+ * {@link StoreWriteCoordinator}.
+ *
+ * Each sink owns its queue and writer threads, so a slow store only falls
+ * behind on its own. {@link #submit(SinkBatch)} must not block, and every
+ * record of the batch must be settled exactly once, when it was written or
+ * when the sink gave up on it.
+ */
+public interface RecordSink {
+
+    /**
+     * Store name used in metrics and caught-up checks.
+     */
+    String name();
+
+    boolean isEnabled();
+
+    void submit(SinkBatch batch);
+}
@@ -0,0 +1,47 @@
+package com.xyzdevfoundation.data.sink;
+
+import com.xyzdevfoundation.data.model.DataRecord;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One store's share of a fanned-out batch. The store's high-water mark can
+ * pass the batch once all of its records are settled.
+ */
+public final class SinkBatch {
+
+    private final StoreWriteCoordinator.Batch batch;
+    private final String store;
+    private final AtomicInteger unsettled;
+
+    SinkBatch(StoreWriteCoordinator.Batch batch, String store) {
+        this.batch = batch;
+        this.store = store;
+        this.unsettled = new AtomicInteger(batch.records().size());
+    }
+
+    public List<DataRecord> records() {
+        return batch.records();
+    }
+
+    /**
+     * Settles a record the store will not get, reporting it as failed there.
+     */
+    public void giveUp(DataRecord record) {
+        batch.failed(store, record);
+        settle(1);
+    }
+
+    /**
+     * Marks {@code count} records as written.
+     */
+    public void settle(int count) {
+        int left = unsettled.addAndGet(-count);
+        if (left == 0) {
+            batch.settled(store);
+        } else if (left < 0) {
+            throw new IllegalStateException("Batch " + batch.sequence() + " settled more records than it holds for " + store);
+        }
+    }
+}
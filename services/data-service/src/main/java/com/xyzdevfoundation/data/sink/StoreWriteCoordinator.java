@@ -0,0 +1,289 @@
+package com.xyzdevfoundation.data.sink;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.xyzdevfoundation.data.model.DataRecord;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fans stored batches out to every configured store and tracks how far each
+ * store has caught up.
+ *
+ * A writer calls {@link #begin(List)} before writing a batch to PostgreSQL,
+ * then {@link #committed(Batch)} once it has committed, which hands the batch
+ * to every enabled {@link RecordSink} at once. Each sink has its own queue and
+ * threads, so a slow store adds lag rather than latency to the writer, and the
+ * other stores are not held up by it.
+ *
+ * Batches are numbered in the order they begin. A store's high-water mark is
+ * the highest sequence for which it has settled that batch and all earlier
+ * ones. Settled means written or given up on, so a store whose queue
+ * overflowed does not stall at that batch. PostgreSQL is tracked as a store
+ * too and settles a batch when it commits.
+ *
+ * A record's state per store is known while its batch is open and, once
+ * every store's mark has passed it, for {@code status-retention} afterwards;
+ * records a sink gave up on are remembered as failed for as long. All of it
+ * is local to this instance: records written by another instance, or longer
+ * ago, are unknown here.
+ */
+@Component
+@Slf4j
+public class StoreWriteCoordinator {
+
+    public static final String PRIMARY_STORE = "postgres";
+
+    /**
+     * Where one store stands with one record, as far as this instance knows.
+     */
+    public enum RecordState {
+        /** Written, along with everything before it. */
+        CAUGHT_UP,
+        /** Handed to the store and not settled yet, or behind a batch that is not. */
+        PENDING,
+        /** The store gave up on the record: its queue was full, it rejected it or retries ran out. */
+        FAILED,
+        /** Not written through this instance within the status retention. */
+        UNKNOWN
+    }
+
+    private final List<RecordSink> sinks;
+    private final Map<String, StoreProgress> stores = new LinkedHashMap<>();
+    private final Map<UUID, Batch> openRecords = new ConcurrentHashMap<>();
+    // Records every store has passed, and the stores that gave up on a record
+    private final Cache<UUID, Boolean> retiredRecords;
+    private final Cache<UUID, Set<String>> failedRecords;
+    // Batches every store has settled, until every store's mark has also passed them
+    private final TreeMap<Long, Batch> settledBatches = new TreeMap<>();
+    private long nextSequence = 1;
+
+    public StoreWriteCoordinator(List<RecordSink> sinks,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.fanout.status-retention:1h}") Duration statusRetention,
+                                 @Value("${app.fanout.status-max-records:100000}") long statusMaxRecords) {
+        this.sinks = sinks.stream().filter(RecordSink::isEnabled).toList();
+        this.retiredRecords = Caffeine.newBuilder()
+                .maximumSize(statusMaxRecords)
+                .expireAfterWrite(statusRetention)
+                .build();
+        this.failedRecords = Caffeine.newBuilder()
+                .maximumSize(statusMaxRecords)
+                .expireAfterWrite(statusRetention)
+                .build();
+        stores.put(PRIMARY_STORE, new StoreProgress());
+        for (RecordSink sink : this.sinks) {
+            stores.put(sink.name(), new StoreProgress());
+        }
+        stores.forEach((name, progress) -> {
+            Gauge.builder("data.fanout.lag", progress, p -> p.lagMillis(System.currentTimeMillis()))
+                    .tag("store", name)
+                    .baseUnit("milliseconds")
+                    .description("How long the oldest batch the store has not settled has been open")
+                    .register(meterRegistry);
+            Gauge.builder("data.fanout.open.batches", progress, StoreProgress::openBatches)
+                    .tag("store", name)
+                    .description("Batches handed to the store and not yet settled")
+                    .register(meterRegistry);
+        });
+        log.info("Fanning stored records out to {}", stores.keySet());
+    }
+
+    /**
+     * Opens a batch on every store before it is written to PostgreSQL.
+     * Follow with {@link #committed(Batch)} or {@link #abandon(Batch)}.
+     */
+    public Batch begin(List<DataRecord> records) {
+        Batch batch;
+        synchronized (this) {
+            // Sequences are opened on every store under one lock, so no store can see them out of order
+            batch = new Batch(this, nextSequence++, List.copyOf(records), stores.keySet());
+            long now = System.currentTimeMillis();
+            for (StoreProgress progress : stores.values()) {
+                progress.open(batch.sequence, now);
+            }
+        }
+        for (DataRecord record : batch.records) {
+            openRecords.put(record.getId(), batch);
+            // Written again, e.g. after a redelivery, so an earlier failure no longer stands
+            failedRecords.invalidate(record.getId());
+        }
+        return batch;
+    }
+
+    /**
+     * Settles the batch for PostgreSQL and hands it to every sink; never blocks.
+     */
+    public void committed(Batch batch) {
+        batch.settled(PRIMARY_STORE);
+        for (RecordSink sink : sinks) {
+            if (batch.records.isEmpty()) {
+                batch.settled(sink.name());
+                continue;
+            }
+            try {
+                sink.submit(new SinkBatch(batch, sink.name()));
+            } catch (RuntimeException e) {
+                log.error("Failed to hand {} records to {}", batch.records.size(), sink.name(), e);
+                for (DataRecord record : batch.records) {
+                    failed(sink.name(), record.getId());
+                }
+                batch.settled(sink.name());
+            }
+        }
+    }
+
+    /**
+     * Closes a batch whose PostgreSQL write failed; it reaches no store.
+     */
+    public void abandon(Batch batch) {
+        for (String store : stores.keySet()) {
+            batch.settled(store);
+        }
+    }
+
+    public List<String> storeNames() {
+        return new ArrayList<>(stores.keySet());
+    }
+
+    /**
+     * Whether {@code store} has written {@code recordId} and settled every
+     * batch before it, as far as this instance knows.
+     */
+    public RecordState recordState(String store, UUID recordId) {
+        StoreProgress progress = progress(store);
+        Set<String> failedStores = failedRecords.getIfPresent(recordId);
+        if (failedStores != null && failedStores.contains(store)) {
+            return RecordState.FAILED;
+        }
+        Batch batch = openRecords.get(recordId);
+        if (batch != null) {
+            return batch.sequence <= progress.highWaterMark() ? RecordState.CAUGHT_UP : RecordState.PENDING;
+        }
+        return retiredRecords.getIfPresent(recordId) != null ? RecordState.CAUGHT_UP : RecordState.UNKNOWN;
+    }
+
+    public long highWaterMark(String store) {
+        return progress(store).highWaterMark();
+    }
+
+    public long lagMillis(String store) {
+        return progress(store).lagMillis(System.currentTimeMillis());
+    }
+
+    private void failed(String store, UUID recordId) {
+        failedRecords.asMap().merge(recordId, Set.of(store), (stores, added) -> {
+            Set<String> merged = new HashSet<>(stores);
+            merged.addAll(added);
+            return Set.copyOf(merged);
+        });
+    }
+
+    private StoreProgress progress(String store) {
+        StoreProgress progress = stores.get(store);
+        if (progress == null) {
+            throw new IllegalArgumentException("Unknown store: " + store);
+        }
+        return progress;
+    }
+
+    private void retire(Batch settled) {
+        List<Batch> retired = new ArrayList<>();
+        synchronized (settledBatches) {
+            settledBatches.put(settled.sequence, settled);
+            long mark = Long.MAX_VALUE;
+            for (StoreProgress progress : stores.values()) {
+                mark = Math.min(mark, progress.highWaterMark());
+            }
+            while (!settledBatches.isEmpty() && settledBatches.firstKey() <= mark) {
+                retired.add(settledBatches.pollFirstEntry().getValue());
+            }
+        }
+        for (Batch batch : retired) {
+            for (DataRecord record : batch.records) {
+                // A later batch may hold the same record again, e.g. after a redelivery
+                if (openRecords.remove(record.getId(), batch)) {
+                    retiredRecords.put(record.getId(), Boolean.TRUE);
+                }
+            }
+        }
+    }
+
+    /**
+     * A batch fanned out to the stores; opaque to writers.
+     */
+    public static final class Batch {
+        private final StoreWriteCoordinator coordinator;
+        private final long sequence;
+        private final List<DataRecord> records;
+        private final Set<String> openStores = ConcurrentHashMap.newKeySet();
+
+        private Batch(StoreWriteCoordinator coordinator, long sequence, List<DataRecord> records, Set<String> stores) {
+            this.coordinator = coordinator;
+            this.sequence = sequence;
+            this.records = records;
+            this.openStores.addAll(stores);
+        }
+
+        long sequence() {
+            return sequence;
+        }
+
+        List<DataRecord> records() {
+            return records;
+        }
+
+        void failed(String store, DataRecord record) {
+            coordinator.failed(store, record.getId());
+        }
+
+        void settled(String store) {
+            // Idempotent, so a sink that fails halfway through cannot settle a store twice
+            coordinator.stores.get(store).settle(sequence);
+            if (openStores.remove(store) && openStores.isEmpty()) {
+                coordinator.retire(this);
+            }
+        }
+    }
+
+    private static final class StoreProgress {
+        // Open batch sequences, to when each was opened
+        private final TreeMap<Long, Long> open = new TreeMap<>();
+        private long lastSequence;
+
+        private synchronized void open(long sequence, long now) {
+            open.put(sequence, now);
+            lastSequence = sequence;
+        }
+
+        private synchronized void settle(long sequence) {
+            open.remove(sequence);
+        }
+
+        private synchronized long highWaterMark() {
+            return open.isEmpty() ? lastSequence : open.firstKey() - 1;
+        }
+
+        private synchronized int openBatches() {
+            return open.size();
+        }
+
+        private synchronized long lagMillis(long now) {
+            return open.isEmpty() ? 0 : Math.max(0, now - open.firstEntry().getValue());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.xyzdevfoundation.data.stream;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Consumer lag of the {@code data-stream} listener, summed over the
+ * partitions this instance currently owns and exported as
+ * {@code kafka.consumer.lag.sum} ({@code kafka_consumer_lag_sum} in
+ * Prometheus, which the KafkaConsumerLag alert watches).
+ *
+ * Per-partition lag comes from the client's own {@code records-lag} fetch
+ * metric after each batch delivery, including deliveries that fail, so a
+ * partition stuck on retries still shows its growing lag. Tracking costs no
+ * extra broker round trips.
+ * Partitions are dropped on revocation so a rebalance cannot leave stale lag
+ * behind.
+ */
+@Component
+public class ConsumerLagTracker implements ConsumerAwareRebalanceListener {
+
+    private static final String FETCH_MANAGER_GROUP = "consumer-fetch-manager-metrics";
+    private static final String RECORDS_LAG = "records-lag";
+
+    private final Map<TopicPartition, Long> lagByPartition = new ConcurrentHashMap<>();
+
+    public ConsumerLagTracker(MeterRegistry meterRegistry,
+                              @Value("${spring.kafka.consumer.group-id:data-service-group}") String groupId) {
+        Gauge.builder("kafka.consumer.lag.sum", lagByPartition,
+                        lags -> lags.values().stream().mapToLong(Long::longValue).sum())
+                .tag("group", groupId)
+                .description("Records behind the log end, summed over owned partitions")
+                .register(meterRegistry);
+    }
+
+    public void update(Consumer<?, ?> consumer) {
+        Collection<TopicPartition> assignment = consumer.assignment();
+        for (Map.Entry<MetricName, ? extends Metric> entry : consumer.metrics().entrySet()) {
+            MetricName name = entry.getKey();
+            if (!RECORDS_LAG.equals(name.name()) || !FETCH_MANAGER_GROUP.equals(name.group())) {
+                continue;
+            }
+            String topic = name.tags().get("topic");
+            String partition = name.tags().get("partition");
+            if (topic == null || partition == null) {
+                continue;
+            }
+            TopicPartition topicPartition = new TopicPartition(topic, Integer.parseInt(partition));
+            Object value = entry.getValue().metricValue();
+            if (assignment.contains(topicPartition) && value instanceof Double lag && !lag.isNaN()) {
+                lagByPartition.put(topicPartition, lag.longValue());
+            }
+        }
+    }
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        partitions.forEach(lagByPartition::remove);
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        partitions.forEach(lagByPartition::remove);
+    }
+}
@@ -0,0 +1,201 @@
+package com.xyzdevfoundation.data.stream;
+
+import com.xyzdevfoundation.data.config.DataStreamKafkaConfig;
+import com.xyzdevfoundation.data.event.StreamRecordEvent;
+import com.xyzdevfoundation.data.model.DataRecord;
+import com.xyzdevfoundation.data.repository.DataRecordRepository;
+import com.xyzdevfoundation.data.sink.StoreWriteCoordinator;
+import com.xyzdevfoundation.data.util.TimeOrderedIdGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores records published to {@code data-stream} in {@code ingested_data}.
+ *
+ * Records arrive in polled batches and are written with one multi-row insert;
+ * offsets are acknowledged only once that insert has committed. Record IDs are
+ * derived from topic, partition and offset, so a batch redelivered after a
+ * failure or rebalance is deduplicated by the primary key. Stored batches are
+ * then published to live tail subscribers and fanned out to the secondary
+ * stores.
+ *
+ * A record the table refuses (a constraint or data error) is isolated by
+ * splitting the batch; the records ahead of it are stored and it is handed
+ * to the container's error handler, which retries it a few times and then
+ * dead-letters it. When storage fails as a whole the batch is redelivered
+ * with an exponential backoff instead, however long the outage lasts.
+ */
+@Component
+@Slf4j
+public class DataStreamConsumer {
+
+    static final String STATUS_STREAMED = "STREAMED";
+    private static final long RETRY_INITIAL_INTERVAL_MS = 500;
+
+    private final DataRecordRepository dataRecordRepository;
+    private final ConsumerLagTracker consumerLagTracker;
+    private final StreamTailHub streamTailHub;
+    private final StoreWriteCoordinator storeWriter;
+    private final Counter consumedRecords;
+    private final Counter skippedRecords;
+    private final DistributionSummary batchSize;
+    private final Timer storeTimer;
+    private final long retryMaxIntervalMs;
+    // Each listener thread backs off on its own
+    private final ThreadLocal<Integer> consecutiveFailures = ThreadLocal.withInitial(() -> 0);
+
+    public DataStreamConsumer(DataRecordRepository dataRecordRepository,
+                              ConsumerLagTracker consumerLagTracker,
+                              StreamTailHub streamTailHub,
+                              StoreWriteCoordinator storeWriter,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.stream.consumer.retry-max-interval-ms:30000}") long retryMaxIntervalMs) {
+        this.dataRecordRepository = dataRecordRepository;
+        this.consumerLagTracker = consumerLagTracker;
+        this.streamTailHub = streamTailHub;
+        this.storeWriter = storeWriter;
+        this.retryMaxIntervalMs = retryMaxIntervalMs;
+        this.consumedRecords = Counter.builder("data.stream.consumer.records")
+                .description("Streamed records stored from data-stream")
+                .register(meterRegistry);
+        this.skippedRecords = Counter.builder("data.stream.consumer.skipped")
+                .description("data-stream records skipped because they could not be deserialized")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("data.stream.consumer.batch.size")
+                .description("Records per consumed batch")
+                .register(meterRegistry);
+        this.storeTimer = Timer.builder("data.stream.consumer.store")
+                .description("Time to store one consumed batch")
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(topics = StreamRecordEvent.TOPIC,
+            containerFactory = DataStreamKafkaConfig.DATA_STREAM_CONTAINER_FACTORY,
+            concurrency = "${app.stream.consumer.concurrency:3}")
+    public void onBatch(List<ConsumerRecord<String, StreamRecordEvent>> batch,
+                        Acknowledgment acknowledgment,
+                        Consumer<?, ?> consumer) {
+        try {
+            List<DataRecord> records = new ArrayList<>(batch.size());
+            List<Integer> positions = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                ConsumerRecord<String, StreamRecordEvent> message = batch.get(i);
+                if (message.value() == null) {
+                    // ErrorHandlingDeserializer hands over undecodable payloads as null values
+                    skippedRecords.increment();
+                    log.warn("Skipping undecodable data-stream record at {}-{}@{}",
+                            message.topic(), message.partition(), message.offset());
+                    continue;
+                }
+                records.add(toRecord(message));
+                positions.add(i);
+            }
+
+            Refusal refusal;
+            try {
+                refusal = storeUntilRefused(records, 0, records.size());
+            } catch (RuntimeException e) {
+                // Storage is failing as a whole: redeliver the batch after a backoff for as long as that lasts
+                int failures = consecutiveFailures.get() + 1;
+                consecutiveFailures.set(failures);
+                long sleepMs = Math.min(retryMaxIntervalMs, RETRY_INITIAL_INTERVAL_MS << Math.min(failures - 1, 16));
+                log.warn("Failed to store {} data-stream records, redelivering in {} ms: {}",
+                        records.size(), sleepMs, e.getMessage());
+                acknowledgment.nack(0, Duration.ofMillis(sleepMs));
+                return;
+            }
+            consecutiveFailures.set(0);
+            if (refusal != null) {
+                // The records ahead of it are stored; the error handler commits their offsets and
+                // dead-letters this one once its bounded retries are spent
+                throw new BatchListenerFailedException("ingested_data refused a data-stream record",
+                        refusal.cause(), positions.get(refusal.index()));
+            }
+            acknowledgment.acknowledge();
+
+            batchSize.record(batch.size());
+            consumedRecords.increment(records.size());
+            log.debug("Stored {} of {} data-stream records", records.size(), batch.size());
+        } finally {
+            // Also while a partition is stuck on failures, which is when the lag alert matters most
+            consumerLagTracker.update(consumer);
+        }
+    }
+
+    /**
+     * Stores records[from, to), splitting the range on a constraint or data
+     * error to find the first record the table refuses. Everything before
+     * that record is stored; null means all of them were.
+     */
+    private Refusal storeUntilRefused(List<DataRecord> records, int from, int to) {
+        if (from == to) {
+            return null;
+        }
+        try {
+            store(records.subList(from, to));
+            return null;
+        } catch (DataIntegrityViolationException e) {
+            if (to - from == 1) {
+                return new Refusal(from, e);
+            }
+            int middle = (from + to) >>> 1;
+            Refusal refusal = storeUntilRefused(records, from, middle);
+            return refusal != null ? refusal : storeUntilRefused(records, middle, to);
+        }
+    }
+
+    private void store(List<DataRecord> records) {
+        StoreWriteCoordinator.Batch fanOut = storeWriter.begin(records);
+        try {
+            storeTimer.record(() -> dataRecordRepository.insertBatch(records));
+        } catch (RuntimeException e) {
+            storeWriter.abandon(fanOut);
+            throw e;
+        }
+        streamTailHub.publishStored(records);
+        storeWriter.committed(fanOut);
+    }
+
+    private static DataRecord toRecord(ConsumerRecord<String, StreamRecordEvent> message) {
+        StreamRecordEvent event = message.value();
+        long timestamp = event.getTimestamp() > 0 ? event.getTimestamp() : message.timestamp();
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        if (event.getMetadata() != null) {
+            metadata.putAll(event.getMetadata());
+        }
+        metadata.put("streamId", event.getStreamId());
+        return DataRecord.builder()
+                .id(TimeOrderedIdGenerator.idFor(timestamp,
+                        message.topic() + "-" + message.partition() + "@" + message.offset()))
+                .dataType(event.getDataType())
+                .source(event.getSource())
+                .status(STATUS_STREAMED)
+                .data(event.getData())
+                .metadata(metadata)
+                .createdAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault()))
+                .build();
+    }
+
+    private record Refusal(int index, DataIntegrityViolationException cause) {
+    }
+}
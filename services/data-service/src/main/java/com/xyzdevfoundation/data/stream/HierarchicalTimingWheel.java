@@ -0,0 +1,162 @@
+package com.xyzdevfoundation.data.stream;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hierarchical timing wheel for large numbers of short-lived timers.
+ *
+ * Level 0 has {@code wheelSize} slots of {@code tickMs}; each higher level
+ * has slots as wide as the whole level below it, so a few levels cover long
+ * delays. Scheduling and expiring a timer are O(1) regardless of how many are
+ * pending. Timers in a higher level are cascaded down when the clock reaches
+ * their slot. Deadlines are rounded up to the next tick, so a timer never
+ * fires early and fires at most one tick late. Expired tasks are handed to
+ * {@code taskExecutor} so a slow task cannot stall the clock.
+ */
+@Slf4j
+public class HierarchicalTimingWheel implements AutoCloseable {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final Executor taskExecutor;
+    private final List<ArrayDeque<Timer>[]> levels = new ArrayList<>();
+    private final ScheduledExecutorService ticker;
+    private long currentTime;
+    private int size;
+
+    public HierarchicalTimingWheel(String name, long tickMs, int wheelSize, Executor taskExecutor) {
+        if (tickMs < 1 || wheelSize < 2) {
+            throw new IllegalArgumentException("tickMs must be >= 1 and wheelSize >= 2");
+        }
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.taskExecutor = taskExecutor;
+        this.currentTime = System.currentTimeMillis() / tickMs * tickMs;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name + "-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::advanceClock, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void schedule(long delayMs, Runnable task) {
+        long deadline = System.currentTimeMillis() + Math.max(0, delayMs);
+        Timer timer = new Timer(ceilToTick(deadline), task);
+        boolean expired;
+        synchronized (this) {
+            expired = !add(timer);
+        }
+        if (expired) {
+            taskExecutor.execute(task);
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+    }
+
+    private void advanceClock() {
+        List<Runnable> due = new ArrayList<>();
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            // Catch up tick by tick after a stall so no slot is skipped
+            while (currentTime + tickMs <= now) {
+                currentTime += tickMs;
+                for (int level = levels.size() - 1; level > 0; level--) {
+                    long levelTick = levelTick(level);
+                    if (currentTime % levelTick == 0) {
+                        ArrayDeque<Timer> slot = levels.get(level)[slotIndex(currentTime, levelTick)];
+                        List<Timer> cascading = new ArrayList<>(slot);
+                        slot.clear();
+                        size -= cascading.size();
+                        for (Timer timer : cascading) {
+                            if (!add(timer)) {
+                                due.add(timer.task);
+                            }
+                        }
+                    }
+                }
+                if (!levels.isEmpty()) {
+                    ArrayDeque<Timer> slot = levels.get(0)[slotIndex(currentTime, tickMs)];
+                    size -= slot.size();
+                    for (Timer timer : slot) {
+                        due.add(timer.task);
+                    }
+                    slot.clear();
+                }
+            }
+        }
+        for (Runnable task : due) {
+            try {
+                taskExecutor.execute(task);
+            } catch (RuntimeException e) {
+                // An exception escaping the ticker would cancel it and strand every pending timer
+                log.error("Failed to run expired timer", e);
+            }
+        }
+    }
+
+    /**
+     * Places {@code timer} in the lowest level whose span covers its deadline;
+     * returns false if the deadline has already been reached.
+     */
+    private boolean add(Timer timer) {
+        if (timer.deadline <= currentTime) {
+            return false;
+        }
+        int level = 0;
+        long levelTick = tickMs;
+        while (timer.deadline >= currentTime / levelTick * levelTick + levelTick * wheelSize) {
+            level++;
+            levelTick *= wheelSize;
+        }
+        levels(level)[slotIndex(timer.deadline, levelTick)].add(timer);
+        size++;
+        return true;
+    }
+
+    private ArrayDeque<Timer>[] levels(int level) {
+        while (levels.size() <= level) {
+            @SuppressWarnings("unchecked")
+            ArrayDeque<Timer>[] slots = (ArrayDeque<Timer>[]) new ArrayDeque<?>[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                slots[i] = new ArrayDeque<>();
+            }
+            levels.add(slots);
+        }
+        return levels.get(level);
+    }
+
+    private long levelTick(int level) {
+        long levelTick = tickMs;
+        for (int i = 0; i < level; i++) {
+            levelTick *= wheelSize;
+        }
+        return levelTick;
+    }
+
+    private int slotIndex(long time, long levelTick) {
+        return (int) ((time / levelTick) % wheelSize);
+    }
+
+    private long ceilToTick(long time) {
+        return (time + tickMs - 1) / tickMs * tickMs;
+    }
+
+    private record Timer(long deadline, Runnable task) {
+    }
+}
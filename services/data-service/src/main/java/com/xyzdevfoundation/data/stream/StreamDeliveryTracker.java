@@ -0,0 +1,539 @@
+package com.xyzdevfoundation.data.stream;
+
+import com.xyzdevfoundation.data.dto.StreamDeliveryStatus;
+import com.xyzdevfoundation.data.event.StreamRecordEvent;
+import com.xyzdevfoundation.data.exception.AdmissionRejectedException;
+import com.xyzdevfoundation.data.wal.StreamWriteAheadLog;
+import com.xyzdevfoundation.data.wal.WriteAheadLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.RetriableException;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends {@code data-stream} records and tracks their delivery per streamId.
+ *
+ * Each record is appended to the write-ahead log before it is sent and
+ * acknowledged there once Kafka or the dead-letter topic has it. A send
+ * that fails with a retriable error is retried on a hierarchical timing
+ * wheel with jittered exponential backoff, so thousands of pending retries
+ * cost no threads. Records that fail with a non-retriable error are written
+ * to {@code data-stream.DLT} with the stream id, attempt count and error as
+ * headers. Records that run out of attempts because the broker is
+ * unreachable are parked in the log instead and replayed in log order once
+ * a probe send succeeds, together with whatever the previous run left
+ * unacknowledged. While anything is parked, or after a send timed out
+ * waiting for the broker, new records are parked straight after the log
+ * append instead of being sent, so neither request threads nor retry threads
+ * sit in a blocking send() for {@code max.block.ms} per record while the
+ * broker is away; the replay probe alone finds out when it is back. A
+ * retried record can land after later records with the
+ * same key. Sends that follow from a completed send (the next replay batch,
+ * a dead-letter write) are made from the retry threads, never from the
+ * producer's I/O thread, where a blocking send() would stall every callback.
+ *
+ * Status is kept in memory on the instance that accepted the stream, for
+ * {@code retention} after the stream settles. A stream is settled once it
+ * is sealed and every record has been acknowledged or dead-lettered. A
+ * write-ahead log entry too damaged to decode cannot be traced back to its
+ * stream, so its loss only shows in the {@code data.stream.delivery.lost}
+ * metric.
+ */
+@Component
+@Slf4j
+public class StreamDeliveryTracker {
+
+    public static final String DEAD_LETTER_TOPIC = StreamRecordEvent.TOPIC + ".DLT";
+    static final String STREAM_ID_HEADER = "x-dlt-stream-id";
+    static final String ATTEMPTS_HEADER = "x-dlt-attempts";
+    static final String EXCEPTION_HEADER = "x-dlt-exception";
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final StreamWriteAheadLog writeAheadLog;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final double backoffMultiplier;
+    private final long maxBackoffMs;
+    private final Duration retention;
+    private final Duration maxAge;
+    private final int replayBatchSize;
+    private final Map<String, StreamDelivery> streams = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, Delivery> parked = new ConcurrentSkipListMap<>();
+    private final AtomicBoolean replaying = new AtomicBoolean();
+    // Set when a send times out on the broker; cleared by the next send that gets through
+    private final AtomicBoolean brokerUnavailable = new AtomicBoolean();
+    private final ExecutorService retryExecutor;
+    private final HierarchicalTimingWheel retryWheel;
+    private final Counter retries;
+    private final Counter deadLettered;
+    private final Counter lost;
+    private final Counter replayed;
+
+    public StreamDeliveryTracker(KafkaTemplate<String, Object> kafkaTemplate,
+                                 StreamWriteAheadLog writeAheadLog,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.stream.delivery.max-attempts:5}") int maxAttempts,
+                                 @Value("${app.stream.delivery.initial-backoff-ms:200}") long initialBackoffMs,
+                                 @Value("${app.stream.delivery.backoff-multiplier:2.0}") double backoffMultiplier,
+                                 @Value("${app.stream.delivery.max-backoff-ms:30000}") long maxBackoffMs,
+                                 @Value("${app.stream.delivery.retry-threads:2}") int retryThreads,
+                                 @Value("${app.stream.delivery.wheel-tick-ms:10}") long wheelTickMs,
+                                 @Value("${app.stream.delivery.wheel-size:64}") int wheelSize,
+                                 @Value("${app.stream.delivery.retention:1h}") Duration retention,
+                                 @Value("${app.stream.delivery.max-age:24h}") Duration maxAge,
+                                 @Value("${app.wal.replay-batch-size:500}") int replayBatchSize) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.writeAheadLog = writeAheadLog;
+        this.replayBatchSize = replayBatchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.backoffMultiplier = backoffMultiplier;
+        this.maxBackoffMs = maxBackoffMs;
+        this.retention = retention;
+        this.maxAge = maxAge;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.retryExecutor = Executors.newFixedThreadPool(retryThreads, runnable -> {
+            Thread thread = new Thread(runnable, "stream-retry-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.retryWheel = new HierarchicalTimingWheel("stream-retry", wheelTickMs, wheelSize, retryExecutor);
+
+        this.retries = Counter.builder("data.stream.delivery.retries")
+                .description("Stream record sends retried after a retriable failure")
+                .register(meterRegistry);
+        this.deadLettered = Counter.builder("data.stream.delivery.dead.lettered")
+                .description("Stream records written to the dead-letter topic")
+                .register(meterRegistry);
+        this.lost = Counter.builder("data.stream.delivery.lost")
+                .description("Stream records dropped because their write-ahead log entry could not be decoded")
+                .register(meterRegistry);
+        this.replayed = Counter.builder("data.stream.delivery.replayed")
+                .description("Parked stream records replayed from the write-ahead log")
+                .register(meterRegistry);
+        Gauge.builder("data.stream.delivery.parked", parked, Map::size)
+                .description("Stream records parked in the write-ahead log until the broker is reachable")
+                .register(meterRegistry);
+        Gauge.builder("data.stream.delivery.retry.scheduled", retryWheel, HierarchicalTimingWheel::size)
+                .description("Stream record retries waiting for their backoff to expire")
+                .register(meterRegistry);
+        Gauge.builder("data.stream.delivery.streams", streams, Map::size)
+                .description("Streams whose delivery status is being tracked")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Parks the records the previous run left unacknowledged in the write-ahead
+     * log; the replay picks them up once the broker answers.
+     */
+    @PostConstruct
+    public void recover() {
+        List<WriteAheadLog.Entry> entries = writeAheadLog.takeRecovered();
+        for (WriteAheadLog.Entry entry : entries) {
+            StreamWriteAheadLog.LoggedRecord record;
+            try {
+                record = writeAheadLog.read(entry);
+            } catch (RuntimeException e) {
+                log.error("Dropping undecodable write-ahead log entry {}", entry.sequence(), e);
+                lost.increment();
+                writeAheadLog.acknowledge(entry);
+                continue;
+            }
+            StreamDelivery stream = streams.computeIfAbsent(record.event().getStreamId(), StreamDelivery::new);
+            stream.sealed = true;
+            stream.submitted.incrementAndGet();
+            park(new Delivery(stream, record.key(), null, () -> { }, entry));
+        }
+        if (!entries.isEmpty()) {
+            log.info("Recovered {} unacknowledged stream records from the write-ahead log", entries.size());
+        }
+    }
+
+    public void open(String streamId) {
+        streams.computeIfAbsent(streamId, StreamDelivery::new);
+    }
+
+    /**
+     * Logs and sends {@code event}, retrying it until it is acknowledged,
+     * dead-lettered or parked; {@code onSettled} runs once any has happened.
+     * The returned future completes once the record is durable in the log.
+     *
+     * @throws AdmissionRejectedException if the write-ahead log is full
+     */
+    public CompletableFuture<Void> send(String streamId, String key, StreamRecordEvent event, Runnable onSettled) {
+        WriteAheadLog.Entry entry;
+        try {
+            entry = writeAheadLog.append(key, event);
+        } catch (RuntimeException e) {
+            onSettled.run();
+            throw e;
+        }
+        StreamDelivery stream = streams.computeIfAbsent(streamId, StreamDelivery::new);
+        stream.submitted.incrementAndGet();
+        Delivery delivery = new Delivery(stream, key, event, onSettled, entry);
+        if (deferToReplay()) {
+            park(delivery);
+        } else {
+            attempt(delivery);
+        }
+        return entry.durable();
+    }
+
+    /**
+     * Marks {@code streamId} as complete: no more records will be sent for it.
+     */
+    public void seal(String streamId) {
+        StreamDelivery stream = streams.get(streamId);
+        if (stream != null) {
+            stream.sealed = true;
+            stream.completeIfSettled();
+        }
+    }
+
+    public Optional<StreamDeliveryStatus> getStatus(String streamId) {
+        return Optional.ofNullable(streams.get(streamId)).map(StreamDelivery::toStatus);
+    }
+
+    @Scheduled(fixedDelayString = "${app.stream.delivery.cleanup-interval-ms:60000}")
+    public void evictExpired() {
+        LocalDateTime settledBefore = LocalDateTime.now().minus(retention);
+        LocalDateTime startedBefore = LocalDateTime.now().minus(maxAge);
+        streams.values().removeIf(stream -> stream.completedAt != null
+                ? stream.completedAt.isBefore(settledBefore)
+                : stream.startedAt.isBefore(startedBefore));
+    }
+
+    /**
+     * Replays parked records in log order. The oldest is sent alone as a probe;
+     * once it is acknowledged the rest follow in batches until one fails.
+     */
+    @Scheduled(fixedDelayString = "${app.wal.replay-interval-ms:1000}")
+    public void replayParked() {
+        Map.Entry<Long, Delivery> head = parked.firstEntry();
+        if (head == null || !replaying.compareAndSet(false, true)) {
+            return;
+        }
+        replay(List.of(head.getValue()));
+    }
+
+    private void replay(List<Delivery> batch) {
+        if (batch.isEmpty()) {
+            replaying.set(false);
+            return;
+        }
+        AtomicInteger outstanding = new AtomicInteger(batch.size());
+        AtomicBoolean failed = new AtomicBoolean();
+        for (Delivery delivery : batch) {
+            delivery.attempts++;
+            CompletableFuture<?> send;
+            try {
+                send = kafkaTemplate.send(StreamRecordEvent.TOPIC, delivery.key, eventOf(delivery));
+            } catch (RuntimeException e) {
+                send = CompletableFuture.failedFuture(e);
+            }
+            send.whenComplete((result, failure) -> {
+                if (failure == null) {
+                    brokerUnavailable.set(false);
+                    unpark(delivery);
+                    replayed.increment();
+                    delivery.stream.acknowledged.incrementAndGet();
+                    settle(delivery);
+                } else if (!isRetriable(failure)) {
+                    unpark(delivery);
+                    deadLetterLater(delivery, failure);
+                } else {
+                    markIfBrokerUnavailable(failure);
+                    failed.set(true);
+                }
+                if (outstanding.decrementAndGet() == 0) {
+                    if (failed.get()) {
+                        replaying.set(false);
+                    } else {
+                        replayNextBatch();
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Sends the next batch from a retry thread: this runs when the last send
+     * completes, on the producer's I/O thread, which a blocking send() or log
+     * read must not hold up.
+     */
+    private void replayNextBatch() {
+        try {
+            retryExecutor.execute(() -> replay(parked.values().stream().limit(replayBatchSize).toList()));
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the next run replays what is left in the log
+            replaying.set(false);
+        }
+    }
+
+    private void attempt(Delivery delivery) {
+        delivery.attempts++;
+        try {
+            kafkaTemplate.send(StreamRecordEvent.TOPIC, delivery.key, delivery.event)
+                    .whenComplete((result, failure) -> {
+                        if (failure == null) {
+                            brokerUnavailable.set(false);
+                            delivery.stream.acknowledged.incrementAndGet();
+                            settle(delivery);
+                        } else {
+                            onFailure(delivery, failure);
+                        }
+                    });
+        } catch (RuntimeException e) {
+            onFailure(delivery, e);
+        }
+    }
+
+    private void onFailure(Delivery delivery, Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause() : failure;
+        if (!isRetriable(cause)) {
+            deadLetterLater(delivery, cause);
+            return;
+        }
+        markIfBrokerUnavailable(cause);
+        if (delivery.attempts >= maxAttempts) {
+            log.warn("Parking record of stream {} after {} attempts: {}",
+                    delivery.stream.streamId, delivery.attempts, cause.getMessage());
+            park(delivery);
+            return;
+        }
+        long backoffMs = backoffMs(delivery.attempts);
+        log.debug("Retrying record of stream {} in {} ms after attempt {}: {}",
+                delivery.stream.streamId, backoffMs, delivery.attempts, cause.getMessage());
+        retries.increment();
+        delivery.stream.retries.incrementAndGet();
+        delivery.stream.retrying.incrementAndGet();
+        retryWheel.schedule(backoffMs, () -> {
+            delivery.stream.retrying.decrementAndGet();
+            if (deferToReplay()) {
+                park(delivery);
+            } else {
+                attempt(delivery);
+            }
+        });
+    }
+
+    /**
+     * True while sends would only wait on an unreachable broker, or would
+     * overtake records already parked in the log.
+     */
+    private boolean deferToReplay() {
+        return brokerUnavailable.get() || !parked.isEmpty();
+    }
+
+    private void markIfBrokerUnavailable(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException) {
+                if (brokerUnavailable.compareAndSet(false, true)) {
+                    log.warn("Kafka send timed out, parking new stream records until a replay gets through: {}",
+                            cause.getMessage());
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Dead-letters from a retry thread rather than the producer I/O thread the
+     * failure was reported on.
+     */
+    private void deadLetterLater(Delivery delivery, Throwable cause) {
+        try {
+            retryExecutor.execute(() -> deadLetter(delivery, cause));
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the record stays in the log for the next run
+            park(delivery);
+        }
+    }
+
+    private void deadLetter(Delivery delivery, Throwable cause) {
+        log.warn("Dead-lettering record of stream {} after {} attempts: {}",
+                delivery.stream.streamId, delivery.attempts, cause.getMessage());
+        ProducerRecord<String, Object> record = new ProducerRecord<>(DEAD_LETTER_TOPIC, delivery.key, eventOf(delivery));
+        record.headers()
+                .add(STREAM_ID_HEADER, delivery.stream.streamId.getBytes(StandardCharsets.UTF_8))
+                .add(ATTEMPTS_HEADER, Integer.toString(delivery.attempts).getBytes(StandardCharsets.UTF_8))
+                .add(EXCEPTION_HEADER, (cause.getClass().getName() + ": " + cause.getMessage()).getBytes(StandardCharsets.UTF_8));
+        try {
+            kafkaTemplate.send(record).whenComplete((result, failure) -> {
+                if (failure == null) {
+                    deadLettered.increment();
+                    delivery.stream.deadLettered.incrementAndGet();
+                    settle(delivery);
+                } else {
+                    // Kept in the log; the replay retries it, and dead-letters it again if it still fails
+                    log.error("Dead-letter send for stream {} failed, parking the record", delivery.stream.streamId, failure);
+                    park(delivery);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Dead-letter send for stream {} failed, parking the record", delivery.stream.streamId, e);
+            park(delivery);
+        }
+    }
+
+    /**
+     * Leaves the record to the replay. Its admission is released: the log now
+     * bounds how much can wait for the broker.
+     */
+    private void park(Delivery delivery) {
+        delivery.event = null;
+        if (parked.putIfAbsent(delivery.entry.sequence(), delivery) == null) {
+            delivery.stream.parked.incrementAndGet();
+        }
+        delivery.release();
+    }
+
+    private void unpark(Delivery delivery) {
+        if (parked.remove(delivery.entry.sequence(), delivery)) {
+            delivery.stream.parked.decrementAndGet();
+        }
+    }
+
+    private StreamRecordEvent eventOf(Delivery delivery) {
+        StreamRecordEvent event = delivery.event;
+        return event != null ? event : writeAheadLog.read(delivery.entry).event();
+    }
+
+    private void settle(Delivery delivery) {
+        try {
+            writeAheadLog.acknowledge(delivery.entry);
+            delivery.release();
+        } finally {
+            delivery.stream.completeIfSettled();
+        }
+    }
+
+    private long backoffMs(int attempts) {
+        double backoff = initialBackoffMs * Math.pow(backoffMultiplier, attempts - 1);
+        long capped = (long) Math.min(backoff, maxBackoffMs);
+        // Half fixed, half random, so records that failed together do not retry in lockstep
+        return capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1);
+    }
+
+    private static boolean isRetriable(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RetriableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retryWheel.close();
+        retryExecutor.shutdown();
+        streams.values().stream()
+                .filter(stream -> stream.completedAt == null)
+                .forEach(stream -> log.info("Shutting down with stream {} unsettled: {} of {} records acknowledged, rest kept in the write-ahead log",
+                        stream.streamId, stream.acknowledged.get(), stream.submitted.get()));
+    }
+
+    private static final class Delivery {
+        private final StreamDelivery stream;
+        private final String key;
+        private final Runnable onSettled;
+        private final WriteAheadLog.Entry entry;
+        private final AtomicBoolean released = new AtomicBoolean();
+        // Dropped while parked and read back from the log when needed
+        private volatile StreamRecordEvent event;
+        // Only touched by whichever thread holds the current attempt
+        private volatile int attempts;
+
+        private Delivery(StreamDelivery stream, String key, StreamRecordEvent event, Runnable onSettled,
+                         WriteAheadLog.Entry entry) {
+            this.stream = stream;
+            this.key = key;
+            this.event = event;
+            this.onSettled = onSettled;
+            this.entry = entry;
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                onSettled.run();
+            }
+        }
+    }
+
+    private static final class StreamDelivery {
+        private final String streamId;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong submitted = new AtomicLong();
+        private final AtomicLong acknowledged = new AtomicLong();
+        private final AtomicLong retrying = new AtomicLong();
+        private final AtomicLong retries = new AtomicLong();
+        private final AtomicLong deadLettered = new AtomicLong();
+        private final AtomicLong parked = new AtomicLong();
+        private volatile boolean sealed;
+        private volatile LocalDateTime completedAt;
+
+        private StreamDelivery(String streamId) {
+            this.streamId = streamId;
+        }
+
+        private long settled() {
+            return acknowledged.get() + deadLettered.get();
+        }
+
+        private synchronized void completeIfSettled() {
+            if (completedAt == null && sealed && settled() == submitted.get()) {
+                completedAt = LocalDateTime.now();
+            }
+        }
+
+        private StreamDeliveryStatus toStatus() {
+            LocalDateTime completed = completedAt;
+            String status = completed == null ? StreamDeliveryStatus.IN_PROGRESS
+                    : deadLettered.get() == 0 ? StreamDeliveryStatus.DELIVERED : StreamDeliveryStatus.DELIVERED_WITH_FAILURES;
+            long total = submitted.get();
+            return StreamDeliveryStatus.builder()
+                    .streamId(streamId)
+                    .status(status)
+                    .submitted(total)
+                    .acknowledged(acknowledged.get())
+                    .pending(total - settled())
+                    .retrying(retrying.get())
+                    .parked(parked.get())
+                    .retries(retries.get())
+                    .deadLettered(deadLettered.get())
+                    .startedAt(startedAt)
+                    .completedAt(completed)
+                    .build();
+        }
+    }
+}
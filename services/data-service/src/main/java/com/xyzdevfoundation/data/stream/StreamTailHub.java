@@ -0,0 +1,445 @@
+package com.xyzdevfoundation.data.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xyzdevfoundation.data.dto.StreamDeliveryStatus;
+import com.xyzdevfoundation.data.dto.StreamTailRecord;
+import com.xyzdevfoundation.data.exception.AdmissionRejectedException;
+import com.xyzdevfoundation.data.model.DataRecord;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live Server-Sent Events tail of a stream's stored records and delivery status.
+ *
+ * Tails are async-servlet {@link SseEmitter}s, so an idle tail holds a
+ * connection but no thread. Each subscriber has its own bounded ring of
+ * pending events; when a slow client lets it fill up the oldest events are
+ * dropped and the client is told how many. Rings are drained by a small
+ * shared dispatcher pool, one drain per subscriber at a time, so neither
+ * the Kafka consumer nor the Redis listener ever writes to a socket.
+ * Servlet writes block while the client's receive window is full, so a
+ * write that takes longer than {@code send-timeout} evicts the subscriber:
+ * it gets no more events, its dispatcher thread is interrupted, and until
+ * that write returns the pool runs an extra thread in its place (up to
+ * four times {@code dispatch-threads}), so stalled clients cannot starve
+ * the others. The tail is closed as soon as the write returns.
+ *
+ * Records may be stored by the consumer of any instance, so stored batches
+ * are published to the Redis channel {@code data-stream:stored} and every
+ * instance delivers them to its own subscribers. Only streams that are
+ * tailed somewhere are published: an instance with tails of a stream keeps
+ * a {@code data-stream:tailed:<streamId>} key alive in Redis for
+ * {@code tailed-ttl}, refreshed with each heartbeat, and the publisher looks
+ * the keys of a batch up with one MGET, so Redis traffic follows the number
+ * of tails rather than total ingest. Publishing runs on its own
+ * thread behind a bounded queue, so a slow Redis never holds up the Kafka
+ * consumer; when the queue is full the batch is not tailed. Delivery status is only
+ * known on the instance that accepted the stream and is sent from there
+ * whenever it changes.
+ */
+@Component
+@Slf4j
+public class StreamTailHub implements MessageListener {
+
+    public static final String CHANNEL = "data-stream:stored";
+    static final String TAILED_KEY_PREFIX = "data-stream:tailed:";
+    static final String STREAM_ID_KEY = "streamId";
+    private static final TypeReference<List<StreamTailRecord>> RECORDS_TYPE = new TypeReference<>() { };
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final StreamDeliveryTracker deliveryTracker;
+    private final int ringCapacity;
+    private final int maxSubscribers;
+    private final long timeoutMs;
+    private final long heartbeatIntervalMs;
+    private final long sendTimeoutNanos;
+    private final Duration tailedTtl;
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Map<String, StreamDeliveryStatus> lastStatus = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ThreadPoolExecutor dispatcher;
+    private final int dispatchThreads;
+    private final ThreadPoolExecutor publisher;
+    private final Counter droppedEvents;
+    private final Counter evictedSubscribers;
+    private final Counter publishFailures;
+    private volatile long lastHeartbeat = System.currentTimeMillis();
+
+    public StreamTailHub(StringRedisTemplate redisTemplate,
+                         ObjectMapper objectMapper,
+                         StreamDeliveryTracker deliveryTracker,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.stream.tail.ring-capacity:256}") int ringCapacity,
+                         @Value("${app.stream.tail.max-subscribers:10000}") int maxSubscribers,
+                         @Value("${app.stream.tail.timeout:30m}") Duration timeout,
+                         @Value("${app.stream.tail.heartbeat-interval:15s}") Duration heartbeatInterval,
+                         @Value("${app.stream.tail.send-timeout:10s}") Duration sendTimeout,
+                         @Value("${app.stream.tail.dispatch-threads:4}") int dispatchThreads,
+                         @Value("${app.stream.tail.publish-queue-capacity:1000}") int publishQueueCapacity,
+                         @Value("${app.stream.tail.tailed-ttl:1m}") Duration tailedTtl) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.deliveryTracker = deliveryTracker;
+        this.ringCapacity = ringCapacity;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMs = timeout.toMillis();
+        this.heartbeatIntervalMs = heartbeatInterval.toMillis();
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.tailedTtl = tailedTtl;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.dispatchThreads = dispatchThreads;
+        this.dispatcher = new ThreadPoolExecutor(dispatchThreads, 4 * dispatchThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "stream-tail-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.publisher = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(publishQueueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "stream-tail-publish");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        this.droppedEvents = Counter.builder("data.stream.tail.dropped")
+                .description("Tail events dropped because a subscriber's ring was full")
+                .register(meterRegistry);
+        this.evictedSubscribers = Counter.builder("data.stream.tail.evicted")
+                .description("Live tails closed because a write to the client stalled past the send timeout")
+                .register(meterRegistry);
+        this.publishFailures = Counter.builder("data.stream.tail.publish.failures")
+                .description("Stored batches that could not be published to tail subscribers")
+                .register(meterRegistry);
+        Gauge.builder("data.stream.tail.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open live tail connections")
+                .register(meterRegistry);
+        Gauge.builder("data.stream.tail.publish.queued", publisher, p -> p.getQueue().size())
+                .description("Stored batches waiting to be published to tail subscribers")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(String streamId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new AdmissionRejectedException("Too many live tails open", 5);
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(streamId, emitter);
+        subscribers.compute(streamId, (id, tails) -> {
+            Set<Subscriber> updated = tails != null ? tails : ConcurrentHashMap.newKeySet();
+            updated.add(subscriber);
+            return updated;
+        });
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(failure -> unsubscribe(subscriber));
+        markTailed(List.of(streamId));
+
+        deliveryTracker.getStatus(streamId).ifPresent(status -> subscriber.offer(statusEvent(status)));
+        log.debug("Opened live tail of stream {}", streamId);
+        return emitter;
+    }
+
+    /**
+     * Queues a stored batch for publishing to the tails of every stream it
+     * contains, on all instances. Failures are counted and logged, never
+     * thrown, since the batch is already stored.
+     */
+    public void publishStored(List<DataRecord> records) {
+        Map<String, List<StreamTailRecord>> byStream = new LinkedHashMap<>();
+        for (DataRecord record : records) {
+            Object streamId = record.getMetadata() != null ? record.getMetadata().get(STREAM_ID_KEY) : null;
+            if (streamId != null) {
+                byStream.computeIfAbsent(streamId.toString(), id -> new ArrayList<>())
+                        .add(StreamTailRecord.fromRecord(streamId.toString(), record));
+            }
+        }
+        if (byStream.isEmpty()) {
+            return;
+        }
+        try {
+            publisher.execute(() -> publish(byStream));
+        } catch (RejectedExecutionException e) {
+            publishFailures.increment(byStream.size());
+            log.warn("Tail publish queue is full, not tailing stored records of {} streams", byStream.size());
+        }
+    }
+
+    private void publish(Map<String, List<StreamTailRecord>> byStream) {
+        List<String> streamIds = new ArrayList<>(byStream.keySet());
+        List<String> tailed;
+        try {
+            tailed = redisTemplate.opsForValue().multiGet(streamIds.stream().map(id -> TAILED_KEY_PREFIX + id).toList());
+        } catch (RuntimeException e) {
+            publishFailures.increment(streamIds.size());
+            log.warn("Failed to look up tailed streams, not tailing stored records of {} streams: {}",
+                    streamIds.size(), e.getMessage());
+            return;
+        }
+        for (int i = 0; i < streamIds.size(); i++) {
+            if (tailed == null || tailed.get(i) == null) {
+                // Nobody tails this stream on any instance
+                continue;
+            }
+            List<StreamTailRecord> streamRecords = byStream.get(streamIds.get(i));
+            try {
+                redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(streamRecords));
+            } catch (JsonProcessingException | RuntimeException e) {
+                publishFailures.increment();
+                log.warn("Failed to publish stored records of stream {} to tails: {}",
+                        streamRecords.get(0).getStreamId(), e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        List<StreamTailRecord> records;
+        try {
+            records = objectMapper.readValue(new String(message.getBody(), StandardCharsets.UTF_8), RECORDS_TYPE);
+        } catch (IOException e) {
+            log.warn("Skipping undecodable tail message: {}", e.getMessage());
+            return;
+        }
+        if (records.isEmpty()) {
+            return;
+        }
+        Set<Subscriber> tails = subscribers.get(records.get(0).getStreamId());
+        if (tails == null) {
+            return;
+        }
+        for (Subscriber subscriber : tails) {
+            for (StreamTailRecord record : records) {
+                subscriber.offer(SseEmitter.event().name("record").data(record));
+            }
+        }
+    }
+
+    /**
+     * Sends each tailed stream's delivery status when it has changed, and a
+     * heartbeat comment to every tail so idle connections survive proxies.
+     */
+    @Scheduled(fixedDelayString = "${app.stream.tail.status-interval-ms:1000}")
+    public void sendStatusAndHeartbeats() {
+        boolean heartbeat = System.currentTimeMillis() - lastHeartbeat >= heartbeatIntervalMs;
+        if (heartbeat) {
+            lastHeartbeat = System.currentTimeMillis();
+            markTailed(subscribers.keySet());
+        }
+        lastStatus.keySet().retainAll(subscribers.keySet());
+        subscribers.forEach((streamId, tails) -> {
+            StreamDeliveryStatus status = deliveryTracker.getStatus(streamId).orElse(null);
+            boolean changed = status != null && !Objects.equals(lastStatus.put(streamId, status), status);
+            for (Subscriber subscriber : tails) {
+                if (changed) {
+                    subscriber.offer(statusEvent(status));
+                } else if (heartbeat) {
+                    subscriber.offer(SseEmitter.event().comment("heartbeat"));
+                }
+            }
+        });
+    }
+
+    /**
+     * Closes tails whose current write has been blocked for longer than the
+     * send timeout, freeing the dispatcher thread stuck in it.
+     */
+    @Scheduled(fixedDelayString = "${app.stream.tail.status-interval-ms:1000}")
+    public void evictStalledSubscribers() {
+        long now = System.nanoTime();
+        subscribers.values().forEach(tails -> tails.forEach(subscriber -> subscriber.evictIfStalled(now)));
+    }
+
+    /**
+     * Tells every instance's publisher that these streams have tails. Keys are
+     * left to expire rather than deleted, since other instances may tail the
+     * same stream.
+     */
+    private void markTailed(Collection<String> streamIds) {
+        for (String streamId : streamIds) {
+            try {
+                redisTemplate.opsForValue().set(TAILED_KEY_PREFIX + streamId, "1", tailedTtl);
+            } catch (RuntimeException e) {
+                log.warn("Failed to mark stream {} as tailed: {}", streamId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Grows or shrinks the dispatcher pool by one thread per stalled write.
+     */
+    private synchronized boolean resizeDispatcher(int delta) {
+        int size = dispatcher.getCorePoolSize() + delta;
+        if (size < dispatchThreads || size > dispatcher.getMaximumPoolSize()) {
+            return false;
+        }
+        dispatcher.setCorePoolSize(size);
+        return true;
+    }
+
+    private static SseEmitter.SseEventBuilder statusEvent(StreamDeliveryStatus status) {
+        return SseEmitter.event().name("status").data(status);
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.streamId, (id, tails) -> {
+            if (tails.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            return tails.isEmpty() ? null : tails;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(tails -> tails.forEach(subscriber -> subscriber.emitter.complete()));
+        dispatcher.shutdown();
+        publisher.shutdown();
+    }
+
+    private final class Subscriber {
+        private final String streamId;
+        private final SseEmitter emitter;
+        private final ArrayDeque<SseEmitter.SseEventBuilder> ring = new ArrayDeque<>(ringCapacity);
+        private long dropped;
+        private boolean draining;
+        // Guarded by sendLock: when the current write started (0 if none), the thread doing it,
+        // whether it was evicted and whether an extra dispatcher thread stands in for it
+        private final Object sendLock = new Object();
+        private long sendStartedNanos;
+        private Thread sender;
+        private boolean evicted;
+        private boolean replaced;
+
+        private Subscriber(String streamId, SseEmitter emitter) {
+            this.streamId = streamId;
+            this.emitter = emitter;
+        }
+
+        private void offer(SseEmitter.SseEventBuilder event) {
+            synchronized (this) {
+                if (ring.size() == ringCapacity) {
+                    ring.pollFirst();
+                    dropped++;
+                    droppedEvents.increment();
+                }
+                ring.addLast(event);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            dispatcher.execute(this::drain);
+        }
+
+        private void drain() {
+            while (true) {
+                List<SseEmitter.SseEventBuilder> events;
+                long droppedSinceLastDrain;
+                synchronized (this) {
+                    if (ring.isEmpty()) {
+                        draining = false;
+                        return;
+                    }
+                    events = new ArrayList<>(ring);
+                    ring.clear();
+                    droppedSinceLastDrain = dropped;
+                    dropped = 0;
+                }
+                try {
+                    if (droppedSinceLastDrain > 0) {
+                        send(SseEmitter.event().name("dropped").data(Map.of("dropped", droppedSinceLastDrain)));
+                    }
+                    for (SseEmitter.SseEventBuilder event : events) {
+                        send(event);
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // The client went away or the emitter already completed
+                    log.debug("Closing live tail of stream {}: {}", streamId, e.getMessage());
+                    unsubscribe(this);
+                    emitter.completeWithError(e);
+                    synchronized (this) {
+                        ring.clear();
+                        draining = false;
+                    }
+                    return;
+                }
+            }
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) throws IOException {
+            synchronized (sendLock) {
+                sendStartedNanos = System.nanoTime();
+                sender = Thread.currentThread();
+            }
+            try {
+                emitter.send(event);
+            } finally {
+                boolean closing;
+                synchronized (sendLock) {
+                    sendStartedNanos = 0;
+                    sender = null;
+                    if (replaced) {
+                        replaced = false;
+                        resizeDispatcher(-1);
+                    }
+                    closing = evicted;
+                    // An eviction may have interrupted this write just as it finished; the thread goes back to the pool
+                    Thread.interrupted();
+                }
+                if (closing) {
+                    throw new IOException("Live tail write timed out");
+                }
+            }
+        }
+
+        private void evictIfStalled(long now) {
+            synchronized (sendLock) {
+                if (sendStartedNanos == 0 || evicted || now - sendStartedNanos < sendTimeoutNanos) {
+                    return;
+                }
+                log.debug("Evicting live tail of stream {}: a write stalled for over {} ms",
+                        streamId, TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos));
+                evicted = true;
+                evictedSubscribers.increment();
+                unsubscribe(this);
+                replaced = resizeDispatcher(1);
+                // The emitter is locked by the blocked write, so it is completed by the drain once the write returns
+                sender.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.xyzdevfoundation.data.tiering;
+
+import com.xyzdevfoundation.data.model.ColdSegmentInfo;
+import com.xyzdevfoundation.data.model.RawDataRecord;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Read side of an immutable cold segment file, memory-mapped read-only.
+ *
+ * Layout (big-endian):
+ * <pre>
+ * [int magic][byte version]
+ * block*    LZ4 block of records [int length][long idMsb][long idLsb][fields...]
+ * index     per block: [long firstIdMsb][long firstIdLsb][long offset][int compressedLength][int rawLength][int crc32c]
+ * footer    [long indexOffset][int blockCount][int recordCount][int magic]
+ * </pre>
+ * Records are in ascending ID order, compared as unsigned bytes like
+ * PostgreSQL orders {@code uuid}. Only the sparse index (the first ID of each
+ * block) is copied to the heap; a lookup binary-searches it and inflates the
+ * one block that can hold the ID.
+ */
+public class ColdSegment {
+
+    static final int MAGIC = 0x434f4c44;
+    static final byte VERSION = 1;
+    static final String SUFFIX = ".cold";
+    static final String TEMP_SUFFIX = ".tmp";
+
+    private static final int FOOTER_BYTES = 20;
+    private static final int INDEX_ENTRY_BYTES = 36;
+    private static final LZ4FastDecompressor DECOMPRESSOR = LZ4Factory.fastestInstance().fastDecompressor();
+
+    private final ColdSegmentInfo info;
+    private final MappedByteBuffer buffer;
+    private final long[] firstIdMsb;
+    private final long[] firstIdLsb;
+    private final int[] offsets;
+    private final int[] compressedLengths;
+    private final int[] rawLengths;
+    private final int[] checksums;
+
+    private ColdSegment(ColdSegmentInfo info, MappedByteBuffer buffer, int blockCount, int indexOffset) {
+        this.info = info;
+        this.buffer = buffer;
+        this.firstIdMsb = new long[blockCount];
+        this.firstIdLsb = new long[blockCount];
+        this.offsets = new int[blockCount];
+        this.compressedLengths = new int[blockCount];
+        this.rawLengths = new int[blockCount];
+        this.checksums = new int[blockCount];
+        int position = indexOffset;
+        for (int i = 0; i < blockCount; i++) {
+            firstIdMsb[i] = buffer.getLong(position);
+            firstIdLsb[i] = buffer.getLong(position + 8);
+            offsets[i] = (int) buffer.getLong(position + 16);
+            compressedLengths[i] = buffer.getInt(position + 24);
+            rawLengths[i] = buffer.getInt(position + 28);
+            checksums[i] = buffer.getInt(position + 32);
+            position += INDEX_ENTRY_BYTES;
+        }
+    }
+
+    public static ColdSegment open(Path file, ColdSegmentInfo info) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        int size = buffer.capacity();
+        if (size < 5 + FOOTER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(size - 4) != MAGIC) {
+            throw new IOException("Not a cold segment: " + file);
+        }
+        if (buffer.get(4) != VERSION) {
+            throw new IOException("Unsupported cold segment version " + buffer.get(4) + ": " + file);
+        }
+        long indexOffset = buffer.getLong(size - FOOTER_BYTES);
+        int blockCount = buffer.getInt(size - FOOTER_BYTES + 8);
+        if (indexOffset + (long) blockCount * INDEX_ENTRY_BYTES != size - FOOTER_BYTES) {
+            throw new IOException("Corrupt cold segment index: " + file);
+        }
+        return new ColdSegment(info, buffer, blockCount, (int) indexOffset);
+    }
+
+    public ColdSegmentInfo info() {
+        return info;
+    }
+
+    public boolean covers(UUID id) {
+        return compare(id, info.getFirstId()) >= 0 && compare(id, info.getLastId()) <= 0;
+    }
+
+    public Optional<RawDataRecord> find(UUID id) {
+        int block = blockFor(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        if (block < 0) {
+            return Optional.empty();
+        }
+        ByteBuffer records = inflate(block);
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        while (records.hasRemaining()) {
+            int length = records.getInt();
+            int start = records.position();
+            long recordMsb = records.getLong(start);
+            long recordLsb = records.getLong(start + 8);
+            int order = compare(recordMsb, recordLsb, msb, lsb);
+            if (order == 0) {
+                records.position(start + 16);
+                return Optional.of(readRecord(id, records));
+            }
+            if (order > 0) {
+                // Sorted, so the ID is not in this block
+                break;
+            }
+            records.position(start + length);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Reads every record of the segment in ID order, one block at a time.
+     */
+    public void forEach(Consumer<RawDataRecord> action) {
+        for (int block = 0; block < offsets.length; block++) {
+            ByteBuffer records = inflate(block);
+            while (records.hasRemaining()) {
+                int length = records.getInt();
+                int start = records.position();
+                UUID id = new UUID(records.getLong(), records.getLong());
+                action.accept(readRecord(id, records));
+                records.position(start + length);
+            }
+        }
+    }
+
+    /**
+     * Index of the last block whose first ID is not greater than the given ID, or -1.
+     */
+    private int blockFor(long msb, long lsb) {
+        int low = 0;
+        int high = firstIdMsb.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (compare(firstIdMsb[mid], firstIdLsb[mid], msb, lsb) <= 0) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    private ByteBuffer inflate(int block) {
+        ByteBuffer source = buffer.slice(offsets[block], compressedLengths[block]);
+        CRC32C crc = new CRC32C();
+        crc.update(source.duplicate());
+        if ((int) crc.getValue() != checksums[block]) {
+            throw new IllegalStateException("Checksum mismatch in block " + block + " of cold segment " + info.getFileName());
+        }
+        byte[] raw = new byte[rawLengths[block]];
+        try {
+            DECOMPRESSOR.decompress(source, 0, ByteBuffer.wrap(raw), 0, raw.length);
+        } catch (LZ4Exception e) {
+            throw new IllegalStateException("Corrupt block " + block + " in cold segment " + info.getFileName(), e);
+        }
+        return ByteBuffer.wrap(raw);
+    }
+
+    private static RawDataRecord readRecord(UUID id, ByteBuffer in) {
+        return RawDataRecord.builder()
+                .id(id)
+                .dataType(readString(in))
+                .source(readString(in))
+                .status(readString(in))
+                .createdAt(readTimestamp(in))
+                .processedAt(readTimestamp(in))
+                .dataJson(readString(in))
+                .metadataJson(readString(in))
+                .build();
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static LocalDateTime readTimestamp(ByteBuffer in) {
+        long seconds = in.getLong();
+        int nanos = in.getInt();
+        return seconds == Long.MIN_VALUE ? null : LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    static int compare(UUID a, UUID b) {
+        return compare(a.getMostSignificantBits(), a.getLeastSignificantBits(),
+                b.getMostSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    // UUID.compareTo compares signed longs; PostgreSQL and the segment order compare unsigned
+    private static int compare(long msbA, long lsbA, long msbB, long lsbB) {
+        int order = Long.compareUnsigned(msbA, msbB);
+        return order != 0 ? order : Long.compareUnsigned(lsbA, lsbB);
+    }
+}
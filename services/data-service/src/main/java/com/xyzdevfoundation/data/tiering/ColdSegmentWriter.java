@@ -0,0 +1,236 @@
+package com.xyzdevfoundation.data.tiering;
+
+import com.xyzdevfoundation.data.model.ColdSegmentInfo;
+import com.xyzdevfoundation.data.model.RawDataRecord;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+/**
+ * Writes one cold segment file from records given in ascending ID order.
+ *
+ * Records are packed into blocks of about {@code blockBytes}, and each block
+ * is LZ4-compressed on its own so a lookup only inflates the block that can
+ * hold the ID. The file is written under a temporary name, forced to disk and
+ * renamed by {@link #finish()}, so a segment file is either complete or absent.
+ * See {@link ColdSegment} for the layout.
+ */
+public class ColdSegmentWriter implements Closeable {
+
+    // Above this the file could no longer be mapped in one piece
+    private static final long MAX_FILE_BYTES = Integer.MAX_VALUE - (64L << 20);
+
+    private static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().highCompressor();
+
+    private final Path directory;
+    private final Path tempFile;
+    private final int blockBytes;
+    private final FileOutputStream fileStream;
+    private final DataOutputStream out;
+    private final ByteArrayOutputStream blockBuffer;
+    private final DataOutputStream block;
+    private final ByteArrayOutputStream recordBuffer = new ByteArrayOutputStream(1024);
+    private final DataOutputStream entry = new DataOutputStream(recordBuffer);
+    private final List<BlockInfo> blocks = new ArrayList<>();
+    private byte[] compressed = new byte[0];
+    private UUID blockFirstId;
+    private UUID firstId;
+    private UUID lastId;
+    private LocalDateTime minCreatedAt;
+    private LocalDateTime maxCreatedAt;
+    private int recordCount;
+    private Path finalFile;
+
+    public ColdSegmentWriter(Path directory, int blockBytes) throws IOException {
+        this.directory = directory;
+        this.blockBytes = blockBytes;
+        this.tempFile = Files.createTempFile(directory, "segment-", ColdSegment.TEMP_SUFFIX);
+        this.fileStream = new FileOutputStream(tempFile.toFile());
+        this.out = new DataOutputStream(new BufferedOutputStream(fileStream, 1 << 16));
+        this.blockBuffer = new ByteArrayOutputStream(blockBytes + (blockBytes >> 2));
+        this.block = new DataOutputStream(blockBuffer);
+        out.writeInt(ColdSegment.MAGIC);
+        out.writeByte(ColdSegment.VERSION);
+    }
+
+    public void add(RawDataRecord record) throws IOException {
+        UUID id = record.getId();
+        if (lastId != null && ColdSegment.compare(id, lastId) <= 0) {
+            throw new IllegalStateException("Cold segment records must be in ascending ID order: " + id + " after " + lastId);
+        }
+        if (blockFirstId == null) {
+            blockFirstId = id;
+        }
+        recordBuffer.reset();
+        entry.writeLong(id.getMostSignificantBits());
+        entry.writeLong(id.getLeastSignificantBits());
+        writeString(record.getDataType());
+        writeString(record.getSource());
+        writeString(record.getStatus());
+        writeTimestamp(record.getCreatedAt());
+        writeTimestamp(record.getProcessedAt());
+        writeString(record.getDataJson());
+        writeString(record.getMetadataJson());
+        block.writeInt(recordBuffer.size());
+        recordBuffer.writeTo(block);
+
+        if (firstId == null) {
+            firstId = id;
+        }
+        lastId = id;
+        recordCount++;
+        LocalDateTime createdAt = record.getCreatedAt();
+        if (minCreatedAt == null || createdAt.isBefore(minCreatedAt)) {
+            minCreatedAt = createdAt;
+        }
+        if (maxCreatedAt == null || createdAt.isAfter(maxCreatedAt)) {
+            maxCreatedAt = createdAt;
+        }
+        if (blockBuffer.size() >= blockBytes) {
+            flushBlock();
+        }
+    }
+
+    public int recordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Bytes written so far, not counting the open block.
+     */
+    public long sizeBytes() {
+        return out.size();
+    }
+
+    public boolean isFull() {
+        return sizeBytes() + blockBytes >= MAX_FILE_BYTES;
+    }
+
+    /**
+     * Completes the file and makes it durable under its final name.
+     */
+    public ColdSegmentInfo finish() throws IOException {
+        if (recordCount == 0) {
+            throw new IllegalStateException("Cannot finish an empty cold segment");
+        }
+        flushBlock();
+        long indexOffset = out.size();
+        for (BlockInfo info : blocks) {
+            out.writeLong(info.firstId.getMostSignificantBits());
+            out.writeLong(info.firstId.getLeastSignificantBits());
+            out.writeLong(info.offset);
+            out.writeInt(info.compressedLength);
+            out.writeInt(info.rawLength);
+            out.writeInt(info.checksum);
+        }
+        out.writeLong(indexOffset);
+        out.writeInt(blocks.size());
+        out.writeInt(recordCount);
+        out.writeInt(ColdSegment.MAGIC);
+        out.flush();
+        fileStream.getChannel().force(true);
+        long size = out.size();
+        out.close();
+
+        String fileName = firstId + ColdSegment.SUFFIX;
+        finalFile = directory.resolve(fileName);
+        Files.move(tempFile, finalFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        // Persist the rename itself
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        }
+        return ColdSegmentInfo.builder()
+                .fileName(fileName)
+                .firstId(firstId)
+                .lastId(lastId)
+                .recordCount(recordCount)
+                .sizeBytes(size)
+                .minCreatedAt(minCreatedAt)
+                .maxCreatedAt(maxCreatedAt)
+                .build();
+    }
+
+    /**
+     * Discards the segment, whether or not it was finished.
+     */
+    public void abort() {
+        try {
+            close();
+        } catch (IOException ignored) {
+            // The file is deleted anyway
+        }
+        try {
+            Files.deleteIfExists(tempFile);
+            if (finalFile != null) {
+                Files.deleteIfExists(finalFile);
+            }
+        } catch (IOException ignored) {
+            // Left for the orphan sweep of the next tiering run
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void flushBlock() throws IOException {
+        int rawLength = blockBuffer.size();
+        if (rawLength == 0) {
+            return;
+        }
+        byte[] raw = blockBuffer.toByteArray();
+        int maxLength = COMPRESSOR.maxCompressedLength(rawLength);
+        if (compressed.length < maxLength) {
+            compressed = new byte[maxLength];
+        }
+        int compressedLength = COMPRESSOR.compress(raw, 0, rawLength, compressed, 0, maxLength);
+        CRC32C crc = new CRC32C();
+        crc.update(compressed, 0, compressedLength);
+        blocks.add(new BlockInfo(blockFirstId, out.size(), compressedLength, rawLength, (int) crc.getValue()));
+        out.write(compressed, 0, compressedLength);
+        blockBuffer.reset();
+        blockFirstId = null;
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            entry.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        entry.writeInt(bytes.length);
+        entry.write(bytes);
+    }
+
+    private void writeTimestamp(LocalDateTime value) throws IOException {
+        if (value == null) {
+            entry.writeLong(Long.MIN_VALUE);
+            entry.writeInt(0);
+            return;
+        }
+        entry.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+        entry.writeInt(value.getNano());
+    }
+
+    private record BlockInfo(UUID firstId, long offset, int compressedLength, int rawLength, int checksum) {
+    }
+}
@@ -0,0 +1,209 @@
+package com.xyzdevfoundation.data.tiering;
+
+import com.xyzdevfoundation.data.model.ColdSegmentInfo;
+import com.xyzdevfoundation.data.model.DataRecord;
+import com.xyzdevfoundation.data.model.RawDataRecord;
+import com.xyzdevfoundation.data.repository.ColdSegmentRepository;
+import com.xyzdevfoundation.data.repository.DataRecordRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Point lookups of records that were moved to cold segment files.
+ *
+ * The catalog of open segments mirrors {@code cold_segments}. A lookup that
+ * finds nothing first picks up segments registered since the last refresh
+ * (one indexed query that usually returns no rows), so a record is rarely
+ * missed between its deletion from {@code ingested_data} and this instance
+ * noticing the segment that now holds it. Those catalog queries run at most
+ * once per {@code refresh-min-interval}, so a stream of lookups for IDs that
+ * do not exist cannot turn into a stream of queries; a record tiered by
+ * another instance within that interval may read as missing until then.
+ * A segment that cannot be opened is retried on every refresh.
+ */
+@Component
+@Slf4j
+public class ColdStorage {
+
+    private final Path directory;
+    private final ColdSegmentRepository coldSegmentRepository;
+    private final DataRecordRepository dataRecordRepository;
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer lookupTimer;
+    // Newest first: replaced wholesale on refresh, never mutated
+    private volatile List<ColdSegment> segments = List.of();
+    // Every segment up to this ID is open; some after it may be too
+    private long lastSeenId;
+    private final long refreshMinIntervalNanos;
+    private volatile long lastRefreshNanos;
+
+    public ColdStorage(ColdSegmentRepository coldSegmentRepository,
+                       DataRecordRepository dataRecordRepository,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.tiering.dir:./data/cold}") Path directory,
+                       @Value("${app.tiering.refresh-min-interval:1s}") Duration refreshMinInterval) {
+        this.coldSegmentRepository = coldSegmentRepository;
+        this.dataRecordRepository = dataRecordRepository;
+        this.directory = directory;
+        this.refreshMinIntervalNanos = refreshMinInterval.toNanos();
+        this.lastRefreshNanos = System.nanoTime() - refreshMinIntervalNanos;
+
+        this.hits = lookups(meterRegistry, "hit");
+        this.misses = lookups(meterRegistry, "miss");
+        this.lookupTimer = Timer.builder("data.cold.lookup")
+                .description("Time to look up a record in the cold segments")
+                .register(meterRegistry);
+        Gauge.builder("data.cold.segments", this, storage -> storage.segments.size())
+                .description("Cold segment files open for lookups")
+                .register(meterRegistry);
+        Gauge.builder("data.cold.records", this, storage -> storage.segments.stream()
+                        .mapToLong(segment -> segment.info().getRecordCount()).sum())
+                .description("Records held in cold segment files")
+                .register(meterRegistry);
+        Gauge.builder("data.cold.size", this, storage -> storage.segments.stream()
+                        .mapToLong(segment -> segment.info().getSizeBytes()).sum())
+                .baseUnit("bytes")
+                .description("Bytes of cold segment files")
+                .register(meterRegistry);
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    public Optional<DataRecord> find(UUID id) {
+        Timer.Sample sample = Timer.start();
+        try {
+            Optional<RawDataRecord> raw = find(id, segments);
+            if (raw.isEmpty()) {
+                List<ColdSegment> added = refreshIfDue();
+                raw = find(id, added);
+            }
+            (raw.isPresent() ? hits : misses).increment();
+            return raw.map(dataRecordRepository::toRecord);
+        } finally {
+            sample.stop(lookupTimer);
+        }
+    }
+
+    /**
+     * Opens segments registered since the last refresh and returns them.
+     */
+    public synchronized List<ColdSegment> refresh() {
+        lastRefreshNanos = System.nanoTime();
+        List<ColdSegmentInfo> registered = coldSegmentRepository.findAfter(lastSeenId);
+        if (registered.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> open = new HashSet<>();
+        for (ColdSegment segment : segments) {
+            open.add(segment.info().getId());
+        }
+        List<ColdSegment> added = new ArrayList<>(registered.size());
+        boolean allOpen = true;
+        for (ColdSegmentInfo info : registered) {
+            if (!open.contains(info.getId())) {
+                try {
+                    added.add(0, ColdSegment.open(directory.resolve(info.getFileName()), info));
+                } catch (IOException e) {
+                    // The directory must be shared by every instance; without it these records cannot be served
+                    log.error("Cannot open cold segment {} in {}; its {} records are unavailable until it can be",
+                            info.getFileName(), directory, info.getRecordCount(), e);
+                    allOpen = false;
+                }
+            }
+            // Stop short of a segment that failed so the next refresh tries it again
+            if (allOpen) {
+                lastSeenId = info.getId();
+            }
+        }
+        if (added.isEmpty()) {
+            return List.of();
+        }
+        List<ColdSegment> next = new ArrayList<>(added.size() + segments.size());
+        next.addAll(added);
+        next.addAll(segments);
+        segments = List.copyOf(next);
+        log.info("Opened {} new cold segments, {} in total", added.size(), next.size());
+        return added;
+    }
+
+    /**
+     * The open segments for these catalog rows, in the same order, opening
+     * any this instance has not picked up yet.
+     *
+     * @throws IllegalStateException if one of them cannot be opened
+     */
+    public List<ColdSegment> segments(List<ColdSegmentInfo> infos) {
+        List<ColdSegment> found = lookUp(infos);
+        if (found.size() < infos.size()) {
+            refresh();
+            found = lookUp(infos);
+        }
+        if (found.size() < infos.size()) {
+            throw new IllegalStateException("Cold segments are unavailable: only " + found.size() + " of "
+                    + infos.size() + " could be opened from " + directory);
+        }
+        return found;
+    }
+
+    private List<ColdSegment> lookUp(List<ColdSegmentInfo> infos) {
+        Map<Long, ColdSegment> open = new HashMap<>();
+        for (ColdSegment segment : segments) {
+            open.put(segment.info().getId(), segment);
+        }
+        List<ColdSegment> found = new ArrayList<>(infos.size());
+        for (ColdSegmentInfo info : infos) {
+            ColdSegment segment = open.get(info.getId());
+            if (segment != null) {
+                found.add(segment);
+            }
+        }
+        return found;
+    }
+
+    private synchronized List<ColdSegment> refreshIfDue() {
+        // Checked under the lock, so lookups queued behind a refresh do not each run another
+        if (System.nanoTime() - lastRefreshNanos < refreshMinIntervalNanos) {
+            return List.of();
+        }
+        return refresh();
+    }
+
+    private static Optional<RawDataRecord> find(UUID id, List<ColdSegment> candidates) {
+        for (ColdSegment segment : candidates) {
+            if (segment.covers(id)) {
+                Optional<RawDataRecord> record = segment.find(id);
+                if (record.isPresent()) {
+                    return record;
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("data.cold.lookups")
+                .tag("result", result)
+                .description("Cold segment lookups per outcome")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,181 @@
+package com.xyzdevfoundation.data.tiering;
+
+import com.xyzdevfoundation.data.model.ColdSegmentInfo;
+import com.xyzdevfoundation.data.repository.ColdSegmentRepository;
+import com.xyzdevfoundation.data.repository.DataRecordRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Moves records older than {@code app.tiering.age} from {@code ingested_data}
+ * into cold segment files, keeping the hot table and its indexes small.
+ *
+ * Each segment is one transaction: the oldest rows are read in ID order
+ * through a cursor, written to a segment file that is forced to disk, and
+ * then the segment's catalog row is inserted and the rows deleted together.
+ * If the transaction does not commit, the file is an orphan that the next
+ * run deletes before writing. A PostgreSQL advisory lock lets only one
+ * instance tier at a time; the others skip the run.
+ */
+@Component
+@Slf4j
+public class ColdTieringJob {
+
+    private final DataRecordRepository dataRecordRepository;
+    private final ColdSegmentRepository coldSegmentRepository;
+    private final ColdStorage coldStorage;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration age;
+    private final int segmentMaxRecords;
+    private final int blockBytes;
+    private final int fetchSize;
+    private final ReentrantLock runLock = new ReentrantLock();
+    private final Counter recordsMoved;
+    private final Counter segmentsWritten;
+    private final Counter failures;
+    private final Timer segmentTimer;
+
+    public ColdTieringJob(DataRecordRepository dataRecordRepository,
+                          ColdSegmentRepository coldSegmentRepository,
+                          ColdStorage coldStorage,
+                          TransactionTemplate transactionTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.tiering.enabled:true}") boolean enabled,
+                          @Value("${app.tiering.age:90d}") Duration age,
+                          @Value("${app.tiering.segment-max-records:100000}") int segmentMaxRecords,
+                          @Value("${app.tiering.block-size:64KB}") DataSize blockSize,
+                          @Value("${app.tiering.fetch-size:1000}") int fetchSize) {
+        this.dataRecordRepository = dataRecordRepository;
+        this.coldSegmentRepository = coldSegmentRepository;
+        this.coldStorage = coldStorage;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.age = age;
+        this.segmentMaxRecords = segmentMaxRecords;
+        this.blockBytes = Math.toIntExact(blockSize.toBytes());
+        this.fetchSize = fetchSize;
+
+        this.recordsMoved = Counter.builder("data.tiering.records")
+                .description("Records moved from ingested_data to cold segments")
+                .register(meterRegistry);
+        this.segmentsWritten = Counter.builder("data.tiering.segments")
+                .description("Cold segment files written")
+                .register(meterRegistry);
+        this.failures = Counter.builder("data.tiering.failures")
+                .description("Tiering runs that failed and left their records in ingested_data")
+                .register(meterRegistry);
+        this.segmentTimer = Timer.builder("data.tiering.segment")
+                .description("Time to write one cold segment and delete its rows")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.tiering.interval-ms:600000}", initialDelayString = "${app.tiering.initial-delay-ms:60000}")
+    public void run() {
+        if (!enabled || !runLock.tryLock()) {
+            return;
+        }
+        try {
+            Files.createDirectories(coldStorage.directory());
+            int moved;
+            do {
+                moved = moveSegment();
+            } while (moved == segmentMaxRecords);
+        } catch (IOException | RuntimeException e) {
+            failures.increment();
+            log.error("Cold tiering failed, records stay in ingested_data until the next run", e);
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    private int moveSegment() {
+        Timer.Sample sample = Timer.start();
+        LocalDateTime cutoff = LocalDateTime.now().minus(age);
+        ColdSegmentInfo written = transactionTemplate.execute(status -> {
+            if (!coldSegmentRepository.tryLockForTiering()) {
+                return null;
+            }
+            removeOrphans();
+            List<UUID> ids = new ArrayList<>();
+            ColdSegmentWriter writer = null;
+            try {
+                writer = new ColdSegmentWriter(coldStorage.directory(), blockBytes);
+                ColdSegmentWriter target = writer;
+                dataRecordRepository.streamOlderThan(cutoff, segmentMaxRecords, fetchSize, record -> {
+                    try {
+                        target.add(record);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    ids.add(record.getId());
+                });
+                if (ids.isEmpty()) {
+                    writer.abort();
+                    return null;
+                }
+                ColdSegmentInfo segment = writer.finish();
+                coldSegmentRepository.insert(segment);
+                dataRecordRepository.deleteByIds(ids);
+                return segment;
+            } catch (IOException | RuntimeException e) {
+                if (writer != null) {
+                    writer.abort();
+                }
+                throw e instanceof IOException io ? new UncheckedIOException("Failed to write cold segment", io) : (RuntimeException) e;
+            }
+        });
+        if (written == null) {
+            return 0;
+        }
+        sample.stop(segmentTimer);
+        recordsMoved.increment(written.getRecordCount());
+        segmentsWritten.increment();
+        coldStorage.refresh();
+        log.info("Moved {} records created up to {} into cold segment {} ({} bytes)",
+                written.getRecordCount(), written.getMaxCreatedAt(), written.getFileName(), written.getSizeBytes());
+        return written.getRecordCount();
+    }
+
+    /**
+     * Deletes files of segments whose transaction never committed. Only safe
+     * while holding the tiering lock, when no other instance is writing.
+     */
+    private void removeOrphans() {
+        Set<String> registered = new HashSet<>(coldSegmentRepository.findFileNames());
+        try (Stream<Path> files = Files.list(coldStorage.directory())) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                boolean orphan = name.endsWith(ColdSegment.TEMP_SUFFIX)
+                        || (name.endsWith(ColdSegment.SUFFIX) && !registered.contains(name));
+                if (orphan) {
+                    log.warn("Deleting orphaned cold segment file {}", name);
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to clean up cold segment directory", e);
+        }
+    }
+}
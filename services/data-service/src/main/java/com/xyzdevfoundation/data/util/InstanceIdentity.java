@@ -0,0 +1,28 @@
+package com.xyzdevfoundation.data.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Identifies this service instance in state that several instances write side
+ * by side and merge on read. Defaults to the host name plus a per-start suffix,
+ * so a restarted container never overwrites the rows of its previous run.
+ */
+@Component
+public class InstanceIdentity {
+
+    private final String id;
+
+    public InstanceIdentity(@Value("${app.instance-id:}") String configuredId,
+                            @Value("${HOSTNAME:data-service}") String hostname) {
+        this.id = !configuredId.isBlank()
+                ? configuredId
+                : hostname + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    public String getId() {
+        return id;
+    }
+}
@@ -0,0 +1,152 @@
+package com.xyzdevfoundation.data.wal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xyzdevfoundation.data.codec.EventCodec;
+import com.xyzdevfoundation.data.event.StreamRecordEvent;
+import com.xyzdevfoundation.data.exception.AdmissionRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-ahead log of accepted {@code data-stream} records.
+ *
+ * A record is appended before it is first sent and acknowledged once Kafka
+ * has it (or the dead-letter topic does), so records survive both a broker
+ * outage and a restart of this instance. Entries hold the message key and
+ * the event in the compact binary format, falling back to JSON for payloads
+ * the binary format cannot represent. Unacknowledged entries found at
+ * startup are handed to the delivery tracker for replay.
+ */
+@Component
+public class StreamWriteAheadLog {
+
+    private static final byte ENCODING_BINARY = 1;
+    private static final byte ENCODING_JSON = 2;
+
+    private final WriteAheadLog wal;
+    private final ObjectMapper objectMapper;
+    private final long retryAfterSeconds;
+    private final Counter appends;
+    private List<WriteAheadLog.Entry> recovered;
+
+    public StreamWriteAheadLog(ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.wal.dir:./data/wal}") Path directory,
+                               @Value("${app.wal.segment-size:64MB}") DataSize segmentSize,
+                               @Value("${app.wal.max-size:1GB}") DataSize maxSize,
+                               @Value("${app.wal.group-commit-delay:0ms}") Duration groupCommitDelay,
+                               @Value("${app.admission.retry-after:1s}") Duration retryAfter) {
+        this.objectMapper = objectMapper;
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+        this.wal = new WriteAheadLog(directory, Math.toIntExact(segmentSize.toBytes()), maxSize.toBytes(),
+                groupCommitDelay.toNanos(), TimeUnit.NANOSECONDS);
+        try {
+            this.recovered = wal.recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open write-ahead log in " + directory, e);
+        }
+
+        this.appends = Counter.builder("data.wal.appends")
+                .description("Stream records appended to the write-ahead log")
+                .register(meterRegistry);
+        Gauge.builder("data.wal.size", wal, WriteAheadLog::sizeBytes)
+                .baseUnit("bytes")
+                .description("Bytes of write-ahead log segments on disk")
+                .register(meterRegistry);
+        Gauge.builder("data.wal.segments", wal, WriteAheadLog::segmentCount)
+                .description("Write-ahead log segments holding unacknowledged records")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @throws AdmissionRejectedException if the log is full
+     */
+    public WriteAheadLog.Entry append(String key, StreamRecordEvent event) {
+        try {
+            WriteAheadLog.Entry entry = wal.append(encode(key, event));
+            appends.increment();
+            return entry;
+        } catch (WalFullException e) {
+            throw new AdmissionRejectedException(e.getMessage(), retryAfterSeconds);
+        }
+    }
+
+    public void acknowledge(WriteAheadLog.Entry entry) {
+        wal.acknowledge(entry);
+    }
+
+    public LoggedRecord read(WriteAheadLog.Entry entry) {
+        ByteBuffer buffer = ByteBuffer.wrap(entry.payload());
+        byte encoding = buffer.get();
+        int keyLength = buffer.getInt();
+        String key = null;
+        if (keyLength >= 0) {
+            key = new String(buffer.array(), buffer.position(), keyLength, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + keyLength);
+        }
+        byte[] eventBytes = new byte[buffer.remaining()];
+        buffer.get(eventBytes);
+        try {
+            StreamRecordEvent event = encoding == ENCODING_BINARY
+                    ? (StreamRecordEvent) EventCodec.decode(eventBytes)
+                    : objectMapper.readValue(eventBytes, StreamRecordEvent.class);
+            return new LoggedRecord(key, event);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Undecodable write-ahead log entry " + entry.sequence(), e);
+        }
+    }
+
+    /**
+     * Entries left unacknowledged by the previous run, in append order; returned once.
+     */
+    public synchronized List<WriteAheadLog.Entry> takeRecovered() {
+        List<WriteAheadLog.Entry> entries = recovered;
+        recovered = List.of();
+        return entries;
+    }
+
+    private byte[] encode(String key, StreamRecordEvent event) {
+        byte encoding = ENCODING_BINARY;
+        byte[] eventBytes;
+        try {
+            eventBytes = EventCodec.encode(event);
+        } catch (IllegalArgumentException e) {
+            encoding = ENCODING_JSON;
+            try {
+                eventBytes = objectMapper.writeValueAsBytes(event);
+            } catch (IOException jsonFailure) {
+                throw new IllegalArgumentException("Failed to encode stream record", jsonFailure);
+            }
+        }
+        byte[] keyBytes = key != null ? key.getBytes(StandardCharsets.UTF_8) : null;
+        ByteBuffer buffer = ByteBuffer.allocate(5 + (keyBytes != null ? keyBytes.length : 0) + eventBytes.length);
+        buffer.put(encoding);
+        buffer.putInt(keyBytes != null ? keyBytes.length : -1);
+        if (keyBytes != null) {
+            buffer.put(keyBytes);
+        }
+        return buffer.put(eventBytes).array();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        wal.close();
+    }
+
+    public record LoggedRecord(String key, StreamRecordEvent event) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.xyzdevfoundation.data.wal;
+
+/**
+ * Thrown when an append would take the write-ahead log past its size limit.
+ */
+public class WalFullException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public WalFullException(String message) {
+        super(message);
+    }
+}
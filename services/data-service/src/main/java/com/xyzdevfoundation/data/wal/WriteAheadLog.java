@@ -0,0 +1,361 @@
+package com.xyzdevfoundation.data.wal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only write-ahead log of memory-mapped segment files.
+ *
+ * Each entry is {@code [int length][int crc32c][long sequence][byte state][payload]};
+ * a zero length marks the end of a segment's entries. Appends only copy into
+ * the mapping, and a background thread makes them durable with group commit:
+ * it forces every segment written since the last sync once and then
+ * completes the future shared by all entries of that group, so everything
+ * appended while one sync runs is covered by the next. An optional
+ * {@code groupCommitDelay} lingers before each sync to widen the groups.
+ * Acknowledging an entry flips its state byte in place (not forced, so a
+ * crash can at worst replay it again) and a segment is deleted once it is
+ * full and all of its entries are acknowledged.
+ *
+ * Recovery scans segments in sequence order and stops at the first torn or
+ * corrupt entry of a segment, returning every unacknowledged entry.
+ */
+@Slf4j
+public class WriteAheadLog implements Closeable {
+
+    static final int HEADER_BYTES = 17;
+    private static final byte STATE_PENDING = 0;
+    private static final byte STATE_ACKNOWLEDGED = 1;
+    private static final String SUFFIX = ".wal";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long maxBytes;
+    private final long groupCommitDelayNanos;
+    private final Object lock = new Object();
+    private final List<Segment> segments = new ArrayList<>();
+    private final Set<Segment> unsynced = new LinkedHashSet<>();
+    private final Thread syncThread;
+    private Segment active;
+    private long nextSequence;
+    private long totalBytes;
+    private CompletableFuture<Void> pendingGroup = new CompletableFuture<>();
+    private boolean closed;
+
+    public WriteAheadLog(Path directory, int segmentBytes, long maxBytes, long groupCommitDelay, TimeUnit unit) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxBytes = maxBytes;
+        this.groupCommitDelayNanos = unit.toNanos(groupCommitDelay);
+        this.syncThread = new Thread(this::syncLoop, "wal-sync");
+        this.syncThread.setDaemon(true);
+    }
+
+    /**
+     * Opens the log, returning the entries that were never acknowledged in
+     * append order. Must be called once before the first append.
+     */
+    public List<Entry> recover() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+        List<Entry> recovered = new ArrayList<>();
+        synchronized (lock) {
+            for (Path file : files) {
+                Segment segment = Segment.open(file, (int) Files.size(file));
+                segment.full = true;
+                recovered.addAll(segment.scan());
+                nextSequence = Math.max(nextSequence, segment.lastSequence + 1);
+                if (segment.pending.get() == 0) {
+                    segment.delete();
+                } else {
+                    segments.add(segment);
+                    totalBytes += segment.capacity;
+                }
+            }
+            roll(segmentBytes);
+        }
+        syncThread.start();
+        log.info("Opened write-ahead log in {}: {} segments, {} unacknowledged entries",
+                directory, segments.size(), recovered.size());
+        return recovered;
+    }
+
+    /**
+     * Appends {@code payload}; the entry is durable once {@link Entry#durable()} completes.
+     *
+     * @throws WalFullException if the log has reached its size limit
+     */
+    public Entry append(byte[] payload) {
+        int entryBytes = HEADER_BYTES + payload.length;
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Write-ahead log is closed");
+            }
+            // Keep room for the end-of-segment marker
+            if (active.position + entryBytes + 4 > active.capacity) {
+                int needed = entryBytes + 4;
+                if (totalBytes + Math.max(segmentBytes, needed) > maxBytes) {
+                    throw new WalFullException("Write-ahead log is full (" + totalBytes + " bytes)");
+                }
+                active.full = true;
+                if (active.pending.get() == 0) {
+                    segments.remove(active);
+                    unsynced.remove(active);
+                    totalBytes -= active.capacity;
+                    active.delete();
+                }
+                roll(Math.max(segmentBytes, needed));
+            }
+            Segment segment = active;
+            int offset = segment.position;
+            long sequence = nextSequence++;
+            segment.buffer.putInt(offset + 4, (int) crc.getValue());
+            segment.buffer.putLong(offset + 8, sequence);
+            segment.buffer.put(offset + 16, STATE_PENDING);
+            segment.buffer.put(offset + HEADER_BYTES, payload);
+            // The length goes last so a reader never sees a complete header over a partial entry
+            segment.buffer.putInt(offset, payload.length);
+            segment.position += entryBytes;
+            segment.lastSequence = sequence;
+            segment.pending.incrementAndGet();
+            unsynced.add(segment);
+            lock.notifyAll();
+            return new Entry(segment, offset, sequence, pendingGroup);
+        }
+    }
+
+    public void acknowledge(Entry entry) {
+        Segment segment = entry.segment;
+        segment.buffer.put(entry.offset + 16, STATE_ACKNOWLEDGED);
+        if (segment.pending.decrementAndGet() == 0) {
+            synchronized (lock) {
+                if (segment.full && segment.pending.get() == 0 && segments.remove(segment)) {
+                    unsynced.remove(segment);
+                    totalBytes -= segment.capacity;
+                    segment.delete();
+                }
+            }
+        }
+    }
+
+    public long sizeBytes() {
+        synchronized (lock) {
+            return totalBytes;
+        }
+    }
+
+    public int segmentCount() {
+        synchronized (lock) {
+            return segments.size();
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            syncThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (lock) {
+            for (Segment segment : segments) {
+                segment.close();
+            }
+        }
+    }
+
+    private void roll(int capacity) {
+        try {
+            Path file = directory.resolve(String.format("%020d%s", nextSequence, SUFFIX));
+            active = Segment.open(file, capacity);
+            segments.add(active);
+            totalBytes += capacity;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create write-ahead log segment", e);
+        }
+    }
+
+    private void syncLoop() {
+        while (true) {
+            CompletableFuture<Void> group;
+            List<Segment> toSync;
+            synchronized (lock) {
+                while (unsynced.isEmpty() && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (unsynced.isEmpty()) {
+                    return;
+                }
+            }
+            if (groupCommitDelayNanos > 0) {
+                // Linger so one fsync covers every append that arrives meanwhile
+                LockSupport.parkNanos(groupCommitDelayNanos);
+            }
+            synchronized (lock) {
+                group = pendingGroup;
+                pendingGroup = new CompletableFuture<>();
+                toSync = new ArrayList<>(unsynced);
+                unsynced.clear();
+            }
+            try {
+                for (Segment segment : toSync) {
+                    try {
+                        segment.buffer.force();
+                    } catch (RuntimeException e) {
+                        // A segment acknowledged and deleted meanwhile no longer needs to be durable
+                        if (!segment.deleted) {
+                            throw e;
+                        }
+                    }
+                }
+                group.complete(null);
+            } catch (RuntimeException e) {
+                log.error("Write-ahead log sync failed", e);
+                group.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * One appended record. Only its position is held in memory; the payload is
+     * read back from the mapping on demand, so a large backlog stays off-heap.
+     */
+    public static final class Entry {
+        private final Segment segment;
+        private final int offset;
+        private final long sequence;
+        private final CompletableFuture<Void> durable;
+
+        private Entry(Segment segment, int offset, long sequence, CompletableFuture<Void> durable) {
+            this.segment = segment;
+            this.offset = offset;
+            this.sequence = sequence;
+            this.durable = durable;
+        }
+
+        public long sequence() {
+            return sequence;
+        }
+
+        /**
+         * Reads the payload back; only valid until the entry is acknowledged.
+         */
+        public byte[] payload() {
+            byte[] payload = new byte[segment.buffer.getInt(offset)];
+            segment.buffer.get(offset + HEADER_BYTES, payload);
+            return payload;
+        }
+
+        /**
+         * Completes once the entry has been forced to disk.
+         */
+        public CompletableFuture<Void> durable() {
+            return durable;
+        }
+    }
+
+    private static final class Segment {
+        private final Path file;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+        private final AtomicInteger pending = new AtomicInteger();
+        private int position;
+        private long lastSequence = -1;
+        private volatile boolean full;
+        private volatile boolean deleted;
+
+        private Segment(Path file, FileChannel channel, MappedByteBuffer buffer, int capacity) {
+            this.file = file;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.capacity = capacity;
+        }
+
+        private static Segment open(Path file, int capacity) throws IOException {
+            FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return new Segment(file, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity), capacity);
+        }
+
+        private List<Entry> scan() {
+            List<Entry> entries = new ArrayList<>();
+            CompletableFuture<Void> durable = CompletableFuture.completedFuture(null);
+            int offset = 0;
+            while (offset + HEADER_BYTES <= capacity) {
+                int length = buffer.getInt(offset);
+                if (length <= 0 || offset + HEADER_BYTES + length > capacity) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                buffer.get(offset + HEADER_BYTES, payload);
+                CRC32C crc = new CRC32C();
+                crc.update(payload);
+                if ((int) crc.getValue() != buffer.getInt(offset + 4)) {
+                    log.warn("Write-ahead log segment {} has a torn entry at offset {}; ignoring the rest",
+                            file.getFileName(), offset);
+                    break;
+                }
+                long sequence = buffer.getLong(offset + 8);
+                lastSequence = sequence;
+                if (buffer.get(offset + 16) != STATE_ACKNOWLEDGED) {
+                    pending.incrementAndGet();
+                    entries.add(new Entry(this, offset, sequence, durable));
+                }
+                offset += HEADER_BYTES + length;
+            }
+            position = offset;
+            return entries;
+        }
+
+        private void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Failed to close write-ahead log segment {}", file.getFileName(), e);
+            }
+        }
+
+        private void delete() {
+            deleted = true;
+            close();
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Failed to delete write-ahead log segment {}", file.getFileName(), e);
+            }
+        }
+    }
+}
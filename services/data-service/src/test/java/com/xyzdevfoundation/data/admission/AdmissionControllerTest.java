@@ -0,0 +1,134 @@
+package com.xyzdevfoundation.data.admission;
+
+import com.xyzdevfoundation.data.exception.AdmissionRejectedException;
+import com.xyzdevfoundation.data.service.IngestWriteBehindBuffer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AdmissionControllerTest {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate = mockKafkaTemplate();
+    private final IngestWriteBehindBuffer ingestBuffer = mock(IngestWriteBehindBuffer.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Map<MetricName, Metric> producerMetrics = new HashMap<>();
+    private final AdmissionController admission = new AdmissionController(kafkaTemplate, ingestBuffer, meterRegistry,
+            100, 0.2, 500, 0.9, Duration.ofSeconds(3));
+
+    AdmissionControllerTest() {
+        when(kafkaTemplate.metrics()).thenAnswer(invocation -> producerMetrics);
+    }
+
+    @Test
+    void capsRecordsInFlight() {
+        admission.admit(60);
+        admission.admit(40);
+
+        assertThatThrownBy(() -> admission.admit(1)).isInstanceOf(AdmissionRejectedException.class)
+                .extracting(e -> ((AdmissionRejectedException) e).getRetryAfterSeconds()).isEqualTo(3L);
+        admission.release(40);
+        admission.admit(40);
+        assertThat(inFlight()).isEqualTo(100);
+        assertThat(meterRegistry.counter("data.admission.rejected", "reason", "in_flight").count()).isEqualTo(1);
+    }
+
+    @Test
+    void admitsAnOversizeRequestOnlyWhenNothingIsInFlight() {
+        admission.admit(1);
+        assertThatThrownBy(() -> admission.admit(500)).isInstanceOf(AdmissionRejectedException.class);
+
+        admission.release(1);
+        admission.admit(500);
+
+        assertThat(inFlight()).isEqualTo(500);
+        assertThatThrownBy(() -> admission.admit(1)).isInstanceOf(AdmissionRejectedException.class);
+    }
+
+    @Test
+    void rejectsWhileTheProducerBufferIsNearlyFull() {
+        producerMetric("buffer-total-bytes", 1000.0);
+        producerMetric("buffer-available-bytes", 150.0);
+
+        admission.sample();
+
+        assertRejectedAsOverloaded("Kafka producer buffer nearly full");
+        producerMetric("buffer-available-bytes", 250.0);
+        admission.sample();
+        assertThatCode(() -> admission.admit(1)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void rejectsWhileKafkaSendsAreSlow() {
+        producerMetric("request-latency-avg", 750.0);
+
+        admission.sample();
+
+        assertRejectedAsOverloaded("Kafka send latency 750ms");
+        producerMetric("request-latency-avg", 400.0);
+        admission.sample();
+        assertThatCode(() -> admission.admit(1)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void rejectsWhileTheIngestBufferIsNearlyFull() {
+        when(ingestBuffer.fillRatio()).thenReturn(0.95);
+
+        admission.sample();
+
+        assertRejectedAsOverloaded("ingest buffer nearly full");
+        when(ingestBuffer.fillRatio()).thenReturn(0.5);
+        admission.sample();
+        assertThatCode(() -> admission.admit(1)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void ignoresMetricsOfOtherGroupsAndNonNumericValues() {
+        producerMetrics.put(new MetricName("request-latency-avg", "consumer-metrics", "", Map.of()), metric(5_000.0));
+        producerMetrics.put(new MetricName("buffer-total-bytes", "producer-metrics", "", Map.of()), metric("unknown"));
+        producerMetric("buffer-available-bytes", 0.0);
+
+        admission.sample();
+
+        assertThatCode(() -> admission.admit(1)).doesNotThrowAnyException();
+        assertThat(meterRegistry.get("data.admission.overloaded").gauge().value()).isZero();
+    }
+
+    private void assertRejectedAsOverloaded(String reason) {
+        assertThatThrownBy(() -> admission.admit(1)).isInstanceOf(AdmissionRejectedException.class)
+                .hasMessageContaining(reason);
+        assertThat(meterRegistry.counter("data.admission.rejected", "reason", "overloaded").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("data.admission.overloaded").gauge().value()).isEqualTo(1);
+        assertThat(inFlight()).isZero();
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("data.admission.in.flight").gauge().value();
+    }
+
+    private void producerMetric(String name, double value) {
+        producerMetrics.put(new MetricName(name, "producer-metrics", "", Map.of()), metric(value));
+    }
+
+    private static Metric metric(Object value) {
+        Metric metric = mock(Metric.class);
+        when(metric.metricValue()).thenReturn(value);
+        return metric;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static KafkaTemplate<String, Object> mockKafkaTemplate() {
+        return mock(KafkaTemplate.class);
+    }
+}
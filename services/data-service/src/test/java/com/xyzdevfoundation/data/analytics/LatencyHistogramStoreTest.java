@@ -0,0 +1,59 @@
+package com.xyzdevfoundation.data.analytics;
+
+import com.xyzdevfoundation.data.repository.LatencyHistogramRepository;
+import com.xyzdevfoundation.data.util.InstanceIdentity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class LatencyHistogramStoreTest {
+
+    private final LatencyHistogramRepository repository = mock(LatencyHistogramRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LatencyHistogramStore store = new LatencyHistogramStore(repository, meterRegistry,
+            new InstanceIdentity("test", "localhost"), 4, Duration.ofDays(1), Duration.ofDays(8), Duration.ofDays(400));
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void foldsDataTypesPastTheCapIntoOther() {
+        for (int i = 0; i < 1000; i++) {
+            store.record("type-" + i, LatencyHistogramStore.INGEST, i);
+        }
+
+        assertThat(meterRegistry.find("data.ingest.latency").timers()).hasSize(5);
+        assertThat(meterRegistry.get("data.ingest.latency").tag("dataType", TrafficSketches.OTHER_DATA_TYPE)
+                .timer().count()).isEqualTo(996);
+
+        store.flush();
+        ArgumentCaptor<Map<HistogramKey, byte[]>> rows = ArgumentCaptor.forClass(Map.class);
+        verify(repository).upsert(eq("test"), rows.capture());
+        // One row per tracked dataType and granularity
+        assertThat(rows.getValue()).hasSize(5 * Granularity.values().length);
+        assertThat(rows.getValue().keySet()).extracting(HistogramKey::getDataType)
+                .containsOnly("type-0", "type-1", "type-2", "type-3", TrafficSketches.OTHER_DATA_TYPE);
+    }
+
+    @Test
+    void purgesEveryGranularityByItsOwnRetention() {
+        store.purgeExpired();
+
+        ArgumentCaptor<Instant> hourCutoff = ArgumentCaptor.forClass(Instant.class);
+        ArgumentCaptor<Instant> dayCutoff = ArgumentCaptor.forClass(Instant.class);
+        verify(repository).deleteBefore(eq(Granularity.MINUTE), any());
+        verify(repository).deleteBefore(eq(Granularity.HOUR), hourCutoff.capture());
+        verify(repository).deleteBefore(eq(Granularity.DAY), dayCutoff.capture());
+        assertThat(Duration.between(hourCutoff.getValue(), Instant.now()).toHours()).isCloseTo(8 * 24, within(1L));
+        assertThat(Duration.between(dayCutoff.getValue(), Instant.now()).toDays()).isEqualTo(400);
+    }
+}
@@ -0,0 +1,103 @@
+package com.xyzdevfoundation.data.analytics;
+
+import com.xyzdevfoundation.data.event.DataEvent;
+import com.xyzdevfoundation.data.repository.RollupRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RollupAggregatorTest {
+
+    private final RollupRepository repository = mock(RollupRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Map<RollupKey, RollupCounts> stored = new HashMap<>();
+    private final RollupAggregator aggregator;
+
+    RollupAggregatorTest() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any(TransactionDefinition.class))).thenReturn(new SimpleTransactionStatus());
+        aggregator = new RollupAggregator(repository, new TransactionTemplate(transactionManager), meterRegistry);
+    }
+
+    @Test
+    void clampsDataTypesToTheColumnLength() {
+        storeEverything();
+
+        aggregator.record(ingested("x".repeat(150) + "\0"));
+        aggregator.flush();
+
+        assertThat(stored.keySet()).extracting(RollupKey::getDataType).containsOnly("x".repeat(100));
+        assertThat(meterRegistry.counter("data.analytics.rollup.clamped").count()).isEqualTo(1);
+    }
+
+    @Test
+    void dropsOnlyTheBucketsTheDatabaseRefuses() {
+        doAnswer(invocation -> {
+            Map<RollupKey, RollupCounts> rows = invocation.getArgument(0);
+            if (rows.keySet().stream().anyMatch(key -> key.getDataType().equals("refused"))) {
+                throw new DataIntegrityViolationException("value too long for type character varying(100)");
+            }
+            stored.putAll(rows);
+            return null;
+        }).when(repository).addDeltas(anyMap());
+        for (int i = 0; i < 10; i++) {
+            aggregator.record(ingested("type-" + i));
+        }
+        aggregator.record(ingested("refused"));
+
+        aggregator.flush();
+        assertThat(stored).hasSize(10 * Granularity.values().length);
+        stored.clear();
+        aggregator.flush();
+
+        assertThat(meterRegistry.counter("data.analytics.rollup.dropped").count())
+                .isEqualTo(Granularity.values().length);
+        // Nothing was left behind to retry
+        assertThat(stored).isEmpty();
+    }
+
+    @Test
+    void keepsDeltasWhenTheDatabaseIsUnavailable() {
+        doThrow(new DataAccessResourceFailureException("connection refused")).when(repository).addDeltas(anyMap());
+        aggregator.record(ingested("sensor"));
+        aggregator.record(ingested("sensor"));
+        aggregator.flush();
+
+        storeEverything();
+        aggregator.flush();
+
+        assertThat(stored).hasSize(Granularity.values().length)
+                .allSatisfy((key, counts) -> assertThat(counts.getTotal()).isEqualTo(2));
+    }
+
+    private void storeEverything() {
+        doAnswer(invocation -> {
+            stored.putAll(invocation.getArgument(0));
+            return null;
+        }).when(repository).addDeltas(anyMap());
+    }
+
+    private static DataEvent ingested(String dataType) {
+        return DataEvent.builder()
+                .eventType(DataEvent.DATA_INGESTED)
+                .dataType(dataType)
+                .timestamp(System.currentTimeMillis())
+                .build();
+    }
+}
@@ -0,0 +1,67 @@
+package com.xyzdevfoundation.data.analytics;
+
+import com.xyzdevfoundation.data.repository.SketchRepository;
+import com.xyzdevfoundation.data.util.InstanceIdentity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class TrafficSketchesTest {
+
+    private final SketchRepository repository = mock(SketchRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Map<String, byte[]> stored = new HashMap<>();
+    private final TrafficSketches sketches = new TrafficSketches(repository, new InstanceIdentity("test", "localhost"),
+            meterRegistry, 12, 50, 16, Duration.ofDays(35));
+
+    @Test
+    void keepsSketchNamesWithinTheColumn() {
+        storeRowsUnder(150);
+
+        sketches.record("x".repeat(400), "sensor-1");
+        sketches.flush();
+
+        assertThat(stored).containsKey("hll:sources:" + "x".repeat(TrafficSketches.MAX_DATA_TYPE_LENGTH));
+        assertThat(meterRegistry.counter("data.analytics.sketches.dropped").count()).isZero();
+    }
+
+    @Test
+    void stopsStoringARefusedSketchAndKeepsTheRest() {
+        storeRowsUnder(20);
+        sketches.record("short", "sensor-1");
+        sketches.record("much-too-long-for-the-test", "sensor-2");
+
+        sketches.flush();
+        assertThat(stored).containsOnlyKeys("hll:sources", "hll:sources:short", "topk:sources", "topk:dataTypes");
+        assertThat(meterRegistry.counter("data.analytics.sketches.dropped").count()).isEqualTo(1);
+
+        stored.clear();
+        sketches.record("short", "sensor-3");
+        sketches.flush();
+        // The refused sketch is no longer sent, so the day flushes in one piece again
+        assertThat(stored).hasSize(4);
+        assertThat(meterRegistry.counter("data.analytics.sketches.dropped").count()).isEqualTo(1);
+    }
+
+    private void storeRowsUnder(int maxNameLength) {
+        doAnswer(invocation -> {
+            Map<String, byte[]> rows = invocation.getArgument(2);
+            if (rows.keySet().stream().anyMatch(name -> name.length() > maxNameLength)) {
+                throw new DataIntegrityViolationException("value too long for type character varying(" + maxNameLength + ")");
+            }
+            stored.putAll(rows);
+            return null;
+        }).when(repository).upsert(eq("test"), any(), anyMap());
+    }
+}
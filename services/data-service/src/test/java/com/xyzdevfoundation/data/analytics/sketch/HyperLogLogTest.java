@@ -0,0 +1,63 @@
+package com.xyzdevfoundation.data.analytics.sketch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+
+    private static final int PRECISION = 12;
+    // Three standard errors, 1.04 / sqrt(m)
+    private static final double TOLERANCE = 3 * 1.04 / Math.sqrt(1 << PRECISION);
+
+    @ParameterizedTest
+    @ValueSource(ints = {100, 5_000, 100_000, 1_000_000})
+    void estimatesWithinTheStandardError(int distinct) {
+        HyperLogLog sketch = new HyperLogLog(PRECISION);
+        for (int i = 0; i < distinct; i++) {
+            sketch.add("sensor-" + i);
+            // Repeats must not count
+            sketch.add("sensor-" + (i / 2));
+        }
+
+        assertThat((double) sketch.estimate()).isCloseTo(distinct, within(distinct * TOLERANCE));
+    }
+
+    @Test
+    void mergesIntoTheSketchOfTheUnion() {
+        HyperLogLog first = new HyperLogLog(PRECISION);
+        HyperLogLog second = new HyperLogLog(PRECISION);
+        HyperLogLog union = new HyperLogLog(PRECISION);
+        for (int i = 0; i < 60_000; i++) {
+            first.add("source-" + i);
+            union.add("source-" + i);
+        }
+        for (int i = 40_000; i < 100_000; i++) {
+            second.add("source-" + i);
+            union.add("source-" + i);
+        }
+
+        first.merge(second);
+
+        assertThat(first.toBytes()).isEqualTo(union.toBytes());
+        assertThat((double) first.estimate()).isCloseTo(100_000, within(100_000 * TOLERANCE));
+        assertThatThrownBy(() -> first.merge(new HyperLogLog(PRECISION + 1))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void survivesSerialization() {
+        HyperLogLog sketch = new HyperLogLog(PRECISION);
+        for (int i = 0; i < 10_000; i++) {
+            sketch.add("device-" + i);
+        }
+
+        HyperLogLog restored = HyperLogLog.fromBytes(sketch.toBytes());
+
+        assertThat(restored.estimate()).isEqualTo(sketch.estimate());
+        assertThat(restored.toBytes()).isEqualTo(sketch.toBytes());
+    }
+}
@@ -0,0 +1,86 @@
+package com.xyzdevfoundation.data.analytics.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpaceSavingTopKTest {
+
+    private static final int HEAVY_HITTERS = 10;
+
+    @Test
+    void findsTheHeavyHittersWithinTheirErrorBounds() {
+        Map<String, Long> truth = new HashMap<>();
+        SpaceSavingTopK sketch = new SpaceSavingTopK(50);
+        for (String key : stream(new Random(7), truth)) {
+            sketch.add(key);
+        }
+
+        assertHeavyHittersFound(sketch.top(HEAVY_HITTERS), truth);
+    }
+
+    @Test
+    void mergedSketchesKeepTheGuarantee() {
+        Random random = new Random(11);
+        Map<String, Long> truth = new HashMap<>();
+        SpaceSavingTopK first = new SpaceSavingTopK(50);
+        SpaceSavingTopK second = new SpaceSavingTopK(50);
+        for (String key : stream(random, truth)) {
+            (random.nextBoolean() ? first : second).add(key);
+        }
+
+        first.merge(SpaceSavingTopK.fromBytes(second.toBytes()));
+
+        assertHeavyHittersFound(first.top(HEAVY_HITTERS), truth);
+    }
+
+    @Test
+    void countsExactlyWhileUnderCapacity() {
+        SpaceSavingTopK sketch = new SpaceSavingTopK(4);
+        for (String key : List.of("a", "b", "a", "c", "a", "b")) {
+            sketch.add(key);
+        }
+
+        assertThat(sketch.top(2)).containsExactly(
+                new SpaceSavingTopK.HeavyHitter("a", 3, 0),
+                new SpaceSavingTopK.HeavyHitter("b", 2, 0));
+    }
+
+    /**
+     * Ten keys making up half the traffic, spread over a long tail of
+     * 20,000 keys that each appear a handful of times, in random order.
+     */
+    private static List<String> stream(Random random, Map<String, Long> truth) {
+        List<String> keys = new ArrayList<>();
+        for (int hitter = 0; hitter < HEAVY_HITTERS; hitter++) {
+            for (int i = 0; i < 2_000 + hitter * 500; i++) {
+                keys.add("hot-" + hitter);
+            }
+        }
+        int heavy = keys.size();
+        while (keys.size() < 2 * heavy) {
+            keys.add("tail-" + random.nextInt(20_000));
+        }
+        Collections.shuffle(keys, random);
+        keys.forEach(key -> truth.merge(key, 1L, Long::sum));
+        return keys;
+    }
+
+    private static void assertHeavyHittersFound(List<SpaceSavingTopK.HeavyHitter> top, Map<String, Long> truth) {
+        assertThat(top).extracting(SpaceSavingTopK.HeavyHitter::getKey)
+                .containsExactlyInAnyOrder(truth.keySet().stream().filter(key -> key.startsWith("hot-")).toArray(String[]::new));
+        for (SpaceSavingTopK.HeavyHitter hitter : top) {
+            long actual = truth.get(hitter.getKey());
+            // Space-Saving never undercounts and overcounts by at most the recorded error
+            assertThat(hitter.getCount()).isGreaterThanOrEqualTo(actual);
+            assertThat(hitter.getCount() - hitter.getError()).isLessThanOrEqualTo(actual);
+        }
+    }
+}
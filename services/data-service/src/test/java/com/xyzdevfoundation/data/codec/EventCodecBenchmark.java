@@ -0,0 +1,91 @@
+package com.xyzdevfoundation.data.codec;
+
+import com.xyzdevfoundation.data.event.StreamRecordEvent;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Kafka value encoding of a typical {@code /stream} record, binary against
+ * JSON, through the same serializer and deserializer the producer and
+ * consumers use. Each format prints its encoded size at the start of the
+ * trial. Run with {@code mvn -P benchmark test-compile -Dbenchmark=EventCodec}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class EventCodecBenchmark {
+
+    @Param({"binary", "json"})
+    public String format;
+
+    private EventSerializer serializer;
+    private EventDeserializer deserializer;
+    private StreamRecordEvent event;
+    private RecordHeaders headers;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        serializer = new EventSerializer();
+        serializer.configure(Map.of(EventSerializer.BINARY_TOPICS_CONFIG,
+                format.equals("binary") ? StreamRecordEvent.TOPIC : ""), false);
+        deserializer = new EventDeserializer();
+        deserializer.configure(Map.of(JsonDeserializer.TRUSTED_PACKAGES, "com.xyzdevfoundation.data.event"), false);
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("temperature", 21.5);
+        data.put("humidity", 48L);
+        data.put("sensor", "greenhouse-7");
+        data.put("online", true);
+        event = StreamRecordEvent.builder()
+                .streamId("stream_0190a3c4-7f2e-7a41-9c3d-2b8e51f0a6d7")
+                .dataType("sensor")
+                .source("bench")
+                .data(data)
+                .metadata(Map.of("firmware", "1.4.2"))
+                .timestamp(System.currentTimeMillis())
+                .build();
+        headers = new RecordHeaders();
+        encoded = serializer.serialize(StreamRecordEvent.TOPIC, headers, event);
+        int headerBytes = 0;
+        for (Header header : headers) {
+            headerBytes += header.key().length() + header.value().length;
+        }
+        System.out.printf("%n%s: %d value bytes + %d header bytes per record%n", format, encoded.length, headerBytes);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        serializer.close();
+        deserializer.close();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(StreamRecordEvent.TOPIC, new RecordHeaders(), event);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        // The JSON deserializer strips the type headers it reads, so each record gets its own copy
+        return deserializer.deserialize(StreamRecordEvent.TOPIC, new RecordHeaders(headers.toArray()), encoded);
+    }
+}
@@ -0,0 +1,128 @@
+package com.xyzdevfoundation.data.codec;
+
+import com.xyzdevfoundation.data.event.DataEvent;
+import com.xyzdevfoundation.data.event.StreamRecordEvent;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+class EventCodecTest {
+
+    private final EventSerializer serializer = new EventSerializer();
+    private final EventDeserializer deserializer = new EventDeserializer();
+
+    EventCodecTest() {
+        serializer.configure(Map.of(EventSerializer.BINARY_TOPICS_CONFIG, StreamRecordEvent.TOPIC), false);
+        deserializer.configure(Map.of(JsonDeserializer.TRUSTED_PACKAGES, "com.xyzdevfoundation.data.event"), false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        serializer.close();
+        deserializer.close();
+    }
+
+    @Test
+    void roundTripsDataEvents() {
+        DataEvent processed = DataEvent.builder()
+                .eventType(DataEvent.DATA_PROCESSED)
+                .dataId(UUID.randomUUID())
+                .dataType("sensor")
+                .source("greenhouse")
+                .processingTimeMs(42L)
+                .timestamp(1_700_000_000_000L)
+                .build();
+        DataEvent custom = DataEvent.builder().eventType("DATA_ARCHIVED").timestamp(-1L).build();
+
+        assertThat(EventCodec.decode(EventCodec.encode(processed))).isEqualTo(processed);
+        // Unknown event types are spelled out and unset fields stay null
+        assertThat(EventCodec.decode(EventCodec.encode(custom))).isEqualTo(custom);
+    }
+
+    @Test
+    void roundTripsStreamRecordsWithNestedPayloads() {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("temperature", 21.5);
+        data.put("readings", Long.MIN_VALUE);
+        data.put("online", true);
+        data.put("label", "gewächshaus ☀");
+        data.put("missing", null);
+        data.put("history", List.of(1, "two", List.of(3.0)));
+        data.put("location", Map.of("zone", "north", "rack", 7));
+        StreamRecordEvent event = StreamRecordEvent.builder()
+                .streamId("stream_" + UUID.randomUUID())
+                .dataType("sensor")
+                .data(data)
+                .metadata(Map.of())
+                .timestamp(System.currentTimeMillis())
+                .build();
+
+        StreamRecordEvent decoded = (StreamRecordEvent) EventCodec.decode(EventCodec.encode(event));
+
+        assertThat(decoded).isEqualTo(event);
+        assertThat(decoded.getData()).containsExactlyEntriesOf(data);
+    }
+
+    @Test
+    void readsNumbersBackAsJsonWould() {
+        StreamRecordEvent event = StreamRecordEvent.builder()
+                .data(Map.of("small", 3L, "large", 1L << 40, "ratio", 0.5f))
+                .build();
+
+        assertThat(((StreamRecordEvent) EventCodec.decode(EventCodec.encode(event))).getData())
+                .containsOnly(entry("small", 3), entry("large", 1L << 40), entry("ratio", 0.5));
+    }
+
+    @Test
+    void rejectsMalformedPayloads() {
+        byte[] encoded = EventCodec.encode(DataEvent.builder().eventType(DataEvent.DATA_INGESTED).build());
+        byte[] trailing = Arrays.copyOf(encoded, encoded.length + 1);
+        byte[] newerFormat = encoded.clone();
+        newerFormat[0] = EventCodec.FORMAT_VERSION + 1;
+
+        assertThatThrownBy(() -> EventCodec.decode(trailing)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> EventCodec.decode(newerFormat)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> EventCodec.encode(StreamRecordEvent.builder().data(Map.of("price", BigDecimal.ONE)).build()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void encodesConfiguredTopicsInBinary() {
+        RecordHeaders headers = new RecordHeaders();
+        StreamRecordEvent event = StreamRecordEvent.builder().streamId("s").data(Map.of("value", 1)).timestamp(5L).build();
+
+        byte[] bytes = serializer.serialize(StreamRecordEvent.TOPIC, headers, event);
+
+        assertThat(EventSerializer.isBinary(headers)).isTrue();
+        assertThat(deserializer.deserialize(StreamRecordEvent.TOPIC, headers, bytes)).isEqualTo(event);
+    }
+
+    @Test
+    void fallsBackToJsonForOtherTopicsAndUnencodablePayloads() {
+        DataEvent event = DataEvent.builder().eventType(DataEvent.DATA_INGESTED).dataType("sensor").timestamp(5L).build();
+        StreamRecordEvent priced = StreamRecordEvent.builder().streamId("s").data(Map.of("price", new BigDecimal("9.99"))).build();
+        RecordHeaders eventHeaders = new RecordHeaders();
+        RecordHeaders pricedHeaders = new RecordHeaders();
+
+        byte[] eventBytes = serializer.serialize(DataEvent.TOPIC, eventHeaders, event);
+        byte[] pricedBytes = serializer.serialize(StreamRecordEvent.TOPIC, pricedHeaders, priced);
+
+        assertThat(EventSerializer.isBinary(eventHeaders)).isFalse();
+        assertThat(EventSerializer.isBinary(pricedHeaders)).isFalse();
+        assertThat(deserializer.deserialize(DataEvent.TOPIC, eventHeaders, eventBytes)).isEqualTo(event);
+        assertThat(((StreamRecordEvent) deserializer.deserialize(StreamRecordEvent.TOPIC, pricedHeaders, pricedBytes)).getData())
+                .containsEntry("price", 9.99);
+    }
+}
@@ -0,0 +1,28 @@
+package com.xyzdevfoundation.data.controller;
+
+import com.xyzdevfoundation.data.exception.AdmissionRejectedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class AdmissionExceptionHandlerTest {
+
+    @Test
+    void answersTooManyRequestsWithRetryAfter() {
+        ResponseEntity<Map<String, Object>> response = new AdmissionExceptionHandler()
+                .handleAdmissionRejected(new AdmissionRejectedException("Too many records in flight, retry later", 3));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+        assertThat(response.getBody()).contains(
+                entry("status", 429),
+                entry("message", "Too many records in flight, retry later"),
+                entry("retryAfterSeconds", 3L));
+    }
+}
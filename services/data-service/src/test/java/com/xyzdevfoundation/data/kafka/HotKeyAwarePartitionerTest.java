@@ -0,0 +1,139 @@
+package com.xyzdevfoundation.data.kafka;
+
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.utils.Utils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotKeyAwarePartitionerTest {
+
+    private static final String TOPIC = "data-stream";
+    private static final long WINDOW_MS = 200;
+
+    private final HotKeyAwarePartitioner partitioner = new HotKeyAwarePartitioner();
+
+    @AfterEach
+    void tearDown() {
+        partitioner.close();
+    }
+
+    @Test
+    void keepsColdKeysOnTheirMurmur2Partition() throws InterruptedException {
+        configure(4, 100);
+        Cluster cluster = cluster(6);
+
+        for (int window = 0; window < 2; window++) {
+            // 50 keys of 2% each, under the 5% threshold
+            for (int i = 0; i < 50; i++) {
+                String key = "device-" + i;
+                assertThat(send(key, cluster)).isEqualTo(home(key, 6));
+            }
+            Thread.sleep(WINDOW_MS + 50);
+        }
+    }
+
+    @Test
+    void spreadsAKeyOnlyForTheWindowAfterItWasHot() throws InterruptedException {
+        configure(4, 100);
+        Cluster cluster = cluster(6);
+        int home = home("hot", 6);
+
+        // Half the traffic, yet not hot until the window closes
+        for (int i = 0; i < 50; i++) {
+            assertThat(send("hot", cluster)).isEqualTo(home);
+            send("device-" + i, cluster);
+        }
+        Thread.sleep(WINDOW_MS + 50);
+
+        assertThat(partitionsOf("hot", cluster, 40)).containsExactlyInAnyOrder(
+                home, (home + 1) % 6, (home + 2) % 6, (home + 3) % 6);
+        for (int i = 0; i < 1000; i++) {
+            send("device-" + i, cluster);
+        }
+        Thread.sleep(WINDOW_MS + 50);
+
+        // 40 of more than 1000 records in the last window is under the threshold
+        assertThat(partitionsOf("hot", cluster, 20)).containsExactly(home);
+    }
+
+    @Test
+    void spreadsOverNoMorePartitionsThanTheTopicHas() throws InterruptedException {
+        configure(4, 100);
+        Cluster cluster = cluster(2);
+
+        for (int i = 0; i < 20; i++) {
+            send("hot", cluster);
+            send("device-" + i, cluster);
+        }
+        Thread.sleep(WINDOW_MS + 50);
+
+        assertThat(partitionsOf("hot", cluster, 20)).containsExactlyInAnyOrder(0, 1);
+    }
+
+    @Test
+    void judgesHotnessOnTheGuaranteedLowerBound() throws InterruptedException {
+        // With two slots, each newcomer inherits the evicted count, so the
+        // last keys seen look like half the traffic while each was sent once,
+        // a share of 1/30 below the 5% threshold
+        configure(4, 2);
+        Cluster cluster = cluster(6);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            keys.add("device-" + i);
+            send(keys.get(i), cluster);
+        }
+        Thread.sleep(WINDOW_MS + 50);
+
+        for (String key : keys) {
+            assertThat(partitionsOf(key, cluster, 4)).containsExactly(home(key, 6));
+        }
+    }
+
+    private void configure(int spreadPartitions, int trackedKeys) {
+        partitioner.configure(Map.of(
+                HotKeyAwarePartitioner.SHARE_THRESHOLD_CONFIG, "0.05",
+                HotKeyAwarePartitioner.SPREAD_PARTITIONS_CONFIG, String.valueOf(spreadPartitions),
+                HotKeyAwarePartitioner.WINDOW_MS_CONFIG, String.valueOf(WINDOW_MS),
+                HotKeyAwarePartitioner.TRACKED_KEYS_CONFIG, String.valueOf(trackedKeys)));
+    }
+
+    private int send(String key, Cluster cluster) {
+        return partitioner.partition(TOPIC, key, bytes(key), null, null, cluster);
+    }
+
+    private Set<Integer> partitionsOf(String key, Cluster cluster, int sends) {
+        Set<Integer> partitions = new HashSet<>();
+        for (int i = 0; i < sends; i++) {
+            partitions.add(send(key, cluster));
+        }
+        return partitions;
+    }
+
+    private static int home(String key, int numPartitions) {
+        return Utils.toPositive(Utils.murmur2(bytes(key))) % numPartitions;
+    }
+
+    private static byte[] bytes(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Cluster cluster(int numPartitions) {
+        Node node = new Node(0, "localhost", 9092);
+        List<PartitionInfo> partitions = new ArrayList<>();
+        for (int i = 0; i < numPartitions; i++) {
+            partitions.add(new PartitionInfo(TOPIC, i, node, new Node[]{node}, new Node[]{node}));
+        }
+        return new Cluster("test", List.of(node), partitions, Set.of(), Set.of());
+    }
+}
@@ -0,0 +1,41 @@
+package com.xyzdevfoundation.data.outbox;
+
+import com.xyzdevfoundation.data.kafka.PartitionMetricsProducerListener;
+import com.xyzdevfoundation.data.repository.OutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reportsLagWhenRelayingFails() {
+        OutboxRepository outboxRepository = mock(OutboxRepository.class);
+        when(outboxRepository.findOldestAgeMillis()).thenReturn(Optional.of(42_000L));
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenThrow(new DataAccessResourceFailureException("broker down"));
+        ProducerFactory<Object, Object> producerFactory = mock(ProducerFactory.class);
+        when(producerFactory.copyWithConfigurationOverride(anyMap())).thenReturn(mock(ProducerFactory.class));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OutboxRelay relay = new OutboxRelay(outboxRepository, transactionTemplate, producerFactory,
+                new PartitionMetricsProducerListener(meterRegistry), meterRegistry,
+                100, Duration.ofSeconds(1), "lz4", 20, 262144);
+
+        relay.relay();
+
+        assertThat(meterRegistry.counter("data.outbox.relay.failures").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("data.outbox.lag").gauge().value()).isEqualTo(42_000);
+    }
+}
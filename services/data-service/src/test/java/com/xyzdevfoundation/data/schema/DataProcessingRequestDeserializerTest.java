@@ -0,0 +1,69 @@
+package com.xyzdevfoundation.data.schema;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.xyzdevfoundation.data.dto.DataProcessingRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class DataProcessingRequestDeserializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    DataProcessingRequestDeserializerTest() {
+        SchemaProperties properties = new SchemaProperties();
+        properties.getSchemas().put("sensor", TypedRecordTest.sensorFields());
+        objectMapper.registerModule(new SimpleModule().addDeserializer(DataProcessingRequest.class,
+                new DataProcessingRequestDeserializer(new SchemaRegistry(properties))));
+    }
+
+    @Test
+    void readsDeclaredFieldsIntoTheirSlots() throws Exception {
+        Map<String, Object> data = read("{\"dataType\":\"sensor\",\"data\":{\"deviceId\":\"g-7\",\"temperature\":21.5,"
+                + "\"readings\":42,\"online\":true,\"firmware\":\"1.4.2\"}}");
+
+        assertThat(data).isInstanceOf(TypedRecord.class).containsOnly(entry("deviceId", "g-7"),
+                entry("temperature", 21.5), entry("readings", 42L), entry("online", true), entry("firmware", "1.4.2"));
+    }
+
+    @Test
+    void keepsIntegersGivenForDoubleFields() throws Exception {
+        Map<String, Object> data = read("{\"dataType\":\"sensor\",\"data\":{\"temperature\":20}}");
+
+        assertThat(data.get("temperature")).isEqualTo(20);
+        assertThat(objectMapper.writeValueAsString(data)).isEqualTo("{\"temperature\":20}");
+    }
+
+    @Test
+    void lastDuplicateKeyWins() throws Exception {
+        Map<String, Object> typedLast = read("{\"dataType\":\"sensor\",\"data\":{\"readings\":\"many\",\"readings\":3}}");
+        Map<String, Object> extraLast = read("{\"dataType\":\"sensor\",\"data\":{\"readings\":3,\"readings\":\"many\"}}");
+
+        assertThat(typedLast).containsExactly(entry("readings", 3L));
+        assertThat(objectMapper.writeValueAsString(typedLast)).isEqualTo("{\"readings\":3}");
+        assertThat(extraLast).containsExactly(entry("readings", "many"));
+    }
+
+    @Test
+    void compactsPayloadsThatPrecedeTheirType() throws Exception {
+        Map<String, Object> data = read("{\"data\":{\"deviceId\":\"g-7\",\"temperature\":20},\"dataType\":\"sensor\"}");
+
+        assertThat(data).isInstanceOf(TypedRecord.class)
+                .containsOnly(entry("deviceId", "g-7"), entry("temperature", 20));
+    }
+
+    @Test
+    void leavesUnregisteredTypesAsMaps() throws Exception {
+        Map<String, Object> data = read("{\"dataType\":\"billing\",\"data\":{\"amount\":20}}");
+
+        assertThat(data).isNotInstanceOf(TypedRecord.class).containsExactly(entry("amount", 20));
+    }
+
+    private Map<String, Object> read(String json) throws Exception {
+        return objectMapper.readValue(json, DataProcessingRequest.class).getData();
+    }
+}
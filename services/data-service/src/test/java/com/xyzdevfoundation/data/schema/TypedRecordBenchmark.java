@@ -0,0 +1,83 @@
+package com.xyzdevfoundation.data.schema;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.xyzdevfoundation.data.dto.DataProcessingRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Cost of holding a payload as a {@link TypedRecord} instead of the map Jackson
+ * builds by default: the benchmark measures request deserialization, and at the
+ * end of the trial each layout prints the heap it retains per buffered record.
+ * Run with {@code mvn -P benchmark test-compile -Dbenchmark=TypedRecord}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class TypedRecordBenchmark {
+
+    private static final int RETAINED_RECORDS = 200_000;
+
+    @Param({"typed", "map"})
+    public String layout;
+
+    private ObjectMapper objectMapper;
+    private byte[] body;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        if (layout.equals("typed")) {
+            SchemaProperties properties = new SchemaProperties();
+            properties.getSchemas().put("sensor", TypedRecordTest.sensorFields());
+            objectMapper.registerModule(new SimpleModule().addDeserializer(DataProcessingRequest.class,
+                    new DataProcessingRequestDeserializer(new SchemaRegistry(properties))));
+        }
+        body = ("{\"dataType\":\"sensor\",\"source\":\"bench\",\"data\":{\"deviceId\":\"greenhouse-7\","
+                + "\"temperature\":21.5,\"readings\":42,\"online\":true,\"firmware\":\"1.4.2\"}}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown(Level.Trial)
+    public void reportFootprint() throws IOException {
+        Object[] retained = new Object[RETAINED_RECORDS];
+        long before = usedHeap();
+        for (int i = 0; i < retained.length; i++) {
+            retained[i] = objectMapper.readValue(body, DataProcessingRequest.class).getData();
+        }
+        long after = usedHeap();
+        System.out.printf("%n%s: ~%d bytes retained per record (%d records)%n",
+                layout, (after - before) / retained.length, retained.length);
+        Reference.reachabilityFence(retained);
+    }
+
+    @Benchmark
+    public DataProcessingRequest deserialize() throws IOException {
+        return objectMapper.readValue(body, DataProcessingRequest.class);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
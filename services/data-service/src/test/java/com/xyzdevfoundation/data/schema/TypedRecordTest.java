@@ -0,0 +1,92 @@
+package com.xyzdevfoundation.data.schema;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TypedRecordTest {
+
+    private final RecordSchema schema = RecordSchema.compile("sensor", sensorFields());
+
+    @Test
+    void readsBackLikeTheMapItReplaces() throws Exception {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("deviceId", "greenhouse-7");
+        payload.put("temperature", 21.5);
+        payload.put("readings", 42L);
+        payload.put("online", true);
+        payload.put("firmware", "1.4.2");
+
+        TypedRecord record = schema.newRecord();
+        record.putAll(payload);
+
+        assertThat(record).isEqualTo(payload).hasSize(5);
+        assertThat(record.hashCode()).isEqualTo(payload.hashCode());
+        ObjectMapper objectMapper = new ObjectMapper();
+        assertThat(objectMapper.readTree(objectMapper.writeValueAsString(record)))
+                .isEqualTo(objectMapper.readTree(objectMapper.writeValueAsString(payload)));
+    }
+
+    @Test
+    void keepsValuesOfTheWrongTypeAsExtras() {
+        TypedRecord record = schema.newRecord();
+        record.put("temperature", "warm");
+        record.put("readings", 1.5);
+
+        assertThat(record).containsEntry("temperature", "warm").containsEntry("readings", 1.5).hasSize(2);
+
+        // A later value of the declared type moves the field back into its slot
+        record.put("temperature", 19.0);
+        assertThat(record).containsEntry("temperature", 19.0).hasSize(2);
+    }
+
+    @Test
+    void removesAndReplacesFields() {
+        TypedRecord record = schema.newRecord();
+        record.put("deviceId", "a");
+        record.put("online", false);
+
+        assertThat(record.put("deviceId", "b")).isEqualTo("a");
+        assertThat(record.remove("online")).isEqualTo(false);
+        assertThat(record.containsKey("online")).isFalse();
+        assertThat(record).containsOnlyKeys("deviceId");
+    }
+
+    @Test
+    void addressesFieldsBeyondTheFirstPresenceWord() {
+        Map<String, FieldType> fields = new LinkedHashMap<>();
+        for (int i = 0; i < 70; i++) {
+            fields.put("f" + i, FieldType.LONG);
+        }
+        TypedRecord record = RecordSchema.compile("wide", fields).newRecord();
+
+        record.put("f69", 69L);
+        record.put("f5", 5);
+
+        assertThat(record).containsOnlyKeys("f5", "f69").containsEntry("f69", 69L).containsEntry("f5", 5L);
+    }
+
+    @Test
+    void compactsOnlyRegisteredTypes() {
+        SchemaProperties properties = new SchemaProperties();
+        properties.getSchemas().put("sensor", sensorFields());
+        SchemaRegistry registry = new SchemaRegistry(properties);
+        Map<String, Object> payload = Map.of("deviceId", "greenhouse-7", "temperature", 21.5);
+
+        assertThat(registry.compact("sensor", payload)).isInstanceOf(TypedRecord.class).isEqualTo(payload);
+        assertThat(registry.compact("billing", payload)).isSameAs(payload);
+    }
+
+    static Map<String, FieldType> sensorFields() {
+        Map<String, FieldType> fields = new LinkedHashMap<>();
+        fields.put("deviceId", FieldType.STRING);
+        fields.put("temperature", FieldType.DOUBLE);
+        fields.put("readings", FieldType.LONG);
+        fields.put("online", FieldType.BOOLEAN);
+        return fields;
+    }
+}
@@ -0,0 +1,92 @@
+package com.xyzdevfoundation.data.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xyzdevfoundation.data.model.ColdSegmentInfo;
+import com.xyzdevfoundation.data.model.RawDataRecord;
+import com.xyzdevfoundation.data.repository.ColdSegmentRepository;
+import com.xyzdevfoundation.data.repository.DataRecordRepository;
+import com.xyzdevfoundation.data.tiering.ColdSegmentWriter;
+import com.xyzdevfoundation.data.tiering.ColdStorage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DataExportServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2026, 2, 1, 0, 0);
+
+    @TempDir
+    Path directory;
+
+    private final DataRecordRepository dataRecordRepository = mock(DataRecordRepository.class);
+    private final ColdSegmentRepository coldSegmentRepository = mock(ColdSegmentRepository.class);
+
+    @Test
+    void exportsTieredRecordsBeforeTheOnesStillInTheTable() throws IOException {
+        ColdSegmentInfo segment;
+        try (ColdSegmentWriter writer = new ColdSegmentWriter(directory, 1024)) {
+            writer.add(record(1, "sensor", FROM.minusDays(1)));
+            writer.add(record(2, "sensor", FROM.plusDays(1)));
+            writer.add(record(3, "billing", FROM.plusDays(2)));
+            writer.add(record(4, "sensor", FROM.plusDays(3)));
+            segment = writer.finish();
+        }
+        segment.setId(1L);
+        when(coldSegmentRepository.findAfter(anyLong())).thenReturn(List.of(segment));
+        when(coldSegmentRepository.findOverlapping(FROM, TO)).thenReturn(List.of(segment));
+        doAnswer(invocation -> {
+            Consumer<RawDataRecord> action = invocation.getArgument(4);
+            action.accept(record(5, "sensor", FROM.plusDays(20)));
+            return null;
+        }).when(dataRecordRepository).streamRange(eq("sensor"), eq(FROM), eq(TO), anyInt(), any());
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any(TransactionDefinition.class))).thenReturn(new SimpleTransactionStatus());
+        DataExportService exportService = new DataExportService(dataRecordRepository, coldSegmentRepository,
+                new ColdStorage(coldSegmentRepository, dataRecordRepository, new SimpleMeterRegistry(), directory, Duration.ZERO),
+                new ObjectMapper(), transactionManager, new SimpleMeterRegistry(), 100, 500);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = exportService.export("sensor", FROM, TO, DataExportService.Format.CSV, out);
+
+        assertThat(exported).isEqualTo(3);
+        assertThat(out.toString(StandardCharsets.UTF_8).lines().skip(1).map(line -> line.substring(0, line.indexOf(','))))
+                .containsExactly(id(2).toString(), id(4).toString(), id(5).toString());
+    }
+
+    private static RawDataRecord record(int id, String dataType, LocalDateTime createdAt) {
+        return RawDataRecord.builder()
+                .id(id(id))
+                .dataType(dataType)
+                .status("PROCESSED")
+                .dataJson("{\"value\":" + id + "}")
+                .createdAt(createdAt)
+                .build();
+    }
+
+    private static UUID id(int id) {
+        return new UUID(0, id);
+    }
+}
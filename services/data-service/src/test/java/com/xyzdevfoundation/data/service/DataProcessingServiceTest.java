@@ -0,0 +1,210 @@
+package com.xyzdevfoundation.data.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xyzdevfoundation.data.admission.AdmissionController;
+import com.xyzdevfoundation.data.analytics.AnalyticsService;
+import com.xyzdevfoundation.data.analytics.LatencyHistogramStore;
+import com.xyzdevfoundation.data.analytics.TrafficSketches;
+import com.xyzdevfoundation.data.dto.DataProcessingRequest;
+import com.xyzdevfoundation.data.dto.StreamIngestResponse;
+import com.xyzdevfoundation.data.exception.AdmissionRejectedException;
+import com.xyzdevfoundation.data.kafka.RecordKeyResolver;
+import com.xyzdevfoundation.data.processing.ProcessingPipeline;
+import com.xyzdevfoundation.data.repository.DataRecordRepository;
+import com.xyzdevfoundation.data.sink.StoreWriteCoordinator;
+import com.xyzdevfoundation.data.stream.StreamDeliveryTracker;
+import com.xyzdevfoundation.data.stream.StreamTailHub;
+import com.xyzdevfoundation.data.tiering.ColdStorage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class DataProcessingServiceTest {
+
+    private static final String GOOD = "{\"dataType\":\"sensor\",\"source\":\"greenhouse-1\",\"data\":{\"value\":1}}";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdmissionController admission = new AdmissionController(mockKafkaTemplate(),
+            mock(IngestWriteBehindBuffer.class), meterRegistry, 100, 0.2, 500, 0.9, Duration.ofSeconds(1));
+    private final StreamDeliveryTracker deliveryTracker = mock(StreamDeliveryTracker.class);
+    private final List<Runnable> unsettled = new ArrayList<>();
+    private final AtomicInteger sends = new AtomicInteger();
+    private final DataProcessingService service = new DataProcessingService(mockKafkaTemplate(),
+            mock(IngestWriteBehindBuffer.class), mock(DataRecordRepository.class), mock(DataRecordCache.class),
+            mock(ColdStorage.class), mock(DataSearchService.class), mock(AnalyticsService.class),
+            mock(LatencyHistogramStore.class), mock(TrafficSketches.class), mock(ProcessingPipeline.class),
+            new RecordKeyResolver("source"), admission, deliveryTracker, mock(StreamTailHub.class),
+            mock(StoreWriteCoordinator.class), Validation.buildDefaultValidatorFactory().getValidator(),
+            new ObjectMapper(), 3);
+
+    /**
+     * Accepts records until the {@code failAt}-th send, which fails the way
+     * a full write-ahead log does: its record is settled, then the send throws.
+     */
+    private void sendsFailAt(int failAt) {
+        doAnswer(invocation -> {
+            Runnable onSettled = invocation.getArgument(3);
+            if (sends.incrementAndGet() == failAt) {
+                onSettled.run();
+                throw new AdmissionRejectedException("Stream write-ahead log is full, retry later", 1);
+            }
+            unsettled.add(onSettled);
+            return CompletableFuture.completedFuture(null);
+        }).when(deliveryTracker).send(anyString(), any(), any(), any());
+    }
+
+    @Test
+    void releasesEveryAdmittedRecordWhenAStreamFailsMidway() {
+        sendsFailAt(3);
+
+        assertThatThrownBy(() -> service.streamData(requests(5))).isInstanceOf(AdmissionRejectedException.class);
+
+        // The two sent records stay admitted until they settle
+        assertThat(inFlight()).isEqualTo(2);
+        unsettled.forEach(Runnable::run);
+        assertThat(inFlight()).isZero();
+        verify(deliveryTracker).seal(anyString());
+    }
+
+    @Test
+    void releasesEveryRecordOfADeliveredStream() {
+        sendsFailAt(-1);
+
+        service.streamData(requests(5));
+
+        assertThat(inFlight()).isEqualTo(5);
+        unsettled.forEach(Runnable::run);
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    void stopsReadingAtMalformedJson() throws IOException {
+        sendsFailAt(-1);
+        // The parser only finds the second record unterminated once it reads the third line
+
+        StreamIngestResponse response = streamNdjson(GOOD, "{\"dataType\":\"sensor\",", GOOD);
+
+        assertThat(response.getAccepted()).isEqualTo(1);
+        assertThat(response.getRejected()).isEqualTo(1);
+        assertThat(response.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getRecord()).isEqualTo(2);
+            assertThat(error.getLine()).isEqualTo(3);
+        });
+        assertThat(sends).hasValue(1);
+    }
+
+    @Test
+    void skipsOnlyARecordThatDoesNotMap() throws IOException {
+        sendsFailAt(-1);
+
+        StreamIngestResponse response = streamNdjson(GOOD, "{\"dataType\":\"sensor\",\"data\":\"21.5\"}", GOOD);
+
+        assertThat(response.getAccepted()).isEqualTo(2);
+        assertThat(response.getRejected()).isEqualTo(1);
+        assertThat(response.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getRecord()).isEqualTo(2);
+            assertThat(error.getLine()).isEqualTo(2);
+        });
+        assertThat(sends).hasValue(2);
+    }
+
+    @Test
+    void reportsEveryViolationOfAnInvalidRecord() throws IOException {
+        sendsFailAt(-1);
+
+        StreamIngestResponse response = streamNdjson(GOOD, "{\"source\":\"greenhouse-1\"}", GOOD);
+
+        assertThat(response.getAccepted()).isEqualTo(2);
+        assertThat(response.getRejected()).isEqualTo(1);
+        assertThat(response.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getRecord()).isEqualTo(2);
+            assertThat(error.getMessage()).contains("Data type is required", "Data content is required");
+        });
+    }
+
+    @Test
+    void keepsOnlyTheFirstErrorsOfALongUpload() throws IOException {
+        sendsFailAt(-1);
+        String invalid = "{\"dataType\":\"sensor\"}";
+
+        StreamIngestResponse response = streamNdjson(invalid, invalid, GOOD, invalid, invalid, invalid);
+
+        assertThat(response.getAccepted()).isEqualTo(1);
+        assertThat(response.getRejected()).isEqualTo(5);
+        assertThat(response.getErrors()).extracting(StreamIngestResponse.RecordError::getRecord).containsExactly(1L, 2L, 4L);
+        assertThat(response.isErrorsTruncated()).isTrue();
+    }
+
+    @Test
+    void reportsWhereAnUploadWasCutOffByAdmission() throws IOException {
+        sendsFailAt(-1);
+        admission.admit(98);
+
+        StreamIngestResponse response = streamNdjson(GOOD, GOOD, GOOD, GOOD);
+
+        assertThat(response.getAccepted()).isEqualTo(2);
+        assertThat(response.getRejected()).isEqualTo(1);
+        assertThat(response.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getRecord()).isEqualTo(3);
+            assertThat(error.getMessage()).endsWith("records from here on were not read");
+        });
+        assertThat(response.isErrorsTruncated()).isFalse();
+        assertThat(sends).hasValue(2);
+        verify(deliveryTracker).seal(response.getStreamId());
+    }
+
+    @Test
+    void rejectsAnUploadAdmissionTurnsAwayFromTheStart() {
+        sendsFailAt(-1);
+        admission.admit(100);
+
+        assertThatThrownBy(() -> streamNdjson(GOOD, GOOD)).isInstanceOf(AdmissionRejectedException.class);
+
+        assertThat(sends).hasValue(0);
+        verify(deliveryTracker).seal(anyString());
+    }
+
+    private StreamIngestResponse streamNdjson(String... lines) throws IOException {
+        return service.streamNdjson(new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("data.admission.in.flight").gauge().value();
+    }
+
+    private static List<DataProcessingRequest> requests(int count) {
+        List<DataProcessingRequest> requests = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            requests.add(DataProcessingRequest.builder()
+                    .dataType("sensor")
+                    .source("greenhouse-" + i)
+                    .data(Map.of("value", i))
+                    .build());
+        }
+        return requests;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static KafkaTemplate<String, Object> mockKafkaTemplate() {
+        return mock(KafkaTemplate.class);
+    }
+}
@@ -0,0 +1,199 @@
+package com.xyzdevfoundation.data.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xyzdevfoundation.data.model.DataRecord;
+import com.xyzdevfoundation.data.schema.SchemaProperties;
+import com.xyzdevfoundation.data.schema.SchemaRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DataRecordCacheTest {
+
+    private static final int READERS = 8;
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> values = mock(ValueOperations.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final ExecutorService readers = Executors.newFixedThreadPool(READERS);
+    private final DataRecord record = DataRecord.builder()
+            .id(UUID.randomUUID())
+            .dataType("sensor")
+            .status("PROCESSED")
+            .data(Map.of("value", 1))
+            .createdAt(LocalDateTime.now())
+            .build();
+    private DataRecordCache cache;
+
+    DataRecordCacheTest() {
+        when(redisTemplate.opsForValue()).thenReturn(values);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+        readers.shutdownNow();
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        cache = cache(1.0);
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<CompletableFuture<Optional<DataRecord>>> reads = readConcurrently(id -> {
+            loads.incrementAndGet();
+            awaitRelease(release);
+            return Optional.of(record);
+        });
+        awaitAllMissed();
+        release.countDown();
+
+        for (CompletableFuture<Optional<DataRecord>> read : reads) {
+            assertThat(read.get(5, TimeUnit.SECONDS)).contains(record);
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void joinersSeeTheLoadFailure() {
+        cache = cache(1.0);
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<CompletableFuture<Optional<DataRecord>>> reads = readConcurrently(id -> {
+            loads.incrementAndGet();
+            awaitRelease(release);
+            throw new IllegalStateException("store unavailable");
+        });
+        awaitAllMissed();
+        release.countDown();
+
+        for (CompletableFuture<Optional<DataRecord>> read : reads) {
+            assertThatThrownBy(read::join).isInstanceOf(CompletionException.class)
+                    .cause().isInstanceOf(IllegalStateException.class).hasMessage("store unavailable");
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void refreshesSlowToLoadEntriesBeforeTheyExpire() {
+        // Loading takes ~20 ms, scaled by beta to far beyond the local TTL
+        cache = cache(1_000.0);
+        Function<UUID, Optional<DataRecord>> loader = slowLoader();
+
+        cache.get(record.getId(), loader);
+        await().atMost(Duration.ofSeconds(5)).until(() -> {
+            assertThat(cache.get(record.getId(), loader)).contains(record);
+            return loads.get() > 1;
+        });
+
+        assertThat(meterRegistry.counter("data.cache.early.refreshes").count()).isPositive();
+    }
+
+    @Test
+    void leavesFreshEntriesAloneWithoutEarlyRefresh() {
+        cache = cache(0.0);
+        Function<UUID, Optional<DataRecord>> loader = slowLoader();
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(cache.get(record.getId(), loader)).contains(record);
+        }
+
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.counter("data.cache.early.refreshes").count()).isZero();
+    }
+
+    @Test
+    void fallsBackToTheStoreWhenRedisFails() {
+        cache = cache(0.0);
+        when(values.get(anyString())).thenThrow(new RedisConnectionFailureException("Connection refused"));
+        doThrow(new RedisConnectionFailureException("Connection refused"))
+                .when(values).set(anyString(), anyString(), any(Duration.class));
+        Function<UUID, Optional<DataRecord>> loader = id -> {
+            loads.incrementAndGet();
+            return Optional.of(record);
+        };
+
+        assertThat(cache.get(record.getId(), loader)).contains(record);
+        assertThat(cache.get(record.getId(), loader)).contains(record);
+
+        // The second read is served locally
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.counter("data.cache.requests", "tier", "redis", "result", "error").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("data.cache.requests", "tier", "local", "result", "hit").count()).isEqualTo(1);
+    }
+
+    private DataRecordCache cache(double earlyRefreshBeta) {
+        return new DataRecordCache(redisTemplate, new ObjectMapper().findAndRegisterModules(),
+                new SchemaRegistry(new SchemaProperties()), meterRegistry, 100, Duration.ofSeconds(1),
+                Duration.ofMinutes(10), earlyRefreshBeta);
+    }
+
+    private List<CompletableFuture<Optional<DataRecord>>> readConcurrently(Function<UUID, Optional<DataRecord>> loader) {
+        List<CompletableFuture<Optional<DataRecord>>> reads = new ArrayList<>();
+        for (int i = 0; i < READERS; i++) {
+            reads.add(CompletableFuture.supplyAsync(() -> cache.get(record.getId(), loader), readers));
+        }
+        return reads;
+    }
+
+    private void awaitAllMissed() {
+        await().atMost(Duration.ofSeconds(5)).until(() ->
+                meterRegistry.counter("data.cache.requests", "tier", "local", "result", "miss").count() == READERS);
+        // Past the miss, each reader either owns the load or joins it within moments
+        sleep(100);
+    }
+
+    private Function<UUID, Optional<DataRecord>> slowLoader() {
+        return id -> {
+            loads.incrementAndGet();
+            sleep(20);
+            return Optional.of(record);
+        };
+    }
+
+    private static void awaitRelease(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
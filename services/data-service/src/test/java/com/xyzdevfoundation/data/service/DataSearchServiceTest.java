@@ -0,0 +1,114 @@
+package com.xyzdevfoundation.data.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xyzdevfoundation.data.dto.SearchPageResponse;
+import com.xyzdevfoundation.data.exception.ExpiredCursorException;
+import com.xyzdevfoundation.data.model.DataDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.elasticsearch.ResourceNotFoundException;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchTemplate;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.Query;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DataSearchServiceTest {
+
+    private final ElasticsearchTemplate elasticsearchTemplate = mock(ElasticsearchTemplate.class);
+    private DataSearchService searchService;
+
+    @BeforeEach
+    void setUp() {
+        when(elasticsearchTemplate.openPointInTime(any(IndexCoordinates.class), any(Duration.class), anyBoolean()))
+                .thenReturn("pit-1");
+        searchService = new DataSearchService(elasticsearchTemplate, new ObjectMapper(), Duration.ofMinutes(2), 10);
+    }
+
+    @Test
+    void closesThePointInTimeWhenTheFirstPageHoldsEveryHit() {
+        returnHits(10);
+
+        SearchPageResponse page = searchService.search("sensor", null, null, 10);
+
+        assertThat(page.getSize()).isEqualTo(10);
+        assertThat(page.getNextCursor()).isNull();
+        verify(elasticsearchTemplate).closePointInTime("pit-1");
+    }
+
+    @Test
+    void keepsThePointInTimeOpenWhileAnotherPageFollows() {
+        returnHits(11);
+
+        SearchPageResponse page = searchService.search("sensor", null, null, 10);
+
+        assertThat(page.getSize()).isEqualTo(10);
+        assertThat(page.getNextCursor()).isNotNull();
+        verify(elasticsearchTemplate, never()).closePointInTime(anyString());
+
+        returnHits(3);
+        SearchPageResponse last = searchService.search("sensor", null, page.getNextCursor(), 10);
+        assertThat(last.getSize()).isEqualTo(3);
+        verify(elasticsearchTemplate).closePointInTime("pit-1");
+    }
+
+    @Test
+    void closesThePointInTimeWhenTheFirstQueryFails() {
+        when(elasticsearchTemplate.search(any(Query.class), eq(DataDocument.class)))
+                .thenThrow(new DataAccessResourceFailureException("connection reset"));
+
+        assertThatThrownBy(() -> searchService.search("sensor", null, null, 10))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+        verify(elasticsearchTemplate).closePointInTime("pit-1");
+    }
+
+    @Test
+    void answersAnExpiredCursorWithGone() {
+        returnHits(11);
+        String cursor = searchService.search("sensor", null, null, 10).getNextCursor();
+        when(elasticsearchTemplate.search(any(Query.class), eq(DataDocument.class)))
+                .thenThrow(new ResourceNotFoundException("No search context found for id [42]"));
+
+        assertThatThrownBy(() -> searchService.search("sensor", null, cursor, 10))
+                .isInstanceOf(ExpiredCursorException.class);
+        verify(elasticsearchTemplate, never()).closePointInTime(anyString());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void returnHits(int count) {
+        List<SearchHit<DataDocument>> hits = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            SearchHit<DataDocument> hit = mock(SearchHit.class);
+            when(hit.getContent()).thenReturn(DataDocument.builder()
+                    .id(UUID.randomUUID().toString())
+                    .dataType("sensor")
+                    .status("INGESTED")
+                    .createdAt(LocalDateTime.now())
+                    .build());
+            when(hit.getSortValues()).thenReturn(List.of(1.0, i));
+            hits.add(hit);
+        }
+        SearchHits<DataDocument> searchHits = mock(SearchHits.class);
+        when(searchHits.getSearchHits()).thenReturn(hits);
+        when(searchHits.getTotalHits()).thenReturn((long) count);
+        when(elasticsearchTemplate.search(any(Query.class), eq(DataDocument.class))).thenReturn(searchHits);
+    }
+}
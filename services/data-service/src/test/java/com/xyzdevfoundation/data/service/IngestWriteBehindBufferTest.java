@@ -0,0 +1,113 @@
+package com.xyzdevfoundation.data.service;
+
+import com.xyzdevfoundation.data.model.DataRecord;
+import com.xyzdevfoundation.data.repository.DataRecordRepository;
+import com.xyzdevfoundation.data.repository.OutboxRepository;
+import com.xyzdevfoundation.data.sink.StoreWriteCoordinator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IngestWriteBehindBufferTest {
+
+    private final DataRecordRepository repository = mock(DataRecordRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<DataRecord> stored = new ArrayList<>();
+    private final AtomicBoolean databaseDown = new AtomicBoolean();
+    private IngestWriteBehindBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(repository.insertBatch(anyList())).thenAnswer(invocation -> {
+            List<DataRecord> records = invocation.getArgument(0);
+            if (databaseDown.get()) {
+                throw new DataAccessResourceFailureException("connection refused");
+            }
+            if (records.stream().anyMatch(record -> record.getDataType().length() > 100)) {
+                throw new DataIntegrityViolationException("value too long for type character varying(100)");
+            }
+            stored.addAll(records);
+            return records.size();
+        });
+        buffer = new IngestWriteBehindBuffer(repository, mock(OutboxRepository.class),
+                new StoreWriteCoordinator(List.of(), meterRegistry, Duration.ofHours(1), 1000), transactionTemplate, meterRegistry,
+                100, 1000, 10);
+    }
+
+    @Test
+    void isolatesAndDropsRowsTheTableRefuses() {
+        List<DataRecord> good = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            DataRecord record = record(i == 7 || i == 13 ? "x".repeat(101) : "sensor");
+            buffer.submit(record);
+            if (record.getDataType().equals("sensor")) {
+                good.add(record);
+            }
+        }
+
+        buffer.flush();
+
+        assertThat(stored).containsExactlyInAnyOrderElementsOf(good);
+        assertThat(meterRegistry.counter("data.ingest.rejected").count()).isEqualTo(2);
+        assertThat(buffer.fillRatio()).isZero();
+
+        // The buffer keeps going instead of retrying the bad batch forever
+        DataRecord next = record("sensor");
+        buffer.submit(next);
+        buffer.flush();
+        assertThat(stored).contains(next);
+        assertThat(buffer.findPending(next.getId())).isEmpty();
+    }
+
+    @Test
+    void keepsBatchWhenDatabaseIsUnreachable() {
+        List<DataRecord> records = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            records.add(record("sensor"));
+            buffer.submit(records.get(i));
+        }
+
+        databaseDown.set(true);
+        buffer.flush();
+        assertThat(stored).isEmpty();
+        assertThat(buffer.findPending(records.get(0).getId())).isPresent();
+        assertThat(meterRegistry.counter("data.ingest.rejected").count()).isZero();
+
+        databaseDown.set(false);
+        buffer.flush();
+        assertThat(stored).containsExactlyElementsOf(records);
+    }
+
+    private static DataRecord record(String dataType) {
+        return DataRecord.builder()
+                .id(UUID.randomUUID())
+                .dataType(dataType)
+                .status("INGESTED")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
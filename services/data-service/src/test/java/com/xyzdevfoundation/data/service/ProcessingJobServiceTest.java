@@ -0,0 +1,93 @@
+package com.xyzdevfoundation.data.service;
+
+import com.xyzdevfoundation.data.dto.DataProcessingRequest;
+import com.xyzdevfoundation.data.processing.ProcessingPipeline;
+import com.xyzdevfoundation.data.repository.ProcessingJobRepository;
+import com.xyzdevfoundation.data.util.InstanceIdentity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProcessingJobServiceTest {
+
+    private final ProcessingJobRepository repository = mock(ProcessingJobRepository.class);
+    private final DataProcessingService dataProcessingService = mock(DataProcessingService.class);
+    private final ProcessingPipeline processingPipeline = mock(ProcessingPipeline.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ProcessingJobService jobService = new ProcessingJobService(repository, dataProcessingService,
+            processingPipeline, new InstanceIdentity("data-service-0", "localhost"), meterRegistry, 2, 10, Duration.ofMinutes(2));
+
+    @AfterEach
+    void tearDown() {
+        jobService.shutdown();
+    }
+
+    @Test
+    void failsTheJobsAPreviousRunLeftUnfinished() {
+        when(repository.failOwned(eq("data-service-0"), anyString())).thenReturn(3);
+
+        jobService.failJobsOfPreviousRun();
+
+        assertThat(meterRegistry.counter("data.processing.jobs", "outcome", "abandoned").count()).isEqualTo(3);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void renewsTheLeaseOfHeldJobsOnly() {
+        CompletableFuture<Map<String, Object>> running = new CompletableFuture<>();
+        when(processingPipeline.resolveProcessingType(any())).thenReturn("basic");
+        when(repository.insert(anyString(), anyString(), any(), eq("data-service-0"))).thenReturn(7L, 8L);
+        when(dataProcessingService.processData(any(), any())).thenAnswer(invocation -> {
+            DataProcessingRequest request = invocation.getArgument(0);
+            return request.getDataType().equals("slow") ? running : CompletableFuture.completedFuture(Map.of("ok", true));
+        });
+
+        jobService.submit(request("slow"));
+        jobService.submit(request("fast"));
+
+        // Job 8 finishes straight away and stops being renewed
+        ArgumentCaptor<Collection<Long>> renewed = ArgumentCaptor.forClass(Collection.class);
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            jobService.renewLeases();
+            verify(repository, atLeastOnce()).heartbeat(renewed.capture());
+            assertThat(renewed.getValue()).containsExactly(7L);
+        });
+        running.complete(Map.of());
+    }
+
+    @Test
+    void sweepsJobsWhoseLeaseRanOut() {
+        jobService.failAbandonedJobs();
+
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(repository).failAbandoned(cutoff.capture(), anyString());
+        verify(repository, never()).failOwned(anyString(), anyString());
+        assertThat(Duration.between(cutoff.getValue(), LocalDateTime.now()).toSeconds()).isCloseTo(120, within(2L));
+    }
+
+    private static DataProcessingRequest request(String dataType) {
+        DataProcessingRequest request = new DataProcessingRequest();
+        request.setDataType(dataType);
+        request.setData(Map.of("value", 1));
+        return request;
+    }
+}
@@ -0,0 +1,223 @@
+package com.xyzdevfoundation.data.sink;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xyzdevfoundation.data.model.DataRecord;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.util.EntityUtils;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.ResponseListener;
+import org.elasticsearch.client.RestClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchTemplate;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ElasticsearchBulkIndexerTest {
+
+    private static final String THROTTLED = "{\"index\":{\"status\":429,\"error\":{\"type\":\"es_rejected_execution_exception\","
+            + "\"reason\":\"write queue is full\"}}}";
+    private static final String CREATED = "{\"index\":{\"status\":201}}";
+
+    private final RestClient restClient = mock(RestClient.class);
+    private final ElasticsearchTemplate elasticsearchTemplate = mock(ElasticsearchTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BlockingQueue<BulkCall> calls = new LinkedBlockingQueue<>();
+    private ElasticsearchBulkIndexer indexer;
+
+    ElasticsearchBulkIndexerTest() {
+        IndexOperations indexOps = mock(IndexOperations.class);
+        when(indexOps.exists()).thenReturn(true);
+        when(elasticsearchTemplate.indexOps(any(Class.class))).thenReturn(indexOps);
+        MappingElasticsearchConverter converter = new MappingElasticsearchConverter(new SimpleElasticsearchMappingContext());
+        converter.afterPropertiesSet();
+        when(elasticsearchTemplate.getElasticsearchConverter()).thenReturn(converter);
+        doAnswer(invocation -> {
+            calls.add(new BulkCall(invocation.getArgument(0), invocation.getArgument(1)));
+            return null;
+        }).when(restClient).performRequestAsync(any(Request.class), any(ResponseListener.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        indexer.shutdown();
+    }
+
+    @Test
+    void resendsThrottledItemsAndHalvesTheTargetOncePerRoundTrip() throws Exception {
+        indexer = indexer(4, DataSize.ofMegabytes(5), Duration.ofMillis(300), 2, 8);
+        SinkBatch batch = batch(8);
+
+        indexer.submit(batch);
+        BulkCall first = calls.poll(5, TimeUnit.SECONDS);
+        BulkCall second = calls.poll(5, TimeUnit.SECONDS);
+        assertThat(first.ids()).hasSize(4);
+        assertThat(second.ids()).hasSize(4);
+        // Both bulks were sent at the old size, so only the first 429 shrinks it
+        first.respond(true, THROTTLED, CREATED, CREATED, CREATED);
+        second.respond(true, CREATED, THROTTLED, CREATED, CREATED);
+
+        assertThat(meterRegistry.get("data.sink.elasticsearch.batch.target").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.counter("data.sink.elasticsearch.throttled").count()).isEqualTo(2);
+        List<String> resent = new ArrayList<>();
+        while (resent.size() < 2) {
+            BulkCall retry = calls.poll(5, TimeUnit.SECONDS);
+            resent.addAll(retry.ids());
+            retry.respond(false);
+        }
+        assertThat(resent).containsExactlyInAnyOrder(first.ids().get(0), second.ids().get(1));
+        verify(batch, times(8)).settle(1);
+        verify(batch, never()).giveUp(any());
+        assertThat(meterRegistry.counter("data.sink.elasticsearch.indexed").count()).isEqualTo(8);
+    }
+
+    @Test
+    void givesUpOnItemsRejectedWithAClientError() throws Exception {
+        indexer = indexer(2, DataSize.ofMegabytes(5), Duration.ofSeconds(10), 2, 8);
+        SinkBatch batch = batch(2);
+
+        indexer.submit(batch);
+        calls.poll(5, TimeUnit.SECONDS).respond(true, CREATED,
+                "{\"index\":{\"status\":400,\"error\":{\"type\":\"document_parsing_exception\",\"reason\":\"bad value\"}}}");
+
+        DataRecord rejected = batch.records().get(1);
+        verify(batch).giveUp(rejected);
+        verify(batch, times(1)).settle(1);
+        assertThat(meterRegistry.counter("data.sink.elasticsearch.dropped", "reason", "rejected").count()).isEqualTo(1);
+        assertThat(calls.poll(300, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void givesUpAfterTheLastAttempt() throws Exception {
+        indexer = indexer(1, DataSize.ofMegabytes(5), Duration.ofMillis(50), 2, 3);
+        SinkBatch batch = batch(1);
+
+        indexer.submit(batch);
+        for (int attempt = 0; attempt < 3; attempt++) {
+            calls.poll(5, TimeUnit.SECONDS).listener.onFailure(new IOException("Connection refused"));
+        }
+
+        DataRecord exhausted = batch.records().get(0);
+        verify(batch).giveUp(exhausted);
+        assertThat(meterRegistry.counter("data.sink.elasticsearch.dropped", "reason", "exhausted").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("data.sink.elasticsearch.retries").count()).isEqualTo(2);
+        assertThat(calls.poll(300, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void sendsABulkOnceItReachesTheByteLimit() throws Exception {
+        // Far below one document, so every document fills a bulk on its own
+        indexer = indexer(100, DataSize.ofBytes(1), Duration.ofHours(1), 2, 8);
+
+        indexer.submit(batch(2));
+
+        assertThat(calls.poll(5, TimeUnit.SECONDS).ids()).hasSize(1);
+        assertThat(calls.poll(5, TimeUnit.SECONDS).ids()).hasSize(1);
+    }
+
+    @Test
+    void sendsAPartialBulkAtItsDeadline() throws Exception {
+        indexer = indexer(100, DataSize.ofMegabytes(5), Duration.ofMillis(300), 2, 8);
+
+        long start = System.nanoTime();
+        indexer.submit(batch(3));
+        BulkCall call = calls.poll(5, TimeUnit.SECONDS);
+
+        assertThat(call.ids()).hasSize(3);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(300));
+    }
+
+    @Test
+    void keepsAtMostMaxConcurrentRequestsInFlight() throws Exception {
+        indexer = indexer(1, DataSize.ofMegabytes(5), Duration.ofHours(1), 2, 8);
+
+        indexer.submit(batch(4));
+        BulkCall first = calls.poll(5, TimeUnit.SECONDS);
+        assertThat(calls.poll(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(calls.poll(300, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(meterRegistry.get("data.sink.elasticsearch.in.flight").gauge().value()).isEqualTo(2);
+
+        first.respond(false);
+
+        assertThat(calls.poll(5, TimeUnit.SECONDS)).isNotNull();
+        await().atMost(Duration.ofSeconds(5)).until(() ->
+                meterRegistry.get("data.sink.elasticsearch.in.flight").gauge().value() == 2);
+        assertThat(calls.poll(300, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    private ElasticsearchBulkIndexer indexer(int initialBatchSize, DataSize maxBulkSize, Duration flushInterval,
+                                             int maxConcurrentRequests, int maxAttempts) {
+        return new ElasticsearchBulkIndexer(restClient, elasticsearchTemplate, new ObjectMapper(), meterRegistry, true,
+                1000, initialBatchSize, 1, 100, maxBulkSize, flushInterval, Duration.ofHours(1), maxConcurrentRequests,
+                maxAttempts, Duration.ZERO, Duration.ZERO);
+    }
+
+    private static SinkBatch batch(int size) {
+        List<DataRecord> records = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            records.add(DataRecord.builder()
+                    .id(UUID.randomUUID())
+                    .dataType("sensor")
+                    .status("INGESTED")
+                    .data(Map.of("value", i))
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+        SinkBatch batch = mock(SinkBatch.class);
+        when(batch.records()).thenReturn(records);
+        return batch;
+    }
+
+    private record BulkCall(Request request, ResponseListener listener) {
+
+        /**
+         * Document IDs in the order of the bulk body.
+         */
+        List<String> ids() {
+            try {
+                List<String> ids = new ArrayList<>();
+                String[] lines = EntityUtils.toString(request.getEntity()).split("\n");
+                for (int i = 0; i < lines.length; i += 2) {
+                    ids.add(new ObjectMapper().readTree(lines[i]).path("index").path("_id").asText());
+                }
+                return ids;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void respond(boolean errors, String... items) {
+            Response response = mock(Response.class);
+            when(response.getEntity()).thenReturn(new StringEntity("{\"errors\":" + errors + ",\"items\":["
+                    + String.join(",", items) + "]}", ContentType.APPLICATION_JSON));
+            listener.onSuccess(response);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.xyzdevfoundation.data.sink;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+import com.xyzdevfoundation.data.model.DataRecord;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MongoAnalyticsSinkTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> written = new ArrayList<>();
+    private StoreWriteCoordinator coordinator;
+    private MongoAnalyticsSink sink;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        when(collection.getCodecRegistry()).thenReturn(MongoClientSettings.getDefaultCodecRegistry());
+        when(collection.insertMany(anyList(), any(InsertManyOptions.class))).thenAnswer(invocation -> {
+            // Like the driver, encode the whole batch before anything is sent
+            List<Document> documents = invocation.getArgument(0);
+            for (Document document : documents) {
+                new RawBsonDocument(document, MongoClientSettings.getDefaultCodecRegistry().get(Document.class));
+            }
+            documents.forEach(document -> written.add(document.getString("_id")));
+            return null;
+        });
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.getCollection(anyString())).thenReturn(collection);
+        sink = new MongoAnalyticsSink(mongoTemplate, meterRegistry, true, "analytics_data",
+                1000, 100, 5, Duration.ZERO, Duration.ZERO);
+        coordinator = new StoreWriteCoordinator(List.of(sink), meterRegistry, Duration.ofHours(1), 1000);
+    }
+
+    @Test
+    void dropsDocumentsThatCannotBeEncodedAndWritesTheRest() {
+        List<DataRecord> records = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            records.add(record(i == 4 ? BigInteger.TEN.pow(30) : i));
+        }
+        DataRecord unshapeable = record(1);
+        unshapeable.setCreatedAt(null);
+        records.add(unshapeable);
+        coordinator.committed(coordinator.begin(records));
+
+        sink.flush();
+        sink.flush();
+
+        assertThat(written).hasSize(9).doesNotContain(
+                records.get(4).getId().toString(), unshapeable.getId().toString());
+        assertThat(meterRegistry.counter("data.sink.mongo.dropped", "reason", "rejected").count()).isEqualTo(2);
+        assertThat(coordinator.highWaterMark("mongo")).isEqualTo(1);
+        assertThat(coordinator.recordState("mongo", records.get(4).getId()))
+                .isEqualTo(StoreWriteCoordinator.RecordState.FAILED);
+        assertThat(coordinator.recordState("mongo", records.get(5).getId()))
+                .isEqualTo(StoreWriteCoordinator.RecordState.CAUGHT_UP);
+    }
+
+    private static DataRecord record(Object value) {
+        return DataRecord.builder()
+                .id(UUID.randomUUID())
+                .dataType("sensor")
+                .status("INGESTED")
+                .data(Map.of("value", value))
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
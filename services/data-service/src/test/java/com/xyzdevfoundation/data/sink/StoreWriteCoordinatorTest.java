@@ -0,0 +1,83 @@
+package com.xyzdevfoundation.data.sink;
+
+import com.xyzdevfoundation.data.model.DataRecord;
+import com.xyzdevfoundation.data.sink.StoreWriteCoordinator.RecordState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StoreWriteCoordinatorTest {
+
+    private final List<SinkBatch> submitted = new ArrayList<>();
+    private final StoreWriteCoordinator coordinator = new StoreWriteCoordinator(List.of(new RecordSink() {
+        @Override
+        public String name() {
+            return "search";
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return true;
+        }
+
+        @Override
+        public void submit(SinkBatch batch) {
+            submitted.add(batch);
+        }
+    }), new SimpleMeterRegistry(), Duration.ofHours(1), 1000);
+
+    @Test
+    void reportsRecordsItNeverWroteAsUnknown() {
+        assertThat(coordinator.recordState("search", UUID.randomUUID())).isEqualTo(RecordState.UNKNOWN);
+    }
+
+    @Test
+    void tellsWrittenRecordsFromOnesTheStoreGaveUpOn() {
+        DataRecord written = record();
+        DataRecord dropped = record();
+        coordinator.committed(coordinator.begin(List.of(written, dropped)));
+
+        assertThat(coordinator.recordState(StoreWriteCoordinator.PRIMARY_STORE, written.getId()))
+                .isEqualTo(RecordState.CAUGHT_UP);
+        assertThat(coordinator.recordState("search", written.getId())).isEqualTo(RecordState.PENDING);
+
+        SinkBatch batch = submitted.get(0);
+        batch.giveUp(dropped);
+        batch.settle(1);
+
+        // The batch is retired from the open records now, so both answers come from what was remembered
+        assertThat(coordinator.recordState("search", written.getId())).isEqualTo(RecordState.CAUGHT_UP);
+        assertThat(coordinator.recordState("search", dropped.getId())).isEqualTo(RecordState.FAILED);
+        assertThat(coordinator.recordState(StoreWriteCoordinator.PRIMARY_STORE, dropped.getId()))
+                .isEqualTo(RecordState.CAUGHT_UP);
+    }
+
+    @Test
+    void clearsAFailureWhenTheRecordIsWrittenAgain() {
+        DataRecord record = record();
+        coordinator.committed(coordinator.begin(List.of(record)));
+        submitted.get(0).giveUp(record);
+        assertThat(coordinator.recordState("search", record.getId())).isEqualTo(RecordState.FAILED);
+
+        coordinator.committed(coordinator.begin(List.of(record)));
+        submitted.get(1).settle(1);
+
+        assertThat(coordinator.recordState("search", record.getId())).isEqualTo(RecordState.CAUGHT_UP);
+    }
+
+    private static DataRecord record() {
+        return DataRecord.builder()
+                .id(UUID.randomUUID())
+                .dataType("sensor")
+                .status("INGESTED")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
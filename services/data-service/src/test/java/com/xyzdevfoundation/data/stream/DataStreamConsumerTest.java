@@ -0,0 +1,101 @@
+package com.xyzdevfoundation.data.stream;
+
+import com.xyzdevfoundation.data.event.StreamRecordEvent;
+import com.xyzdevfoundation.data.model.DataRecord;
+import com.xyzdevfoundation.data.repository.DataRecordRepository;
+import com.xyzdevfoundation.data.sink.StoreWriteCoordinator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DataStreamConsumerTest {
+
+    private final DataRecordRepository repository = mock(DataRecordRepository.class);
+    private final ConsumerLagTracker lagTracker = mock(ConsumerLagTracker.class);
+    private final Acknowledgment acknowledgment = mock(Acknowledgment.class);
+    private final Consumer<?, ?> kafkaConsumer = mock(Consumer.class);
+    private final List<DataRecord> stored = new ArrayList<>();
+    private final AtomicBoolean databaseDown = new AtomicBoolean();
+    private DataStreamConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        when(repository.insertBatch(anyList())).thenAnswer(invocation -> {
+            List<DataRecord> records = invocation.getArgument(0);
+            if (databaseDown.get()) {
+                throw new DataAccessResourceFailureException("connection refused");
+            }
+            if (records.stream().anyMatch(record -> "poison".equals(record.getDataType()))) {
+                throw new DataIntegrityViolationException("unsupported Unicode escape sequence");
+            }
+            stored.addAll(records);
+            return records.size();
+        });
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        consumer = new DataStreamConsumer(repository, lagTracker, mock(StreamTailHub.class),
+                new StoreWriteCoordinator(List.of(), meterRegistry, Duration.ofHours(1), 1000), meterRegistry, 30000);
+    }
+
+    @Test
+    void storesRecordsAheadOfARefusedOneAndPointsTheErrorHandlerAtIt() {
+        List<ConsumerRecord<String, StreamRecordEvent>> batch = batch(10, 6);
+
+        assertThatThrownBy(() -> consumer.onBatch(batch, acknowledgment, kafkaConsumer))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                        e -> assertThat(e.getIndex()).isEqualTo(6));
+
+        assertThat(stored).extracting(DataRecord::getDataType).hasSize(6).containsOnly("sensor");
+        verify(acknowledgment, never()).acknowledge();
+        verify(lagTracker).update(kafkaConsumer);
+    }
+
+    @Test
+    void redeliversTheWholeBatchWhileStorageIsDown() {
+        databaseDown.set(true);
+        consumer.onBatch(batch(5, -1), acknowledgment, kafkaConsumer);
+        consumer.onBatch(batch(5, -1), acknowledgment, kafkaConsumer);
+
+        verify(acknowledgment).nack(0, Duration.ofMillis(500));
+        verify(acknowledgment).nack(0, Duration.ofMillis(1000));
+        verify(lagTracker, times(2)).update(kafkaConsumer);
+
+        databaseDown.set(false);
+        consumer.onBatch(batch(5, -1), acknowledgment, kafkaConsumer);
+        verify(acknowledgment).acknowledge();
+        assertThat(stored).hasSize(5);
+    }
+
+    private static List<ConsumerRecord<String, StreamRecordEvent>> batch(int size, int poisonAt) {
+        List<ConsumerRecord<String, StreamRecordEvent>> batch = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            StreamRecordEvent event = new StreamRecordEvent();
+            event.setStreamId("stream-1");
+            event.setDataType(i == poisonAt ? "poison" : "sensor");
+            event.setData(Map.of("value", i));
+            event.setTimestamp(System.currentTimeMillis());
+            batch.add(new ConsumerRecord<>(StreamRecordEvent.TOPIC, 0, i, "key", event));
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,74 @@
+package com.xyzdevfoundation.data.stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class HierarchicalTimingWheelTest {
+
+    private static final long TICK_MS = 10;
+
+    // Level 0 spans 80 ms and level 1 640 ms, so these delays exercise three levels
+    private final HierarchicalTimingWheel wheel = new HierarchicalTimingWheel("test", TICK_MS, 8, Runnable::run);
+    private final Map<Long, Long> firedAfter = new ConcurrentHashMap<>();
+
+    @AfterEach
+    void tearDown() {
+        wheel.close();
+    }
+
+    @Test
+    void firesEveryTimerOnTimeAcrossLevels() {
+        long[] delays = {5, 35, 79, 120, 500, 900};
+        long start = System.currentTimeMillis();
+        for (long delay : delays) {
+            wheel.schedule(delay, () -> firedAfter.put(delay, System.currentTimeMillis() - start));
+        }
+        assertThat(wheel.size()).isEqualTo(delays.length);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> firedAfter.size() == delays.length);
+
+        assertThat(wheel.size()).isZero();
+        for (long delay : delays) {
+            // Never early; late by at most a tick plus scheduling jitter
+            assertThat(firedAfter.get(delay)).isBetween(delay, delay + TICK_MS + 100);
+        }
+    }
+
+    @Test
+    void firesTimersThatAreAlreadyDueWithinATick() {
+        long start = System.currentTimeMillis();
+        wheel.schedule(0, () -> firedAfter.put(0L, System.currentTimeMillis() - start));
+        wheel.schedule(-50, () -> firedAfter.put(-50L, System.currentTimeMillis() - start));
+
+        // Deadlines round up to the next tick, so these run on the next tick at the latest
+        await().atMost(Duration.ofSeconds(5)).until(() -> firedAfter.size() == 2);
+        assertThat(firedAfter.values()).allSatisfy(elapsed -> assertThat(elapsed).isLessThanOrEqualTo(TICK_MS + 100));
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void keepsTickingWhenATaskFailsToStart() {
+        HierarchicalTimingWheel rejecting = new HierarchicalTimingWheel("rejecting", TICK_MS, 8, task -> {
+            if (firedAfter.isEmpty()) {
+                firedAfter.put(-1L, 0L);
+                throw new IllegalStateException("executor saturated");
+            }
+            task.run();
+        });
+        try {
+            rejecting.schedule(20, () -> { });
+            rejecting.schedule(200, () -> firedAfter.put(200L, 0L));
+
+            await().atMost(Duration.ofSeconds(5)).until(() -> firedAfter.containsKey(200L));
+        } finally {
+            rejecting.close();
+        }
+    }
+}
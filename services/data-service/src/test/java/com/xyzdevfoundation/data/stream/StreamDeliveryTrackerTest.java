@@ -0,0 +1,185 @@
+package com.xyzdevfoundation.data.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xyzdevfoundation.data.dto.StreamDeliveryStatus;
+import com.xyzdevfoundation.data.event.StreamRecordEvent;
+import com.xyzdevfoundation.data.wal.StreamWriteAheadLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Runs the tracker and its write-ahead log against a stand-in broker.
+ */
+class StreamDeliveryTrackerTest {
+
+    @TempDir
+    Path walDirectory;
+
+    private final List<Runnable> shutdowns = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        shutdowns.forEach(Runnable::run);
+    }
+
+    @Test
+    void replaysWhatACrashedRunLeftInTheLogInOrder() throws IOException {
+        // First run: the broker takes 300 records and then stops answering
+        Broker unreachable = new Broker(false);
+        StreamDeliveryTracker first = tracker(writeAheadLog(), unreachable);
+        CompletableFuture<Void> durable = null;
+        for (int i = 0; i < 1000; i++) {
+            durable = first.send("s1", "k" + i % 7, event(i), () -> { });
+        }
+        durable.join();
+        for (int i = 0; i < 300; i++) {
+            unreachable.completeNext();
+        }
+        await().atMost(Duration.ofSeconds(10)).until(() -> {
+            while (unreachable.errorNext(new TimeoutException("broker down"))) {
+                // Fail every attempt until the records run out of attempts and are parked
+            }
+            return first.getStatus("s1").orElseThrow().getParked() == 700;
+        });
+
+        // The process dies here: no shutdown, the log files stay as they are
+        Broker reachable = new Broker(true);
+        StreamDeliveryTracker second = tracker(writeAheadLog(), reachable);
+        second.recover();
+        await().atMost(Duration.ofSeconds(10)).until(() -> {
+            second.replayParked();
+            return second.getStatus("s1").orElseThrow().getParked() == 0;
+        });
+
+        assertThat(reachable.history()).extracting(record -> ((StreamRecordEvent) record.value()).getTimestamp())
+                .containsExactlyElementsOf(Stream.iterate(300L, i -> i < 1000, i -> i + 1).toList());
+        StreamDeliveryStatus status = second.getStatus("s1").orElseThrow();
+        assertThat(status.getStatus()).isEqualTo(StreamDeliveryStatus.DELIVERED);
+        assertThat(status.getAcknowledged()).isEqualTo(700);
+        // Only the second run's active segment is left
+        try (Stream<Path> segments = Files.list(walDirectory)) {
+            assertThat(segments).hasSize(1);
+        }
+    }
+
+    @Test
+    void deadLettersFromARetryThreadRatherThanTheProducerThread() {
+        Broker broker = new Broker(false);
+        StreamDeliveryTracker tracker = tracker(writeAheadLog(), broker);
+        tracker.send("s1", "k", event(1), () -> { });
+        tracker.seal("s1");
+
+        broker.errorNext(new RecordTooLargeException("too large"));
+        await().atMost(Duration.ofSeconds(5)).until(() -> broker.sendThreads.containsKey(StreamDeliveryTracker.DEAD_LETTER_TOPIC));
+        broker.completeNext();
+
+        assertThat(broker.sendThreads.get(StreamDeliveryTracker.DEAD_LETTER_TOPIC)).startsWith("stream-retry-");
+        await().atMost(Duration.ofSeconds(5)).until(() ->
+                tracker.getStatus("s1").orElseThrow().getStatus().equals(StreamDeliveryStatus.DELIVERED_WITH_FAILURES));
+    }
+
+    @Test
+    void parksNewRecordsWithoutSendingWhileTheBrokerIsUnreachable() {
+        Broker broker = new Broker(false);
+        StreamDeliveryTracker tracker = tracker(writeAheadLog(), broker);
+        tracker.send("s1", "k", event(0), () -> { });
+        broker.errorNext(new TimeoutException("Topic data-stream not present in metadata after 5000 ms."));
+
+        // Neither these nor the retry of the first record wait on the broker
+        for (int i = 1; i <= 50; i++) {
+            tracker.send("s1", "k", event(i), () -> { });
+        }
+        tracker.seal("s1");
+        await().atMost(Duration.ofSeconds(5)).until(() -> tracker.getStatus("s1").orElseThrow().getParked() == 51);
+        assertThat(broker.history()).hasSize(1);
+
+        // The probe gets through and the rest follow in log order
+        await().atMost(Duration.ofSeconds(10)).until(() -> {
+            tracker.replayParked();
+            while (broker.completeNext()) {
+                // Acknowledge whatever the replay has sent so far
+            }
+            return tracker.getStatus("s1").orElseThrow().getStatus().equals(StreamDeliveryStatus.DELIVERED);
+        });
+        assertThat(broker.history().subList(1, broker.history().size())).extracting(record -> ((StreamRecordEvent) record.value()).getTimestamp())
+                .containsExactlyElementsOf(Stream.iterate(0L, i -> i <= 50, i -> i + 1).toList());
+
+        // Sends go straight to the broker again
+        tracker.send("s2", "k", event(51), () -> { });
+        assertThat(broker.history()).hasSize(53);
+    }
+
+    private StreamWriteAheadLog writeAheadLog() {
+        StreamWriteAheadLog writeAheadLog = new StreamWriteAheadLog(new ObjectMapper(), new SimpleMeterRegistry(),
+                walDirectory, DataSize.ofKilobytes(64), DataSize.ofMegabytes(64), Duration.ZERO, Duration.ofSeconds(1));
+        shutdowns.add(writeAheadLog::shutdown);
+        return writeAheadLog;
+    }
+
+    private StreamDeliveryTracker tracker(StreamWriteAheadLog writeAheadLog, Broker broker) {
+        ProducerFactory<String, Object> producerFactory = () -> broker;
+        StreamDeliveryTracker tracker = new StreamDeliveryTracker(new KafkaTemplate<>(producerFactory), writeAheadLog,
+                new SimpleMeterRegistry(), 2, 10, 2.0, 50, 1, 5, 16, Duration.ofHours(1), Duration.ofHours(24), 100);
+        shutdowns.add(0, tracker::shutdown);
+        return tracker;
+    }
+
+    private static StreamRecordEvent event(long i) {
+        return StreamRecordEvent.builder()
+                .streamId("s1")
+                .dataType("sensor")
+                .data(Map.of("value", i))
+                .timestamp(i)
+                .build();
+    }
+
+    /**
+     * Records which thread sent to each topic; completes sends only when told to
+     * unless {@code autoComplete} is set.
+     */
+    private static final class Broker extends MockProducer<String, Object> {
+        private final Map<String, String> sendThreads = new ConcurrentHashMap<>();
+
+        private Broker(boolean autoComplete) {
+            super(autoComplete, new StringSerializer(), (topic, value) -> new byte[0]);
+        }
+
+        @Override
+        public synchronized Future<RecordMetadata> send(ProducerRecord<String, Object> record, Callback callback) {
+            sendThreads.put(record.topic(), Thread.currentThread().getName());
+            return super.send(record, callback);
+        }
+
+        @Override
+        public void close(Duration timeout) {
+            // KafkaTemplate closes its producer after each send when it is not shared
+        }
+    }
+}
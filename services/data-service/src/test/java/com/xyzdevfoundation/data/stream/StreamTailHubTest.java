@@ -0,0 +1,195 @@
+package com.xyzdevfoundation.data.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xyzdevfoundation.data.dto.StreamTailRecord;
+import com.xyzdevfoundation.data.model.DataRecord;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StreamTailHubTest {
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> values = mock(ValueOperations.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StreamTailHub hub = new StreamTailHub(redisTemplate, new ObjectMapper().findAndRegisterModules(),
+            mock(StreamDeliveryTracker.class), meterRegistry, 16, 100, Duration.ofMinutes(30), Duration.ofSeconds(15),
+            Duration.ofMillis(200), 1, 1, Duration.ofMinutes(1));
+    private final CountDownLatch redisAnswers = new CountDownLatch(1);
+
+    StreamTailHubTest() {
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        // Every stream is tailed unless a test says otherwise
+        when(values.multiGet(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).stream()
+                .map(key -> "1").toList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        redisAnswers.countDown();
+        hub.shutdown();
+    }
+
+    @Test
+    void publishesStoredRecordsWithoutWaitingForRedis() {
+        doAnswer(invocation -> redisAnswers.await(10, TimeUnit.SECONDS) ? 1L : 0L)
+                .when(redisTemplate).convertAndSend(eq(StreamTailHub.CHANNEL), anyString());
+
+        long start = System.nanoTime();
+        hub.publishStored(List.of(record("stream-1")));
+        hub.publishStored(List.of(record("stream-2")));
+        // The publisher is stuck on the first batch and the queue holds the second
+        hub.publishStored(List.of(record("stream-3")));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        assertThat(meterRegistry.counter("data.stream.tail.publish.failures").count()).isEqualTo(1);
+        redisAnswers.countDown();
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                verify(redisTemplate, times(2)).convertAndSend(eq(StreamTailHub.CHANNEL), anyString()));
+    }
+
+    @Test
+    void publishesOnlyStreamsThatAreTailed() {
+        when(values.multiGet(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).stream()
+                .map(key -> key.equals(StreamTailHub.TAILED_KEY_PREFIX + "stream-1") ? "1" : null).toList());
+        List<String> published = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> published.add(invocation.getArgument(1)) ? 1L : 0L)
+                .when(redisTemplate).convertAndSend(eq(StreamTailHub.CHANNEL), anyString());
+
+        hub.publishStored(List.of(record("stream-1"), record("stream-2"), record("stream-1")));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> !published.isEmpty());
+        verify(values).multiGet(argThat(keys -> keys.size() == 2));
+        assertThat(published).singleElement().asString().contains("stream-1").doesNotContain("stream-2");
+    }
+
+    @Test
+    void marksSubscribedStreamsAsTailed() {
+        hub.subscribe("stream-1");
+
+        verify(values).set(StreamTailHub.TAILED_KEY_PREFIX + "stream-1", "1", Duration.ofMinutes(1));
+    }
+
+    @Test
+    void evictsATailWhoseWriteStalls() throws Exception {
+        SseEmitter stalled = hub.subscribe("stream-1");
+        BlockingHandler stalledClient = new BlockingHandler();
+        attach(stalled, stalledClient);
+        SseEmitter healthy = hub.subscribe("stream-1");
+        BlockingHandler healthyClient = new BlockingHandler();
+        healthyClient.release.countDown();
+        attach(healthy, healthyClient);
+
+        hub.onMessage(tailMessage("stream-1"), null);
+        assertThat(stalledClient.sending.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(300);
+        hub.evictStalledSubscribers();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> stalledClient.interrupted);
+        assertThat(meterRegistry.counter("data.stream.tail.evicted").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("data.stream.tail.subscribers").gauge().value()).isEqualTo(1);
+
+        // The only dispatcher thread is still stuck, yet the other tail of the stream keeps receiving
+        int sent = healthyClient.sent.get();
+        hub.onMessage(tailMessage("stream-1"), null);
+        await().atMost(Duration.ofSeconds(5)).until(() -> healthyClient.sent.get() > sent);
+
+        stalledClient.release.countDown();
+        await().atMost(Duration.ofSeconds(5)).until(() -> stalledClient.completedWithError != null);
+    }
+
+    private Message tailMessage(String streamId) throws Exception {
+        String body = new ObjectMapper().findAndRegisterModules()
+                .writeValueAsString(List.of(StreamTailRecord.fromRecord(streamId, record(streamId))));
+        return new DefaultMessage(StreamTailHub.CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Connects the emitter to a fake client, the way the MVC return value handler would.
+     */
+    private static void attach(SseEmitter emitter, BlockingHandler client) throws Exception {
+        Class<?> handlerType = Class.forName(ResponseBodyEmitter.class.getName() + "$Handler");
+        Object handler = Proxy.newProxyInstance(handlerType.getClassLoader(), new Class<?>[]{handlerType},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "send" -> client.send();
+                        case "completeWithError" -> client.completedWithError = (Throwable) args[0];
+                        default -> {
+                        }
+                    }
+                    return null;
+                });
+        Method initialize = ResponseBodyEmitter.class.getDeclaredMethod("initialize", handlerType);
+        initialize.setAccessible(true);
+        initialize.invoke(emitter, handler);
+    }
+
+    private static final class BlockingHandler {
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final AtomicInteger sent = new AtomicInteger();
+        private volatile boolean interrupted;
+        private volatile Throwable completedWithError;
+
+        // Like a servlet write to a client whose receive window is full, which an interrupt does not end
+        private void send() throws IOException {
+            sending.countDown();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (true) {
+                try {
+                    if (!release.await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                        throw new IOException("Client never read");
+                    }
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            sent.incrementAndGet();
+        }
+    }
+
+    private static DataRecord record(String streamId) {
+        return DataRecord.builder()
+                .id(UUID.randomUUID())
+                .dataType("sensor")
+                .status("INGESTED")
+                .data(Map.of("value", 1))
+                .metadata(Map.of(StreamTailHub.STREAM_ID_KEY, streamId))
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
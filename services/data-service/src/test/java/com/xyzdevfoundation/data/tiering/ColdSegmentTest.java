@@ -0,0 +1,127 @@
+package com.xyzdevfoundation.data.tiering;
+
+import com.xyzdevfoundation.data.model.ColdSegmentInfo;
+import com.xyzdevfoundation.data.model.RawDataRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ColdSegmentTest {
+
+    private static final int RECORDS = 1000;
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 1, 1, 12, 0, 0, 123_456_789);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void findsEveryRecordThroughTheSparseIndex() throws IOException {
+        ColdSegment segment = write();
+
+        for (int i = 0; i < RECORDS; i += 2) {
+            RawDataRecord record = segment.find(id(i)).orElseThrow();
+            assertThat(record).isEqualTo(record(i));
+        }
+    }
+
+    @Test
+    void findsNothingForIdsItDoesNotHold() throws IOException {
+        ColdSegment segment = write();
+
+        // Gaps between records, inside and at the edges of blocks
+        for (int i = 1; i < RECORDS; i += 2) {
+            assertThat(segment.find(id(i))).isEmpty();
+        }
+        assertThat(segment.find(new UUID(0, 0))).isEmpty();
+        assertThat(segment.find(new UUID(-1, -1))).isEmpty();
+        assertThat(segment.covers(id(0))).isTrue();
+        assertThat(segment.covers(id(RECORDS + 1))).isFalse();
+    }
+
+    @Test
+    void ordersIdsAsUnsignedLikePostgres() throws IOException {
+        ColdSegment segment = write();
+
+        // The upper half of the IDs have the sign bit set, yet sort after the lower half
+        assertThat(segment.info().getFirstId()).isEqualTo(id(0));
+        assertThat(segment.info().getLastId()).isEqualTo(id(RECORDS - 2));
+        assertThat(id(RECORDS - 2).getMostSignificantBits()).isNegative();
+        try (ColdSegmentWriter writer = new ColdSegmentWriter(directory, 512)) {
+            writer.add(record(RECORDS - 2));
+            assertThatThrownBy(() -> writer.add(record(0))).isInstanceOf(IllegalStateException.class);
+            writer.abort();
+        }
+    }
+
+    @Test
+    void readsAllRecordsInIdOrder() throws IOException {
+        List<RawDataRecord> expected = new ArrayList<>();
+        for (int i = 0; i < RECORDS; i += 2) {
+            expected.add(record(i));
+        }
+        List<RawDataRecord> records = new ArrayList<>();
+
+        write().forEach(records::add);
+
+        assertThat(records).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void detectsACorruptBlock() throws IOException {
+        ColdSegment written = write();
+        Path file = directory.resolve(written.info().getFileName());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            // First byte after the header, inside the first block
+            channel.write(ByteBuffer.wrap(new byte[]{0x7f, 0x7f, 0x7f, 0x7f}), 5);
+        }
+        ColdSegment segment = ColdSegment.open(file, written.info());
+
+        assertThatThrownBy(() -> segment.find(id(0))).isInstanceOf(IllegalStateException.class);
+        assertThat(segment.find(id(RECORDS - 2))).isPresent();
+    }
+
+    /**
+     * Every even record of {@link #RECORDS}, in blocks small enough that the
+     * segment has dozens of them.
+     */
+    private ColdSegment write() throws IOException {
+        ColdSegmentInfo info;
+        try (ColdSegmentWriter writer = new ColdSegmentWriter(directory, 512)) {
+            for (int i = 0; i < RECORDS; i += 2) {
+                writer.add(record(i));
+            }
+            info = writer.finish();
+        }
+        return ColdSegment.open(directory.resolve(info.getFileName()), info);
+    }
+
+    // Spreads IDs over the whole unsigned range of the high word
+    private static UUID id(int i) {
+        return new UUID((long) i << 54, i + 1);
+    }
+
+    private static RawDataRecord record(int i) {
+        return RawDataRecord.builder()
+                .id(id(i))
+                .dataType("sensor")
+                .source(i % 3 == 0 ? null : "greenhouse-" + i)
+                .status("PROCESSED")
+                .createdAt(CREATED_AT.plusSeconds(i))
+                .processedAt(i % 5 == 0 ? null : CREATED_AT.plusSeconds(i + 1))
+                .dataJson("{\"value\":" + i + "}")
+                .metadataJson(null)
+                .build();
+    }
+}
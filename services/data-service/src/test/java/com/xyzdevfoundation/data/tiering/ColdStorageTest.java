@@ -0,0 +1,96 @@
+package com.xyzdevfoundation.data.tiering;
+
+import com.xyzdevfoundation.data.model.ColdSegmentInfo;
+import com.xyzdevfoundation.data.model.DataRecord;
+import com.xyzdevfoundation.data.model.RawDataRecord;
+import com.xyzdevfoundation.data.repository.ColdSegmentRepository;
+import com.xyzdevfoundation.data.repository.DataRecordRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ColdStorageTest {
+
+    @TempDir
+    Path directory;
+
+    private final ColdSegmentRepository coldSegmentRepository = mock(ColdSegmentRepository.class);
+    private final DataRecordRepository dataRecordRepository = mock(DataRecordRepository.class);
+
+    @Test
+    void retriesASegmentThatCouldNotBeOpened() throws IOException {
+        UUID inFirst = UUID.fromString("00000000-0000-0000-0000-000000000001");
+        UUID inSecond = UUID.fromString("00000000-0000-0000-0000-000000000002");
+        ColdSegmentInfo first = segment(1L, inFirst);
+        ColdSegmentInfo second = segment(2L, inSecond);
+        Path firstFile = directory.resolve(first.getFileName());
+        Path parked = Files.move(firstFile, directory.resolve("parked"));
+        when(coldSegmentRepository.findAfter(0L)).thenReturn(List.of(first, second));
+        when(coldSegmentRepository.findAfter(2L)).thenReturn(List.of());
+        ColdStorage storage = storage(Duration.ZERO);
+
+        assertThat(storage.refresh()).extracting(ColdSegment::info).containsExactly(second);
+
+        // The file shows up later, e.g. once the shared directory is mounted again
+        Files.move(parked, firstFile);
+        assertThat(storage.refresh()).extracting(ColdSegment::info).containsExactly(first);
+        storage.refresh();
+
+        verify(coldSegmentRepository, times(2)).findAfter(0L);
+        verify(coldSegmentRepository).findAfter(2L);
+        assertThat(storage.find(inFirst)).isPresent();
+        assertThat(storage.find(inSecond)).isPresent();
+    }
+
+    @Test
+    void readsTheCatalogAtMostOncePerIntervalForMisses() {
+        when(coldSegmentRepository.findAfter(anyLong())).thenReturn(List.of());
+        ColdStorage storage = storage(Duration.ofHours(1));
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(storage.find(UUID.randomUUID())).isEmpty();
+        }
+
+        verify(coldSegmentRepository).findAfter(0L);
+    }
+
+    private ColdStorage storage(Duration refreshMinInterval) {
+        when(dataRecordRepository.toRecord(any())).thenAnswer(invocation -> {
+            RawDataRecord raw = invocation.getArgument(0);
+            return DataRecord.builder().id(raw.getId()).dataType(raw.getDataType()).build();
+        });
+        return new ColdStorage(coldSegmentRepository, dataRecordRepository, new SimpleMeterRegistry(),
+                directory, refreshMinInterval);
+    }
+
+    private ColdSegmentInfo segment(long catalogId, UUID recordId) throws IOException {
+        try (ColdSegmentWriter writer = new ColdSegmentWriter(directory, 1024)) {
+            writer.add(RawDataRecord.builder()
+                    .id(recordId)
+                    .dataType("sensor")
+                    .status("PROCESSED")
+                    .dataJson("{}")
+                    .createdAt(LocalDateTime.now())
+                    .build());
+            ColdSegmentInfo info = writer.finish();
+            info.setId(catalogId);
+            return info;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.xyzdevfoundation.data.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+/**
+ * Record ID generation: raw generator throughput under contention and,
+ * against a real Postgres, batched inserts into a UUID primary-key index
+ * that already holds a million rows. The insert benchmark needs
+ * {@code BENCHMARK_JDBC_URL} (e.g.
+ * {@code jdbc:postgresql://localhost:5432/microservices?user=postgres&password=postgres})
+ * and fails its setup without it. Run with
+ * {@code mvn -P benchmark test-compile -Dbenchmark=TimeOrderedIdGenerator}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class TimeOrderedIdGeneratorBenchmark {
+
+    private static final int ROWS_PER_BATCH = 100;
+    private static final int PRELOADED_ROWS = 1_000_000;
+
+    @Param({"random", "time-ordered"})
+    public String generator;
+
+    @Benchmark
+    @Threads(8)
+    public UUID generate() {
+        return nextId();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS_PER_BATCH)
+    public void insert(Database database) throws SQLException {
+        PreparedStatement insert = database.insert;
+        for (int i = 0; i < ROWS_PER_BATCH; i++) {
+            insert.setObject(1, nextId());
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        database.connection.commit();
+    }
+
+    private UUID nextId() {
+        return generator.equals("random") ? UUID.randomUUID() : TimeOrderedIdGenerator.nextId();
+    }
+
+    @State(Scope.Benchmark)
+    public static class Database {
+
+        private Connection connection;
+        private PreparedStatement insert;
+
+        @Setup(Level.Trial)
+        public void setUp(TimeOrderedIdGeneratorBenchmark benchmark) throws SQLException {
+            String url = System.getenv("BENCHMARK_JDBC_URL");
+            if (url == null) {
+                throw new IllegalStateException("Set BENCHMARK_JDBC_URL to run the insert benchmark");
+            }
+            connection = DriverManager.getConnection(url);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP TABLE IF EXISTS id_benchmark");
+                statement.execute("CREATE UNLOGGED TABLE id_benchmark (id UUID PRIMARY KEY)");
+            }
+            connection.setAutoCommit(false);
+            insert = connection.prepareStatement("INSERT INTO id_benchmark (id) VALUES (?)");
+            for (int i = 0; i < PRELOADED_ROWS / ROWS_PER_BATCH; i++) {
+                benchmark.insert(this);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws SQLException {
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP TABLE id_benchmark");
+            }
+            connection.close();
+        }
+    }
+}
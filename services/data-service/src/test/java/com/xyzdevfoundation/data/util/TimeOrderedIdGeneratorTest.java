@@ -0,0 +1,84 @@
+package com.xyzdevfoundation.data.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeOrderedIdGeneratorTest {
+
+    @Test
+    void idsFromOneThreadStrictlyIncrease() {
+        UUID previous = TimeOrderedIdGenerator.nextId();
+        // More than one millisecond's worth of sequence, so the generator has to borrow ahead
+        for (int i = 0; i < 20_000; i++) {
+            UUID next = TimeOrderedIdGenerator.nextId();
+            assertThat(compareAsStored(next, previous)).isPositive();
+            previous = next;
+        }
+    }
+
+    @Test
+    void carriesTheCreationTimeAndRfcLayout() throws Exception {
+        long before = System.currentTimeMillis();
+        // A fresh thread, whose sequence has not borrowed ahead of the clock
+        AtomicReference<UUID> generated = new AtomicReference<>();
+        Thread thread = new Thread(() -> generated.set(TimeOrderedIdGenerator.nextId()));
+        thread.start();
+        thread.join();
+        UUID id = generated.get();
+        long after = System.currentTimeMillis();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(id.getMostSignificantBits() >>> 16).isBetween(before, after);
+    }
+
+    @Test
+    void idsAreUniqueAcrossThreads() throws Exception {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                workers.add(executor.submit(() -> {
+                    for (int i = 0; i < 25_000; i++) {
+                        ids.add(TimeOrderedIdGenerator.nextId());
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(ids).hasSize(8 * 25_000);
+    }
+
+    @Test
+    void derivesTheSameIdFromTheSameInputs() {
+        UUID id = TimeOrderedIdGenerator.idFor(1_700_000_000_000L, "orders-3:1042");
+
+        assertThat(TimeOrderedIdGenerator.idFor(1_700_000_000_000L, "orders-3:1042")).isEqualTo(id);
+        assertThat(TimeOrderedIdGenerator.idFor(1_700_000_000_000L, "orders-3:1043")).isNotEqualTo(id);
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.getMostSignificantBits() >>> 16).isEqualTo(1_700_000_000_000L);
+    }
+
+    // Postgres orders uuid columns bytewise, i.e. as unsigned numbers
+    private static int compareAsStored(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
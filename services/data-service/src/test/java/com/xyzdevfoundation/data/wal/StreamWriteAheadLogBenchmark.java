@@ -0,0 +1,90 @@
+package com.xyzdevfoundation.data.wal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xyzdevfoundation.data.event.StreamRecordEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Stream ingest throughput through the write-ahead log: each operation is a
+ * small {@code /stream} request that logs ten records, waits until they are
+ * durable and acknowledges them as Kafka would. Run with
+ * {@code mvn -P benchmark test-compile -Dbenchmark=StreamWriteAheadLog}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@Threads(8)
+public class StreamWriteAheadLogBenchmark {
+
+    private static final int RECORDS_PER_REQUEST = 10;
+
+    @Param({"0", "200"})
+    public long groupCommitDelayMicros;
+
+    private Path directory;
+    private StreamWriteAheadLog writeAheadLog;
+    private StreamRecordEvent event;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("wal-benchmark");
+        writeAheadLog = new StreamWriteAheadLog(new ObjectMapper(), new SimpleMeterRegistry(), directory,
+                DataSize.ofMegabytes(64), DataSize.ofGigabytes(1),
+                Duration.ofNanos(groupCommitDelayMicros * 1000), Duration.ofSeconds(1));
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("temperature", 21.5);
+        data.put("humidity", 48L);
+        data.put("sensor", "greenhouse-7");
+        event = StreamRecordEvent.builder()
+                .streamId("benchmark")
+                .dataType("sensor")
+                .source("bench")
+                .data(data)
+                .timestamp(System.currentTimeMillis())
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        writeAheadLog.shutdown();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS_PER_REQUEST)
+    public void appendDurableAcknowledge() {
+        WriteAheadLog.Entry[] entries = new WriteAheadLog.Entry[RECORDS_PER_REQUEST];
+        for (int i = 0; i < RECORDS_PER_REQUEST; i++) {
+            entries[i] = writeAheadLog.append("sensor", event);
+        }
+        entries[RECORDS_PER_REQUEST - 1].durable().join();
+        for (WriteAheadLog.Entry entry : entries) {
+            writeAheadLog.acknowledge(entry);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.xyzdevfoundation.data.wal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WriteAheadLogTest {
+
+    private static final int SEGMENT_BYTES = 1024;
+
+    @TempDir
+    Path directory;
+
+    private final List<WriteAheadLog> opened = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        opened.forEach(WriteAheadLog::close);
+    }
+
+    @Test
+    void recoversOnlyUnacknowledgedEntriesInAppendOrder() throws IOException {
+        WriteAheadLog wal = open(SEGMENT_BYTES * 16);
+        wal.recover();
+        List<WriteAheadLog.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            entries.add(wal.append(payload(i)));
+        }
+        entries.get(49).durable().join();
+        for (int i = 0; i < 50; i += 2) {
+            wal.acknowledge(entries.get(i));
+        }
+        wal.close();
+
+        List<WriteAheadLog.Entry> recovered = open(SEGMENT_BYTES * 16).recover();
+
+        assertThat(recovered).extracting(entry -> new String(entry.payload(), StandardCharsets.UTF_8))
+                .containsExactlyElementsOf(Stream.iterate(1, i -> i < 50, i -> i + 2)
+                        .map(i -> new String(payload(i), StandardCharsets.UTF_8)).toList());
+        assertThat(recovered).extracting(WriteAheadLog.Entry::sequence).isSorted();
+    }
+
+    @Test
+    void stopsAtATornTailAndKeepsSequencesMovingForward() throws IOException {
+        WriteAheadLog wal = open(SEGMENT_BYTES * 16);
+        wal.recover();
+        WriteAheadLog.Entry last = null;
+        for (int i = 0; i < 5; i++) {
+            last = wal.append(payload(i));
+        }
+        last.durable().join();
+        wal.close();
+
+        // Flip a payload byte of the fourth entry, as a crash halfway through writing it would leave it
+        int entryBytes = WriteAheadLog.HEADER_BYTES + payload(0).length;
+        corrupt(onlySegment(), 3 * entryBytes + WriteAheadLog.HEADER_BYTES);
+
+        WriteAheadLog reopened = open(SEGMENT_BYTES * 16);
+        List<WriteAheadLog.Entry> recovered = reopened.recover();
+
+        assertThat(recovered).hasSize(3);
+        assertThat(reopened.append(payload(9)).sequence()).isGreaterThan(recovered.get(2).sequence());
+    }
+
+    @Test
+    void ignoresAnEntryWhoseLengthRunsPastTheSegment() throws IOException {
+        WriteAheadLog wal = open(SEGMENT_BYTES * 16);
+        wal.recover();
+        wal.append(payload(0)).durable().join();
+        wal.close();
+
+        int entryBytes = WriteAheadLog.HEADER_BYTES + payload(0).length;
+        try (FileChannel channel = FileChannel.open(onlySegment(), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, SEGMENT_BYTES * 4), entryBytes);
+        }
+
+        assertThat(open(SEGMENT_BYTES * 16).recover()).hasSize(1);
+    }
+
+    @Test
+    void deletesAFullSegmentOnceEveryEntryIsAcknowledged() throws IOException {
+        WriteAheadLog wal = open(SEGMENT_BYTES * 16);
+        wal.recover();
+        List<WriteAheadLog.Entry> entries = new ArrayList<>();
+        while (wal.segmentCount() < 3) {
+            entries.add(wal.append(payload(entries.size())));
+        }
+        // Each segment keeps four bytes free for its end marker
+        int firstSegmentEntries = (SEGMENT_BYTES - 4) / (WriteAheadLog.HEADER_BYTES + payload(0).length);
+        assertThat(segmentFiles()).hasSize(3);
+
+        for (int i = 0; i < firstSegmentEntries - 1; i++) {
+            wal.acknowledge(entries.get(i));
+        }
+        assertThat(segmentFiles()).hasSize(3);
+
+        wal.acknowledge(entries.get(firstSegmentEntries - 1));
+        assertThat(segmentFiles()).hasSize(2);
+        assertThat(wal.segmentCount()).isEqualTo(2);
+        assertThat(wal.sizeBytes()).isEqualTo(2L * SEGMENT_BYTES);
+    }
+
+    @Test
+    void refusesAppendsPastTheSizeLimitUntilSpaceIsFreed() throws IOException {
+        WriteAheadLog wal = open(SEGMENT_BYTES * 2);
+        wal.recover();
+        List<WriteAheadLog.Entry> entries = new ArrayList<>();
+        assertThatThrownBy(() -> {
+            while (true) {
+                entries.add(wal.append(payload(entries.size())));
+            }
+        }).isInstanceOf(WalFullException.class);
+        assertThat(wal.sizeBytes()).isLessThanOrEqualTo(SEGMENT_BYTES * 2);
+
+        entries.forEach(wal::acknowledge);
+        assertThat(wal.append(payload(0)).sequence()).isEqualTo(entries.size());
+    }
+
+    private WriteAheadLog open(long maxBytes) {
+        WriteAheadLog wal = new WriteAheadLog(directory, SEGMENT_BYTES, maxBytes, 0, TimeUnit.MILLISECONDS);
+        opened.add(wal);
+        return wal;
+    }
+
+    private Path onlySegment() throws IOException {
+        List<Path> files = segmentFiles();
+        assertThat(files).hasSize(1);
+        return files.get(0);
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> listing = Files.list(directory)) {
+            return listing.sorted().toList();
+        }
+    }
+
+    private static void corrupt(Path file, int position) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer one = ByteBuffer.allocate(1);
+            channel.read(one, position);
+            one.put(0, (byte) (one.get(0) ^ 0xFF)).rewind();
+            channel.write(one, position);
+        }
+    }
+
+    private static byte[] payload(int i) {
+        return String.format("record-%04d", i).getBytes(StandardCharsets.UTF_8);
+    }
+}